@@ -0,0 +1,154 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G4Xeon3040;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G5Xeon3075;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+
+/**
+ * Measures the energy accounting pass of a power-aware datacenter, which integrates the power
+ * of every host over each interval, using the host types of the power examples. The pass is run
+ * host by host through {@link PowerHost#getEnergyLinearInterpolation(double, double, double)},
+ * as the datacenter does, and with the hosts grouped by power model, evaluated with
+ * {@link PowerModel#getPower(double[], double[])}.
+ * <p>
+ * Usage: <tt>EnergyAccountingBenchmark [hosts] [intervals]</tt>
+ */
+public class EnergyAccountingBenchmark {
+
+	/** Number of measured runs of each pass, after one warm-up run. */
+	private static final int RUNS = 5;
+
+	private static final double INTERVAL = 300;
+
+	private static final PowerModel[] MODELS = {
+		new PowerModelSpecPowerHpProLiantMl110G4Xeon3040(),
+		new PowerModelSpecPowerHpProLiantMl110G5Xeon3075()
+	};
+
+	public static void main(String[] args) {
+		int hostCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int intervals = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+		List<PowerHost> hosts = new ArrayList<>();
+		for (int i = 0; i < hostCount; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1860)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1860)));
+			hosts.add(new PowerHost(i, null, null, 0, peList, null, MODELS[i % MODELS.length]));
+		}
+		// the utilization of each host at the end of each interval
+		Random random = new Random(1);
+		double[][] utilizations = new double[intervals + 1][hostCount];
+		for (double[] interval : utilizations) {
+			for (int i = 0; i < hostCount; i++) {
+				interval[i] = random.nextInt(5) == 0 ? 0 : random.nextDouble();
+			}
+		}
+
+		Log.println("Energy accounting: " + hostCount + " hosts, " + intervals + " intervals");
+		double expected = 0;
+		for (boolean batch : new boolean[] { false, true }) {
+			double best = Double.MAX_VALUE;
+			double energy = 0;
+			for (int run = 0; run <= RUNS; run++) {
+				long start = System.nanoTime();
+				energy = batch ? runBatch(hosts, utilizations) : runPerHost(hosts, utilizations);
+				double elapsed = (System.nanoTime() - start) / 1e9;
+				if (run > 0) { // the first run is a warm-up
+					best = Math.min(best, elapsed);
+				}
+			}
+			if (!batch) {
+				expected = energy;
+			}
+			Log.formatLine("%-9s best %8.3f s, %7.2f Mhost-intervals/s, energy %.6e Ws%s",
+					batch ? "batch" : "per host", best, (double) hostCount * intervals / best / 1e6, energy,
+					energy == expected ? "" : " (MISMATCH)");
+		}
+	}
+
+	/**
+	 * Integrates the energy host by host, as the datacenter does.
+	 */
+	private static double runPerHost(List<PowerHost> hosts, double[][] utilizations) {
+		double energy = 0;
+		for (int t = 1; t < utilizations.length; t++) {
+			for (int i = 0; i < hosts.size(); i++) {
+				energy += hosts.get(i).getEnergyLinearInterpolation(utilizations[t - 1][i], utilizations[t][i], INTERVAL);
+			}
+		}
+		return energy;
+	}
+
+	/**
+	 * Integrates the energy with the hosts grouped by power model, giving the same value as
+	 * {@link #runPerHost(List, double[][])}.
+	 */
+	private static double runBatch(List<PowerHost> hosts, double[][] utilizations) {
+		int count = hosts.size();
+		int[] group = new int[count];
+		int[] groupSizes = new int[MODELS.length];
+		for (int i = 0; i < count; i++) {
+			PowerModel model = hosts.get(i).getPowerModel();
+			while (MODELS[group[i]] != model) {
+				group[i]++;
+			}
+			groupSizes[group[i]]++;
+		}
+		double[][] from = new double[MODELS.length][];
+		double[][] to = new double[MODELS.length][];
+		double[][] fromPower = new double[MODELS.length][];
+		double[][] toPower = new double[MODELS.length][];
+		int[][] members = new int[MODELS.length][];
+		for (int g = 0; g < MODELS.length; g++) {
+			from[g] = new double[groupSizes[g]];
+			to[g] = new double[groupSizes[g]];
+			fromPower[g] = new double[groupSizes[g]];
+			toPower[g] = new double[groupSizes[g]];
+			members[g] = new int[groupSizes[g]];
+		}
+		int[] filled = new int[MODELS.length];
+		for (int i = 0; i < count; i++) {
+			members[group[i]][filled[group[i]]++] = i;
+		}
+
+		double[] hostEnergy = new double[count];
+		double energy = 0;
+		for (int t = 1; t < utilizations.length; t++) {
+			for (int g = 0; g < MODELS.length; g++) {
+				for (int k = 0; k < members[g].length; k++) {
+					from[g][k] = utilizations[t - 1][members[g][k]];
+					to[g][k] = utilizations[t][members[g][k]];
+				}
+				MODELS[g].getPower(from[g], fromPower[g]);
+				MODELS[g].getPower(to[g], toPower[g]);
+				for (int k = 0; k < members[g].length; k++) {
+					hostEnergy[members[g][k]] = from[g][k] == 0 ? 0
+							: (fromPower[g][k] + (toPower[g][k] - fromPower[g][k]) / 2) * INTERVAL;
+				}
+			}
+			// summed in host order, as the datacenter does
+			for (int i = 0; i < count; i++) {
+				energy += hostEnergy[i];
+			}
+		}
+		return energy;
+	}
+}
@@ -0,0 +1,86 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+import java.lang.management.ManagementFactory;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.HeapEventQueue;
+
+/**
+ * Measures the throughput and the memory allocated per event of the simulation core, with and
+ * without event pooling (see {@link CloudSim#setEventPooling(boolean)}), using the "hold" model
+ * of {@link EventQueueBenchmark}. The allocated bytes are those of the simulation thread, as
+ * reported by the JVM.
+ * <p>
+ * Usage: <tt>EventPoolBenchmark [queueSize] [events]</tt>
+ */
+public class EventPoolBenchmark {
+
+	/** Number of measured runs of each configuration, after one warm-up run. */
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) {
+		int queueSize = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		int events = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+		Log.println("Hold model: " + queueSize + " pending events, " + events + " events processed");
+		benchmark(false, queueSize, events);
+		benchmark(true, queueSize, events);
+	}
+
+	private static void benchmark(boolean pooling, int queueSize, int events) {
+		double best = Double.MAX_VALUE;
+		long bytes = Long.MAX_VALUE;
+		for (int run = 0; run <= RUNS; run++) {
+			long allocated = allocatedBytes();
+			double elapsed = run(pooling, queueSize, events);
+			allocated = allocatedBytes() - allocated;
+			if (run > 0) { // the first run is a warm-up
+				best = Math.min(best, elapsed);
+				bytes = Math.min(bytes, allocated);
+			}
+		}
+		Log.formatLine("pooling %-5s best %8.3f s, %6.2f Mevents/s, %7.1f bytes/event",
+				pooling, best, events / best / 1e6, (double) bytes / events);
+	}
+
+	/**
+	 * Runs one simulation of the hold model.
+	 *
+	 * @return the wall-clock time, in seconds
+	 */
+	private static double run(boolean pooling, int queueSize, int events) {
+		boolean disabled = Log.isDisabled();
+		Log.disable();
+		CloudSim.init(0, null, false, new HeapEventQueue());
+		CloudSim.setEventPooling(pooling);
+		new HoldEntity("HoldEntity", queueSize, events);
+
+		long start = System.nanoTime();
+		CloudSim.startSimulation();
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		Log.setDisabled(disabled);
+		return elapsed;
+	}
+
+	/**
+	 * Gets the number of bytes allocated so far by the current thread, or -1 if the JVM
+	 * does not support it.
+	 */
+	private static long allocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+			return bean.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+}
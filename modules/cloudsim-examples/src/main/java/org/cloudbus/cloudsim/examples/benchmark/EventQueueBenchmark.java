@@ -0,0 +1,76 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+import java.util.function.Supplier;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CalendarEventQueue;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.EventQueue;
+import org.cloudbus.cloudsim.core.HeapEventQueue;
+import org.cloudbus.cloudsim.core.LadderEventQueue;
+
+/**
+ * Compares the future event list implementations of {@link CloudSim} using the classic
+ * "hold" model: the queue is filled with a given number of events and then every processed
+ * event schedules a new one after an exponentially distributed delay, so the queue size stays
+ * constant while the simulation runs.
+ * <p>
+ * Usage: <tt>EventQueueBenchmark [queueSize] [events]</tt>
+ */
+public class EventQueueBenchmark {
+
+	/** Number of measured runs of each implementation, after one warm-up run. */
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) {
+		int queueSize = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int events = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+		Log.println("Hold model: " + queueSize + " pending events, " + events + " events processed");
+		benchmark("HeapEventQueue", HeapEventQueue::new, queueSize, events);
+		benchmark("CalendarEventQueue", CalendarEventQueue::new, queueSize, events);
+		benchmark("LadderEventQueue", LadderEventQueue::new, queueSize, events);
+	}
+
+	private static void benchmark(String name, Supplier<EventQueue> queue, int queueSize, int events) {
+		double best = Double.MAX_VALUE;
+		double total = 0;
+		for (int run = 0; run <= RUNS; run++) {
+			double elapsed = run(queue.get(), queueSize, events);
+			if (run > 0) { // the first run is a warm-up
+				best = Math.min(best, elapsed);
+				total += elapsed;
+			}
+		}
+		Log.formatLine("%-20s best %8.3f s, mean %8.3f s, %6.2f Mevents/s",
+				name, best, total / RUNS, events / best / 1e6);
+	}
+
+	/**
+	 * Runs one simulation of the hold model.
+	 *
+	 * @return the wall-clock time, in seconds
+	 */
+	private static double run(EventQueue queue, int queueSize, int events) {
+		boolean disabled = Log.isDisabled();
+		Log.disable();
+		CloudSim.init(0, null, false, queue);
+		new HoldEntity("HoldEntity", queueSize, events);
+
+		long start = System.nanoTime();
+		CloudSim.startSimulation();
+		double elapsed = (System.nanoTime() - start) / 1e9;
+
+		Log.setDisabled(disabled);
+		return elapsed;
+	}
+}
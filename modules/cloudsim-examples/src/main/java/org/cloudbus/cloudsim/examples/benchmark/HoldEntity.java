@@ -0,0 +1,58 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+
+/**
+ * An entity that keeps a constant number of events pending, by scheduling
+ * a new event to itself for each event it receives (the "hold" model).
+ */
+class HoldEntity extends SimEntity {
+	protected enum HoldTags implements CloudSimTags {
+		HOLD
+	}
+
+	private final Random random = new Random(0);
+	private final int queueSize;
+	private int remaining;
+
+	public HoldEntity(String name, int queueSize, int events) {
+		super(name);
+		this.queueSize = queueSize;
+		this.remaining = events;
+	}
+
+	private double nextDelay() {
+		return -Math.log(1 - random.nextDouble()) * 100;
+	}
+
+	@Override
+	public void startEntity() {
+		for (int i = 0; i < queueSize; i++) {
+			schedule(getId(), nextDelay(), HoldTags.HOLD);
+		}
+	}
+
+	@Override
+	public void processEvent(SimEvent ev) {
+		if (--remaining > 0) {
+			schedule(getId(), nextDelay(), HoldTags.HOLD);
+		}
+	}
+
+	@Override
+	public void shutdownEntity() {
+	}
+}
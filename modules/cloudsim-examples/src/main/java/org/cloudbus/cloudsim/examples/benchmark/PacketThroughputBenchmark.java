@@ -0,0 +1,160 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.network.datacenter.NetworkCloudlet;
+import org.cloudbus.cloudsim.network.datacenter.NetworkDatacenter;
+import org.cloudbus.cloudsim.network.datacenter.NetworkHost;
+import org.cloudbus.cloudsim.network.datacenter.Switch;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+/**
+ * Measures the packet throughput of the packet-level network of a {@link NetworkDatacenter},
+ * where each packet is queued and forwarded by every {@link Switch} of its route. The datacenter
+ * is a fat tree of a root switch, aggregate switches and edge switches, with a guest per host.
+ * Each guest exchanges packets in rounds with a guest under another aggregate switch, so that
+ * every packet goes through the root switch.
+ * <p>
+ * Usage: <tt>PacketThroughputBenchmark [aggregate switches] [edge switches per aggregate switch]
+ * [hosts per edge switch] [rounds]</tt>
+ */
+public class PacketThroughputBenchmark {
+
+	/** Number of measured runs, after one warm-up run. */
+	private static final int RUNS = 5;
+
+	/** The data of each packet (bytes). */
+	private static final long PACKET_SIZE = 1000;
+
+	public static void main(String[] args) throws Exception {
+		int aggrCount = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int edgesPerAggr = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int hostsPerEdge = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+		int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+		Log.println("Packet throughput: " + aggrCount + " aggregate switches, " + edgesPerAggr
+				+ " edge switches each, " + hostsPerEdge + " hosts each, " + rounds + " rounds");
+		benchmark(aggrCount, edgesPerAggr, hostsPerEdge, rounds);
+	}
+
+	private static void benchmark(int aggrCount, int edgesPerAggr, int hostsPerEdge, int rounds) throws Exception {
+		long packets = (long) aggrCount * edgesPerAggr * hostsPerEdge * rounds;
+		double best = Double.MAX_VALUE;
+		double total = 0;
+		double transferred = 0;
+		for (int run = 0; run <= RUNS; run++) {
+			boolean disabled = Log.isDisabled();
+			Log.disable();
+			long start = System.nanoTime();
+			transferred = run(aggrCount, edgesPerAggr, hostsPerEdge, rounds);
+			double elapsed = (System.nanoTime() - start) / 1e9;
+			Log.setDisabled(disabled);
+			if (run > 0) { // the first run is a warm-up
+				best = Math.min(best, elapsed);
+				total += elapsed;
+			}
+		}
+		Log.formatLine("%-20s best %8.3f s, mean %8.3f s, %6.2f Mpackets/s%s",
+				"packet-level", best, total / RUNS, packets / best / 1e6,
+				transferred == packets * PACKET_SIZE ? "" : " (MISMATCH)");
+	}
+
+	/**
+	 * Runs the simulation of the exchanges.
+	 *
+	 * @return the data transferred through the network (bytes)
+	 */
+	private static double run(int aggrCount, int edgesPerAggr, int hostsPerEdge, int rounds) throws Exception {
+		CloudSim.init(1, null, false);
+		int hostCount = aggrCount * edgesPerAggr * hostsPerEdge;
+		List<NetworkHost> hosts = new ArrayList<>();
+		for (int i = 0; i < hostCount; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			hosts.add(new NetworkHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(100000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		NetworkDatacenter dc = new NetworkDatacenter("Datacenter",
+				new DatacenterCharacteristics("x86", "Linux", "Xen", hosts, 10.0, 3.0, 0.05, 0.001, 0.0),
+				new VmAllocationPolicySimple(hosts), new LinkedList<>(), 0);
+
+		Switch root = new Switch("Root", aggrCount, Switch.SwitchLevel.ROOT_LEVEL, 0.00285, 1_000_000_000L, 0, dc);
+		dc.registerSwitch(root);
+		int host = 0;
+		for (int a = 0; a < aggrCount; a++) {
+			Switch aggr = new Switch("Aggr" + a, edgesPerAggr, Switch.SwitchLevel.AGGR_LEVEL, 0.00245,
+					100_000_000L, 1_000_000_000L, dc);
+			dc.registerSwitch(aggr);
+			dc.attachSwitchToSwitch(aggr, root);
+			for (int e = 0; e < edgesPerAggr; e++) {
+				Switch edge = new Switch("Edge" + a + "_" + e, hostsPerEdge, Switch.SwitchLevel.EDGE_LEVEL, 0.00157,
+						10_000_000L, 100_000_000L, dc);
+				dc.registerSwitch(edge);
+				dc.attachSwitchToSwitch(edge, aggr);
+				for (int h = 0; h < hostsPerEdge; h++) {
+					dc.attachSwitchToHost(edge, hosts.get(host++));
+				}
+			}
+		}
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vms = new ArrayList<>();
+		List<NetworkCloudlet> cloudlets = new ArrayList<>();
+		for (int i = 0; i < hostCount; i++) {
+			// the guests take all the PEs of a host, so that there is one per host
+			vms.add(new Vm(i, broker.getId(), 1000, 2, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+			NetworkCloudlet cloudlet = new NetworkCloudlet(i, 0, 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(broker.getId());
+			cloudlet.setGuestId(i);
+			cloudlets.add(cloudlet);
+		}
+		for (int i = 0; i < hostCount; i++) {
+			// the partner is under another aggregate switch
+			NetworkCloudlet partner = cloudlets.get((i + hostCount / 2) % hostCount);
+			NetworkCloudlet cloudlet = cloudlets.get(i);
+			for (int r = 0; r < rounds; r++) {
+				cloudlet.addExecutionStage(100);
+				cloudlet.addSendStage(PACKET_SIZE, partner);
+				cloudlet.addRecvStage(partner);
+			}
+		}
+
+		broker.submitGuestList(vms);
+		broker.submitCloudletList(cloudlets);
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+			if (cloudlet.getStatus() != Cloudlet.CloudletStatus.SUCCESS) {
+				throw new IllegalStateException("Cloudlet " + cloudlet.getCloudletId() + " did not complete");
+			}
+		}
+		return dc.totalDataTransfer;
+	}
+}
@@ -0,0 +1,137 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009, The University of Melbourne, Australia
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+/**
+ * Measures the churn of resource allocations on the hosts during a consolidation, where VMs are
+ * repeatedly moved between hosts: each move checks that the destination host is suitable,
+ * releases the resources of the VM on its host and allocates them on the destination.
+ * <p>
+ * Usage: <tt>ProvisionerChurnBenchmark [hosts] [VMs per host] [moves]</tt>
+ */
+public class ProvisionerChurnBenchmark {
+
+	/** Number of measured runs, after one warm-up run. */
+	private static final int RUNS = 5;
+
+	private static final int PES = 4;
+
+	private static final double PE_MIPS = 2500;
+
+	public static void main(String[] args) {
+		int hostCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+		int vmsPerHost = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int moves = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+
+		Log.println("Provisioner churn: " + hostCount + " hosts, " + vmsPerHost + " VMs per host, "
+				+ moves + " moves");
+		Log.disable();
+		double best = Double.MAX_VALUE;
+		String state = null;
+		for (int run = 0; run <= RUNS; run++) {
+			List<Host> hosts = createHosts(hostCount);
+			List<Vm> vms = createVms(hosts, vmsPerHost);
+			long start = System.nanoTime();
+			int moved = churn(hosts, vms, moves);
+			double elapsed = (System.nanoTime() - start) / 1e9;
+			if (run > 0) { // the first run is a warm-up
+				best = Math.min(best, elapsed);
+			}
+			state = moved + " moved, " + summarize(hosts);
+		}
+		Log.enable();
+		Log.println(String.format("best %8.3f s, %7.2f Mmoves/s, %s", best, moves / best / 1e6, state));
+	}
+
+	private static List<Host> createHosts(int hostCount) {
+		List<Host> hosts = new ArrayList<>();
+		for (int i = 0; i < hostCount; i++) {
+			List<Pe> peList = new ArrayList<>();
+			for (int p = 0; p < PES; p++) {
+				peList.add(new Pe(p, new PeProvisionerSimple(PE_MIPS)));
+			}
+			hosts.add(new Host(i, new RamProvisionerSimple(16384), new BwProvisionerSimple(1_000_000),
+					1_000_000, peList, new VmSchedulerTimeShared(peList)));
+		}
+		return hosts;
+	}
+
+	/**
+	 * Creates VMs of the types of the power examples and places them round-robin.
+	 */
+	private static List<Vm> createVms(List<Host> hosts, int vmsPerHost) {
+		int[] mips = { 2500, 2000, 1000, 500 };
+		int[] ram = { 870, 1740, 1740, 613 };
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < hosts.size() * vmsPerHost; i++) {
+			int type = i % mips.length;
+			Vm vm = new Vm(i, 1, mips[type], 1, ram[type], 100, 2500, "Xen", null);
+			if (hosts.get(i % hosts.size()).guestCreate(vm)) {
+				vms.add(vm);
+			}
+		}
+		return vms;
+	}
+
+	/**
+	 * Moves random VMs to random hosts that are suitable for them.
+	 *
+	 * @return the number of VMs actually moved
+	 */
+	private static int churn(List<Host> hosts, List<Vm> vms, int moves) {
+		Random random = new Random(1);
+		int moved = 0;
+		for (int m = 0; m < moves; m++) {
+			Vm vm = vms.get(random.nextInt(vms.size()));
+			Host source = (Host) vm.getHost();
+			Host destination = hosts.get(random.nextInt(hosts.size()));
+			if (destination != source && destination.isSuitableForGuest(vm)) {
+				source.guestDestroy(vm);
+				if (!destination.guestCreate(vm)) {
+					throw new IllegalStateException("VM #" + vm.getId() + " not created on a suitable host");
+				}
+				moved++;
+			}
+		}
+		return moved;
+	}
+
+	/**
+	 * Sums up the resources left on the hosts, which must be the same for all the runs.
+	 */
+	private static String summarize(List<Host> hosts) {
+		long ram = 0;
+		long bw = 0;
+		double mips = 0;
+		double peMips = 0;
+		for (Host host : hosts) {
+			ram += host.getGuestRamProvisioner().getAvailableRam();
+			bw += host.getGuestBwProvisioner().getAvailableBw();
+			mips += host.getGuestScheduler().getAvailableMips();
+			for (Pe pe : host.getPeList()) {
+				peMips += pe.getPeProvisioner().getAvailableMips();
+			}
+		}
+		return "available RAM " + ram + " MB, BW " + bw + ", MIPS " + mips + " (PEs " + peMips + ")";
+	}
+}
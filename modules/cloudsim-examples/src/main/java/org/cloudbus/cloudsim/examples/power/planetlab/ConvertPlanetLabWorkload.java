@@ -0,0 +1,49 @@
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.cloudbus.cloudsim.util.PlanetLabTraceStore;
+
+/**
+ * Converts the folders of a PlanetLab workload into trace stores, which
+ * {@link PlanetLabHelper#createCloudletListPlanetLab(int, String)} maps in memory instead of parsing
+ * every trace file of the folder.
+ * 
+ * Usage: ConvertPlanetLabWorkload [workload folder...]. Without arguments, all the workloads of the
+ * bundled PlanetLab dataset are converted.
+ * 
+ * @since CloudSim Toolkit 7.0
+ */
+public class ConvertPlanetLabWorkload {
+
+	/** The number of samples of a PlanetLab trace (5 min * 288 = 24 hours, plus the last one repeated). */
+	private static final int DATA_SAMPLES = 289;
+
+	/**
+	 * The main method.
+	 * 
+	 * @param args the workload folders
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void main(String[] args) throws IOException {
+		String[] folders = args;
+		if (folders.length == 0) {
+			String inputFolder = ConvertPlanetLabWorkload.class.getClassLoader().getResource("workload/planetlab").getPath();
+			folders = new File(inputFolder).list((dir, name) -> !name.endsWith(PlanetLabHelper.TRACE_STORE_EXTENSION));
+			for (int i = 0; i < folders.length; i++) {
+				folders[i] = inputFolder + "/" + folders[i];
+			}
+		}
+
+		for (String folder : folders) {
+			PlanetLabTraceStore.convert(
+					folder,
+					folder + PlanetLabHelper.TRACE_STORE_EXTENSION,
+					DATA_SAMPLES,
+					PlanetLabTraceStore.SampleFormat.SHORT);
+			System.out.println("Converted " + folder);
+		}
+	}
+
+}
@@ -2,6 +2,7 @@ package org.cloudbus.cloudsim.examples.power.planetlab;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,7 +10,9 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelNull;
 import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
 import org.cloudbus.cloudsim.examples.power.Constants;
+import org.cloudbus.cloudsim.util.PlanetLabTraceStore;
 
 /**
  * A helper class for the running examples for the PlanetLab workload.
@@ -27,6 +30,12 @@ import org.cloudbus.cloudsim.examples.power.Constants;
  */
 public class PlanetLabHelper {
 
+	/**
+	 * The extension of the trace store converted from a workload folder (see
+	 * {@link ConvertPlanetLabWorkload}), which is used instead of the folder when it exists.
+	 */
+	public static final String TRACE_STORE_EXTENSION = ".trace";
+
 	/**
 	 * Creates the cloudlet list planet lab.
 	 * 
@@ -37,6 +46,16 @@ public class PlanetLabHelper {
 	 */
 	public static List<Cloudlet> createCloudletListPlanetLab(int brokerId, String inputFolderName)
 			throws FileNotFoundException {
+		File traceStore = new File(inputFolderName + TRACE_STORE_EXTENSION);
+		if (traceStore.isFile()) {
+			try {
+				return createCloudletListPlanetLab(brokerId, PlanetLabTraceStore.open(traceStore.getPath()));
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.exit(0);
+			}
+		}
+
 		List<Cloudlet> list = new ArrayList<>();
 
 		long fileSize = 300;
@@ -70,4 +89,37 @@ public class PlanetLabHelper {
 		return list;
 	}
 
+	/**
+	 * Creates the cloudlet list planet lab from a trace store, with a cloudlet per trace.
+	 * 
+	 * @param brokerId the broker id
+	 * @param store the trace store
+	 * @return the list
+	 */
+	public static List<Cloudlet> createCloudletListPlanetLab(int brokerId, PlanetLabTraceStore store) {
+		List<Cloudlet> list = new ArrayList<>();
+
+		long fileSize = 300;
+		long outputSize = 300;
+		UtilizationModel utilizationModelNull = new UtilizationModelNull();
+
+		for (int i = 0; i < store.getNumberOfTraces(); i++) {
+			Cloudlet cloudlet = new Cloudlet(
+					i,
+					Constants.CLOUDLET_LENGTH,
+					Constants.CLOUDLET_PES,
+					fileSize,
+					outputSize,
+					new UtilizationModelPlanetLabMapped(
+							store,
+							i,
+							Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
+			cloudlet.setUserId(brokerId);
+			cloudlet.setGuestId(i);
+			list.add(cloudlet);
+		}
+
+		return list;
+	}
+
 }
@@ -0,0 +1,175 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The execution list of a {@link CloudletScheduler} updating its processing incrementally.
+ * <p>
+ * The cloudlets are kept in a linked hash set, in the order they were added, and indexed by id,
+ * so that a cloudlet finishing, paused or cancelled is found and removed in O(1) instead of by
+ * a scan of the list. As {@link Cloudlet} does not override {@link Object#equals(Object)}, the
+ * cloudlets are compared by identity, as in the {@link java.util.LinkedList} used by the classic
+ * mode. Adding a cloudlet is only supported at the end of the list, and the positional methods
+ * walk the list from its head.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class CloudletExecList extends AbstractList<Cloudlet> {
+
+	/** The cloudlets, in the order they were added. */
+	private final Set<Cloudlet> cloudlets = new LinkedHashSet<>();
+
+	/** The first cloudlet of the list with a given id. */
+	private final Map<Integer, Cloudlet> cloudletsById = new HashMap<>();
+
+	/** Whether two cloudlets of the list ever had the same id. */
+	private boolean sharedIds;
+
+	/**
+	 * Gets the first cloudlet of the list with a given id.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 * @return the cloudlet, or null if the list has none with this id
+	 */
+	Cloudlet getById(int cloudletId) {
+		return cloudletsById.get(cloudletId);
+	}
+
+	@Override
+	public int size() {
+		return cloudlets.size();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return cloudlets.contains(o);
+	}
+
+	@Override
+	public boolean add(Cloudlet cl) {
+		if (!cloudlets.add(cl)) {
+			throw new IllegalArgumentException("Cloudlet #" + cl.getCloudletId() + " is already running");
+		}
+		if (cloudletsById.putIfAbsent(cl.getCloudletId(), cl) != null) {
+			sharedIds = true;
+		}
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int index, Cloudlet cl) {
+		if (index != size()) {
+			throw new UnsupportedOperationException("Cloudlets can only be added at the end of the list");
+		}
+		add(cl);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!cloudlets.remove(o)) {
+			return false;
+		}
+		unindex((Cloudlet) o);
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		boolean modified = false;
+		for (Object o : c) {
+			modified |= remove(o);
+		}
+		return modified;
+	}
+
+	@Override
+	public Cloudlet get(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		Iterator<Cloudlet> it = cloudlets.iterator();
+		for (int i = 0; i < index; i++) {
+			it.next();
+		}
+		return it.next();
+	}
+
+	@Override
+	public Cloudlet remove(int index) {
+		Cloudlet cl = get(index);
+		remove(cl);
+		return cl;
+	}
+
+	@Override
+	public void clear() {
+		cloudlets.clear();
+		cloudletsById.clear();
+		sharedIds = false;
+		modCount++;
+	}
+
+	@Override
+	public Iterator<Cloudlet> iterator() {
+		Iterator<Cloudlet> it = cloudlets.iterator();
+		return new Iterator<>() {
+			private Cloudlet last;
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Cloudlet next() {
+				last = it.next();
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				it.remove();
+				unindex(last);
+				last = null;
+				modCount++;
+			}
+		};
+	}
+
+	/**
+	 * Removes a cloudlet leaving the list from the index by id. If another cloudlet of the list
+	 * has the same id, the first of them is indexed instead, so this is only a scan when the ids
+	 * of the cloudlets are not unique.
+	 */
+	private void unindex(Cloudlet cl) {
+		int cloudletId = cl.getCloudletId();
+		if (!cloudletsById.remove(cloudletId, cl) || !sharedIds) {
+			return;
+		}
+		for (Cloudlet other : cloudlets) {
+			if (other.getCloudletId() == cloudletId) {
+				cloudletsById.put(cloudletId, other);
+				return;
+			}
+		}
+	}
+}
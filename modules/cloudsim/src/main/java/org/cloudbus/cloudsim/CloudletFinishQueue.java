@@ -0,0 +1,149 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps the running cloudlets of a {@link CloudletScheduler} ordered by finish time, for the
+ * schedulers in which every PE of every running cloudlet gets the same capacity (see
+ * {@link CloudletScheduler#getCurrentCapacity()}).
+ * <p>
+ * As in fair queueing, the progress of the cloudlets is tracked through a virtual time: the number
+ * of MI executed so far by a PE of any running cloudlet. A cloudlet entering the queue finishes when
+ * the virtual time has advanced by its remaining length per PE, so its finish virtual time never
+ * changes while it runs, even when the capacity does. Updating the processing then only means
+ * advancing the virtual time and polling the finished cloudlets, in O(log n) each, while the
+ * finished length of the {@link Cloudlet} objects is only written when they leave the queue.
+ * The cloudlets paused, cancelled or migrated are also removed in O(log n), as the queue is a
+ * sorted set rather than a heap.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class CloudletFinishQueue {
+	/** A running cloudlet. */
+	private record Entry(Cloudlet cloudlet, long seq, double startTime, long startFinishedSoFar, double finishTime) {}
+
+	/** The running cloudlets, by finish virtual time and then by submission order. */
+	private final NavigableSet<Entry> queue = new TreeSet<>(
+			Comparator.comparingDouble(Entry::finishTime).thenComparingLong(Entry::seq));
+
+	/** The entries of the running cloudlets. */
+	private final Map<Cloudlet, Entry> entries = new IdentityHashMap<>();
+
+	/** The MI executed so far by every PE of a running cloudlet. */
+	private double virtualTime = 0;
+
+	/** The sequence number of the next cloudlet added to the queue. */
+	private long seq = 0;
+
+	/** The number of PEs used by the running cloudlets. */
+	private int pes = 0;
+
+	/**
+	 * Adds a cloudlet starting to run, according to its current finished length.
+	 *
+	 * @param cl the cloudlet
+	 */
+	void add(Cloudlet cl) {
+		long finishedSoFar = cl.getCloudletFinishedSoFar();
+		double remainingPerPe = (cl.getCloudletTotalLength() * Consts.MILLION - finishedSoFar)
+				/ (double) Consts.MILLION / cl.getNumberOfPes();
+		Entry entry = new Entry(cl, seq++, virtualTime, finishedSoFar, virtualTime + remainingPerPe);
+		queue.add(entry);
+		entries.put(cl, entry);
+		pes += cl.getNumberOfPes();
+	}
+
+	/**
+	 * Removes a cloudlet that stops running, writing its finished length.
+	 *
+	 * @param cl the cloudlet
+	 * @return true if the cloudlet was in the queue
+	 */
+	boolean remove(Cloudlet cl) {
+		Entry entry = entries.remove(cl);
+		if (entry == null) {
+			return false;
+		}
+		queue.remove(entry);
+		pes -= cl.getNumberOfPes();
+		updateFinishedSoFar(entry);
+		return true;
+	}
+
+	/**
+	 * Advances the virtual time.
+	 *
+	 * @param mi the MI executed by every PE of a running cloudlet
+	 */
+	void advance(double mi) {
+		virtualTime += mi;
+	}
+
+	/**
+	 * Removes the cloudlets having less than 1 MI left to execute, as
+	 * {@link Cloudlet#isFinished()} does.
+	 *
+	 * @return the finished cloudlets, in submission order
+	 */
+	List<Cloudlet> pollFinished() {
+		List<Entry> finished = new ArrayList<>();
+		while (!queue.isEmpty()
+				&& (queue.first().finishTime() - virtualTime) * queue.first().cloudlet().getNumberOfPes() < 1) {
+			Entry entry = queue.pollFirst();
+			entries.remove(entry.cloudlet());
+			pes -= entry.cloudlet().getNumberOfPes();
+			updateFinishedSoFar(entry);
+			finished.add(entry);
+		}
+		finished.sort(Comparator.comparingLong(Entry::seq));
+
+		List<Cloudlet> cloudlets = new ArrayList<>(finished.size());
+		for (Entry entry : finished) {
+			cloudlets.add(entry.cloudlet());
+		}
+		return cloudlets;
+	}
+
+	/**
+	 * Gets the time until the first running cloudlet finishes.
+	 *
+	 * @param capacity the MIPS of every PE of a running cloudlet
+	 * @return the delay, or {@link Double#MAX_VALUE} if there are no running cloudlets
+	 */
+	double getNextFinishDelay(double capacity) {
+		if (queue.isEmpty()) {
+			return Double.MAX_VALUE;
+		}
+		return (queue.first().finishTime() - virtualTime) / capacity;
+	}
+
+	/**
+	 * Gets the number of PEs used by the running cloudlets.
+	 *
+	 * @return the number of PEs
+	 */
+	int getPes() {
+		return pes;
+	}
+
+	private void updateFinishedSoFar(Entry entry) {
+		Cloudlet cl = entry.cloudlet();
+		long executed = (long) ((virtualTime - entry.startTime()) * cl.getNumberOfPes() * Consts.MILLION);
+		cl.setCloudletFinishedSoFar(Math.min(entry.startFinishedSoFar() + executed,
+				cl.getCloudletTotalLength() * Consts.MILLION));
+	}
+}
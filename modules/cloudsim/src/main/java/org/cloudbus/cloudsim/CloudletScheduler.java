@@ -58,6 +58,9 @@ public abstract class CloudletScheduler {
 	/** Buffer list of the latest finished cloudlets. */
 	protected List<Cloudlet> cloudletJustFinishedList;
 
+	/** The running cloudlets ordered by finish time, if the processing is updated incrementally. */
+	private final CloudletFinishQueue cloudletFinishQueue;
+
 	/**
 	 * Creates a new CloudletScheduler object. 
 	 * A CloudletScheduler must be created before starting the actual simulation.
@@ -66,10 +69,30 @@ public abstract class CloudletScheduler {
 	 * @post $none
 	 */
 	public CloudletScheduler() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new CloudletScheduler object, which may update the processing of its cloudlets
+	 * incrementally. In this mode, the running cloudlets are kept in a queue ordered by finish time
+	 * and their progress is tracked through a virtual time (see {@link CloudletFinishQueue}), so
+	 * {@link #updateCloudletsProcessing(double, List)} no longer iterates over the execution list.
+	 * The execution list is indexed (see {@link CloudletExecList}), so the cloudlets finishing,
+	 * paused or cancelled are also removed from it without a scan.
+	 * <p>
+	 * The incremental mode is only valid for the schedulers in which every PE of a running cloudlet
+	 * gets {@link #getCurrentCapacity()} MIPS. The finished length of a running cloudlet is only
+	 * written when it leaves the execution list, and {@link Cloudlet#updateCloudlet(Object)} is not
+	 * called, so cloudlets relying on it (e.g., network cloudlets) are not supported.
+	 *
+	 * @param incremental true to update the processing of the cloudlets incrementally
+	 */
+	protected CloudletScheduler(boolean incremental) {
 		setPreviousTime(0.0);
+		cloudletFinishQueue = incremental ? new CloudletFinishQueue() : null;
 
 		cloudletWaitingList = new LinkedList<>();
-		cloudletExecList = new LinkedList<>();
+		cloudletExecList = incremental ? new CloudletExecList() : new LinkedList<>();
 		cloudletPausedList = new LinkedList<>();
 		cloudletFinishedList = new LinkedList<>();
 		cloudletFailedList = new LinkedList<>();
@@ -91,21 +114,30 @@ public abstract class CloudletScheduler {
 
 		double timeSpan = currentTime - getPreviousTime(); // time since last update
 
-		// Update cloudlets in exec list
-		for (Cloudlet cl : getCloudletExecList()) {
-			cl.updateCloudletFinishedSoFar((long) (timeSpan *
-					getTotalCurrentAllocatedMipsForCloudlet(cl, currentTime) * Consts.MILLION));
-			cl.updateCloudlet(null);
-		}
-
-		// Remove finished cloudlets
-		for (Cloudlet cl : getCloudletExecList()) {
-			if (cl.isFinished()) {
+		if (isIncremental()) {
+			cloudletFinishQueue.advance(timeSpan * getCurrentCapacity());
+			for (Cloudlet cl : cloudletFinishQueue.pollFinished()) {
+				getCloudletExecList().remove(cl);
 				cloudletJustFinishedList.add(cl);
 				cloudletFinish(cl);
 			}
+		} else {
+			// Update cloudlets in exec list
+			for (Cloudlet cl : getCloudletExecList()) {
+				cl.updateCloudletFinishedSoFar((long) (timeSpan *
+						getTotalCurrentAllocatedMipsForCloudlet(cl, currentTime) * Consts.MILLION));
+				cl.updateCloudlet(null);
+			}
+
+			// Remove finished cloudlets
+			for (Cloudlet cl : getCloudletExecList()) {
+				if (cl.isFinished()) {
+					cloudletJustFinishedList.add(cl);
+					cloudletFinish(cl);
+				}
+			}
+			getCloudletExecList().removeAll(cloudletJustFinishedList);
 		}
-		getCloudletExecList().removeAll(cloudletJustFinishedList);
 
 
 		if (getCloudletExecList().isEmpty() && getCloudletWaitingList().isEmpty()) {
@@ -120,13 +152,20 @@ public abstract class CloudletScheduler {
 
 		// estimate finish time of cloudlets in the execution queue
 		double nextEvent = Double.MAX_VALUE;
-		for (Cloudlet cl : getCloudletExecList()) {
-			double estimatedFinishTime = getEstimatedFinishTime(cl, currentTime);
-			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+		if (isIncremental()) {
+			double delay = cloudletFinishQueue.getNextFinishDelay(getCurrentCapacity());
+			if (delay != Double.MAX_VALUE) {
+				nextEvent = currentTime + Math.max(delay, CloudSim.getMinTimeBetweenEvents());
 			}
-			if (estimatedFinishTime < nextEvent) {
-				nextEvent = estimatedFinishTime;
+		} else {
+			for (Cloudlet cl : getCloudletExecList()) {
+				double estimatedFinishTime = getEstimatedFinishTime(cl, currentTime);
+				if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
+					estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+				}
+				if (estimatedFinishTime < nextEvent) {
+					nextEvent = estimatedFinishTime;
+				}
 			}
 		}
 
@@ -148,6 +187,47 @@ public abstract class CloudletScheduler {
 	 */
 	protected void updateWaitingCloudlets(double currentTime, Object info){}
 
+	/**
+	 * Adds a cloudlet to the execution list, once its length is final.
+	 *
+	 * @param cl the cloudlet starting to run
+	 */
+	protected void addCloudletToExecList(Cloudlet cl) {
+		getCloudletExecList().add(cl);
+		if (isIncremental()) {
+			cloudletFinishQueue.add(cl);
+		}
+	}
+
+	/**
+	 * Removes a cloudlet from the execution list, finding it through the index by id of the
+	 * list in incremental mode, or by a scan otherwise.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 * @return the removed cloudlet, or null if the execution list has none with this id
+	 */
+	private Cloudlet removeFromExecList(int cloudletId) {
+		if (cloudletExecList instanceof CloudletExecList execList) {
+			Cloudlet cl = execList.getById(cloudletId);
+			if (cl != null) {
+				execList.remove(cl);
+			}
+			return cl;
+		}
+		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
+		return position >= 0 ? getCloudletExecList().remove(position) : null;
+	}
+
+	/**
+	 * Checks if the processing of the cloudlets is updated incrementally.
+	 *
+	 * @return true if the scheduler runs in incremental mode
+	 * @see #CloudletScheduler(boolean)
+	 */
+	public boolean isIncremental() {
+		return cloudletFinishQueue != null;
+	}
+
 	/**
 	 * Receives a cloudlet to be executed in the VM managed by this scheduler.
 	 * 
@@ -185,9 +265,11 @@ public abstract class CloudletScheduler {
 		}
 
 		// Then searches in the exec list
-		position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			Cloudlet cl = getCloudletExecList().remove(position);
+		Cloudlet cl = removeFromExecList(cloudletId);
+		if (cl != null) {
+			if (isIncremental()) {
+				cloudletFinishQueue.remove(cl);
+			}
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -220,10 +302,12 @@ public abstract class CloudletScheduler {
 	 */
 	public boolean cloudletPause(int cloudletId) {
 		// first, looks for the cloudlet in the exec list
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
+		Cloudlet cl = removeFromExecList(cloudletId);
+		if (cl != null) {
 			// moves to the paused list
-			Cloudlet cl = getCloudletExecList().remove(position);
+			if (isIncremental()) {
+				cloudletFinishQueue.remove(cl);
+			}
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -234,10 +318,10 @@ public abstract class CloudletScheduler {
 		}
 
 		// now, look for the cloudlet in the waiting list
-		position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
+		int position = CloudletList.getPositionById(getCloudletWaitingList(), cloudletId);
 		if (position >= 0) {
 			// moves to the paused list
-			Cloudlet cl = getCloudletWaitingList().remove(position);
+			cl = getCloudletWaitingList().remove(position);
 			if (cl.getRemainingCloudletLength() == 0) {
 				cloudletFinish(cl);
 			} else {
@@ -282,12 +366,19 @@ public abstract class CloudletScheduler {
 	 *
 	 */
 	public Cloudlet.CloudletStatus getCloudletStatus(final int cloudletId) {
-		int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
-		if (position >= 0) {
-			return getCloudletExecList().get(position).getStatus();
+		if (cloudletExecList instanceof CloudletExecList execList) {
+			Cloudlet cl = execList.getById(cloudletId);
+			if (cl != null) {
+				return cl.getStatus();
+			}
+		} else {
+			int position = CloudletList.getPositionById(getCloudletExecList(), cloudletId);
+			if (position >= 0) {
+				return getCloudletExecList().get(position).getStatus();
+			}
 		}
 
-		position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
+		int position = CloudletList.getPositionById(getCloudletPausedList(), cloudletId);
 		if (position >= 0) {
 			return getCloudletPausedList().get(position).getStatus();
 		}
@@ -346,6 +437,9 @@ public abstract class CloudletScheduler {
 	 */
 	public Cloudlet migrateCloudlet() {
 		Cloudlet cl = getCloudletExecList().remove(0);
+		if (isIncremental()) {
+			cloudletFinishQueue.remove(cl);
+		}
 		cl.finalizeCloudlet();
 		return cl;
 	}
@@ -521,9 +615,13 @@ public abstract class CloudletScheduler {
 		}
 
 		int pesInUse = 0;
-		for (Cloudlet cl : getCloudletExecList()) {
-			if (cl.getRemainingCloudletLength() > 0) {
-				pesInUse += cl.getNumberOfPes();
+		if (isIncremental()) {
+			pesInUse = cloudletFinishQueue.getPes();
+		} else {
+			for (Cloudlet cl : getCloudletExecList()) {
+				if (cl.getRemainingCloudletLength() > 0) {
+					pesInUse += cl.getNumberOfPes();
+				}
 			}
 		}
 
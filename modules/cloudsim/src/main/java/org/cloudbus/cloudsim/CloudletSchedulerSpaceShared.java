@@ -39,7 +39,18 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	 * @post $none
 	 */
 	public CloudletSchedulerSpaceShared() {
-		super();
+		this(false);
+	}
+
+	/**
+	 * Creates a new CloudletSchedulerSpaceShared object, which may update the processing of its
+	 * cloudlets incrementally.
+	 *
+	 * @param incremental true to update the processing of the cloudlets incrementally
+	 * @see CloudletScheduler#CloudletScheduler(boolean)
+	 */
+	public CloudletSchedulerSpaceShared(boolean incremental) {
+		super(incremental);
 		usedPes = 0;
 	}
 
@@ -57,7 +68,7 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 				getCloudletWaitingList().remove(cl);
 
 				cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
-				getCloudletExecList().add(cl);
+				addCloudletToExecList(cl);
 				usedPes += cl.getNumberOfPes();
 				break;
 			}
@@ -80,7 +91,7 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 				size *= cl.getNumberOfPes();
 				cl.setCloudletLength(size);
 
-				getCloudletExecList().add(cl);
+				addCloudletToExecList(cl);
 				usedPes += cl.getNumberOfPes();
 
 				// calculate the expected time for cloudlet completion
@@ -104,7 +115,6 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 	public double cloudletSubmit(Cloudlet cl, double fileTransferTime) {
         if ((getCurrentPEs() - usedPes) >= cl.getNumberOfPes()) { // it can go to the exec list
             cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
-			getCloudletExecList().add(cl);
 			usedPes += cl.getNumberOfPes();
 		} else {// no enough free PEs: go to the waiting queue
             cl.updateStatus(Cloudlet.CloudletStatus.QUEUED);
@@ -120,6 +130,7 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		double extraSize = capacity * fileTransferTime;
 		long length = (long) (cl.getCloudletLength() + extraSize);
 		cl.setCloudletLength(length);
+		addCloudletToExecList(cl);
 
 		return cl.getCloudletLength() / capacity;
 	}
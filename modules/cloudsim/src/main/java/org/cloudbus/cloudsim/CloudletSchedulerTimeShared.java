@@ -35,6 +35,17 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		super();
 	}
 
+	/**
+	 * Creates a new CloudletSchedulerTimeShared object, which may update the processing of its
+	 * cloudlets incrementally.
+	 *
+	 * @param incremental true to update the processing of the cloudlets incrementally
+	 * @see CloudletScheduler#CloudletScheduler(boolean)
+	 */
+	public CloudletSchedulerTimeShared(boolean incremental) {
+		super(incremental);
+	}
+
 	@Override
 	public double cloudletResume(int cloudletId) {
 		// look for the cloudlet in the paused list
@@ -42,7 +53,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		if (position >= 0) {
 			Cloudlet cl = getCloudletPausedList().remove(position);
 			cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
-			getCloudletExecList().add(cl);
+			addCloudletToExecList(cl);
 
 			// calculate the expected time for cloudlet completion
 			// first: how many PEs do we have?
@@ -54,7 +65,6 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	@Override
 	public double cloudletSubmit(Cloudlet cl, double fileTransferTime) {
 		cl.updateStatus(Cloudlet.CloudletStatus.INEXEC);
-		getCloudletExecList().add(cl);
 
 		// calculate the expected time for cloudlet completion
 		double capacity = getCurrentCapacity();
@@ -63,6 +73,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		double extraSize = capacity * fileTransferTime;
 		long length = (long) (cl.getCloudletLength() + extraSize);
 		cl.setCloudletLength(length);
+		addCloudletToExecList(cl);
 
 		return cl.getCloudletLength() / capacity;
 	}
@@ -8,8 +8,10 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
@@ -50,9 +52,16 @@ public class Datacenter extends SimEntity {
 	/** The vm list. */
 	private List<? extends GuestEntity> vmList;
 
+	/** The guests created in this datacenter, by user and guest id.
+	 * @see #getGuest(int, int) */
+	private final Map<Long, GuestEntity> guestIndex = new HashMap<>();
+
 	/** The scheduling delay to process each datacenter received event. */
 	private double schedulingInterval;
 
+	/** The next event time of each host, or null if all the hosts are updated at every processing. */
+	private HostEventIndex hostEventIndex;
+
 	/**
 	 * Allocates a new Datacenter object.
 	 * 
@@ -334,8 +343,7 @@ public class Datacenter extends SimEntity {
 			userId = data[1];
 			vmId = data[2];
 
-			status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId).getCloudletScheduler()
-					.getCloudletStatus(cloudletId);
+			status = getGuest(vmId, userId).getCloudletScheduler().getCloudletStatus(cloudletId);
 		}
 
 		// if a sender using normal send() methods
@@ -345,8 +353,7 @@ public class Datacenter extends SimEntity {
 				cloudletId = cl.getCloudletId();
 				userId = cl.getUserId();
 
-				status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-						.getCloudletScheduler().getCloudletStatus(cloudletId);
+				status = getGuest(vmId, userId).getCloudletScheduler().getCloudletStatus(cloudletId);
 			} catch (Exception e) {
 				Log.printlnConcat(getName(), ": Error in processing CloudActionTags.CLOUDLET_STATUS");
 				Log.println(e.getMessage());
@@ -415,6 +422,9 @@ public class Datacenter extends SimEntity {
 
 		if (result) {
 			getVmList().add(guest);
+			guestIndex.put(guestKey(guest.getId(), guest.getUserId()), guest);
+			// the host is only known once the guest is allocated
+			updateHostProcessing(guest.getHost());
 
 			if (guest.isBeingInstantiated()) {
 				guest.setBeingInstantiated(false);
@@ -441,6 +451,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		GuestEntity vm = (GuestEntity) ev.getData();
+		updateHostProcessing(vm.getHost());
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 
 		if (ack) {
@@ -453,6 +464,7 @@ public class Datacenter extends SimEntity {
 		}
 
 		getVmList().remove(vm);
+		guestIndex.remove(guestKey(vm.getId(), vm.getUserId()));
 	}
 
 	/**
@@ -476,6 +488,9 @@ public class Datacenter extends SimEntity {
         GuestEntity vm = migrate.vm();
 		HostEntity host = migrate.host();
 		
+		updateHostProcessing(vm.getHost());
+		updateHostProcessing(host);
+
 		//destroy VM in src host
 		getVmAllocationPolicy().deallocateHostForGuest(vm);
 		host.removeMigratingInGuest(vm);
@@ -585,8 +600,9 @@ public class Datacenter extends SimEntity {
 		int destId = receivedData[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		GuestEntity guest = getGuest(vmId, userId);
+		updateHostProcessing(guest.getHost());
+		Cloudlet cl = guest.getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
@@ -599,7 +615,7 @@ public class Datacenter extends SimEntity {
 				data[1] = cloudletId;
 				data[2] = 0;
 				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+				returnCloudlet(cl);
 			}
 
 			// prepare cloudlet for migration
@@ -607,10 +623,11 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				GuestEntity vm = getVmAllocationPolicy().getHost(vmDestId, userId).getGuest(vmDestId,userId);
+				GuestEntity vm = getGuest(vmDestId, userId);
 				if (vm == null) {
 					failed = true;
 				} else {
+					updateHostProcessing(vm.getHost());
 					// time to transfer the files
 					double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 					vm.getCloudletScheduler().cloudletSubmit(cl, fileTransferTime);
@@ -674,7 +691,7 @@ public class Datacenter extends SimEntity {
 					sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_SUBMIT_ACK, data);
 				}
 
-				sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+				returnCloudlet(cl);
 
 				return;
 			}
@@ -689,9 +706,9 @@ public class Datacenter extends SimEntity {
 			// time to transfer the files
 			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 
-			HostEntity host = getVmAllocationPolicy().getHost(vmId, userId);
-			GuestEntity vm = host.getGuest(vmId, userId);
+			GuestEntity vm = getGuest(vmId, userId);
 			CloudletScheduler scheduler = vm.getCloudletScheduler();
+			updateHostProcessing(vm.getHost());
 			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
 
 			// if this cloudlet is in the exec queue
@@ -758,8 +775,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletResume(cloudletId);
+		GuestEntity guest = getGuest(vmId, userId);
+		updateHostProcessing(guest.getHost());
+		double eventTime = guest.getCloudletScheduler().cloudletResume(cloudletId);
 
 		boolean status = false;
 		if (eventTime > 0.0) { // if this cloudlet is in the exec queue
@@ -791,8 +809,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletPause(cloudletId);
+		GuestEntity guest = getGuest(vmId, userId);
+		updateHostProcessing(guest.getHost());
+		boolean status = guest.getCloudletScheduler().cloudletPause(cloudletId);
 
 		if (ack) {
 			int[] data = new int[3];
@@ -814,8 +833,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getGuest(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		GuestEntity guest = getGuest(vmId, userId);
+		updateHostProcessing(guest.getHost());
+		Cloudlet cl = guest.getCloudletScheduler().cloudletCancel(cloudletId);
 		sendNow(userId, CloudActionTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -833,12 +853,20 @@ public class Datacenter extends SimEntity {
 		// simulation step is skipped and schedulers are not properly initialized
 		if (CloudSim.clock() < 0.111 || CloudSim.clock() >= getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
 			double smallerTime = Double.MAX_VALUE;
-			for (HostEntity host : getVmAllocationPolicy().getHostList()) {
-				// inform VMs to update processing
-				double time = host.updateCloudletsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
+			if (isEventDrivenProcessing()) {
+				// only the hosts with due work or changes; the estimates of the others still hold
+				for (HostEntity host : hostEventIndex.pollHostsToUpdate(CloudSim.clock() + CloudSim.getMinTimeBetweenEvents())) {
+					updateIndexedHost(host);
+				}
+				smallerTime = hostEventIndex.getNextTime();
+			} else {
+				for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+					// inform VMs to update processing
+					double time = host.updateCloudletsProcessing(CloudSim.clock());
+					// what time do we expect that the next cloudlet will finish?
+					if (time < smallerTime) {
+						smallerTime = time;
+					}
 				}
 			}
 			// gurantees a minimal interval before scheduling the event
@@ -852,6 +880,81 @@ public class Datacenter extends SimEntity {
 		}
 	}
 
+	/**
+	 * In event-driven processing mode, brings the processing of a host up to date before its
+	 * guests or their cloudlets change, and makes sure it is updated again by the next
+	 * {@link #updateCloudletProcessing()}. It does nothing in the classic mode, in which every
+	 * processing updates all the hosts.
+	 *
+	 * @param host the host being changed, or null
+	 */
+	protected void updateHostProcessing(HostEntity host) {
+		if (!isEventDrivenProcessing() || host == null) {
+			return;
+		}
+		if (hostEventIndex.getLastUpdateTime(host) < CloudSim.clock()) {
+			updateIndexedHost(host);
+		}
+		hostEventIndex.markChanged(host);
+	}
+
+	/**
+	 * Updates a host in event-driven processing mode, and records its next event time.
+	 *
+	 * @param host the host
+	 */
+	private void updateIndexedHost(HostEntity host) {
+		double nextTime = host.updateCloudletsProcessing(CloudSim.clock());
+		for (GuestEntity guest : host.getGuestList()) {
+			if (guest.getCloudletScheduler().isFinishedCloudlets()) {
+				// the estimates were computed with the capacity still shared with the finished
+				// cloudlets; unlike in the classic mode, the host may not be updated again before them
+				nextTime = host.updateCloudletsProcessing(CloudSim.clock());
+				break;
+			}
+		}
+		hostEventIndex.updated(host, CloudSim.clock(), nextTime);
+	}
+
+	/**
+	 * Enables or disables the event-driven processing mode. By default, every processing of the
+	 * datacenter updates all its hosts, and then looks for finished cloudlets in all of them. In
+	 * the event-driven mode, the datacenter keeps the expected time of the next event of each
+	 * host, and only updates (and checks) the hosts having due work or whose guests or cloudlets
+	 * changed since their last update.
+	 * <p>
+	 * Skipping the update of a host does not change the progress of its cloudlets, which is
+	 * computed from the time elapsed since the last update of their scheduler, as long as the
+	 * MIPS allocated to its guests does not depend on the time: the hosts re-allocating MIPS
+	 * according to the current utilization of their guests ({@link HostDynamicWorkload}) are not
+	 * supported. Subclasses overriding {@link #updateCloudletProcessing()} ignore this mode.
+	 *
+	 * @param enabled true to only update the hosts with due work or changes
+	 * @throws IllegalStateException if the datacenter has hosts whose allocation depends on the time
+	 */
+	public void setEventDrivenProcessing(boolean enabled) {
+		if (!enabled) {
+			hostEventIndex = null;
+			return;
+		}
+		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+			if (host instanceof HostDynamicWorkload) {
+				throw new IllegalStateException(getName() + ": event-driven processing does not support "
+						+ host.getClass().getSimpleName() + " hosts");
+			}
+		}
+		hostEventIndex = new HostEventIndex(getVmAllocationPolicy().getHostList());
+	}
+
+	/**
+	 * Checks if only the hosts with due work or changes are updated.
+	 *
+	 * @return true if the event-driven processing mode is enabled
+	 */
+	public boolean isEventDrivenProcessing() {
+		return hostEventIndex != null;
+	}
+
 	/**
 	 * Verifies if some cloudlet inside this Datacenter already finished. 
          * If yes, send it to the User/Broker
@@ -860,18 +963,29 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
-		for (HostEntity host : getVmAllocationPolicy().getHostList()) {
+		List<? extends HostEntity> hosts = isEventDrivenProcessing()
+				? hostEventIndex.pollHostsToCheck() : getVmAllocationPolicy().getHostList();
+		for (HostEntity host : hosts) {
 			for (GuestEntity vm : host.getGuestList()) {
 				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
 					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
 					if (cl != null) {
-						sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+						returnCloudlet(cl);
 					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Sends a finished cloudlet back to its User/Broker.
+	 *
+	 * @param cl the finished cloudlet
+	 */
+	protected void returnCloudlet(Cloudlet cl) {
+		sendNow(cl.getUserId(), CloudActionTags.CLOUDLET_RETURN, cl);
+	}
+
 	/**
 	 * Adds a file into the resource's storage before the experiment starts.
 	 * If the file is a master file, then it will be registered to the RC
@@ -1107,6 +1221,30 @@ public class Datacenter extends SimEntity {
 		this.vmList = vmList;
 	}
 
+	/**
+	 * Gets a guest placed in this datacenter by its ID and user. The guests created through
+	 * {@link #processVmCreate(SimEvent, boolean)} are found in constant time from an index kept
+	 * on creation and destruction; the others are searched on the host given by the allocation policy.
+	 *
+	 * @param guestId the guest ID
+	 * @param userId ID of guest's owner
+	 * @return the guest entity object, $null if not found
+	 */
+	public GuestEntity getGuest(int guestId, int userId) {
+		GuestEntity guest = guestIndex.get(guestKey(guestId, userId));
+		// a guest may have been deallocated without being destroyed through this datacenter
+		if (guest != null && guest.getHost() != null && guest.getHost().getDatacenter() == this) {
+			return guest;
+		}
+		HostEntity host = getVmAllocationPolicy().getHost(guestId, userId);
+		return host == null ? null : host.getGuest(guestId, userId);
+	}
+
+	/** Gets the key of a guest in {@link #guestIndex}. */
+	private static long guestKey(int guestId, int userId) {
+		return ((long) userId << 32) | (guestId & 0xFFFFFFFFL);
+	}
+
 	/**
 	 * Gets the scheduling interval.
 	 * 
@@ -10,13 +10,15 @@ package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.*;
-import org.cloudbus.cloudsim.lists.CloudletList;
-import org.cloudbus.cloudsim.lists.VmList;
+import org.cloudbus.cloudsim.lists.IdIndex;
+import org.cloudbus.cloudsim.util.WorkloadFileReader;
 
 /**
  * DatacentreBroker represents a broker acting on behalf of a user. It hides VM management, as vm
@@ -76,6 +78,26 @@ public class DatacenterBroker extends SimEntity {
 	/** Next guest to which send the cloudlet */
 	private int guestIndex = 0;
 
+	/** The jobs not read yet from the job source, or null if there is none.
+	 * @see #submitJobSource(Iterator)
+	 */
+	private Iterator<WorkloadFileReader.Job> jobSource;
+
+	/** The next job of the job source, or null if the source is exhausted. */
+	private WorkloadFileReader.Job nextJob;
+
+	/** Whether the submission of the next job of the job source is already scheduled. */
+	private boolean nextJobScheduled = false;
+
+	/** The submitted guests by id. */
+	private final IdIndex<GuestEntity> submittedGuestIndex = new IdIndex<>(GuestEntity::getId);
+
+	/** The created guests by id. */
+	private final IdIndex<GuestEntity> createdGuestIndex = new IdIndex<>(GuestEntity::getId);
+
+	/** The cloudlets waiting to be submitted by id. */
+	private final IdIndex<Cloudlet> cloudletIndex = new IdIndex<>(Cloudlet::getCloudletId);
+
 	/**
 	 * Created a new DatacenterBroker object.
 	 * 
@@ -133,6 +155,21 @@ public class DatacenterBroker extends SimEntity {
 		getCloudletList().addAll(list);
 	}
 
+	/**
+	 * Sets the source of the jobs to execute, in submit time order, as read by
+	 * {@link WorkloadFileReader#streamJobs()}. Unlike {@link #submitCloudletList(List)}, the
+	 * cloudlets are pulled from the source on demand: each job is read when the previous one is
+	 * sent, and its cloudlet is sent to the VMs at its submit time (or once the VMs are created,
+	 * if later). Only the cloudlets already submitted are then kept by the broker.
+	 *
+	 * @param jobs the jobs, ordered by submit time
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void submitJobSource(Iterator<WorkloadFileReader.Job> jobs) {
+		jobSource = jobs;
+		nextJob = jobs.hasNext() ? jobs.next() : null;
+	}
+
 	/**
 	 * Specifies that a given cloudlet must run in a specific virtual machine.
 	 * 
@@ -143,7 +180,7 @@ public class DatacenterBroker extends SimEntity {
 	 * @post $none
 	 */
 	public void bindCloudletToVm(int cloudletId, int vmId) {
-		CloudletList.getById(getCloudletList(), cloudletId).setGuestId(vmId);
+		cloudletIndex.getById(getCloudletList(), cloudletId).setGuestId(vmId);
 	}
 
 	@Override
@@ -165,6 +202,10 @@ public class DatacenterBroker extends SimEntity {
         } else if (tag == CloudActionTags.CLOUDLET_RETURN) {
             processCloudletReturn(ev);
 
+            // The next jobs of the job source are due
+        } else if (tag == CloudActionTags.CLOUDLET_SOURCE_NEXT) {
+            processJobSourceNext(ev);
+
             // if the simulation finishes
         } else if (tag == CloudActionTags.END_OF_SIMULATION) {
             shutdownEntity();
@@ -226,7 +267,7 @@ public class DatacenterBroker extends SimEntity {
 		int vmId = data[1];
 		int result = data[2];
 
-		GuestEntity guest = VmList.getById(getGuestList(), vmId);
+		GuestEntity guest = submittedGuestIndex.getById(getGuestList(), vmId);
 
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
@@ -281,7 +322,7 @@ public class DatacenterBroker extends SimEntity {
 				" return received");
 		Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": The number of finished Cloudlets is:", getCloudletReceivedList().size());
 		cloudletsSubmitted--;
-		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0) { // all cloudlets executed
+		if (getCloudletList().isEmpty() && cloudletsSubmitted == 0 && nextJob == null) { // all cloudlets executed
 			Log.printlnConcat(CloudSim.clock(), ": ", getName(), ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
 			finishExecution();
@@ -296,6 +337,37 @@ public class DatacenterBroker extends SimEntity {
 		}
 	}
 
+	/**
+	 * Process the submit time of the next jobs of the job source.
+	 *
+	 * @param ev a SimEvent object
+	 * @see #submitJobSource(Iterator)
+	 */
+	protected void processJobSourceNext(SimEvent ev) {
+		nextJobScheduled = false;
+		if (!getGuestsCreatedList().isEmpty()) {
+			submitCloudlets();
+		}
+	}
+
+	/**
+	 * Moves the jobs of the job source whose submit time has come to the cloudlet list, and
+	 * schedules the submission of the next one.
+	 */
+	private void pullDueJobs() {
+		if (jobSource == null) {
+			return;
+		}
+		while (nextJob != null && nextJob.submitTime() <= CloudSim.clock()) {
+			getCloudletList().add(nextJob.cloudlet());
+			nextJob = jobSource.hasNext() ? jobSource.next() : null;
+		}
+		if (nextJob != null && !nextJobScheduled) {
+			schedule(getId(), nextJob.submitTime() - CloudSim.clock(), CloudActionTags.CLOUDLET_SOURCE_NEXT);
+			nextJobScheduled = true;
+		}
+	}
+
 	/**
 	 * Process non-default received events that aren't processed by
          * the {@link #processEvent(org.cloudbus.cloudsim.core.SimEvent)} method.
@@ -352,6 +424,8 @@ public class DatacenterBroker extends SimEntity {
          * @see #submitCloudletList(java.util.List) 
 	 */
 	protected void submitCloudlets() {
+		pullDueJobs();
+
 		List<Cloudlet> successfullySubmitted = new ArrayList<>();
 		for (Cloudlet cloudlet : getCloudletList()) {
 			GuestEntity vm;
@@ -359,9 +433,9 @@ public class DatacenterBroker extends SimEntity {
 			if (cloudlet.getGuestId() == -1) {
 				vm = getGuestsCreatedList().get(guestIndex);
 			} else { // submit to the specific vm
-				vm = VmList.getById(getGuestsCreatedList(), cloudlet.getGuestId());
+				vm = createdGuestIndex.getById(getGuestsCreatedList(), cloudlet.getGuestId());
 				if (vm == null) { // vm was not created
-					vm = VmList.getById(getGuestList(), cloudlet.getGuestId()); // check if exists in the submitted list
+					vm = submittedGuestIndex.getById(getGuestList(), cloudlet.getGuestId()); // check if exists in the submitted list
 
 					if(!Log.isDisabled()) {
 						if (vm != null) {
@@ -389,8 +463,8 @@ public class DatacenterBroker extends SimEntity {
 			successfullySubmitted.add(cloudlet);
 		}
 
-		// remove submitted cloudlets from waiting list
-		getCloudletList().removeAll(successfullySubmitted);
+		// remove submitted cloudlets from waiting list, in a single pass over it
+		getCloudletList().removeAll(new HashSet<>(successfullySubmitted));
 	}
 
 	/**
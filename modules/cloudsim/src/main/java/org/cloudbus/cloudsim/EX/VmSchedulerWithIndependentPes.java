@@ -69,6 +69,19 @@ public abstract class VmSchedulerWithIndependentPes<P extends Pe> extends VmSche
         return result;
     }
 
+    @Override
+    public boolean isSuitableForGuest(final GuestEntity guest, final List<Double> mipsShare) {
+        int i = 0;
+        for (Map.Entry<P, VmScheduler> entry : peIdsToSchedulers.entrySet()) {
+            if (doesVmUse(guest, entry.getKey())
+                    && !entry.getValue().isSuitableForGuest(guest, mipsShare.subList(i, i + 1))) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
     @Override
     public void deallocatePesForGuest(final GuestEntity guest) {
         for (Map.Entry<P, VmScheduler> entry : peIdsToSchedulers.entrySet()) {
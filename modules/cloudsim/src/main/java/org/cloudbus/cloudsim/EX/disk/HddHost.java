@@ -97,6 +97,13 @@ public class HddHost extends Host {
         return allocationOfHDD;
     }
 
+    @Override
+    public boolean canCreateGuest(final GuestEntity guest) {
+        HddVm hddVm = (HddVm) guest;
+        return super.canCreateGuest(guest)
+                && getHddIOScheduler().isSuitableForGuest(hddVm, hddVm.getCurrentRequestedIOMips());
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -0,0 +1,168 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.cloudbus.cloudsim.core.HostEntity;
+
+/**
+ * Keeps the hosts of a {@link Datacenter} ordered by the time their next cloudlet is expected to
+ * finish, so that the datacenter only updates the hosts having due work or whose guests or
+ * cloudlets changed (see {@link Datacenter#setEventDrivenProcessing(boolean)}).
+ * <p>
+ * The hosts to update and to check for finished cloudlets are always returned in the order of the
+ * host list, as the classic processing visits them.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class HostEventIndex {
+	/** The expected time of the next event of a host. */
+	private record Entry(int position, double time) {}
+
+	/** The hosts, in host list order. */
+	private final List<HostEntity> hosts;
+
+	/** The position of each host in {@link #hosts}. */
+	private final Map<HostEntity, Integer> positions = new IdentityHashMap<>();
+
+	/** The next event of the hosts; the entries replaced by a later update are discarded when polled. */
+	private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingDouble(Entry::time));
+
+	/** The current entry of each host, or null if no event is expected. */
+	private final Entry[] entries;
+
+	/** The last update time of each host. */
+	private final double[] lastUpdateTimes;
+
+	/** The hosts that have to be updated by the next processing, whatever their next event time. */
+	private final BitSet changed = new BitSet();
+
+	/** The hosts updated or changed since the last check for finished cloudlets. */
+	private final BitSet toCheck = new BitSet();
+
+	/**
+	 * Creates an index in which all the hosts have to be updated.
+	 *
+	 * @param hosts the hosts of the datacenter
+	 */
+	HostEventIndex(List<? extends HostEntity> hosts) {
+		this.hosts = new ArrayList<>(hosts);
+		for (int i = 0; i < hosts.size(); i++) {
+			positions.put(hosts.get(i), i);
+		}
+		entries = new Entry[hosts.size()];
+		lastUpdateTimes = new double[hosts.size()];
+		changed.set(0, hosts.size());
+	}
+
+	/**
+	 * Makes sure a host is updated by the next processing.
+	 *
+	 * @param host the host
+	 */
+	void markChanged(HostEntity host) {
+		Integer position = positions.get(host);
+		if (position != null) {
+			changed.set(position);
+			toCheck.set(position);
+		}
+	}
+
+	/**
+	 * Gets the hosts having an event due before a given time or changed since they were updated,
+	 * and forgets their next event time.
+	 *
+	 * @param time the time
+	 * @return the hosts, in host list order
+	 */
+	List<HostEntity> pollHostsToUpdate(double time) {
+		BitSet due = (BitSet) changed.clone();
+		changed.clear();
+		while (!queue.isEmpty() && queue.peek().time() < time) {
+			Entry entry = queue.poll();
+			if (entries[entry.position()] == entry) {
+				entries[entry.position()] = null;
+				due.set(entry.position());
+			}
+		}
+		return toHosts(due);
+	}
+
+	/**
+	 * Records the update of a host.
+	 *
+	 * @param host the host
+	 * @param time the update time
+	 * @param nextTime the expected time of the next event of the host, or {@link Double#MAX_VALUE}
+	 */
+	void updated(HostEntity host, double time, double nextTime) {
+		Integer position = positions.get(host);
+		if (position == null) {
+			return;
+		}
+		lastUpdateTimes[position] = time;
+		toCheck.set(position);
+		entries[position] = null;
+		if (nextTime != Double.MAX_VALUE) {
+			Entry entry = new Entry(position, nextTime);
+			entries[position] = entry;
+			queue.add(entry);
+		}
+	}
+
+	/**
+	 * Gets the last update time of a host.
+	 *
+	 * @param host the host
+	 * @return the time, or {@link Double#MAX_VALUE} if the host is not indexed
+	 */
+	double getLastUpdateTime(HostEntity host) {
+		Integer position = positions.get(host);
+		return position != null ? lastUpdateTimes[position] : Double.MAX_VALUE;
+	}
+
+	/**
+	 * Gets the time of the first expected event among all the hosts.
+	 *
+	 * @return the time, or {@link Double#MAX_VALUE} if no event is expected
+	 */
+	double getNextTime() {
+		while (!queue.isEmpty() && entries[queue.peek().position()] != queue.peek()) {
+			queue.poll();
+		}
+		return queue.isEmpty() ? Double.MAX_VALUE : queue.peek().time();
+	}
+
+	/**
+	 * Gets the hosts updated or changed since the last call, which are the only ones that may
+	 * have new finished cloudlets.
+	 *
+	 * @return the hosts, in host list order
+	 */
+	List<HostEntity> pollHostsToCheck() {
+		List<HostEntity> result = toHosts(toCheck);
+		toCheck.clear();
+		return result;
+	}
+
+	private List<HostEntity> toHosts(BitSet positions) {
+		List<HostEntity> result = new ArrayList<>(positions.cardinality());
+		for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+			result.add(hosts.get(i));
+		}
+		return result;
+	}
+}
@@ -31,8 +31,9 @@ public class Log {
          the call for any print method has no effect. */
 	private static boolean disabled;
 	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static final StringBuilder buffer = new StringBuilder();
+	/** Buffer to avoid creating new string builder upon every print; one per thread, since
+	    entities may run in parallel (see {@link org.cloudbus.cloudsim.core.CloudSim#setParallelDispatch(boolean)}). */
+	private static final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(StringBuilder::new);
 
 	/**
 	 * Prints a message.
@@ -94,6 +95,7 @@ public class Log {
 	 */
 	public static void printConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = buffers.get();
 			buffer.setLength(0); // Clear the buffer		    
             for (Object message : messages) {
                 buffer.append(message);
@@ -109,6 +111,7 @@ public class Log {
 	 */
 	public static void printlnConcat(Object... messages) {
 		if (!isDisabled()) {
+			StringBuilder buffer = buffers.get();
 			buffer.setLength(0); // Clear the buffer		    
             for (Object message : messages) {
                 buffer.append(message);
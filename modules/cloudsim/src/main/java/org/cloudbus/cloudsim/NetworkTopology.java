@@ -9,8 +9,11 @@
 package org.cloudbus.cloudsim;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
@@ -69,6 +72,18 @@ public class NetworkTopology {
          */
         protected static Map<Integer, Integer> map = null;
 
+	/**
+	 * The BRITE entity ID of each CloudSim entity ID, or -1 if the entity is not mapped.
+	 * It mirrors {@link #map} so that {@link #getDelay(int, int)} does not box the IDs.
+	 */
+	private static int[] briteIds = new int[0];
+
+	/**
+	 * The delay of the last link added between each pair of BRITE nodes, by {@link #linkKey(int, int)}.
+	 * It tells whether a link added to the network can update the delays incrementally.
+	 */
+	private static Map<Long, Float> linkDelays = new HashMap<>();
+
 	/**
 	 * Creates the network topology if the file exists and can be successfully parsed. File is
 	 * written in the BRITE format and contains topological information on simulation entities.
@@ -86,6 +101,7 @@ public class NetworkTopology {
 		try {
 			graph = reader.readGraphFile(fileName);
 			map = new HashMap<>();
+			briteIds = new int[0];
 			generateMatrices();
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
@@ -105,24 +121,62 @@ public class NetworkTopology {
 		// creates the bw matrix
 		bwMatrix = createBwMatrix(graph, false);
 
+		linkDelays = new HashMap<>();
+		Iterator<TopologicalLink> iter = graph.getLinkIterator();
+		while (iter.hasNext()) {
+			TopologicalLink link = iter.next();
+			linkDelays.put(linkKey(link.getSrcNodeID(), link.getDestNodeID()), link.getLinkDelay());
+		}
+
 		networkEnabled = true;
 	}
 
 	/**
-	 * Adds a new link in the network topology.
-         * The CloudSim entities that represent the source and destination of the link
-         * will be mapped to BRITE entities.
-	 * 
-	 * @param srcId ID of the CloudSim entity that represents the link's source node
-	 * @param destId ID of the CloudSim entity that represents the link's destination node
-	 * @param bw Link's bandwidth
-	 * @param lat link's latency
-	 * @pre srcId > 0
-	 * @pre destId > 0
-	 * @post $none
+	 * Updates the matrices after a link is added to the graph. The delays are updated in
+	 * O(n<sup>2</sup>) if the link does not replace a shorter one, and computed again otherwise.
+	 *
+	 * @param link the link
 	 */
-	public static void addLink(int srcId, int destId, double bw, double lat) {
+	private static void updateMatrices(TopologicalLink link) {
+		int src = link.getSrcNodeID();
+		int dest = link.getDestNodeID();
+		Float previous = linkDelays.put(linkKey(src, dest), link.getLinkDelay());
+		// a delay of 0 means no link, as in the delay matrix
+		boolean shorter = previous == null || previous == 0
+				|| (link.getLinkDelay() != 0 && link.getLinkDelay() <= previous);
+		if (!shorter) {
+			generateMatrices();
+			return;
+		}
+
+		int nodes = graph.getNumberOfNodes();
+		delayMatrix.addNodes(nodes);
+		delayMatrix.addLink(src, dest, link.getLinkDelay());
+
+		if (bwMatrix.length < nodes) {
+			double[][] mtx = new double[Math.max(nodes, 2 * bwMatrix.length)][];
+			for (int i = 0; i < mtx.length; i++) {
+				mtx[i] = i < bwMatrix.length ? Arrays.copyOf(bwMatrix[i], mtx.length) : new double[mtx.length];
+			}
+			bwMatrix = mtx;
+		}
+		bwMatrix[src][dest] = link.getLinkBw();
+		bwMatrix[dest][src] = link.getLinkBw();
+	}
+
+	/**
+	 * Gets the key of an undirected link in {@link #linkDelays}.
+	 */
+	private static long linkKey(int src, int dest) {
+		return ((long) Math.min(src, dest) << 32) | Math.max(src, dest);
+	}
 
+	/**
+	 * Adds a link to the graph, mapping its CloudSim entities to new BRITE nodes if needed.
+	 *
+	 * @return the link
+	 */
+	private static TopologicalLink addLinkToGraph(int srcId, int destId, double bw, double lat) {
 		if (graph == null) {
 			graph = new TopologicalGraph();
 		}
@@ -134,21 +188,92 @@ public class NetworkTopology {
 		// maybe add the nodes
 		if (!map.containsKey(srcId)) {
 			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
+			putMapping(srcId, nextIdx);
 			nextIdx++;
 		}
 
 		if (!map.containsKey(destId)) {
 			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
+			putMapping(destId, nextIdx);
 			nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		TopologicalLink link = new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw);
+		graph.addLink(link);
+		return link;
+	}
+
+	/**
+	 * Adds a new link in the network topology.
+         * The CloudSim entities that represent the source and destination of the link
+         * will be mapped to BRITE entities.
+	 * 
+	 * @param srcId ID of the CloudSim entity that represents the link's source node
+	 * @param destId ID of the CloudSim entity that represents the link's destination node
+	 * @param bw Link's bandwidth
+	 * @param lat link's latency
+	 * @pre srcId > 0
+	 * @pre destId > 0
+	 * @post $none
+	 */
+	public static void addLink(int srcId, int destId, double bw, double lat) {
+		TopologicalLink link = addLinkToGraph(srcId, destId, bw, lat);
 
-		generateMatrices();
+		if (delayMatrix == null) {
+			generateMatrices();
+		} else {
+			updateMatrices(link);
+		}
+	}
 
+	/**
+	 * Creates a builder adding many links to the network topology at once.
+	 *
+	 * @return the builder
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Adds many links to the network topology, computing the delay and bandwidth matrices once
+	 * for all of them instead of after each link as {@link NetworkTopology#addLink(int, int, double, double)} does.
+	 *
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public static class Builder {
+		/** The links to add, between CloudSim entity IDs. */
+		private final List<TopologicalLink> links = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a new link, as {@link NetworkTopology#addLink(int, int, double, double)} does.
+		 *
+		 * @param srcId ID of the CloudSim entity that represents the link's source node
+		 * @param destId ID of the CloudSim entity that represents the link's destination node
+		 * @param bw Link's bandwidth
+		 * @param lat link's latency
+		 * @return this builder
+		 */
+		public Builder addLink(int srcId, int destId, double bw, double lat) {
+			links.add(new TopologicalLink(srcId, destId, (float) lat, (float) bw));
+			return this;
+		}
+
+		/**
+		 * Adds the links to the network topology.
+		 */
+		public void build() {
+			for (TopologicalLink link : links) {
+				addLinkToGraph(link.getSrcNodeID(), link.getDestNodeID(), link.getLinkBw(), link.getLinkDelay());
+			}
+			links.clear();
+			generateMatrices();
+		}
 	}
 
 	/**
@@ -199,7 +324,7 @@ public class NetworkTopology {
 				// this CloudSim entity was already mapped?
 				if (!map.containsKey(cloudSimEntityID)) {
 					if (!map.containsValue(briteID)) { // this BRITE node was already mapped?
-						map.put(cloudSimEntityID, briteID);
+						putMapping(cloudSimEntityID, briteID);
 					} else {
 						Log.printlnConcat("Error in network mapping. BRITE node ", briteID, " already in use.");
 					}
@@ -225,6 +350,9 @@ public class NetworkTopology {
 		if (networkEnabled) {
 			try {
 				map.remove(cloudSimEntityID);
+				if (cloudSimEntityID < briteIds.length) {
+					briteIds[cloudSimEntityID] = -1;
+				}
 			} catch (Exception e) {
 				Log.printlnConcat("Error in network unmapping. CloudSim node: ", cloudSimEntityID);
 			}
@@ -242,12 +370,14 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		if (networkEnabled && srcID >= 0 && destID >= 0 && srcID < briteIds.length && destID < briteIds.length) {
+			int src = briteIds[srcID];
+			int dest = briteIds[destID];
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
-
-				return delay;
+				if (src >= 0 && dest >= 0) {
+					return delayMatrix.getDelay(src, dest);
+				}
 			} catch (Exception e) {
 				// in case of error, just keep running and return 0.0
 			}
@@ -255,6 +385,33 @@ public class NetworkTopology {
 		return 0.0;
 	}
 
+	/**
+	 * Maps a CloudSim entity to a BRITE node, in {@link #map} and {@link #briteIds}.
+	 */
+	private static void putMapping(int cloudSimEntityID, int briteID) {
+		map.put(cloudSimEntityID, briteID);
+		if (cloudSimEntityID >= briteIds.length) {
+			int length = briteIds.length;
+			briteIds = Arrays.copyOf(briteIds, Math.max(cloudSimEntityID + 1, 2 * length));
+			Arrays.fill(briteIds, length, briteIds.length, -1);
+		}
+		briteIds[cloudSimEntityID] = briteID;
+	}
+
+	/**
+	 * Removes the network topology, disabling the network simulation.
+	 */
+	static void reset() {
+		nextIdx = 0;
+		networkEnabled = false;
+		delayMatrix = null;
+		bwMatrix = null;
+		graph = null;
+		map = null;
+		briteIds = new int[0];
+		linkDelays = new HashMap<>();
+	}
+
 	/**
 	 * Checks if the network simulation is working. If there were some problem during
 	 * creation of network (e.g., during parsing of BRITE file) that does not allow a proper
@@ -0,0 +1,110 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.util.PlanetLabTraceStore;
+
+/**
+ * Defines the resource utilization model based on
+ * a <a href="https://www.planet-lab.org">PlanetLab</a>
+ * datacenter trace read from a {@link PlanetLabTraceStore}.
+ * <p>
+ * It gives the same utilization as {@link UtilizationModelPlanetLabInMemory}, but the samples stay
+ * in the memory-mapped store shared by all the models, so creating a model neither reads a file
+ * nor allocates the samples.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class UtilizationModelPlanetLabMapped implements UtilizationModel {
+
+	/** The store holding the trace. */
+	private final PlanetLabTraceStore store;
+
+	/** The index of the trace in the store. */
+	private final int trace;
+
+	/** The scheduling interval. */
+	private double schedulingInterval;
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model from a trace of a store.
+	 *
+	 * @param store the store holding the trace
+	 * @param trace the index of the trace in the store
+	 * @param schedulingInterval the time between two samples
+	 */
+	public UtilizationModelPlanetLabMapped(PlanetLabTraceStore store, int trace, double schedulingInterval) {
+		if (trace < 0 || trace >= store.getNumberOfTraces()) {
+			throw new IllegalArgumentException("No trace " + trace + " in the store");
+		}
+		this.store = store;
+		this.trace = trace;
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	/**
+	 * Instantiates a new PlanetLab resource utilization model from a trace of a store.
+	 *
+	 * @param store the store holding the trace
+	 * @param traceName the name of the trace file converted into the store
+	 * @param schedulingInterval the time between two samples
+	 */
+	public UtilizationModelPlanetLabMapped(PlanetLabTraceStore store, String traceName, double schedulingInterval) {
+		this(store, store.getTraceIndex(traceName), schedulingInterval);
+	}
+
+	@Override
+	public double getUtilization(double time) {
+		if (time % getSchedulingInterval() == 0) {
+			return store.getUtilization(trace, (int) time / (int) getSchedulingInterval());
+		}
+		int time1 = (int) Math.floor(time / getSchedulingInterval());
+		int time2 = (int) Math.ceil(time / getSchedulingInterval());
+		double utilization1 = store.getUtilization(trace, time1);
+		double utilization2 = store.getUtilization(trace, time2);
+		double delta = (utilization2 - utilization1) / ((time2 - time1) * getSchedulingInterval());
+		return utilization1 + delta * (time - time1 * getSchedulingInterval());
+	}
+
+	/**
+	 * Sets the scheduling interval.
+	 *
+	 * @param schedulingInterval the new scheduling interval
+	 */
+	public void setSchedulingInterval(double schedulingInterval) {
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	/**
+	 * Gets the scheduling interval.
+	 *
+	 * @return the scheduling interval
+	 */
+	public double getSchedulingInterval() {
+		return schedulingInterval;
+	}
+
+	/**
+	 * Gets the store holding the trace.
+	 *
+	 * @return the store
+	 */
+	public PlanetLabTraceStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Gets the index of the trace in the store.
+	 *
+	 * @return the index
+	 */
+	public int getTrace() {
+		return trace;
+	}
+}
@@ -99,6 +99,28 @@ public abstract class VmScheduler {
 		deallocatePesForGuest(vm);
 	}
 
+	/**
+	 * Checks whether {@link #allocatePesForGuest(GuestEntity, List)} would succeed for a guest,
+	 * without allocating anything. This implementation checks that no virtual PE requests more
+	 * MIPS than the capacity of a physical PE and that the total request fits in the available
+	 * MIPS; schedulers with other admission rules override it.
+	 *
+	 * @param guest the guest
+	 * @param mipsShareRequested the list of MIPS share to be allocated to the guest
+	 * @return $true if the PEs could be allocated; $false otherwise
+	 */
+	public boolean isSuitableForGuest(GuestEntity guest, List<Double> mipsShareRequested) {
+		double totalRequestedMips = 0;
+		double peMips = getPeCapacity();
+		for (Double mips : mipsShareRequested) {
+			if (mips > peMips) {
+				return false;
+			}
+			totalRequestedMips += mips;
+		}
+		return getAvailableMips() >= totalRequestedMips;
+	}
+
 	/**
 	 * Releases PEs allocated to all the VMs of the host the VmScheduler is associated to.
          * After that, all PEs will be available to be used on demand for requesting VMs.
@@ -85,6 +85,32 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 		return true;
 	}
 
+	@Override
+	public boolean isSuitableForGuest(GuestEntity guest, List<Double> mipsShare) {
+		if (getFreePes().size() < mipsShare.size()) {
+			return false;
+		}
+		if (mipsShare.isEmpty()) {
+			return true;
+		}
+
+		// same PE selection as allocatePesForGuest, without taking the PEs
+		int selectedPes = 0;
+		Iterator<Pe> peIterator = getFreePes().iterator();
+		Pe pe = peIterator.next();
+		for (Double mips : mipsShare) {
+			if (mips <= pe.getMips()) {
+				selectedPes++;
+
+				if (!peIterator.hasNext()) {
+					break;
+				}
+				pe = peIterator.next();
+			}
+		}
+		return mipsShare.size() <= selectedPes;
+	}
+
 	@Override
 	public void deallocatePesForGuest(GuestEntity guest) {
 		getFreePes().addAll(getPeAllocationMap().get(guest.getUid()));
@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.cloudbus.cloudsim.core.GuestEntity;
 import org.cloudbus.cloudsim.lists.PeList;
 
 /**
@@ -36,6 +37,15 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		super(pelist);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * As this scheduler allows over-subscription, the PEs of a guest can always be allocated.
+	 */
+	@Override
+	public boolean isSuitableForGuest(GuestEntity guest, List<Double> mipsShareRequested) {
+		return true;
+	}
+
 	/**
 	 * Allocates PEs for vm. The policy allows over-subscription. In other words, the policy still
 	 * allows the allocation of VMs that require more CPU capacity than is available.
@@ -0,0 +1,324 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Event queue implemented as a calendar queue, which gives amortized O(1) insertion and removal
+ * when the event times are reasonably spread.
+ * <p>
+ * Events are hashed by time into an array of "days" (buckets) of a given width; a bucket holds the
+ * events of every "year" that fall into that day, kept sorted by {@link SimEvent#compareTo(SimEvent)}.
+ * The number of buckets and their width are recomputed whenever the queue size doubles or halves.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see <a href="https://doi.org/10.1145/63039.63045">R. Brown, Calendar queues: a fast O(1) priority
+ * queue implementation for the simulation event set problem, Communications of the ACM, 1988</a>
+ */
+public class CalendarEventQueue extends EventQueue {
+	/** The minimum number of buckets. */
+	private static final int MIN_BUCKETS = 2;
+
+	/** The number of events sampled to estimate the bucket width on resize. */
+	private static final int SAMPLE_SIZE = 25;
+
+	/** A node of the sorted linked list held by a bucket. */
+	private static final class Node {
+		SimEvent event;
+		Node next;
+
+		Node(SimEvent event) {
+			this.event = event;
+		}
+	}
+
+	/** The head of the sorted list of each bucket. */
+	private Node[] heads;
+
+	/** The tail of the sorted list of each bucket. */
+	private Node[] tails;
+
+	/** The width of a bucket, in simulation time. */
+	private double width;
+
+	/** The absolute index (i.e. time / width) of the bucket currently being dequeued. */
+	private long currentSlot;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** Whether the calendar can be resized; disabled while resizing. */
+	private boolean resizeEnabled = true;
+
+	public CalendarEventQueue() {
+		this(MIN_BUCKETS, 1.0);
+	}
+
+	/**
+	 * Creates a calendar queue.
+	 *
+	 * @param buckets the initial number of buckets
+	 * @param width the initial width of a bucket
+	 */
+	public CalendarEventQueue(int buckets, double width) {
+		if (buckets < MIN_BUCKETS || width <= 0) {
+			throw new IllegalArgumentException("Invalid calendar: buckets=" + buckets + ", width=" + width);
+		}
+		init(buckets, width, 0);
+	}
+
+	private void init(int buckets, double width, long startSlot) {
+		this.heads = new Node[buckets];
+		this.tails = new Node[buckets];
+		this.width = width;
+		this.currentSlot = startSlot;
+	}
+
+	private long slotOf(double time) {
+		return (long) (time / width);
+	}
+
+	private int bucketOf(long slot) {
+		return (int) (slot % heads.length);
+	}
+
+	@Override
+	public boolean add(SimEvent event) {
+		insert(new Node(event));
+		size++;
+		if (resizeEnabled && size > 2 * heads.length) {
+			resize(2 * heads.length);
+		}
+		return true;
+	}
+
+	private void insert(Node node) {
+		long slot = slotOf(node.event.eventTime());
+		if (slot < currentSlot) {
+			currentSlot = slot;
+		}
+
+		int i = bucketOf(slot);
+		Node head = heads[i];
+		if (head == null) {
+			heads[i] = tails[i] = node;
+			node.next = null;
+		} else if (tails[i].event.compareTo(node.event) < 0) {
+			// fast path: events are usually scheduled in non-decreasing (time, serial) order
+			tails[i].next = node;
+			tails[i] = node;
+			node.next = null;
+		} else if (node.event.compareTo(head.event) < 0) {
+			node.next = head;
+			heads[i] = node;
+		} else {
+			Node prev = head;
+			while (prev.next != null && prev.next.event.compareTo(node.event) < 0) {
+				prev = prev.next;
+			}
+			node.next = prev.next;
+			prev.next = node;
+		}
+	}
+
+	/**
+	 * Finds the bucket holding the first event, moving {@link #currentSlot} forward.
+	 *
+	 * @return the bucket index, or -1 if the queue is empty
+	 */
+	private int locateFirst() {
+		if (size == 0) {
+			return -1;
+		}
+
+		for (int n = 0; n < heads.length; n++) {
+			int i = bucketOf(currentSlot);
+			Node head = heads[i];
+			if (head != null && slotOf(head.event.eventTime()) <= currentSlot) {
+				return i;
+			}
+			currentSlot++;
+		}
+
+		// A whole year is empty: search directly for the minimum
+		int min = -1;
+		for (int i = 0; i < heads.length; i++) {
+			if (heads[i] != null && (min == -1 || heads[i].event.compareTo(heads[min].event) < 0)) {
+				min = i;
+			}
+		}
+		currentSlot = slotOf(heads[min].event.eventTime());
+		return min;
+	}
+
+	@Override
+	protected SimEvent removeFirst() {
+		int i = locateFirst();
+		if (i == -1) {
+			return null;
+		}
+
+		Node head = heads[i];
+		heads[i] = head.next;
+		if (head.next == null) {
+			tails[i] = null;
+		}
+		size--;
+
+		if (resizeEnabled && heads.length > MIN_BUCKETS && size < heads.length / 2 - 2) {
+			resize(heads.length / 2);
+		}
+		return head.event;
+	}
+
+	@Override
+	public SimEvent peek() {
+		int i = locateFirst();
+		return i == -1 ? null : heads[i].event;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		init(heads.length, width, 0);
+		size = 0;
+	}
+
+	/**
+	 * Re-hashes the events into a new number of buckets, estimating the bucket width from the
+	 * average separation of the first events in the queue.
+	 *
+	 * @param buckets the new number of buckets
+	 */
+	private void resize(int buckets) {
+		double newWidth = estimateWidth();
+
+		Node[] oldHeads = heads;
+		init(Math.max(buckets, MIN_BUCKETS), newWidth, Long.MAX_VALUE);
+		for (Node node : oldHeads) {
+			while (node != null) {
+				Node next = node.next;
+				insert(node);
+				node = next;
+			}
+		}
+		if (size == 0) {
+			currentSlot = 0;
+		}
+	}
+
+	private double estimateWidth() {
+		int samples = Math.min(size, SAMPLE_SIZE);
+		if (samples < 2) {
+			return width;
+		}
+
+		// dequeue the first events to sample their separation, then put them back
+		resizeEnabled = false;
+		int oldSize = size;
+		SimEvent[] first = new SimEvent[samples];
+		for (int i = 0; i < samples; i++) {
+			first[i] = removeFirst();
+		}
+		for (SimEvent event : first) {
+			add(event);
+		}
+		size = oldSize;
+		resizeEnabled = true;
+
+		double average = (first[samples - 1].eventTime() - first[0].eventTime()) / (samples - 1);
+		double total = 0;
+		int count = 0;
+		for (int i = 1; i < samples; i++) {
+			double separation = first[i].eventTime() - first[i - 1].eventTime();
+			if (separation < 2 * average) {
+				total += separation;
+				count++;
+			}
+		}
+
+		double newWidth = count > 0 ? 3 * total / count : 0;
+		return newWidth > 0 ? newWidth : width;
+	}
+
+	/**
+	 * Removes a given event from the queue.
+	 *
+	 * @param event the event to remove
+	 * @return true if the event was found
+	 */
+	private boolean remove(SimEvent event) {
+		int i = bucketOf(slotOf(event.eventTime()));
+		Node prev = null;
+		for (Node node = heads[i]; node != null; prev = node, node = node.next) {
+			if (node.event == event) {
+				if (prev == null) {
+					heads[i] = node.next;
+				} else {
+					prev.next = node.next;
+				}
+				if (tails[i] == node) {
+					tails[i] = prev;
+				}
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The iterator works on a snapshot of the queue, in bucket order.
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		SimEvent[] snapshot = new SimEvent[size];
+		int n = 0;
+		for (Node head : heads) {
+			for (Node node = head; node != null; node = node.next) {
+				snapshot[n++] = node.event;
+			}
+		}
+
+		return new Iterator<>() {
+			private int cursor = 0;
+			private SimEvent last;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < snapshot.length;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (cursor >= snapshot.length) {
+					throw new NoSuchElementException();
+				}
+				last = snapshot[cursor++];
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				CalendarEventQueue.this.remove(last);
+				last = null;
+			}
+		};
+	}
+}
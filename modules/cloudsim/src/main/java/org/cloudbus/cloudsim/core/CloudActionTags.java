@@ -178,6 +178,12 @@ public enum CloudActionTags implements CloudSimTags {
 	 */
 	CLOUDLET_MOVE_ACK,
 
+	/**
+	 * Denotes that the next jobs of the job source of a broker are due for submission.
+	 * This tag is normally used by a broker to itself.
+	 */
+	CLOUDLET_SOURCE_NEXT,
+
 	/**
 	 * Denotes a request to create a new VM in a {@link Datacenter}
 	 * with acknowledgement information sent by the Datacenter.
@@ -253,5 +259,10 @@ public enum CloudActionTags implements CloudSimTags {
 
 	NETWORK_PKT_DOWN,
 
-    NETWORK_PKT_REACHED_HOST
+    NETWORK_PKT_REACHED_HOST,
+
+	/**
+	 * Denotes the expected completion of the next flow of a flow-level datacenter network.
+	 */
+	NETWORK_FLOW_COMPLETED
 }
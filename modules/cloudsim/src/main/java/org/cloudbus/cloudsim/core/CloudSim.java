@@ -11,11 +11,14 @@ package org.cloudbus.cloudsim.core;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
@@ -159,6 +162,31 @@ public class CloudSim {
 	    init(numUser, cal, traceFlag);
 	    CloudSim.minTimeBetweenEvents = minTimeBetweenEvents;
 	}
+
+	/**
+	 * Initialises CloudSim parameters, using a given implementation of the future event list.
+	 * This method should be called before creating any entities.
+	 *
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueue the (empty) queue used to store the future events, e.g.
+	 *            {@link HeapEventQueue}, {@link CalendarEventQueue} or {@link LadderEventQueue}
+	 * @see #init(int, Calendar, boolean)
+	 * @pre numUser >= 0
+	 * @pre futureQueue != null
+	 * @post $none
+	 */
+	public static void init(int numUser, Calendar cal, boolean traceFlag, EventQueue futureQueue) {
+		if (futureQueue == null || !futureQueue.isEmpty()) {
+			throw new IllegalArgumentException("The future event queue should be an empty queue.");
+		}
+
+		init(numUser, cal, traceFlag);
+		future = futureQueue;
+		futureIndex = new FutureEventIndex();
+	}
 	
 	
 	
@@ -303,6 +331,9 @@ public class CloudSim {
 	/** The future event queue. */
 	protected static EventQueue future;
 
+	/** The index of the events in the future queue, used to cancel them. */
+	private static FutureEventIndex futureIndex;
+
 
 	/** 
          * The current simulation clock.
@@ -328,6 +359,18 @@ public class CloudSim {
 	/** The abrupt terminate. */
 	private static boolean abruptTerminate = false;
 
+	/** The pool used to run the entities in parallel, or null to run them sequentially. */
+	private static ForkJoinPool parallelPool = null;
+
+	/** Flag for checking if the entities are currently running in parallel. */
+	private static volatile boolean parallelPhase = false;
+
+	/** The buffer of the entity running on the current thread, while running in parallel. */
+	private static final ThreadLocal<EventBuffer> currentBuffer = new ThreadLocal<>();
+
+	/** The pool recycling the processed events, or null to allocate a new event for every send. */
+	private static EventPool eventPool = null;
+
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
@@ -336,10 +379,13 @@ public class CloudSim {
 		Log.println("Initialising...");
 		entities = new ArrayList<>();
 		entitiesByName = new LinkedHashMap<>();
-		future = new EventQueue();
+		future = new HeapEventQueue();
+		futureIndex = new FutureEventIndex();
 		waitPredicates = new HashMap<>();
 		clock = 0;
 		running = false;
+		parallelPool = null;
+		eventPool = null;
 	}
 
 	// The two standard predicates
@@ -457,11 +503,14 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
+		if (parallelPhase) {
+			throw new IllegalStateException("Entities can't be created while running in parallel dispatch mode.");
+		}
 		SimEvent evt;
 		if (running) {
 			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
-			future.addEvent(evt);
+			evt = newEvent(SimEvent.CREATE, clock, 1, 0, CloudActionTags.BLANK, e);
+			addFutureEvent(evt, false);
 		}
 		if (e.getId() == -1) { // Only add once!
 			int id = entities.size();
@@ -493,28 +542,179 @@ public class CloudSim {
 	 * @return true if there are events to be processed, false if event queue is empty
 	 */
 	private static boolean runClockTick() {
-		SimEntity ent;
-		for (int i = 0; i < entities.size(); i++) {
-			ent = entities.get(i);
-			if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
-				ent.run();
+		if (parallelPool != null) {
+			runEntitiesInParallel();
+		} else {
+			SimEntity ent;
+			for (int i = 0; i < entities.size(); i++) {
+				ent = entities.get(i);
+				if (ent.getState() == SimEntity.EntityStatus.RUNNABLE) {
+					ent.run();
+				}
 			}
 		}
 
-		if (future.isEmpty()) {
+		SimEvent first = peekFutureEvent();
+		if (first == null) {
 			running = false;
 			printMessage(CloudSim.clock()+": Simulation: No more future events");
 			return false;
 		}
 
-		double clk = future.peek().eventTime();
-		while (!future.isEmpty() && future.peek().eventTime() == clk) {
-			dispatchEvent(future.poll());
+		double clk = first.eventTime();
+		while (first != null && first.eventTime() == clk) {
+			SimEvent e = future.poll();
+			if (e != null) {
+				futureIndex.remove(e);
+			}
+			dispatchEvent(e);
+			first = peekFutureEvent();
 		}
 
 		return true;
 	}
 
+	/**
+	 * Runs the runnable entities having events to process on {@link #parallelPool}. The changes
+	 * they make to the future queue are buffered and applied afterwards in entity id order,
+	 * which gives the same future queue (and serial numbers) as running them sequentially.
+	 */
+	private static void runEntitiesInParallel() {
+		List<SimEntity> busy = new ArrayList<>();
+		for (SimEntity ent : entities) {
+			if (ent.getState() == SimEntity.EntityStatus.RUNNABLE && !ent.getIncomingEvents().isEmpty()) {
+				busy.add(ent);
+			}
+		}
+		if (busy.size() < 2) {
+			for (SimEntity ent : busy) {
+				ent.run();
+			}
+			return;
+		}
+
+		List<EventBuffer> buffers = new ArrayList<>(busy.size());
+		List<Callable<Void>> tasks = new ArrayList<>(busy.size());
+		for (SimEntity ent : busy) {
+			EventBuffer buffer = new EventBuffer();
+			buffers.add(buffer);
+			tasks.add(() -> {
+				currentBuffer.set(buffer);
+				try {
+					ent.run();
+				} finally {
+					currentBuffer.remove();
+				}
+				return null;
+			});
+		}
+
+		parallelPhase = true;
+		try {
+			for (Future<Void> task : parallelPool.invokeAll(tasks)) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running the entities in parallel.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			} else if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			parallelPhase = false;
+		}
+
+		for (EventBuffer buffer : buffers) {
+			for (EventBuffer.Scheduled scheduled : buffer.getScheduled()) {
+				SimEvent e = scheduled.event();
+				if (scheduled.first()) {
+					future.addEventFirst(e);
+				} else {
+					future.addEvent(e);
+				}
+				if (!e.isCancelled()) {
+					futureIndex.add(e);
+				}
+			}
+			for (SimEvent e : buffer.getCancelled()) {
+				futureIndex.remove(e);
+			}
+		}
+	}
+
+	/**
+	 * Gets the buffer of the entity running on the current thread, while running in parallel.
+	 *
+	 * @return the buffer
+	 */
+	private static EventBuffer getCurrentBuffer() {
+		EventBuffer buffer = currentBuffer.get();
+		if (buffer == null) {
+			throw new IllegalStateException("The future queue can only be changed by the running entities.");
+		}
+		return buffer;
+	}
+
+	/**
+	 * Adds an event to the future queue.
+	 *
+	 * @param e the event
+	 * @param first whether the event has priority over the other events at the same time
+	 */
+	private static void addFutureEvent(SimEvent e, boolean first) {
+		if (parallelPhase) {
+			getCurrentBuffer().schedule(e, first);
+			return;
+		}
+		if (first) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+		}
+		futureIndex.add(e);
+	}
+
+	/**
+	 * Creates an event, taking it from the {@link #eventPool} if pooling is enabled.
+	 */
+	private static SimEvent newEvent(int type, double time, int src, int dest, CloudSimTags tag, Object data) {
+		if (eventPool != null && !parallelPhase) {
+			return eventPool.acquire(type, time, src, dest, tag, data);
+		}
+		return new SimEvent(type, time, src, dest, tag, data);
+	}
+
+	/**
+	 * Gives back to the {@link #eventPool} an event that has been processed, if pooling is enabled.
+	 * This method should <b>not</b> be called in simulations.
+	 *
+	 * @param e the event
+	 */
+	static void releaseEvent(SimEvent e) {
+		if (eventPool != null && !parallelPhase) {
+			eventPool.release(e);
+		}
+	}
+
+	/**
+	 * Gets the first event of the future queue, discarding the cancelled events found at the head
+	 * of the queue.
+	 *
+	 * @return the first event, or null if there are no future events
+	 */
+	private static SimEvent peekFutureEvent() {
+		SimEvent first = future.peek();
+		while (first != null && first.isCancelled()) {
+			future.removeFirst();
+			first = future.peek();
+		}
+		return first;
+	}
+
 	/**
 	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
 	 */
@@ -529,8 +729,8 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int srcId, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, srcId);
-		future.addEvent(e);
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, clock + delay, srcId, srcId, CloudActionTags.BLANK, null);
+		addFutureEvent(e, false);
 		entities.get(srcId).setState(SimEntity.EntityStatus.HOLDING);
 	}
 
@@ -551,8 +751,8 @@ public class CloudSim {
 			throw new RuntimeException("Send delay can't be infinite.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEvent(e);
+		SimEvent e = newEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
+		addFutureEvent(e, false);
 	}
 
 	/**
@@ -569,8 +769,8 @@ public class CloudSim {
 			throw new IllegalArgumentException("Send delay can't be negative.");
 		}
 
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
-		future.addEventFirst(e);
+		SimEvent e = newEvent(SimEvent.SEND, clock + delay, srcId, dstId, tag, data);
+		addFutureEvent(e, true);
 	}
 
 	/**
@@ -585,28 +785,42 @@ public class CloudSim {
 		entities.get(srcId).setState(SimEntity.EntityStatus.WAITING);
 		if (p != SIM_ANY) {
 			// If a predicate has been used store it in order to check it
-			waitPredicates.put(srcId, p);
+			synchronized (waitPredicates) {
+				waitPredicates.put(srcId, p);
+			}
 		}
 	}
 
 	/**
-	 * Removes an event from the event queue.
+	 * Removes an event from the event queue. If several events match, the first one
+	 * in the queue is removed.
+	 * <p>
+	 * Only the events sent by the given entity are inspected (see {@link FutureEventIndex});
+	 * the cancelled event is discarded when it reaches the head of the future queue.
 	 * 
 	 * @param srcId the entity source id
 	 * @param p the p
 	 * @return the sim event
 	 */
 	public static SimEvent cancel(int srcId, Predicate p) {
-		SimEvent ev;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
-				return ev;
+		SimEvent ev = futureIndex.findFirst(srcId, p);
+		if (parallelPhase) {
+			EventBuffer buffer = getCurrentBuffer();
+			SimEvent buffered = buffer.findFirst(srcId, p, ev);
+			if (buffered != null) {
+				buffered.cancel();
+				return buffered;
+			} else if (ev != null) {
+				ev.cancel();
+				buffer.cancelled(ev);
 			}
+			return ev;
 		}
-		return null;
+
+		if (ev != null) {
+			cancelFutureEvent(ev);
+		}
+		return ev;
 	}
 
 	/**
@@ -618,16 +832,34 @@ public class CloudSim {
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int srcId, Predicate p) {
-		SimEvent ev;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSourceId() == srcId && p.match(ev)) {
-				iter.remove();
+		List<SimEvent> events = futureIndex.findAll(srcId, p);
+		if (parallelPhase) {
+			EventBuffer buffer = getCurrentBuffer();
+			List<SimEvent> buffered = buffer.findAll(srcId, p);
+			for (SimEvent ev : events) {
+				ev.cancel();
+				buffer.cancelled(ev);
 			}
+			for (SimEvent ev : buffered) {
+				ev.cancel();
+			}
+			return !events.isEmpty() || !buffered.isEmpty();
+		}
+
+		for (SimEvent ev : events) {
+			cancelFutureEvent(ev);
 		}
-		return previousSize < future.size();
+		return !events.isEmpty();
+	}
+
+	/**
+	 * Cancels an event of the future queue.
+	 *
+	 * @param ev the event
+	 */
+	private static void cancelFutureEvent(SimEvent ev) {
+		ev.cancel();
+		futureIndex.remove(ev);
 	}
 
 	//
@@ -655,6 +887,7 @@ public class CloudSim {
 			case SimEvent.ENULL -> throw new IllegalArgumentException("Event has a null type.");
 			case SimEvent.CREATE -> {
 				addEntityDynamically((SimEntity) e.getData());
+				releaseEvent(e);
 			}
 			case SimEvent.SEND -> {
                 if (destEnt.getState() == SimEntity.EntityStatus.WAITING) { // NOTE: this branch is never used
@@ -667,7 +900,10 @@ public class CloudSim {
                 }
 				destEnt.getIncomingEvents().add(e);
             }
-			case SimEvent.HOLD_DONE -> entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
+			case SimEvent.HOLD_DONE -> {
+				entities.get(srcId).setState(SimEntity.EntityStatus.RUNNABLE);
+				releaseEvent(e);
+			}
 			default -> {
 			}
 		}
@@ -687,6 +923,68 @@ public class CloudSim {
 		printMessage("Entities started.");
 	}
 
+	/**
+	 * Enables or disables the conservative parallel dispatch mode, in which the entities having
+	 * events to process at the same clock tick run in parallel on the common {@link ForkJoinPool}.
+	 * The events they send and cancel are buffered and merged in entity id order, so the
+	 * simulation gives the same results as the sequential one, as long as the entities processing
+	 * events at the same time do not share mutable state. In this mode, entities can't be created
+	 * while the simulation is running and the order of the log messages of different entities
+	 * is not deterministic.
+	 * <p>
+	 * This method should be called after {@link #init(int, Calendar, boolean)}, which disables the
+	 * parallel mode.
+	 *
+	 * @param enabled true to run the entities in parallel
+	 */
+	public static void setParallelDispatch(boolean enabled) {
+		setParallelDispatch(enabled ? ForkJoinPool.commonPool() : null);
+	}
+
+	/**
+	 * Enables the conservative parallel dispatch mode using a given pool, or disables it.
+	 *
+	 * @param pool the pool where to run the entities, or null to run them sequentially
+	 * @see #setParallelDispatch(boolean)
+	 */
+	public static void setParallelDispatch(ForkJoinPool pool) {
+		parallelPool = pool;
+	}
+
+	/**
+	 * Enables or disables the recycling of the events. When enabled, an event is given back to
+	 * a pool as soon as {@link SimEntity#processEvent(SimEvent)} returns, and reused by a following
+	 * send, which saves most of the allocations of the simulation core. Entities must then
+	 * <b>not</b> keep a reference to the events they process (their data can be kept).
+	 * Events obtained through {@link SimEntity#selectEvent} or cancelled events are never recycled.
+	 * <p>
+	 * This method should be called after {@link #init(int, Calendar, boolean)}, which disables the
+	 * pooling. Events sent while running in parallel dispatch mode are not pooled.
+	 *
+	 * @param enabled true to recycle the events
+	 */
+	public static void setEventPooling(boolean enabled) {
+		eventPool = enabled ? new EventPool() : null;
+	}
+
+	/**
+	 * Checks if the events are recycled.
+	 *
+	 * @return true if event pooling is enabled
+	 */
+	public static boolean isEventPooling() {
+		return eventPool != null;
+	}
+
+	/**
+	 * Checks if the entities run in parallel.
+	 *
+	 * @return true if the parallel dispatch mode is enabled
+	 */
+	public static boolean isParallelDispatch() {
+		return parallelPool != null;
+	}
+
 	/**
 	 * Check if the simulation is still running. This method should be used by entities to check if
 	 * they should continue executing.
@@ -759,9 +1057,10 @@ public class CloudSim {
 				break;
 			}
 
+			SimEvent next = peekFutureEvent();
 			if (pauseAt != -1
-					&& ((!future.isEmpty() && clock <= pauseAt && pauseAt <= future.peek()
-							.eventTime()) || future.isEmpty() && pauseAt <= clock)) {
+					&& ((next != null && clock <= pauseAt && pauseAt <= next.eventTime())
+							|| next == null && pauseAt <= clock)) {
 				pauseSimulation();
 				clock = pauseAt;
 			}
@@ -806,10 +1105,13 @@ public class CloudSim {
 		entities = null;
 		entitiesByName = null;
 		future = null;
+		futureIndex = null;
 		clock = 0L;
 		running = false;
 
 		waitPredicates = null;
+		parallelPool = null;
+		eventPool = null;
 		paused = false;
 		pauseAt = -1;
 		abruptTerminate = false;
@@ -0,0 +1,250 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The deferred queue of a {@link SimEntity}, holding the events dispatched to the entity and not
+ * processed yet.
+ * <p>
+ * {@link CloudSim} dispatches the events in time order, so they are almost always appended after
+ * the last one: the events are kept in a FIFO deque, with O(1) insertion and removal, and an
+ * ordered insertion from the tail is only needed for the rare events arriving out of order.
+ * The events are also grouped by tag, so selecting the first event matching a {@link PredicateType}
+ * does not scan the whole queue. The events removed from the middle of the queue by
+ * {@link #removeFirst(Predicate)} are only dropped from the deque when they reach its head.
+ * <p>
+ * Unlike the future event list, the deferred queue is only polled by its entity while the
+ * simulation runs, so {@link #poll()} does not check {@link CloudSim#running()}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class DeferredQueue extends EventQueue {
+	/** The events, in time order, including the ones already removed by a predicate. */
+	private final ArrayDeque<SimEvent> events = new ArrayDeque<>();
+
+	/** The events of each tag, in time order. */
+	private final Map<CloudSimTags, ArrayDeque<SimEvent>> eventsByTag = new HashMap<>();
+
+	/** The events removed by a predicate but still in {@link #events}. */
+	private final Set<SimEvent> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	@Override
+	public boolean add(SimEvent event) {
+		if (!removed.isEmpty() && removed.remove(event)) {
+			// an event removed by a predicate and added back
+			events.removeFirstOccurrence(event);
+		}
+		insert(events, event);
+		insert(eventsByTag.computeIfAbsent(event.getTag(), k -> new ArrayDeque<>()), event);
+		return true;
+	}
+
+	/**
+	 * Inserts an event in an ordered deque, starting from its tail.
+	 */
+	private static void insert(ArrayDeque<SimEvent> deque, SimEvent event) {
+		SimEvent last = deque.peekLast();
+		if (last == null || last.compareTo(event) < 0) {
+			deque.addLast(event);
+			return;
+		}
+
+		ArrayDeque<SimEvent> later = new ArrayDeque<>();
+		while (!deque.isEmpty() && deque.peekLast().compareTo(event) > 0) {
+			later.addFirst(deque.pollLast());
+		}
+		deque.addLast(event);
+		deque.addAll(later);
+	}
+
+	@Override
+	public SimEvent poll() {
+		return removeFirst();
+	}
+
+	@Override
+	protected SimEvent removeFirst() {
+		SimEvent event = peek();
+		if (event != null) {
+			events.pollFirst();
+			eventsByTag.get(event.getTag()).pollFirst();
+		}
+		return event;
+	}
+
+	@Override
+	public SimEvent peek() {
+		SimEvent event = events.peekFirst();
+		while (event != null && !removed.isEmpty() && removed.remove(event)) {
+			events.pollFirst();
+			event = events.peekFirst();
+		}
+		return event;
+	}
+
+	@Override
+	public int size() {
+		return events.size() - removed.size();
+	}
+
+	@Override
+	public void clear() {
+		events.clear();
+		eventsByTag.clear();
+		removed.clear();
+	}
+
+	/**
+	 * Finds the first event matching a predicate.
+	 *
+	 * @param p the predicate
+	 * @return the event, or null if there is none
+	 */
+	public SimEvent findFirst(Predicate p) {
+		if (p instanceof PredicateAny) {
+			return peek();
+		} else if (p instanceof PredicateType predicateType) {
+			SimEvent first = null;
+			for (CloudSimTags tag : predicateType.getTags()) {
+				ArrayDeque<SimEvent> bucket = eventsByTag.get(tag);
+				SimEvent event = bucket != null ? bucket.peekFirst() : null;
+				if (event != null && (first == null || event.compareTo(first) < 0)) {
+					first = event;
+				}
+			}
+			return first;
+		}
+
+		for (SimEvent event : this) {
+			if (p.match(event)) {
+				return event;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the first event matching a predicate.
+	 *
+	 * @param p the predicate
+	 * @return the removed event, or null if there is none
+	 */
+	public SimEvent removeFirst(Predicate p) {
+		SimEvent event = findFirst(p);
+		if (event != null) {
+			remove(event);
+		}
+		return event;
+	}
+
+	/**
+	 * Counts the events matching a predicate.
+	 *
+	 * @param p the predicate
+	 * @return the number of events
+	 */
+	public int count(Predicate p) {
+		if (p instanceof PredicateAny) {
+			return size();
+		} else if (p instanceof PredicateType predicateType) {
+			int count = 0;
+			for (CloudSimTags tag : predicateType.getTags()) {
+				ArrayDeque<SimEvent> bucket = eventsByTag.get(tag);
+				count += bucket != null ? bucket.size() : 0;
+			}
+			return count;
+		}
+
+		int count = 0;
+		for (SimEvent event : this) {
+			if (p.match(event)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Removes an event of the queue.
+	 */
+	private void remove(SimEvent event) {
+		if (events.peekFirst() == event) {
+			events.pollFirst();
+		} else {
+			removed.add(event);
+		}
+		ArrayDeque<SimEvent> bucket = eventsByTag.get(event.getTag());
+		if (bucket.peekFirst() == event) {
+			bucket.pollFirst();
+		} else {
+			bucket.removeFirstOccurrence(event);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The events are iterated in time order.
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new Iterator<>() {
+			private final Iterator<SimEvent> it = events.iterator();
+			private SimEvent next = advance();
+			private SimEvent last;
+
+			private SimEvent advance() {
+				while (it.hasNext()) {
+					SimEvent event = it.next();
+					if (removed.isEmpty() || !removed.contains(event)) {
+						return event;
+					}
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next = advance();
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				removed.add(last);
+				eventsByTag.get(last.getTag()).removeFirstOccurrence(last);
+				last = null;
+			}
+		};
+	}
+}
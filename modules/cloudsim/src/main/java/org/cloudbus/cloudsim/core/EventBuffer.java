@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers the changes an entity makes to the future queue while it runs in parallel with other
+ * entities (see {@link CloudSim#setParallelDispatch(boolean)}). Once all the entities of a clock tick
+ * are done, the buffers are replayed one after the other in entity id order, so the future queue
+ * ends up exactly as if the entities had run sequentially.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class EventBuffer {
+	/** An event scheduled by the entity, not added to the future queue yet. */
+	record Scheduled(SimEvent event, boolean first) {}
+
+	/** The events scheduled by the entity, in the order they were sent. */
+	private final List<Scheduled> scheduled = new ArrayList<>();
+
+	/** The events of the future queue cancelled by the entity. */
+	private final List<SimEvent> cancelled = new ArrayList<>();
+
+	void schedule(SimEvent event, boolean first) {
+		scheduled.add(new Scheduled(event, first));
+	}
+
+	void cancelled(SimEvent event) {
+		cancelled.add(event);
+	}
+
+	List<Scheduled> getScheduled() {
+		return scheduled;
+	}
+
+	List<SimEvent> getCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Finds the first buffered event sent by a given entity that matches a predicate, if it would
+	 * come before a given event of the future queue.
+	 *
+	 * @param srcId the source entity id
+	 * @param p the predicate
+	 * @param queued the first matching event of the future queue, or null
+	 * @return the buffered event, or null if there is none or <tt>queued</tt> comes first
+	 */
+	SimEvent findFirst(int srcId, Predicate p, SimEvent queued) {
+		Scheduled first = null;
+		for (Scheduled s : scheduled) {
+			SimEvent ev = s.event();
+			if (ev.getSourceId() != srcId || ev.isCancelled() || !p.match(ev)) {
+				continue;
+			}
+			if (first == null || ev.eventTime() < first.event().eventTime()
+					|| (ev.eventTime() == first.event().eventTime() && s.first() && !first.first())) {
+				first = s;
+			}
+		}
+		if (first == null) {
+			return null;
+		}
+		if (queued == null || first.event().eventTime() < queued.eventTime()) {
+			return first.event();
+		}
+		// buffered events get a serial after all the queued ones, unless sent with priority
+		boolean before = first.event().eventTime() == queued.eventTime() && first.first() && queued.getSerial() != 0;
+		return before ? first.event() : null;
+	}
+
+	/**
+	 * Finds all the buffered events sent by a given entity that match a predicate.
+	 *
+	 * @param srcId the source entity id
+	 * @param p the predicate
+	 * @return the events
+	 */
+	List<SimEvent> findAll(int srcId, Predicate p) {
+		List<SimEvent> matches = new ArrayList<>();
+		for (Scheduled s : scheduled) {
+			SimEvent ev = s.event();
+			if (ev.getSourceId() == srcId && !ev.isCancelled() && p.match(ev)) {
+				matches.add(ev);
+			}
+		}
+		return matches;
+	}
+}
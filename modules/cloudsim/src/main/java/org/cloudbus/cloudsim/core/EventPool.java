@@ -0,0 +1,54 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of {@link SimEvent} instances, used by {@link CloudSim} to recycle the events once they
+ * have been processed instead of allocating a new event for every send.
+ * <p>
+ * The pool is bounded: in a running simulation, events are released about as fast as they are
+ * acquired, so only a few instances are needed to absorb the fluctuations.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see CloudSim#setEventPooling(boolean)
+ */
+class EventPool {
+	/** The maximum number of idle events kept by the pool. */
+	private static final int MAX_SIZE = 1024;
+
+	/** The idle events. */
+	private final ArrayDeque<SimEvent> idle = new ArrayDeque<>(MAX_SIZE);
+
+	/**
+	 * Gets an event, reusing an idle instance if there is one.
+	 */
+	SimEvent acquire(int type, double time, int src, int dest, CloudSimTags tag, Object data) {
+		SimEvent event = idle.pollLast();
+		if (event == null) {
+			return new SimEvent(type, time, src, dest, tag, data);
+		}
+		event.init(type, time, src, dest, tag, data);
+		return event;
+	}
+
+	/**
+	 * Gives back an event that is not referenced by the simulation anymore.
+	 *
+	 * @param event the event
+	 */
+	void release(SimEvent event) {
+		if (idle.size() < MAX_SIZE) {
+			// drop the reference to the data, which may be big
+			event.init(SimEvent.ENULL, 0, -1, -1, null, null);
+			idle.addLast(event);
+		}
+	}
+}
@@ -11,48 +11,106 @@ package org.cloudbus.cloudsim.core;
 import org.cloudbus.cloudsim.Log;
 
 import java.util.Iterator;
-import java.util.PriorityQueue;
 
 /**
- * This class implements the event queue used by {@link CloudSim}.
+ * This class defines the event queue used by {@link CloudSim}. Events are kept ordered by
+ * {@link SimEvent#eventTime()} and, for events scheduled at the same time, by the serial number
+ * assigned when they are added to the queue (see {@link SimEvent#compareTo(SimEvent)}).
+ * <p>
+ * Concrete implementations only have to provide the storage strategy; the serial numbering
+ * is shared by all of them. The future event list implementation can be selected
+ * through {@link CloudSim#init(int, java.util.Calendar, boolean, EventQueue)}.
  *
  * @author Remo Andreoli
  * @since CloudSim Toolkit 7.0
- *
+ * @see HeapEventQueue
+ * @see CalendarEventQueue
+ * @see LadderEventQueue
  */
-public class EventQueue extends PriorityQueue<SimEvent> {
+public abstract class EventQueue implements Iterable<SimEvent> {
 	/** A incremental number used for event attribute */
 	private long serial = 0;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order of
 	 * the events in the queue.
-	 * 
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
-		this.add(newEvent);
+		add(newEvent);
 	}
 
 	/**
 	 * Adds a new event to the head of the queue.
-	 * 
+	 *
 	 * @param newEvent The event to be put in the queue.
 	 */
 	public void addEventFirst(SimEvent newEvent) {
 		newEvent.setSerial(0);
-		this.add(newEvent);
+		add(newEvent);
 	}
 
-	@Override
+	/**
+	 * Adds an event to the queue keeping its current serial number.
+	 *
+	 * @param event The event to be put in the queue.
+	 * @return true if the queue changed
+	 */
+	public abstract boolean add(SimEvent event);
+
+	/**
+	 * Retrieves and removes the first event of the queue.
+	 *
+	 * @return the first event, or null if the queue is empty or the simulation is not running
+	 */
 	public SimEvent poll() {
 		if (!CloudSim.running()) {
 			return null;
 		}
-		return super.poll();
+		return removeFirst();
 	}
 
+	/**
+	 * Retrieves and removes the first event of the queue, regardless of the simulation state.
+	 *
+	 * @return the first event, or null if the queue is empty
+	 */
+	protected abstract SimEvent removeFirst();
+
+	/**
+	 * Retrieves, but does not remove, the first event of the queue.
+	 *
+	 * @return the first event, or null if the queue is empty
+	 */
+	public abstract SimEvent peek();
+
+	/**
+	 * Gets the number of events in the queue.
+	 *
+	 * @return the queue size
+	 */
+	public abstract int size();
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all the events from the queue.
+	 */
+	public abstract void clear();
+
+	/**
+	 * Gets an iterator over the events of the queue. The iteration order is implementation
+	 * specific; the iterator supports {@link Iterator#remove()}.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	public abstract Iterator<SimEvent> iterator();
+
 	public void print() {
 		Iterator<SimEvent> iter = iterator();
 		int i = 0;
@@ -61,4 +119,4 @@ public class EventQueue extends PriorityQueue<SimEvent> {
 			i++;
 		}
 	}
-}
\ No newline at end of file
+}
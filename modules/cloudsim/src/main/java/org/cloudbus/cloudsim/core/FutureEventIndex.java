@@ -0,0 +1,130 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary index of the events waiting in the future queue of {@link CloudSim}, grouped by
+ * source entity and tag. It allows {@link CloudSim#cancel(int, Predicate)} and
+ * {@link CloudSim#cancelAll(int, Predicate)} to only look at the events scheduled by the given
+ * entity (and, for {@link PredicateType}, only at the events with the requested tags) instead of
+ * scanning the whole future queue.
+ * <p>
+ * Cancelled events are skipped, since in parallel dispatch mode their removal from the index is
+ * deferred to the end of the clock tick.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class FutureEventIndex {
+	/** The pending events, by source entity id and tag. */
+	private final Map<Integer, Map<CloudSimTags, Set<SimEvent>>> eventsBySource = new HashMap<>();
+
+	/**
+	 * Indexes an event that has been added to the future queue.
+	 *
+	 * @param event the event
+	 */
+	void add(SimEvent event) {
+		eventsBySource.computeIfAbsent(event.getSourceId(), k -> new HashMap<>())
+				.computeIfAbsent(event.getTag(), k -> new HashSet<>())
+				.add(event);
+	}
+
+	/**
+	 * Removes an event that left the future queue (either dispatched or cancelled).
+	 *
+	 * @param event the event
+	 */
+	void remove(SimEvent event) {
+		Map<CloudSimTags, Set<SimEvent>> byTag = eventsBySource.get(event.getSourceId());
+		if (byTag != null) {
+			Set<SimEvent> events = byTag.get(event.getTag());
+			if (events != null) {
+				events.remove(event);
+			}
+		}
+	}
+
+	/**
+	 * Gets the sets of events of a given source that may match a predicate.
+	 *
+	 * @param srcId the source entity id
+	 * @param p the predicate
+	 * @return the candidate sets; their events still have to be checked against the predicate
+	 */
+	private Iterable<Set<SimEvent>> candidates(int srcId, Predicate p) {
+		Map<CloudSimTags, Set<SimEvent>> byTag = eventsBySource.get(srcId);
+		if (byTag == null) {
+			return Collections.emptyList();
+		}
+
+		if (p instanceof PredicateType predicateType) {
+			List<Set<SimEvent>> candidates = new ArrayList<>();
+			for (CloudSimTags tag : predicateType.getTags()) {
+				Set<SimEvent> events = byTag.get(tag);
+				if (events != null && !events.isEmpty()) {
+					candidates.add(events);
+				}
+			}
+			return candidates;
+		}
+		return byTag.values();
+	}
+
+	/**
+	 * Finds the first pending event (in queue order) sent by a given entity that matches a predicate.
+	 *
+	 * @param srcId the source entity id
+	 * @param p the predicate
+	 * @return the event, or null if there is none
+	 */
+	SimEvent findFirst(int srcId, Predicate p) {
+		SimEvent first = null;
+		boolean matchesAll = p instanceof PredicateType || p instanceof PredicateAny;
+		for (Set<SimEvent> events : candidates(srcId, p)) {
+			for (SimEvent event : events) {
+				if (!event.isCancelled() && (first == null || event.compareTo(first) < 0)
+						&& (matchesAll || p.match(event))) {
+					first = event;
+				}
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Finds all the pending events sent by a given entity that match a predicate.
+	 *
+	 * @param srcId the source entity id
+	 * @param p the predicate
+	 * @return the events
+	 */
+	List<SimEvent> findAll(int srcId, Predicate p) {
+		List<SimEvent> matches = new ArrayList<>();
+		for (Set<SimEvent> events : candidates(srcId, p)) {
+			for (SimEvent event : events) {
+				if (!event.isCancelled() && p.match(event)) {
+					matches.add(event);
+				}
+			}
+		}
+		return matches;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * Event queue backed by a binary heap ({@link PriorityQueue}). Insertion and removal
+ * cost O(log n). This is the default future event list of {@link CloudSim}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class HeapEventQueue extends EventQueue {
+	/** The heap holding the events. */
+	private final PriorityQueue<SimEvent> heap = new PriorityQueue<>();
+
+	@Override
+	public boolean add(SimEvent event) {
+		return heap.add(event);
+	}
+
+	@Override
+	protected SimEvent removeFirst() {
+		return heap.poll();
+	}
+
+	@Override
+	public SimEvent peek() {
+		return heap.peek();
+	}
+
+	@Override
+	public int size() {
+		return heap.size();
+	}
+
+	@Override
+	public void clear() {
+		heap.clear();
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return heap.iterator();
+	}
+}
@@ -408,6 +408,37 @@ public interface HostEntity extends CoreAttributes {
                 getGuestBwProvisioner().isSuitableForGuest(guest, guest.getCurrentRequestedBw()));
     }
 
+    /**
+     * Checks whether a guest entity could be created in the host, making the same checks as
+     * {@link #guestCreate(GuestEntity)} without allocating any resource. Allocation policies can then
+     * evaluate a host without creating and destroying the guest.
+     *
+     * @param guest the guest
+     * @return $true if {@link #guestCreate(GuestEntity)} would succeed; $false otherwise
+     */
+    default boolean canCreateGuest(GuestEntity guest) {
+        return getStorage() >= guest.getSize() &&
+                getGuestRamProvisioner().isSuitableForGuest(guest, guest.getCurrentRequestedRam()) &&
+                getGuestBwProvisioner().isSuitableForGuest(guest, guest.getCurrentRequestedBw()) &&
+                getGuestScheduler().isSuitableForGuest(guest, guest.getCurrentRequestedMips());
+    }
+
+    /**
+     * Gets the fraction of the host MIPS that would be requested by its guest entities if a given
+     * guest was added to them, without creating the guest.
+     *
+     * @param guest the guest
+     * @return the projected utilization, that may be greater than 1
+     */
+    default double projectUtilizationWith(GuestEntity guest) {
+        double totalRequestedMips = 0;
+        for (GuestEntity hostedGuest : getGuestList()) {
+            totalRequestedMips += hostedGuest.getCurrentRequestedTotalMips();
+        }
+        totalRequestedMips += guest.getCurrentRequestedTotalMips();
+        return totalRequestedMips / getTotalMips();
+    }
+
     /**
      * Checks if the host PEs have failed.
      *
@@ -0,0 +1,351 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Event queue implemented as a ladder queue, which gives amortized O(1) insertion and removal
+ * without having to tune a bucket width in advance.
+ * <p>
+ * Events are kept in three tiers:
+ * <ul>
+ * <li><b>top</b>: an unsorted list of the events beyond the range covered by the ladder;</li>
+ * <li><b>ladder</b>: a few rungs of buckets, each rung refining one bucket of the rung above;</li>
+ * <li><b>bottom</b>: a small sorted list with the events to be dequeued next.</li>
+ * </ul>
+ * Events are only sorted when a bucket small enough (or holding events all at the same time)
+ * is moved to the bottom. Ties are resolved by {@link SimEvent#compareTo(SimEvent)}.
+ *
+ * @since CloudSim Toolkit 7.0
+ * @see <a href="https://doi.org/10.1145/1103323.1103324">W.T. Tang, R.S.M. Goh, I.L.-J. Thng,
+ * Ladder queue: An O(1) priority queue structure for large-scale discrete event simulation,
+ * ACM TOMACS, 2005</a>
+ */
+public class LadderEventQueue extends EventQueue {
+	/** The maximum number of rungs of the ladder. */
+	private static final int MAX_RUNGS = 8;
+
+	/** The bucket size above which a bucket is split into a new rung instead of being sorted. */
+	private static final int THRESHOLD = 50;
+
+	/** A rung of the ladder: an array of buckets of the same width. */
+	private static final class Rung {
+		final double start;
+		final double width;
+		final List<SimEvent>[] buckets;
+		/** Index of the bucket currently being consumed; lower buckets are empty. */
+		int current;
+
+		@SuppressWarnings("unchecked")
+		Rung(double start, double width, int buckets) {
+			this.start = start;
+			this.width = width;
+			this.buckets = (List<SimEvent>[]) new List<?>[buckets];
+		}
+
+		int indexOf(double time) {
+			double index = (time - start) / width;
+			return index >= buckets.length ? buckets.length - 1 : (int) Math.floor(index);
+		}
+
+		void add(int i, SimEvent event) {
+			if (buckets[i] == null) {
+				buckets[i] = new ArrayList<>();
+			}
+			buckets[i].add(event);
+		}
+	}
+
+	/** The unsorted events beyond {@link #topStart}. */
+	private final List<SimEvent> top = new ArrayList<>();
+
+	/** Minimum and maximum time of the events in {@link #top}. */
+	private double topMin = Double.POSITIVE_INFINITY, topMax = Double.NEGATIVE_INFINITY;
+
+	/** Events later than this time go to {@link #top}. */
+	private double topStart = Double.NEGATIVE_INFINITY;
+
+	/** The rungs of the ladder; rung 0 is the coarsest one. */
+	private final Rung[] rungs = new Rung[MAX_RUNGS];
+
+	/** The number of rungs in use. */
+	private int nRungs = 0;
+
+	/** The sorted bottom list; the valid events are in [bottomHead, bottomTail). */
+	private SimEvent[] bottom = new SimEvent[THRESHOLD];
+	private int bottomHead = 0, bottomTail = 0;
+
+	/** The number of events in the queue. */
+	private int size = 0;
+
+	@Override
+	public boolean add(SimEvent event) {
+		double time = event.eventTime();
+		size++;
+
+		if (time > topStart) {
+			top.add(event);
+			topMin = Math.min(topMin, time);
+			topMax = Math.max(topMax, time);
+			return true;
+		}
+
+		for (int r = 0; r < nRungs; r++) {
+			Rung rung = rungs[r];
+			int i = rung.indexOf(time);
+			if (i >= rung.current) {
+				rung.add(i, event);
+				return true;
+			}
+		}
+
+		addToBottom(event);
+		return true;
+	}
+
+	private void addToBottom(SimEvent event) {
+		if (bottomTail == bottom.length) {
+			int count = bottomTail - bottomHead;
+			if (count * 2 > bottom.length) {
+				bottom = Arrays.copyOf(bottom, bottom.length * 2);
+			}
+			System.arraycopy(bottom, bottomHead, bottom, 0, count);
+			Arrays.fill(bottom, count, bottomTail, null);
+			bottomHead = 0;
+			bottomTail = count;
+		}
+
+		// fast path: events are usually scheduled in non-decreasing (time, serial) order
+		if (bottomTail == bottomHead || bottom[bottomTail - 1].compareTo(event) < 0) {
+			bottom[bottomTail++] = event;
+			return;
+		}
+
+		int low = bottomHead, high = bottomTail;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (bottom[mid].compareTo(event) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		System.arraycopy(bottom, low, bottom, low + 1, bottomTail - low);
+		bottom[low] = event;
+		bottomTail++;
+	}
+
+	/**
+	 * Moves events down the ladder until the bottom holds the first events of the queue.
+	 *
+	 * @return false if the queue is empty
+	 */
+	private boolean refillBottom() {
+		while (bottomHead == bottomTail) {
+			if (nRungs == 0) {
+				if (top.isEmpty()) {
+					return false;
+				}
+				transferTop();
+				continue;
+			}
+
+			Rung rung = rungs[nRungs - 1];
+			while (rung.current < rung.buckets.length
+					&& (rung.buckets[rung.current] == null || rung.buckets[rung.current].isEmpty())) {
+				rung.current++;
+			}
+			if (rung.current == rung.buckets.length) {
+				rungs[--nRungs] = null;
+				continue;
+			}
+
+			List<SimEvent> bucket = rung.buckets[rung.current];
+			rung.buckets[rung.current] = null;
+			rung.current++;
+
+			double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+			for (SimEvent event : bucket) {
+				min = Math.min(min, event.eventTime());
+				max = Math.max(max, event.eventTime());
+			}
+
+			double width = (max - min) / bucket.size();
+			if (bucket.size() > THRESHOLD && nRungs < MAX_RUNGS && width > 0) {
+				Rung child = new Rung(min, width, bucket.size() + 1);
+				for (SimEvent event : bucket) {
+					child.add(child.indexOf(event.eventTime()), event);
+				}
+				rungs[nRungs++] = child;
+			} else {
+				SimEvent[] sorted = bucket.toArray(new SimEvent[0]);
+				Arrays.sort(sorted);
+				if (sorted.length > bottom.length) {
+					bottom = new SimEvent[sorted.length];
+				}
+				System.arraycopy(sorted, 0, bottom, 0, sorted.length);
+				bottomHead = 0;
+				bottomTail = sorted.length;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves all the events of {@link #top} into a new rung (or directly to the bottom when they
+	 * all have the same time).
+	 */
+	private void transferTop() {
+		double width = (topMax - topMin) / top.size();
+		if (width > 0) {
+			Rung rung = new Rung(topMin, width, top.size() + 1);
+			for (SimEvent event : top) {
+				rung.add(rung.indexOf(event.eventTime()), event);
+			}
+			rungs[nRungs++] = rung;
+		} else {
+			for (SimEvent event : top) {
+				addToBottom(event);
+			}
+		}
+
+		topStart = topMax;
+		top.clear();
+		topMin = Double.POSITIVE_INFINITY;
+		topMax = Double.NEGATIVE_INFINITY;
+	}
+
+	@Override
+	protected SimEvent removeFirst() {
+		if (!refillBottom()) {
+			return null;
+		}
+		SimEvent first = bottom[bottomHead];
+		bottom[bottomHead++] = null;
+		size--;
+		return first;
+	}
+
+	@Override
+	public SimEvent peek() {
+		return refillBottom() ? bottom[bottomHead] : null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		top.clear();
+		topMin = Double.POSITIVE_INFINITY;
+		topMax = Double.NEGATIVE_INFINITY;
+		topStart = Double.NEGATIVE_INFINITY;
+		Arrays.fill(rungs, null);
+		nRungs = 0;
+		Arrays.fill(bottom, null);
+		bottomHead = bottomTail = 0;
+		size = 0;
+	}
+
+	/**
+	 * Removes a given event from the queue.
+	 *
+	 * @param event the event to remove
+	 * @return true if the event was found
+	 */
+	private boolean remove(SimEvent event) {
+		for (int i = bottomHead; i < bottomTail; i++) {
+			if (bottom[i] == event) {
+				System.arraycopy(bottom, i + 1, bottom, i, bottomTail - i - 1);
+				bottom[--bottomTail] = null;
+				size--;
+				return true;
+			}
+		}
+		for (int r = 0; r < nRungs; r++) {
+			Rung rung = rungs[r];
+			for (int i = rung.current; i < rung.buckets.length; i++) {
+				if (rung.buckets[i] != null && removeIdentity(rung.buckets[i], event)) {
+					size--;
+					return true;
+				}
+			}
+		}
+		// topMin/topMax are only bounds, they can be left as they are
+		if (removeIdentity(top, event)) {
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean removeIdentity(List<SimEvent> list, SimEvent event) {
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) == event) {
+				list.remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The iterator works on a snapshot of the queue, from the bottom to the top.
+	 */
+	@Override
+	public Iterator<SimEvent> iterator() {
+		List<SimEvent> snapshot = new ArrayList<>(size);
+		snapshot.addAll(Arrays.asList(bottom).subList(bottomHead, bottomTail));
+		for (int r = nRungs - 1; r >= 0; r--) {
+			Rung rung = rungs[r];
+			for (int i = rung.current; i < rung.buckets.length; i++) {
+				if (rung.buckets[i] != null) {
+					snapshot.addAll(rung.buckets[i]);
+				}
+			}
+		}
+		snapshot.addAll(top);
+
+		return new Iterator<>() {
+			private int cursor = 0;
+			private SimEvent last;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < snapshot.size();
+			}
+
+			@Override
+			public SimEvent next() {
+				if (cursor >= snapshot.size()) {
+					throw new NoSuchElementException();
+				}
+				last = snapshot.get(cursor++);
+				return last;
+			}
+
+			@Override
+			public void remove() {
+				if (last == null) {
+					throw new IllegalStateException();
+				}
+				LadderEventQueue.this.remove(last);
+				last = null;
+			}
+		};
+	}
+}
@@ -29,6 +29,14 @@ public interface PowerHostEntity extends HostEntity {
      */
     double[] getUtilizationHistory();
 
+    /**
+     * Notifies the host that one of its guests has recorded a CPU utilization sample, so that a
+     * host keeping its aggregated history can update it.
+     *
+     * @param guest the guest
+     */
+    default void utilizationHistoryUpdated(PowerGuestEntity guest) {}
+
     /**
      * Sets the power model.
      *
@@ -12,8 +12,6 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.NetworkTopology;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 
-import java.util.Iterator;
-
 /**
  * This class represents a simulation entity. An entity handles events and can send events to other
  * entities. When this class is extended, there are a few methods that need to be implemented:
@@ -43,7 +41,7 @@ public abstract class SimEntity implements Cloneable {
 	private String name;
 	private int id;
 	private EntityStatus state;
-	protected EventQueue incomingEvents;
+	protected DeferredQueue incomingEvents;
 
 	/**
 	 * Creates a new entity.
@@ -57,7 +55,7 @@ public abstract class SimEntity implements Cloneable {
 		this.name = name;
 		id = -1;
 		state = EntityStatus.RUNNABLE;
-		incomingEvents = new EventQueue();
+		incomingEvents = new DeferredQueue();
 
 		CloudSim.addEntity(this);
 	}
@@ -80,7 +78,7 @@ public abstract class SimEntity implements Cloneable {
 		return id;
 	}
 
-	public EventQueue getIncomingEvents() {
+	public DeferredQueue getIncomingEvents() {
 		return incomingEvents;
 	}
 
@@ -92,13 +90,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the int
 	 */
 	public int waiting(Predicate p) {
-		int count = 0;
-		for (SimEvent event : incomingEvents) {
-			if ((event.getDestinationId() == id) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		return incomingEvents.count(p);
 	}
 
 	/**
@@ -112,16 +104,7 @@ public abstract class SimEntity implements Cloneable {
 			return null;
 		}
 
-		SimEvent ev;
-		Iterator<SimEvent> iterator = incomingEvents.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestinationId() == id && p.match(ev)) {
-				iterator.remove();
-				return ev;
-			}
-		}
-		return null;
+		return incomingEvents.removeFirst(p);
 	}
 
 	/**
@@ -131,14 +114,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the sim event
 	 */
 	public SimEvent findFirstDeferred(Predicate p) {
-		SimEvent ev;
-		for (SimEvent simEvent : incomingEvents) {
-			ev = simEvent;
-			if (ev.getDestinationId() == id && p.match(ev)) {
-				return ev;
-			}
-		}
-		return null;
+		return incomingEvents.findFirst(p);
 	}
 
 	/** Schedule event functions */
@@ -451,6 +427,7 @@ public abstract class SimEntity implements Cloneable {
 
 		while (ev != null) {
 			processEvent(ev);
+			CloudSim.releaseEvent(ev);
 			if (state != EntityStatus.RUNNABLE) {
 				break;
 			}
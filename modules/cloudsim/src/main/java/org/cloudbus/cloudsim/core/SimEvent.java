@@ -17,10 +17,10 @@ package org.cloudbus.cloudsim.core;
 public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	/** Internal event type. **/
-	private final int etype;
+	private int etype;
 
 	/** The time that this event was scheduled, at which it should occur. **/
-	private final double time;
+	private double time;
 
 	/** Time that the event was removed from the queue to start service. **/
 	private double endWaitingTime;
@@ -32,7 +32,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	private int entDst;
 
 	/** The user defined type of the event. **/
-	private final CloudSimTags tag;
+	private CloudSimTags tag;
 
 	/** 
          * Any data the event is carrying. 
@@ -40,7 +40,7 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          * But this modification would incur several changes in the simulator core
          * that has to be assessed first.
          **/
-	private final Object data;
+	private Object data;
 
         /**
          * An attribute to help CloudSim to identify the order of received events
@@ -52,6 +52,9 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
          */
 	private long serial = -1;
 
+	/** Whether the event has been cancelled while waiting in the future queue. **/
+	private boolean cancelled = false;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -64,6 +67,18 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	// ------------------- PACKAGE LEVEL METHODS --------------------------
 	SimEvent(int type, double time, int src, int dest, CloudSimTags tag, Object edata) {
+		init(type, time, src, dest, tag, edata);
+	}
+
+	SimEvent(int type, double time, int src) {
+		this(type, time, src, src, CloudActionTags.BLANK, null);
+	}
+
+	/**
+	 * (Re)initialises all the attributes of the event, so that an instance recycled by
+	 * {@link EventPool} is indistinguishable from a new one.
+	 */
+	void init(int type, double time, int src, int dest, CloudSimTags tag, Object edata) {
 		etype = type;
 		this.time = time;
 		entSrc = src;
@@ -71,16 +86,30 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		this.tag = tag;
 		data = edata;
 		endWaitingTime = -1.0;
-	}
-
-	SimEvent(int type, double time, int src) {
-		this(type, time, src, src, CloudActionTags.BLANK, null);
+		serial = -1;
+		cancelled = false;
 	}
 
 	protected void setSerial(long serial) {
 		this.serial = serial;
 	}
 
+	long getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Marks the event as cancelled. A cancelled event is left in the future queue
+	 * and discarded when it reaches the head of the queue.
+	 */
+	void cancel() {
+		cancelled = true;
+	}
+
+	boolean isCancelled() {
+		return cancelled;
+	}
+
 	/**
 	 * Sets the time that the event was removed from the queue to start service. 
 	 * 
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.lists;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.core.HostEntity;
@@ -34,8 +35,16 @@ public class HostList {
          * 
 	 * @pre id >= 0
 	 * @post $none
+	 * @see PeList#getById(List, int)
 	 */
 	public static <T extends HostEntity> T getById(List<T> hostList, int id) {
+		// the hosts are usually numbered by their position in the list
+		if (hostList instanceof RandomAccess && id >= 0 && id < hostList.size()) {
+			T host = hostList.get(id);
+			if (host.getId() == id) {
+				return host;
+			}
+		}
 		for (T host : hostList) {
 			if (host.getId() == id) {
 				return host;
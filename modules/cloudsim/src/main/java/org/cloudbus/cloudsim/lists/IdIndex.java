@@ -0,0 +1,107 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+
+/**
+ * An index of the entities of a list by their id, replacing the linear search of
+ * {@link VmList#getById(List, int)} or {@link CloudletList#getById(List, int)} on lists
+ * that are searched much more often than they change.
+ * <p>
+ * The index keeps the position of each entity in the list, and an entity is only returned
+ * if it is still at this position in the searched list. Otherwise, or if the id is not
+ * indexed, the index is rebuilt from the list, so that it never depends on how the list has
+ * changed since it was built. The ids are expected to be unique in the list; as the linear
+ * search, the index then finds the first entity of the list with a given id.
+ *
+ * @param <T> the type of the entities
+ * @since CloudSim Toolkit 7.0
+ */
+public class IdIndex<T> {
+
+	/** Gets the id of an entity. */
+	private final ToIntFunction<? super T> idFunction;
+
+	/** The position of the entities in the indexed list, by id. */
+	private final Map<Integer, Integer> positions = new HashMap<>();
+
+	/** The indexed list, or null if the index has to be rebuilt. */
+	private List<? extends T> indexedList;
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param idFunction gets the id of an entity
+	 */
+	public IdIndex(ToIntFunction<? super T> idFunction) {
+		this.idFunction = idFunction;
+	}
+
+	/**
+	 * Gets the first entity of a list with a given id.
+	 *
+	 * @param list the list of entities
+	 * @param id the id of the entity
+	 * @return the entity, or null if the list has none with this id
+	 */
+	public T getById(List<? extends T> list, int id) {
+		if (!(list instanceof RandomAccess)) {
+			// the positions cannot be checked in constant time
+			for (T entity : list) {
+				if (idFunction.applyAsInt(entity) == id) {
+					return entity;
+				}
+			}
+			return null;
+		}
+
+		if (list == indexedList) {
+			T entity = getIndexed(list, id);
+			if (entity != null) {
+				return entity;
+			}
+		}
+
+		positions.clear();
+		for (int i = 0; i < list.size(); i++) {
+			positions.putIfAbsent(idFunction.applyAsInt(list.get(i)), i);
+		}
+		indexedList = list;
+		return getIndexed(list, id);
+	}
+
+	/**
+	 * Gets the indexed entity with a given id, if it is still at its position in the list.
+	 *
+	 * @param list the indexed list
+	 * @param id the id of the entity
+	 * @return the entity, or null if the id is not indexed or the list has changed at its position
+	 */
+	private T getIndexed(List<? extends T> list, int id) {
+		Integer position = positions.get(id);
+		if (position == null || position >= list.size()) {
+			return null;
+		}
+		T entity = list.get(position);
+		return idFunction.applyAsInt(entity) == id ? entity : null;
+	}
+
+	/**
+	 * Forces the index to be rebuilt on the next search.
+	 */
+	public void invalidate() {
+		indexedList = null;
+		positions.clear();
+	}
+}
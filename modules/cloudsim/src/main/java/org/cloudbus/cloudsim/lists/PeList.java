@@ -9,6 +9,7 @@
 package org.cloudbus.cloudsim.lists;
 
 import java.util.List;
+import java.util.RandomAccess;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Pe;
@@ -33,10 +34,14 @@ public class PeList {
 	 * @post $none
 	 */
 	public static <T extends Pe> Pe getById(List<T> peList, int id) {
-                /*//@TODO such kind of search would be made using a HashMap
-                (to avoid always iterating over the list),
-                where the key is the id of the object and the value the object
-                itself. The same occurs for lists of hosts and VMs.*/
+		// The PEs are usually numbered by their position in the list, so the PE at that position
+		// is checked first. Ids are unique within a list, so it is the one the search would find.
+		if (peList instanceof RandomAccess && id >= 0 && id < peList.size()) {
+			Pe pe = peList.get(id);
+			if (pe.getId() == id) {
+				return pe;
+			}
+		}
 		for (Pe pe : peList) {
 			if (pe.getId() == id) {
 				return pe;
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.network;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
@@ -29,6 +30,11 @@ public class DelayMatrix_Float {
 	 */
 	protected int mTotalNodeNum = 0;
 
+	/**
+	 * Indicates if the matrix is directed.
+	 */
+	private boolean directed;
+
 	/**
 	 * Private constructor to ensure that only an correct initialized delay-matrix could be created.
 	 */
@@ -42,6 +48,7 @@ public class DelayMatrix_Float {
 	 * @param directed indicates if an directed matrix should be computed (true) or not (false)
 	 */
 	public DelayMatrix_Float(TopologicalGraph graph, boolean directed) {
+		this.directed = directed;
 
 		// lets preinitialize the Delay-Matrix
 		createDelayMatrix(graph, directed);
@@ -59,7 +66,7 @@ public class DelayMatrix_Float {
 	 */
 	public float getDelay(int srcID, int destID) {
 		// check the nodeIDs against internal array-boundarys
-		if (srcID > mTotalNodeNum || destID > mTotalNodeNum) {
+		if (srcID >= mTotalNodeNum || destID >= mTotalNodeNum) {
 			throw new ArrayIndexOutOfBoundsException("srcID or destID is higher than highest stored node-ID!");
 		}
 
@@ -105,13 +112,114 @@ public class DelayMatrix_Float {
 	}
 
 	/**
-	 * Calculates the shortest path between all pairs of nodes.
+	 * Calculates the shortest path between all pairs of nodes, with the Floyd-Warshall algorithm
+	 * computed in place. As in {@link FloydWarshall_Float}, a delay of 0 between two different
+	 * nodes means that they are not connected.
 	 */
 	private void calculateShortestPath() {
-		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		for (int i = 0; i < mTotalNodeNum; i++) {
+			float[] row = mDelayMatrix[i];
+			for (int j = 0; j < mTotalNodeNum; j++) {
+				if (row[j] == 0) {
+					row[j] = Float.MAX_VALUE;
+				}
+			}
+			row[i] = 0;
+		}
+
+		for (int k = 0; k < mTotalNodeNum; k++) {
+			// the row k does not change while iterating over k, as the delay from k to k is 0
+			float[] rowK = mDelayMatrix[k];
+			for (int i = 0; i < mTotalNodeNum; i++) {
+				float[] row = mDelayMatrix[i];
+				float delayIK = row[k];
+				if (delayIK == Float.MAX_VALUE) {
+					// no path through k
+					continue;
+				}
+				for (int j = 0; j < mTotalNodeNum; j++) {
+					float delay = delayIK + rowK[j];
+					if (row[j] > delay) {
+						row[j] = delay;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds nodes to the matrix, not connected to any other node.
+	 * 
+	 * @param totalNodeNum the new number of nodes
+	 */
+	public void addNodes(int totalNodeNum) {
+		if (totalNodeNum <= mTotalNodeNum) {
+			return;
+		}
+		if (totalNodeNum > mDelayMatrix.length) {
+			// grow the capacity geometrically, so that adding the nodes one by one is not quadratic
+			int capacity = Math.max(totalNodeNum, 2 * mDelayMatrix.length);
+			float[][] matrix = new float[capacity][];
+			for (int row = 0; row < capacity; row++) {
+				matrix[row] = new float[capacity];
+				if (row < mTotalNodeNum) {
+					System.arraycopy(mDelayMatrix[row], 0, matrix[row], 0, mTotalNodeNum);
+				}
+			}
+			mDelayMatrix = matrix;
+		}
 
-		floyd.initialize(mTotalNodeNum);
-		mDelayMatrix = floyd.allPairsShortestPaths(mDelayMatrix);
+		for (int row = 0; row < totalNodeNum; row++) {
+			int from = row < mTotalNodeNum ? mTotalNodeNum : 0;
+			Arrays.fill(mDelayMatrix[row], from, totalNodeNum, Float.MAX_VALUE);
+			if (row >= mTotalNodeNum) {
+				mDelayMatrix[row][row] = 0;
+			}
+		}
+		mTotalNodeNum = totalNodeNum;
+	}
+
+	/**
+	 * Updates the delays after a link is added between two nodes, in O(n<sup>2</sup>) instead of
+	 * the O(n<sup>3</sup>) of a full computation. Only a link shortening the delay between its
+	 * nodes can be added this way: a link replacing a shorter one requires a full computation.
+	 * The delays are the same as computed from scratch, up to floating-point rounding.
+	 * 
+	 * @param srcID the id of the source node
+	 * @param destID the id of the destination node
+	 * @param delay the delay of the link
+	 */
+	public void addLink(int srcID, int destID, float delay) {
+		if (srcID == destID || delay == 0) {
+			// the delay from a node to itself is 0, and a delay of 0 means no link
+			return;
+		}
+		relax(srcID, destID, delay);
+		if (!directed) {
+			relax(destID, srcID, delay);
+		}
+	}
+
+	/**
+	 * Shortens the paths going through a directed link.
+	 */
+	private void relax(int srcID, int destID, float delay) {
+		// the paths going through the link once do not use it to reach its source or leave its destination
+		float[] fromDest = mDelayMatrix[destID].clone();
+		for (int i = 0; i < mTotalNodeNum; i++) {
+			float[] row = mDelayMatrix[i];
+			float toSrc = row[srcID];
+			if (toSrc == Float.MAX_VALUE) {
+				continue;
+			}
+			float toDest = toSrc + delay;
+			for (int j = 0; j < mTotalNodeNum; j++) {
+				float d = toDest + fromDest[j];
+				if (row[j] > d) {
+					row[j] = d;
+				}
+			}
+		}
 	}
 
 	@Override
@@ -0,0 +1,333 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.GuestEntity;
+
+/**
+ * A flow-level (fluid) model of the network of a {@link NetworkDatacenter}, used instead of
+ * forwarding each {@link NetworkPacket} hop by hop through the {@link Switch switches}.
+ * <p>
+ * Each packet sent to another host becomes a flow over the links of its route in the switch
+ * tree: the sending side of its sender guest, then the output ports of the switches it traverses,
+ * down to its receiver host. The flows share the bandwidth of the links with max-min fairness,
+ * and their rates are only recomputed when a flow starts or completes. The completion of the
+ * next flow is then scheduled analytically, so a transfer costs a few events whatever the number
+ * of switches and of concurrent transfers.
+ * <p>
+ * A completed packet reaches its receiver host after the switching delays of the traversed
+ * switches and the virtualization overheads, as in the packet-level model. Unlike the
+ * packet-level model, a packet is not stored and forwarded at each switch: it is transferred
+ * at the rate of its bottleneck link.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class FlowNetwork {
+
+	/** A directed link: the sending side of a guest or an output port of a switch. */
+	private static final class Link {
+
+		/** The bandwidth of the link (bits/sec). */
+		final double capacity;
+
+		/** The flows going through the link. */
+		final List<Flow> flows = new ArrayList<>();
+
+		/** The bandwidth not given yet to the flows, while computing their rates. */
+		double remainingCapacity;
+
+		/** The number of flows whose rate is not computed yet, while computing their rates. */
+		int unfixedFlows;
+
+		Link(double capacity) {
+			this.capacity = capacity;
+		}
+	}
+
+	/** An output port of a switch, to another switch or to a host. */
+	private record Port(Switch sw, boolean toHost, int target) {}
+
+	/** A packet being transferred. */
+	private static final class Flow {
+
+		final NetworkPacket packet;
+
+		/** The links of the route of the packet. */
+		final Link[] route;
+
+		/** The edge switch the receiver host is connected to. */
+		final Switch receiverSwitch;
+
+		/** The switching delays and sender virtualization overhead added to the transfer time. */
+		final double latency;
+
+		/** The data still to be transferred (bits). */
+		double remainingBits;
+
+		/** The current rate of the transfer (bits/sec). */
+		double rate;
+
+		boolean fixed;
+
+		Flow(NetworkPacket packet, Link[] route, Switch receiverSwitch, double latency) {
+			this.packet = packet;
+			this.route = route;
+			this.receiverSwitch = receiverSwitch;
+			this.latency = latency;
+			remainingBits = 8.0 * packet.pkt.data;
+		}
+	}
+
+	/** The datacenter whose network is modelled. */
+	private final NetworkDatacenter dc;
+
+	/** The sending links of the guests, by guest id. */
+	private final Map<Integer, Link> guestLinks = new HashMap<>();
+
+	/** The output ports of the switches. */
+	private final Map<Port, Link> portLinks = new HashMap<>();
+
+	/** The links having flows, in the order they got their first flow. */
+	private final Set<Link> activeLinks = new LinkedHashSet<>();
+
+	/** The flows being transferred, in start order. */
+	private final List<Flow> flows = new ArrayList<>();
+
+	/** The last time the remaining data of the flows was updated. */
+	private double lastUpdateTime;
+
+	/** Whether flows started or completed since the rates were last computed. */
+	private boolean changed;
+
+	/**
+	 * Identifies the last scheduled completion event, earlier ones being outdated by changes of
+	 * the rates.
+	 */
+	private long completionEvent;
+
+	/** The number of flows completed so far. */
+	private long completedFlows;
+
+	public FlowNetwork(NetworkDatacenter dc) {
+		this.dc = dc;
+	}
+
+	/**
+	 * Starts the transfer of a packet. The rates of the flows are updated on the next call to
+	 * {@link #updateRates()}, so that packets sent together only update them once.
+	 *
+	 * @param npkt the packet
+	 * @param sender the guest sending the packet
+	 * @param senderHost the host of the sender guest
+	 */
+	public void addFlow(NetworkPacket npkt, GuestEntity sender, NetworkHost senderHost) {
+		advance(CloudSim.clock());
+
+		List<Link> route = new ArrayList<>(6);
+		route.add(guestLinks.computeIfAbsent(sender.getId(), k -> new Link(sender.getBw())));
+
+		int receiverGuestId = npkt.getReceiverGuestId();
+		npkt.receiverHostId = dc.VmtoHostlist.get(receiverGuestId);
+		Switch edge = senderHost.getSwitch();
+		double latency = npkt.pkt.accumulatedVirtualizationOverhead + edge.switchingDelay;
+
+		// same routes as the packet-level model
+		if (!edge.hostList.containsKey(npkt.receiverHostId)) {
+			Switch receiverEdge = dc.getSwitchList().get(dc.VmToSwitchid.get(receiverGuestId));
+			// ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only
+			Switch aggr = edge.uplinkSwitches.get(0);
+			route.add(getPortLink(edge, false, aggr.getId(), edge.uplinkBw));
+			latency += aggr.switchingDelay;
+
+			if (!aggr.downlinkSwitches.contains(receiverEdge)) {
+				Switch root = aggr.uplinkSwitches.get(0);
+				Switch receiverAggr = receiverEdge.uplinkSwitches.get(0);
+				route.add(getPortLink(aggr, false, root.getId(), aggr.uplinkBw));
+				route.add(getPortLink(root, false, receiverAggr.getId(), root.downlinkBw));
+				latency += root.switchingDelay + receiverAggr.switchingDelay;
+				aggr = receiverAggr;
+			}
+			route.add(getPortLink(aggr, false, receiverEdge.getId(), aggr.downlinkBw));
+			latency += receiverEdge.switchingDelay;
+			edge = receiverEdge;
+		}
+		route.add(getPortLink(edge, true, npkt.receiverHostId, edge.downlinkBw));
+
+		Flow flow = new Flow(npkt, route.toArray(new Link[0]), edge, latency);
+		for (Link link : flow.route) {
+			link.flows.add(flow);
+			activeLinks.add(link);
+		}
+		flows.add(flow);
+		changed = true;
+	}
+
+	private Link getPortLink(Switch sw, boolean toHost, int target, long bw) {
+		return portLinks.computeIfAbsent(new Port(sw, toHost, target), k -> new Link(bw));
+	}
+
+	/**
+	 * Recomputes the rates of the flows if some started or completed, and schedules the
+	 * completion of the next flow.
+	 */
+	public void updateRates() {
+		if (!changed) {
+			return;
+		}
+		changed = false;
+		computeRates();
+
+		double nextCompletion = Double.MAX_VALUE;
+		for (Flow flow : flows) {
+			if (flow.rate > 0) {
+				nextCompletion = Math.min(nextCompletion, flow.remainingBits / flow.rate);
+			}
+		}
+		completionEvent++;
+		if (nextCompletion != Double.MAX_VALUE) {
+			CloudSim.send(dc.getId(), dc.getId(), nextCompletion, CloudActionTags.NETWORK_FLOW_COMPLETED,
+					completionEvent);
+		}
+	}
+
+	/**
+	 * Completes the flows whose data has been transferred, delivering their packets to the edge
+	 * switches of the receiver hosts, and updates the rates of the other flows.
+	 *
+	 * @param event the identifier of the completion event, ignored if outdated
+	 */
+	public void processCompletion(long event) {
+		if (event != completionEvent) {
+			return;
+		}
+		double now = CloudSim.clock();
+		advance(now);
+		// reschedules the completion even if the rounding of the clock left some data to transfer
+		changed = true;
+
+		Iterator<Flow> it = flows.iterator();
+		while (it.hasNext()) {
+			Flow flow = it.next();
+			// tolerates the rounding of the remaining data over the rate changes
+			if (flow.remainingBits > 1e-9 * 8.0 * flow.packet.pkt.data
+					&& (flow.rate == 0 || now + flow.remainingBits / flow.rate > now)) {
+				continue;
+			}
+			it.remove();
+			for (Link link : flow.route) {
+				link.flows.remove(flow);
+				if (link.flows.isEmpty()) {
+					activeLinks.remove(link);
+				}
+			}
+			completedFlows++;
+
+			NetworkPacket npkt = flow.packet;
+			double delay = flow.latency + flow.receiverSwitch.getReceiverVirtualizationOverhead(npkt);
+			CloudSim.send(dc.getId(), flow.receiverSwitch.getId(), delay, CloudActionTags.NETWORK_PKT_REACHED_HOST, npkt);
+		}
+		updateRates();
+	}
+
+	/**
+	 * Updates the data remaining to be transferred by the flows at their current rates.
+	 */
+	private void advance(double time) {
+		double elapsed = time - lastUpdateTime;
+		if (elapsed > 0) {
+			for (Flow flow : flows) {
+				flow.remainingBits = Math.max(0, flow.remainingBits - flow.rate * elapsed);
+			}
+		}
+		lastUpdateTime = time;
+	}
+
+	/**
+	 * Computes the max-min fair rates of the flows by progressive filling: the link giving the
+	 * smallest share to its flows is the bottleneck of all of them, which get that share, and the
+	 * process is repeated with the remaining bandwidth of the other links.
+	 */
+	private void computeRates() {
+		for (Link link : activeLinks) {
+			link.remainingCapacity = link.capacity;
+			link.unfixedFlows = link.flows.size();
+		}
+		for (Flow flow : flows) {
+			flow.fixed = false;
+		}
+
+		int unfixedFlows = flows.size();
+		while (unfixedFlows > 0) {
+			Link bottleneck = null;
+			double share = Double.MAX_VALUE;
+			for (Link link : activeLinks) {
+				if (link.unfixedFlows > 0 && link.remainingCapacity / link.unfixedFlows < share) {
+					share = link.remainingCapacity / link.unfixedFlows;
+					bottleneck = link;
+				}
+			}
+
+			for (Flow flow : bottleneck.flows) {
+				if (flow.fixed) {
+					continue;
+				}
+				flow.fixed = true;
+				flow.rate = share;
+				unfixedFlows--;
+				for (Link link : flow.route) {
+					link.remainingCapacity = Math.max(0, link.remainingCapacity - share);
+					link.unfixedFlows--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the current rate of the flow of a packet.
+	 *
+	 * @param npkt the packet
+	 * @return the rate (bits/sec), or 0 if the packet is not being transferred
+	 */
+	public double getRate(NetworkPacket npkt) {
+		for (Flow flow : flows) {
+			if (flow.packet == npkt) {
+				return flow.rate;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the number of flows being transferred.
+	 *
+	 * @return the number of flows
+	 */
+	public int getActiveFlows() {
+		return flows.size();
+	}
+
+	/**
+	 * Gets the number of flows completed so far.
+	 *
+	 * @return the number of flows
+	 */
+	public long getCompletedFlows() {
+		return completedFlows;
+	}
+}
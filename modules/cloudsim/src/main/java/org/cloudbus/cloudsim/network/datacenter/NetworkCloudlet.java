@@ -9,7 +9,6 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Cloudlet;
@@ -108,17 +107,13 @@ public class NetworkCloudlet extends Cloudlet implements Comparable<NetworkCloud
 			}
 		}
 		if (st.getType() == TaskStage.TaskStageStatus.WAIT_RECV) {
-			Iterator<HostPacket> iter = nic.getReceivedPkts().iterator();
-			HostPacket pkt;
-			if (iter.hasNext()) {
-				pkt = iter.next();
-				// Assumption: packet will not arrive in the same cycle
-				if (pkt.receiverGuestId == getGuestId()) {
-					pkt.recvTime = CloudSim.clock();
-					st.setTime(CloudSim.clock() - pkt.sendTime);
-					goToNextStage();
-					iter.remove();
-				}
+			HostPacket pkt = nic.getReceivedPkts().peek();
+			// Assumption: packet will not arrive in the same cycle
+			if (pkt != null && pkt.receiverGuestId == getGuestId()) {
+				pkt.recvTime = CloudSim.clock();
+				st.setTime(CloudSim.clock() - pkt.sendTime);
+				goToNextStage();
+				nic.getReceivedPkts().poll();
 			}
 
 			return false;
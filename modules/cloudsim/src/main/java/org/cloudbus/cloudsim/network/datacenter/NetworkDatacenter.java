@@ -9,14 +9,20 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
+import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
 import org.cloudbus.cloudsim.core.*;
 
 /**
@@ -67,9 +73,31 @@ public class NetworkDatacenter extends Datacenter {
 	 */
 	public Map<Integer, Integer> VmtoHostlist;
 
+	/**
+	 * The routing tables of the guests placed in this datacenter, nested ones included, where
+	 * each key is a guest id. They are kept up to date on guest creation and migration, so that
+	 * packets are routed without searching the hosts.
+	 */
+	private final Map<Integer, GuestEntity> guests;
+
+	/** The host (at the bottom of the virtualization layers) of each guest. */
+	private final Map<Integer, NetworkedEntity> guestHosts;
+
+	/** The total virtualization overhead of the layers between each guest and its host. */
+	private final Map<Integer, Integer> guestVirtualizationOverheads;
+
+	/**
+	 * A map between cloudlets and guests, where each key is a cloudlet id and the
+	 * corresponding value is the id of the guest running the cloudlet.
+	 */
+	private final Map<Integer, Integer> cloudletToGuestid;
+
 	/** Total data transmitted through the network of this datacenter (in bytes) */
 	public double totalDataTransfer = 0;
 
+	/** The flow-level model of the network, or null if packets are forwarded by the switches. */
+	private FlowNetwork flowNetwork;
+
 	/**
 	 * Instantiates a new NetworkDatacenter object.
 	 * 
@@ -103,38 +131,263 @@ public class NetworkDatacenter extends Datacenter {
 		HostToSwitchid = new HashMap<>();
 		VmtoHostlist = new HashMap<>();
 		SwitchList = new HashMap<>();
+		guests = new HashMap<>();
+		guestHosts = new HashMap<>();
+		guestVirtualizationOverheads = new HashMap<>();
+		cloudletToGuestid = new HashMap<>();
 	}
 
 	public Map<Integer, Switch> getSwitchList() { return SwitchList; }
 
+	/**
+	 * Sets whether the packets sent between hosts are transferred as flows sharing the links of
+	 * the network (see {@link FlowNetwork}), instead of being forwarded one by one through the
+	 * switches. The flow-level model takes far fewer events when many packets are in flight.
+	 * It should be set before the simulation starts.
+	 *
+	 * @param flowLevelNetwork true to use the flow-level model, false for the packet-level one
+	 */
+	public void setFlowLevelNetwork(boolean flowLevelNetwork) {
+		flowNetwork = flowLevelNetwork ? new FlowNetwork(this) : null;
+	}
+
+	public boolean isFlowLevelNetwork() {
+		return flowNetwork != null;
+	}
+
+	/**
+	 * Gets the flow-level model of the network.
+	 *
+	 * @return the flow-level model, or null if the packet-level model is used
+	 */
+	public FlowNetwork getFlowNetwork() {
+		return flowNetwork;
+	}
+
+	@Override
+	protected void processOtherEvent(SimEvent ev) {
+		if (ev != null && ev.getTag() == CloudActionTags.NETWORK_FLOW_COMPLETED && flowNetwork != null) {
+			flowNetwork.processCompletion((Long) ev.getData());
+		} else {
+			super.processOtherEvent(ev);
+		}
+	}
+
 	@Override
 	protected void processVmCreate(SimEvent ev, boolean ack) {
 		super.processVmCreate(ev, ack);
 		GuestEntity guest = (GuestEntity) ev.getData();
-		HostEntity host = guest.getHost();
 
-		if (host != null) {
-			// very ugly, but no other way to support nested virtualization with the current network routing logic
-			while (host instanceof VirtualEntity vm) {
-				host = vm.getHost();
+		if (guest.getHost() != null) {
+			updateRoutes(guest);
+		}
+	}
+
+	@Override
+	protected void processVmMigrate(SimEvent ev, boolean ack) {
+		GuestEntity guest = ((GuestMapping) ev.getData()).vm();
+		NetworkedEntity oldHost = guestHosts.get(guest.getId());
+
+		super.processVmMigrate(ev, ack);
+
+		Set<Integer> movedGuests = updateRoutes(guest);
+		NetworkedEntity newHost = guestHosts.get(guest.getId());
+		if (oldHost != null && oldHost != newHost) {
+			// the nics of the cloudlets follow their guests
+			Iterator<Entry<Integer, NetworkInterfaceCard>> it = oldHost.getNics().entrySet().iterator();
+			while (it.hasNext()) {
+				Entry<Integer, NetworkInterfaceCard> nic = it.next();
+				if (movedGuests.contains(cloudletToGuestid.get(nic.getKey()))) {
+					newHost.getNics().put(nic.getKey(), nic.getValue());
+					it.remove();
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void processVmDestroy(SimEvent ev, boolean ack) {
+		GuestEntity guest = (GuestEntity) ev.getData();
+		Set<Integer> destroyedGuests = new HashSet<>();
+		collectGuests(guest, destroyedGuests);
+
+		super.processVmDestroy(ev, ack);
+
+		// the cloudlets still placed on the destroyed guests leave with them
+		Iterator<Entry<Integer, Integer>> it = cloudletToGuestid.entrySet().iterator();
+		while (it.hasNext()) {
+			Entry<Integer, Integer> cloudlet = it.next();
+			if (destroyedGuests.contains(cloudlet.getValue())) {
+				NetworkedEntity host = guestHosts.get(cloudlet.getValue());
+				if (host != null) {
+					host.getNics().remove(cloudlet.getKey());
+				}
+				it.remove();
 			}
+		}
+
+		for (Integer guestId : destroyedGuests) {
+			guests.remove(guestId);
+			guestHosts.remove(guestId);
+			guestVirtualizationOverheads.remove(guestId);
+			VmToSwitchid.remove(guestId);
+			VmtoHostlist.remove(guestId);
+		}
+	}
 
-			VmToSwitchid.put(guest.getId(), ((NetworkedEntity) host).getSwitch().getId());
-			VmtoHostlist.put(guest.getId(), host.getId());
+	/**
+	 * Collects the ids of a guest and of the guests nested in it.
+	 *
+	 * @param guest the guest
+	 * @param ids the collected ids
+	 */
+	private void collectGuests(GuestEntity guest, Set<Integer> ids) {
+		ids.add(guest.getId());
+		if (guest instanceof VirtualEntity vm) {
+			for (GuestEntity nested : vm.getGuestList()) {
+				collectGuests(nested, ids);
+			}
 		}
 	}
 
+	/**
+	 * Updates the routing tables of a placed guest and of the guests nested in it.
+	 *
+	 * @param guest the guest
+	 * @return the ids of the updated guests
+	 */
+	private Set<Integer> updateRoutes(GuestEntity guest) {
+		Set<Integer> updated = new HashSet<>();
+		updateRoutes(guest, updated);
+		return updated;
+	}
+
+	private void updateRoutes(GuestEntity guest, Set<Integer> updated) {
+		HostEntity host = guest.getHost();
+		int virtualizationOverhead = guest.getVirtualizationOverhead();
+
+		// very ugly, but no other way to support nested virtualization with the current network routing logic
+		while (host instanceof VirtualEntity vm) {
+			virtualizationOverhead += vm.getVirtualizationOverhead();
+			host = vm.getHost();
+		}
+
+		guests.put(guest.getId(), guest);
+		guestHosts.put(guest.getId(), (NetworkedEntity) host);
+		guestVirtualizationOverheads.put(guest.getId(), virtualizationOverhead);
+		VmToSwitchid.put(guest.getId(), ((NetworkedEntity) host).getSwitch().getId());
+		VmtoHostlist.put(guest.getId(), host.getId());
+		updated.add(guest.getId());
+
+		if (guest instanceof VirtualEntity vm) {
+			for (GuestEntity nested : vm.getGuestList()) {
+				updateRoutes(nested, updated);
+			}
+		}
+	}
+
+	/**
+	 * Gets a guest placed in this datacenter.
+	 *
+	 * @param guestId the id of the guest
+	 * @return the guest, or null if no guest with this id has been placed in this datacenter
+	 */
+	public GuestEntity getGuest(int guestId) {
+		return guests.get(guestId);
+	}
+
+	/**
+	 * Gets the total virtualization overhead traversed by the packets between a guest and its host,
+	 * as {@link Host#getTotalVirtualizationOverhead(int, Iterator, int)}.
+	 *
+	 * @param guestId the id of the guest
+	 * @return the virtualization overhead, or -1 if no guest with this id has been placed in this datacenter
+	 */
+	public int getGuestVirtualizationOverhead(int guestId) {
+		Integer overhead = guestVirtualizationOverheads.get(guestId);
+		return overhead == null ? -1 : overhead;
+	}
+
 	@Override
 	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
+		NetworkCloudlet ncl = (NetworkCloudlet) ev.getData();
+		// a finished cloudlet is sent back without being placed
+		boolean finished = ncl.isFinished();
+
 		super.processCloudletSubmit(ev, ack);
 
-		NetworkCloudlet ncl = (NetworkCloudlet) ev.getData();
+		if (finished) {
+			return;
+		}
 
 		int userId = ncl.getUserId();
 		int vmId = ncl.getGuestId();
 		NetworkedEntity host = (NetworkedEntity) getVmAllocationPolicy().getHost(vmId, userId);
 
 		host.getNics().put(ncl.getCloudletId(), ncl.getNic());
+		cloudletToGuestid.put(ncl.getCloudletId(), vmId);
+	}
+
+	@Override
+	protected void processCloudletMove(int[] receivedData, CloudActionTags tag) {
+		int cloudletId = receivedData[0];
+		int userId = receivedData[1];
+		int vmId = receivedData[2];
+		int vmDestId = receivedData[3];
+		int destId = receivedData[4];
+
+		NetworkedEntity oldHost = guestHosts.get(vmId);
+		NetworkInterfaceCard nic = null;
+		if (oldHost != null && Integer.valueOf(vmId).equals(cloudletToGuestid.get(cloudletId))) {
+			nic = oldHost.getNics().get(cloudletId);
+		}
+
+		super.processCloudletMove(receivedData, tag);
+
+		// a finished cloudlet has already been released when sent back
+		if (nic == null || !cloudletToGuestid.containsKey(cloudletId)) {
+			return;
+		}
+		releaseCloudlet(cloudletId, userId, vmId);
+
+		// the nic follows the cloudlet to its new guest, unless it leaves this datacenter
+		NetworkedEntity newHost = guestHosts.get(vmDestId);
+		if (destId == getId() && newHost != null) {
+			newHost.getNics().put(cloudletId, nic);
+			cloudletToGuestid.put(cloudletId, vmDestId);
+		}
+	}
+
+	@Override
+	protected void returnCloudlet(Cloudlet cl) {
+		super.returnCloudlet(cl);
+		releaseCloudlet(cl.getCloudletId(), cl.getUserId(), cl.getGuestId());
+	}
+
+	@Override
+	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
+		super.processCloudletCancel(cloudletId, userId, vmId);
+		releaseCloudlet(cloudletId, userId, vmId);
+	}
+
+	/**
+	 * Removes a cloudlet leaving a guest from the routing tables, with its nic. The packets
+	 * still sent to it are dropped.
+	 *
+	 * @param cloudletId the id of the cloudlet
+	 * @param userId the id of the user of the cloudlet
+	 * @param guestId the id of the guest the cloudlet leaves
+	 */
+	private void releaseCloudlet(int cloudletId, int userId, int guestId) {
+		Integer placedGuestId = cloudletToGuestid.get(cloudletId);
+		if (placedGuestId == null || placedGuestId != guestId) {
+			return;
+		}
+		cloudletToGuestid.remove(cloudletId);
+		NetworkedEntity host = (NetworkedEntity) getVmAllocationPolicy().getHost(guestId, userId);
+		if (host != null) {
+			host.getNics().remove(cloudletId);
+		}
 	}
 
 	/**
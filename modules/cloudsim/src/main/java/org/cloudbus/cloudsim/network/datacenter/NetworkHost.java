@@ -77,13 +77,16 @@ public class NetworkHost extends Host implements NetworkedEntity {
 
 		for (NetworkInterfaceCard nic : nics.values()) {
 			for (HostPacket hpkt : nic.getPktsToSend()) {
-				GuestEntity receiver = VmList.getById(this.getGuestList(), hpkt.receiverGuestId);
+				GuestEntity receiver = getLocalGuest(hpkt.receiverGuestId);
 				if (receiver != null) { // send locally to Vm, no network delay
 					flag = true;
 					hpkt.recvTime = CloudSim.clock();
 
-					// insert the packet in received list on destination guest
-					nics.get(hpkt.receiverCloudletId).getReceivedPkts().add(hpkt);
+					// insert the packet in received list on destination guest, unless it has already returned
+					NetworkInterfaceCard receiverNic = nics.get(hpkt.receiverCloudletId);
+					if (receiverNic != null) {
+						receiverNic.getReceivedPkts().add(hpkt);
+					}
 				} else {
 					sendPktExternally.computeIfAbsent(hpkt.senderGuestId, k -> new ArrayList<>())
 									 .add(new NetworkPacket(getId(), hpkt));
@@ -93,24 +96,32 @@ public class NetworkHost extends Host implements NetworkedEntity {
 		}
 
 		// send to edge switch, since destination guest is hosted on another host
+		FlowNetwork flowNetwork = ((NetworkDatacenter) getDatacenter()).getFlowNetwork();
 		for (Integer guestId : sendPktExternally.keySet()) {
-			GuestEntity sender = VmList.getById(this.getGuestList(), guestId);
+			GuestEntity sender = getLocalGuest(guestId);
 			if (sender == null) {
 				throw new RuntimeException("senderVm not found! is it nested?");
 			}
 
 			for (NetworkPacket npkt : sendPktExternally.get(guestId)) {
-				// Assumption: no overprovisioning of guest's bandwidth
-				double avband = (double) sender.getBw() / sendPktExternally.get(guestId).size();
-				double delay = (8 * npkt.pkt.data / avband) + npkt.pkt.accumulatedVirtualizationOverhead;
-
 				((NetworkDatacenter) getDatacenter()).totalDataTransfer += npkt.pkt.data;
 
-				// send to switch with delay
-				CloudSim.send(getDatacenter().getId(), sw.getId(), delay, CloudActionTags.NETWORK_PKT_UP, npkt);
+				if (flowNetwork != null) { // the transfer is modelled as a flow, up to the receiver host
+					flowNetwork.addFlow(npkt, sender, this);
+				} else {
+					// Assumption: no overprovisioning of guest's bandwidth
+					double avband = (double) sender.getBw() / sendPktExternally.get(guestId).size();
+					double delay = (8 * npkt.pkt.data / avband) + npkt.pkt.accumulatedVirtualizationOverhead;
+
+					// send to switch with delay
+					CloudSim.send(getDatacenter().getId(), sw.getId(), delay, CloudActionTags.NETWORK_PKT_UP, npkt);
+				}
 			}
 		}
 		sendPktExternally.clear();
+		if (flowNetwork != null) {
+			flowNetwork.updateRates();
+		}
 
 		if (flag) {
 			for (GuestEntity guest : super.getGuestList()) {
@@ -119,6 +130,20 @@ public class NetworkHost extends Host implements NetworkedEntity {
 		}
 	}
 
+	/**
+	 * Gets a guest placed directly on this host, from the routing tables of the datacenter.
+	 *
+	 * @param guestId the id of the guest
+	 * @return the guest, or null if it is not placed directly on this host
+	 */
+	private GuestEntity getLocalGuest(int guestId) {
+		GuestEntity guest = ((NetworkDatacenter) getDatacenter()).getGuest(guestId);
+		if (guest == null) { // not created through the datacenter
+			return VmList.getById(getGuestList(), guestId);
+		}
+		return guest.getHost() == this ? guest : null;
+	}
+
 	public Map<Integer, NetworkInterfaceCard> getNics() {
 		return nics;
 	}
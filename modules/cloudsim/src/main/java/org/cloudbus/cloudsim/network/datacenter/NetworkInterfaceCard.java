@@ -7,8 +7,6 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
-import java.util.*;
-
 /**
  * This class represents a communication interface between host entities and networked cloudlets.
  * @TODO: this needs to include the guest entities too, eventually
@@ -17,15 +15,15 @@ import java.util.*;
  * @since CloudSim Toolkit 7.0
  */
 public class NetworkInterfaceCard {
-    private final List<HostPacket> pktsToSend;
+    private final PacketQueue<HostPacket> pktsToSend;
 
-    private final List<HostPacket> receivedPkts;
+    private final PacketQueue<HostPacket> receivedPkts;
 
     public NetworkInterfaceCard() {
-        pktsToSend = new LinkedList<>();
-        receivedPkts = new LinkedList<>();
+        pktsToSend = new PacketQueue<>();
+        receivedPkts = new PacketQueue<>();
     }
 
-    public List<HostPacket> getPktsToSend() { return pktsToSend; }
-    public List<HostPacket> getReceivedPkts() { return receivedPkts; }
+    public PacketQueue<HostPacket> getPktsToSend() { return pktsToSend; }
+    public PacketQueue<HostPacket> getReceivedPkts() { return receivedPkts; }
 }
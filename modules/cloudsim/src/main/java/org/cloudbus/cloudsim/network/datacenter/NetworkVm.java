@@ -55,13 +55,15 @@ public class NetworkVm extends Vm implements NetworkedEntity {
         // (nested) guest -> host
         for (NetworkInterfaceCard nic : getNics().values()) {
             for (HostPacket hpkt : nic.getPktsToSend()) {
-                GuestEntity sender = VmList.getById(getGuestList(), hpkt.senderGuestId);
+                GuestEntity sender = getLocalGuest(hpkt.senderGuestId);
                 if (sender != null && hpkt.senderGuestId != getId()) {
                     hpkt.senderGuestId = getId();
                 }
 
+                boolean localReceiver = getLocalGuest(hpkt.receiverGuestId) != null;
+
                 // Nested virtualization edge-case, but locally routed packet
-                if (VmList.getById(this.getGuestList(), hpkt.receiverGuestId) != null) {
+                if (localReceiver) {
                     getNics().get(hpkt.receiverCloudletId).getReceivedPkts().add(hpkt);
                     nic.getPktsToSend().remove(hpkt);
                 }
@@ -69,7 +71,7 @@ public class NetworkVm extends Vm implements NetworkedEntity {
                 hpkt.accumulatedVirtualizationOverhead += getVirtualizationOverhead();
 
                 // Nested virtualization edge-case, but locally routed packet
-                if (VmList.getById(this.getGuestList(), hpkt.receiverGuestId) != null) {
+                if (localReceiver) {
                     getNics().get(hpkt.receiverCloudletId).getReceivedPkts().add(hpkt);
                     nic.getPktsToSend().remove(hpkt);
                 }
@@ -77,6 +79,20 @@ public class NetworkVm extends Vm implements NetworkedEntity {
         }
     }
 
+    /**
+     * Gets a guest placed directly on this VM, from the routing tables of the datacenter.
+     *
+     * @param guestId the id of the guest
+     * @return the guest, or null if it is not placed directly on this VM
+     */
+    private GuestEntity getLocalGuest(int guestId) {
+        GuestEntity guest = ((NetworkDatacenter) getDatacenter()).getGuest(guestId);
+        if (guest == null) { // not created through the datacenter
+            return VmList.getById(getGuestList(), guestId);
+        }
+        return guest.getHost() == this ? guest : null;
+    }
+
     @Override
     public Map<Integer, NetworkInterfaceCard> getNics() {
         if (getHost() == null) {
@@ -0,0 +1,156 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A FIFO queue of packets backed by a ring buffer. Adding at the tail and removing at the head
+ * take constant time without allocating, and the buffer is kept when the queue is cleared, so a
+ * queue reused for the packets of each forwarding round stops allocating once it has grown.
+ * <p>
+ * Being a {@link java.util.List}, its packets can also be read and removed by position, removals
+ * in the middle shifting the packets of the shorter side.
+ *
+ * @param <T> the type of the packets
+ * @since CloudSim Toolkit 7.0
+ */
+public class PacketQueue<T> extends AbstractList<T> implements RandomAccess {
+
+	private Object[] elements = new Object[8];
+
+	/** The index of the head in {@link #elements}. */
+	private int head;
+
+	private int size;
+
+	@Override
+	public boolean add(T packet) {
+		if (size == elements.length) {
+			grow();
+		}
+		elements[(head + size) & (elements.length - 1)] = packet;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Gets the packet at the head of the queue.
+	 *
+	 * @return the oldest packet, or null if the queue is empty
+	 */
+	public T peek() {
+		return size == 0 ? null : elementAt(head);
+	}
+
+	/**
+	 * Removes the packet at the head of the queue.
+	 *
+	 * @return the oldest packet, or null if the queue is empty
+	 */
+	public T poll() {
+		if (size == 0) {
+			return null;
+		}
+		T packet = elementAt(head);
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		modCount++;
+		return packet;
+	}
+
+	@Override
+	public T get(int index) {
+		checkIndex(index);
+		return elementAt((head + index) & (elements.length - 1));
+	}
+
+	@Override
+	public T set(int index, T packet) {
+		checkIndex(index);
+		int i = (head + index) & (elements.length - 1);
+		T previous = elementAt(i);
+		elements[i] = packet;
+		return previous;
+	}
+
+	@Override
+	public T remove(int index) {
+		checkIndex(index);
+		if (index == 0) {
+			return poll();
+		}
+		int mask = elements.length - 1;
+		T packet = elementAt((head + index) & mask);
+		if (index < size / 2) {
+			// shifts the packets before it one slot forward
+			for (int i = index; i > 0; i--) {
+				elements[(head + i) & mask] = elements[(head + i - 1) & mask];
+			}
+			elements[head] = null;
+			head = (head + 1) & mask;
+		} else {
+			// shifts the packets after it one slot backward
+			for (int i = index; i < size - 1; i++) {
+				elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+			}
+			elements[(head + size - 1) & mask] = null;
+		}
+		size--;
+		modCount++;
+		return packet;
+	}
+
+	/**
+	 * Removes all the packets, keeping the buffer for the next ones.
+	 */
+	@Override
+	public void clear() {
+		int mask = elements.length - 1;
+		for (int i = 0; i < size; i++) {
+			elements[(head + i) & mask] = null;
+		}
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int i) {
+		return (T) elements[i];
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+		}
+	}
+
+	/**
+	 * Doubles the buffer, keeping its length a power of 2, and moves the head to its start.
+	 */
+	private void grow() {
+		Object[] grown = new Object[elements.length * 2];
+		int first = Math.min(size, elements.length - head);
+		System.arraycopy(elements, head, grown, 0, first);
+		System.arraycopy(elements, 0, grown, first, size - first);
+		Arrays.fill(elements, null);
+		elements = grown;
+		head = 0;
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import java.util.Arrays;
+
+/**
+ * The queues of packets waiting at the ports of a {@link Switch}, where each port is identified
+ * by the id of the switch or host it leads to.
+ * <p>
+ * The ports are kept in an open-addressing table of primitive ids, so looking up the queue of a
+ * packet neither boxes the id nor allocates. A port keeps its queue once created, the queues
+ * being cleared rather than dropped after each forwarding round. The ports are iterated by
+ * position, in the order they got their first packet.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class PortQueues {
+
+	/** Marks the free slots of {@link #table}. */
+	private static final int FREE = -1;
+
+	/** The positions of the ports, by slot, or {@link #FREE}. */
+	private int[] table = newTable(16);
+
+	/** The ids of the ports, by position. */
+	private int[] ports = new int[8];
+
+	/** The queues of the ports, by position. */
+	private PacketQueue<NetworkPacket>[] queues = newQueues(8);
+
+	private int size;
+
+	/**
+	 * Gets the queue of a port, creating it if the port has none yet.
+	 *
+	 * @param port the id of the switch or host the port leads to
+	 * @return the queue of the port
+	 */
+	public PacketQueue<NetworkPacket> getOrCreate(int port) {
+		int slot = slotOf(port);
+		if (table[slot] != FREE) {
+			return queues[table[slot]];
+		}
+		if (size == ports.length) {
+			ports = Arrays.copyOf(ports, size * 2);
+			queues = Arrays.copyOf(queues, size * 2);
+		}
+		ports[size] = port;
+		queues[size] = new PacketQueue<>();
+		table[slot] = size;
+		size++;
+		if (size * 2 > table.length) {
+			rehash(table.length * 2);
+		}
+		return queues[size - 1];
+	}
+
+	/**
+	 * Gets the queue of a port.
+	 *
+	 * @param port the id of the switch or host the port leads to
+	 * @return the queue of the port, or null if the port has none
+	 */
+	public PacketQueue<NetworkPacket> get(int port) {
+		int position = table[slotOf(port)];
+		return position == FREE ? null : queues[position];
+	}
+
+	/**
+	 * Gets the number of ports having a queue.
+	 *
+	 * @return the number of ports
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the id of the port at a given position.
+	 *
+	 * @param position the position of the port, from 0 to {@link #size()} - 1
+	 * @return the id of the switch or host the port leads to
+	 */
+	public int getPort(int position) {
+		return ports[position];
+	}
+
+	/**
+	 * Gets the queue of the port at a given position.
+	 *
+	 * @param position the position of the port, from 0 to {@link #size()} - 1
+	 * @return the queue of the port
+	 */
+	public PacketQueue<NetworkPacket> getQueue(int position) {
+		return queues[position];
+	}
+
+	/**
+	 * Finds the slot of a port, or the free slot where it would be, by linear probing.
+	 */
+	private int slotOf(int port) {
+		int mask = table.length - 1;
+		int slot = mix(port) & mask;
+		while (table[slot] != FREE && ports[table[slot]] != port) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash(int length) {
+		table = newTable(length);
+		for (int position = 0; position < size; position++) {
+			table[slotOf(ports[position])] = position;
+		}
+	}
+
+	/** Spreads consecutive ids over the table. */
+	private static int mix(int port) {
+		int h = port * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int[] newTable(int length) {
+		int[] table = new int[length];
+		Arrays.fill(table, FREE);
+		return table;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static PacketQueue<NetworkPacket>[] newQueues(int length) {
+		return (PacketQueue<NetworkPacket>[]) new PacketQueue<?>[length];
+	}
+}
@@ -12,7 +12,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.*;
@@ -53,25 +52,25 @@ public class Switch extends SimEntity {
 	public SwitchLevel level;
 
         /**
-         * Map of packets sent to switches on the uplink,
-         * where each key is a switch id and the corresponding
-         * value is the packets sent to that switch.
+         * Queues of packets sent to switches on the uplink,
+         * where each port is a switch id and the corresponding
+         * queue is the packets sent to that switch.
          */
-	public Map<Integer, List<NetworkPacket>> pktsToUplinkSwitches;
+	public PortQueues pktsToUplinkSwitches;
 
         /**
-         * Map of packets sent to switches on the downlink,
-         * where each key is a switch id and the corresponding
-         * value is the packets sent to that switch.
+         * Queues of packets sent to switches on the downlink,
+         * where each port is a switch id and the corresponding
+         * queue is the packets sent to that switch.
          */
-	public Map<Integer, List<NetworkPacket>> pktsToDownlinkSwitches;
+	public PortQueues pktsToDownlinkSwitches;
 
 	/**
-	 * Map of packets sent to hosts connected in the switch,
-	 * where each key is a host id and the corresponding
-	 * value is the packets sent to that host.
+	 * Queues of packets sent to hosts connected in the switch,
+	 * where each port is a host id and the corresponding
+	 * queue is the packets sent to that host.
 	 */
-	public Map<Integer, List<NetworkPacket>> pktsToHosts;
+	public PortQueues pktsToHosts;
 
         /**
          * List of uplink switches.
@@ -126,10 +125,10 @@ public class Switch extends SimEntity {
 		this.dc = dc;
 
 		hostList = new HashMap<>();
-		pktsToHosts = new HashMap<>();
+		pktsToHosts = new PortQueues();
 
-		pktsToDownlinkSwitches = new HashMap<>();
-		pktsToUplinkSwitches = new HashMap<>();
+		pktsToDownlinkSwitches = new PortQueues();
+		pktsToUplinkSwitches = new PortQueues();
 
 		downlinkSwitches = new ArrayList<>();
 		uplinkSwitches = new ArrayList<>();
@@ -170,7 +169,9 @@ public class Switch extends SimEntity {
 		NetworkHost hs = hostList.get(npkt.receiverHostId);
 		NetworkInterfaceCard nic = hs.getNics().get(npkt.pkt.receiverCloudletId);
 
-		nic.getReceivedPkts().add(npkt.pkt);
+		if (nic != null) { // otherwise the receiver has already returned
+			nic.getReceivedPkts().add(npkt.pkt);
+		}
 	}
 
 	/**
@@ -189,11 +190,11 @@ public class Switch extends SimEntity {
 		if (level == SwitchLevel.EDGE_LEVEL) {
 			int hostid = dc.VmtoHostlist.get(recvVMid);
 			npkt.receiverHostId = hostid;
-			pktsToHosts.computeIfAbsent(hostid, k -> new ArrayList<>()).add(npkt);
+			pktsToHosts.getOrCreate(hostid).add(npkt);
 		} else if (level == SwitchLevel.AGGR_LEVEL) { // From root level to edge level
 			// find the id for edgelevel switch
 			int switchId = dc.VmToSwitchid.get(recvVMid);
-			pktsToDownlinkSwitches.computeIfAbsent(switchId, k -> new ArrayList<>()).add(npkt);
+			pktsToDownlinkSwitches.getOrCreate(switchId).add(npkt);
 		}
 
 	}
@@ -219,14 +220,14 @@ public class Switch extends SimEntity {
 
 			// Receiver host directly connected to the switch -- found!
 			if (hs != null) {
-				pktsToHosts.computeIfAbsent(hostId, k -> new ArrayList<>()).add(npkt);
+				pktsToHosts.getOrCreate(hostId).add(npkt);
 				return;
 			}
 
 			// Send to aggregate level
 			// ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only
 			Switch sw = uplinkSwitches.get(0);
-			pktsToUplinkSwitches.computeIfAbsent(sw.getId(), k -> new ArrayList<>()).add(npkt);
+			pktsToUplinkSwitches.getOrCreate(sw.getId()).add(npkt);
 		}
 		else if (level == SwitchLevel.AGGR_LEVEL) { // packet received from edge router
 			// find the id for edgelevel switch
@@ -234,10 +235,10 @@ public class Switch extends SimEntity {
 
 			// send to edge (it's not going up, but same level)
             if (downlinkSwitches.stream().anyMatch(sw -> sw.getId() == switchId)) {
-				pktsToDownlinkSwitches.computeIfAbsent(switchId, k -> new ArrayList<>()).add(npkt);
+				pktsToDownlinkSwitches.getOrCreate(switchId).add(npkt);
 			} else {// send to up to root level (ASSUMPTION: EACH EDGE is Connected to one aggregate level switch only)
 				Switch sw = uplinkSwitches.get(0);
-				pktsToUplinkSwitches.computeIfAbsent(sw.getId(), k -> new ArrayList<>()).add(npkt);
+				pktsToUplinkSwitches.getOrCreate(sw.getId()).add(npkt);
 			}
 		}
 		// @TODO: confusing, this packet is going down, not up!!!
@@ -246,18 +247,16 @@ public class Switch extends SimEntity {
 			int edgeSwitchId = dc.VmToSwitchid.get(recvVMid);
 			// search which aggregate switch is connected to the edge switch
 			int aggrSwitchId = -1;
-            for (Switch sw : downlinkSwitches) {
-				for (Switch edge : sw.downlinkSwitches) {
-					if (edge.getId() == edgeSwitchId) {
-						aggrSwitchId = sw.getId();
-						break;
-					}
+			for (Switch sw : dc.getSwitchList().get(edgeSwitchId).uplinkSwitches) {
+				if (downlinkSwitches.contains(sw)) {
+					aggrSwitchId = sw.getId();
+					break;
 				}
 			}
 			if (aggrSwitchId < 0) {
 				Log.println(" No destination for this packet");
 			} else {
-				pktsToDownlinkSwitches.computeIfAbsent(aggrSwitchId, k -> new ArrayList<>()).add(npkt);
+				pktsToDownlinkSwitches.getOrCreate(aggrSwitchId).add(npkt);
 			}
 		} else {
 			throw new IllegalStateException("Unknown switch level " + level);
@@ -306,65 +305,81 @@ public class Switch extends SimEntity {
 	 */
 	protected void forwardProcessedPackets() {
 		// Iterate over the packets in the downlink switch
-		for (Entry<Integer, List<NetworkPacket>> es : pktsToDownlinkSwitches.entrySet()) {
-			int receiverSwitchId = es.getKey();
-			List<NetworkPacket> hspktlist = es.getValue();
+		for (int i = 0; i < pktsToDownlinkSwitches.size(); i++) {
+			int receiverSwitchId = pktsToDownlinkSwitches.getPort(i);
+			PacketQueue<NetworkPacket> hspktlist = pktsToDownlinkSwitches.getQueue(i);
 			if (!hspktlist.isEmpty()) {
 				double avband = (double) downlinkBw / hspktlist.size();
-				for (NetworkPacket hspkt : hspktlist) {
+				NetworkPacket hspkt;
+				while ((hspkt = hspktlist.poll()) != null) {
 					double delay = 8 * hspkt.pkt.data / avband;
 
 					this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_DOWN, hspkt);
 				}
-				hspktlist.clear();
 			}
 		}
 
-		for (Entry<Integer, List<NetworkPacket>> es : pktsToUplinkSwitches.entrySet()) {
-			int receiverSwitchId = es.getKey();
-			List<NetworkPacket> hspktlist = es.getValue();
+		for (int i = 0; i < pktsToUplinkSwitches.size(); i++) {
+			int receiverSwitchId = pktsToUplinkSwitches.getPort(i);
+			PacketQueue<NetworkPacket> hspktlist = pktsToUplinkSwitches.getQueue(i);
 			if (!hspktlist.isEmpty()) {
 				// sharing bandwidth between packets
 				double avband = (double) uplinkBw / hspktlist.size();
-				for (NetworkPacket hspkt : hspktlist) {
+				NetworkPacket hspkt;
+				while ((hspkt = hspktlist.poll()) != null) {
 					double delay = 8 * hspkt.pkt.data / avband;
 
 					this.send(receiverSwitchId, delay, CloudActionTags.NETWORK_PKT_UP, hspkt);
 				}
-				hspktlist.clear();
 			}
 		}
 
-		for (Entry<Integer, List<NetworkPacket>> es : pktsToHosts.entrySet()) {
-			List<NetworkPacket> hspktlist = es.getValue();
+		for (int i = 0; i < pktsToHosts.size(); i++) {
+			PacketQueue<NetworkPacket> hspktlist = pktsToHosts.getQueue(i);
 			if (!hspktlist.isEmpty()) {
 				double avband = (double) downlinkBw / hspktlist.size();
-				for (NetworkPacket npkt : hspktlist) {
-					NetworkHost hs = hostList.get(npkt.receiverHostId);
-
-					if (hs == null) { // nested virtualization edge-case
-						for (NetworkHost candidateHs: hostList.values()) {
-							if (candidateHs.getNics().get(npkt.pkt.receiverCloudletId) != null) {
-								hs = candidateHs;
-
-								// Replace packet host
-								npkt.receiverHostId = hs.getId();
-								break;
-							}
-						}
-					}
-
-					// simulate traversal overhead of the virtualization layers (host -> (nested) receiver guest)
-                    assert hs != null;
-                    int virtOverhead = hs.getTotalVirtualizationOverhead(npkt.getReceiverGuestId(), hs.getGuestList().iterator(), 0);
+				NetworkPacket npkt;
+				while ((npkt = hspktlist.poll()) != null) {
+					int virtOverhead = getReceiverVirtualizationOverhead(npkt);
 					double delay = (8 * npkt.pkt.data / avband) + virtOverhead;
 					this.send(getId(), delay, CloudActionTags.NETWORK_PKT_REACHED_HOST, npkt);
 				}
-				hspktlist.clear();
 			}
 		}
 	}
 
+	/**
+	 * Gets the overhead of the virtualization layers traversed by a packet from its receiver host,
+	 * connected to this switch, to its (possibly nested) receiver guest.
+	 *
+	 * @param npkt the packet
+	 * @return the virtualization overhead
+	 */
+	int getReceiverVirtualizationOverhead(NetworkPacket npkt) {
+		int overhead = dc.getGuestVirtualizationOverhead(npkt.getReceiverGuestId());
+		if (overhead >= 0 && hostList.containsKey(npkt.receiverHostId)) {
+			return overhead;
+		}
+
+		NetworkHost hs = hostList.get(npkt.receiverHostId);
+
+		if (hs == null) { // nested virtualization edge-case
+			for (NetworkHost candidateHs: hostList.values()) {
+				if (candidateHs.getNics().get(npkt.pkt.receiverCloudletId) != null) {
+					hs = candidateHs;
+
+					// Replace packet host
+					npkt.receiverHostId = hs.getId();
+					break;
+				}
+			}
+		}
+
+		// simulate traversal overhead of the virtualization layers (host -> (nested) receiver guest)
+		assert hs != null;
+		return hs.getTotalVirtualizationOverhead(npkt.getReceiverGuestId(), hs.getGuestList().iterator(), 0);
+	}
+
 	// @TODO: These are never used, remove?
         /**
          * Gets the host of a given VM.
@@ -0,0 +1,117 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.core.PowerHostEntity;
+
+/**
+ * Integrates the energy consumed by the hosts of a datacenter over the intervals between the
+ * processing of their cloudlets.
+ * <p>
+ * The energy of a host over an interval is given by
+ * {@link PowerHostEntity#getEnergyLinearInterpolation(double, double, double)} from its utilization
+ * at the start and at the end of the interval, and is proportional to the length of the interval.
+ * The meter thus records, for each host, the points at which these utilizations change, together
+ * with the energy rate that applies from them. Intervals over which the utilizations of a host
+ * do not change only extend its current segment, and the energy is integrated in closed form when
+ * it is queried. The power model of a host is only evaluated when its utilization changes.
+ * <p>
+ * Hosts are identified by their position in the host list of the datacenter, and the intervals
+ * must follow each other without gaps.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+final class EnergyMeter {
+
+	/** The host at each position, or null if none has been recorded yet. */
+	private PowerHostEntity[] hosts = new PowerHostEntity[0];
+
+	/** The utilization of each host at the start of its current segment's intervals. */
+	private double[] fromUtilizations = new double[0];
+
+	/** The utilization of each host at the end of its current segment's intervals. */
+	private double[] toUtilizations = new double[0];
+
+	/** The energy consumed per unit of time by each host since the start of its current segment. */
+	private double[] rates = new double[0];
+
+	/** The start time of the current segment of each host. */
+	private double[] since = new double[0];
+
+	/** The energy consumed by each host before its current segment. */
+	private double[] energy = new double[0];
+
+	/**
+	 * Records the utilizations of a host over an interval, starting where the previous interval
+	 * recorded for this position ended.
+	 *
+	 * @param index the position of the host
+	 * @param host the host
+	 * @param fromUtilization the utilization of the host at the start of the interval
+	 * @param toUtilization the utilization of the host at the end of the interval
+	 * @param start the start time of the interval
+	 * @return the energy consumed by the host per unit of time over the interval
+	 */
+	double record(int index, PowerHostEntity host, double fromUtilization, double toUtilization, double start) {
+		if (index >= hosts.length) {
+			grow(index + 1);
+		}
+		if (hosts[index] == host
+				&& Double.compare(fromUtilizations[index], fromUtilization) == 0
+				&& Double.compare(toUtilizations[index], toUtilization) == 0) {
+			return rates[index];
+		}
+		if (hosts[index] != null) {
+			energy[index] += rates[index] * (start - since[index]);
+		}
+		hosts[index] = host;
+		fromUtilizations[index] = fromUtilization;
+		toUtilizations[index] = toUtilization;
+		rates[index] = host.getEnergyLinearInterpolation(fromUtilization, toUtilization, 1);
+		since[index] = start;
+		return rates[index];
+	}
+
+	/**
+	 * Gets the energy consumed by all the hosts.
+	 *
+	 * @param time the end time of the last recorded interval
+	 * @return the energy, in W*sec
+	 */
+	double getEnergy(double time) {
+		double total = 0;
+		for (int i = 0; i < hosts.length; i++) {
+			if (hosts[i] != null) {
+				total += energy[i] + rates[i] * (time - since[i]);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Discards the energy consumed so far, keeping the current rates of the hosts.
+	 *
+	 * @param time the end time of the last recorded interval
+	 */
+	void reset(double time) {
+		Arrays.fill(energy, 0);
+		Arrays.fill(since, time);
+	}
+
+	private void grow(int size) {
+		hosts = Arrays.copyOf(hosts, size);
+		fromUtilizations = Arrays.copyOf(fromUtilizations, size);
+		toUtilizations = Arrays.copyOf(toUtilizations, size);
+		rates = Arrays.copyOf(rates, size);
+		since = Arrays.copyOf(since, size);
+		energy = Arrays.copyOf(energy, size);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of host positions keyed by a double, used by
+ * {@link PowerVmAllocationPolicyMigrationAbstract} to visit the candidate hosts of a VM from the
+ * lowest power increase, and the under-utilized hosts from the least utilized one. Equal keys are
+ * polled by increasing position, as in a linear search keeping the first minimum.
+ * <p>
+ * The heap stores primitives, so that filling it for every VM to place does not allocate an
+ * object per host.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+class HostCandidateQueue {
+	/** The positions of the hosts, in heap order. */
+	private int[] positions = new int[16];
+
+	/** The keys of the hosts, in heap order. */
+	private double[] keys = new double[16];
+
+	/** The number of hosts in the heap. */
+	private int size = 0;
+
+	/**
+	 * Removes all the hosts.
+	 */
+	void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Checks whether the heap is empty.
+	 *
+	 * @return true if there are no hosts
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds a host.
+	 *
+	 * @param position the position of the host in the host list
+	 * @param key the key of the host
+	 */
+	void add(int position, double key) {
+		if (size == positions.length) {
+			positions = Arrays.copyOf(positions, size * 2);
+			keys = Arrays.copyOf(keys, size * 2);
+		}
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!less(position, key, positions[parent], keys[parent])) {
+				break;
+			}
+			positions[i] = positions[parent];
+			keys[i] = keys[parent];
+			i = parent;
+		}
+		positions[i] = position;
+		keys[i] = key;
+	}
+
+	/**
+	 * Gets the key of the first host.
+	 *
+	 * @return the key
+	 */
+	double peekKey() {
+		return keys[0];
+	}
+
+	/**
+	 * Gets the position of the first host.
+	 *
+	 * @return the position
+	 */
+	int peekPosition() {
+		return positions[0];
+	}
+
+	/**
+	 * Removes the first host.
+	 *
+	 * @return the position of the host
+	 */
+	int poll() {
+		int first = positions[0];
+		int position = positions[--size];
+		double key = keys[size];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && less(positions[child + 1], keys[child + 1], positions[child], keys[child])) {
+				child++;
+			}
+			if (!less(positions[child], keys[child], position, key)) {
+				break;
+			}
+			positions[i] = positions[child];
+			keys[i] = keys[child];
+			i = child;
+		}
+		positions[i] = position;
+		keys[i] = key;
+		return first;
+	}
+
+	private static boolean less(int position1, double key1, int position2, double key2) {
+		return key1 < key2 || (key1 == key2 && position1 < position2);
+	}
+}
@@ -41,9 +41,12 @@ import org.cloudbus.cloudsim.core.predicates.PredicateType;
  */
 public class PowerDatacenter extends Datacenter {
 
-	/** The datacenter consumed power. */
+	/** The datacenter consumed power, apart from the energy still held by {@link #energyMeter}. */
 	private double power;
 
+	/** The energy consumed by the hosts since the power was last set. */
+	private final EnergyMeter energyMeter = new EnergyMeter();
+
 	/** Indicates if migrations are disabled or not. */
 	private boolean disableMigrations;
 
@@ -88,7 +91,9 @@ public class PowerDatacenter extends Datacenter {
 
 		// if some time passed since last processing
 		if (currentTime > getLastProcessTime()) {
-			Log.print(currentTime + " ");
+			if (!Log.isDisabled()) {
+				Log.print(currentTime + " ");
+			}
 
 			double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
 
@@ -163,6 +168,10 @@ public class PowerDatacenter extends Datacenter {
 
 	/**
 	 * Update cloudet processing without scheduling future events.
+	 * <p>
+	 * The energy consumed by the hosts over the time frame is recorded in the energy meter of the
+	 * datacenter, which only evaluates the power of the hosts whose utilization changed, and
+	 * the messages about each host are only formatted when logging is enabled.
 	 * 
 	 * @return expected time of completion of the next cloudlet in all VMs of all hosts or
 	 *         {@link Double#MAX_VALUE} if there is no future events expected in this host
@@ -171,63 +180,39 @@ public class PowerDatacenter extends Datacenter {
 		double currentTime = CloudSim.clock();
 		double minTime = Double.MAX_VALUE;
 		double timeDiff = currentTime - getLastProcessTime();
-		double timeFrameDatacenterEnergy = 0.0;
+		boolean logging = !Log.isDisabled();
 
-		Log.println("\n\n--------------------------------------------------------------\n\n");
-		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.println();
+		if (logging) {
+			Log.println("\n\n--------------------------------------------------------------\n\n");
+			Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
+		}
 
+		List<PowerHost> hosts = getHostList();
+		for (int i = 0; i < hosts.size(); i++) {
+			PowerHost host = hosts.get(i);
 			double time = host.updateCloudletsProcessing(currentTime); // inform VMs to update processing
 			if (time < minTime) {
 				minTime = time;
 			}
 
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
-		}
-
-		if (timeDiff > 0) {
-			Log.formatLine(
-					"\nEnergy consumption for the last time frame from %.2f to %.2f:",
-					getLastProcessTime(),
-					currentTime);
-
-			for (PowerHost host : this.<PowerHost> getHostList()) {
-				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
-				double utilizationOfCpu = host.getUtilizationOfCpu();
-				double timeFrameHostEnergy = host.getEnergyLinearInterpolation(
-						previousUtilizationOfCpu,
-						utilizationOfCpu,
-						timeDiff);
-				timeFrameDatacenterEnergy += timeFrameHostEnergy;
+			if (timeDiff > 0) {
+				energyMeter.record(i, host, host.getPreviousUtilizationOfCpu(), host.getUtilizationOfCpu(),
+						getLastProcessTime());
+			}
 
+			if (logging) {
 				Log.println();
 				Log.formatLine(
-						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+						"%.2f: [Host #%d] utilization is %.2f%%",
 						currentTime,
 						host.getId(),
-						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
-				Log.formatLine(
-						"%.2f: [Host #%d] energy is %.2f W*sec",
-						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+						host.getUtilizationOfCpu() * 100);
 			}
-
-			Log.formatLine(
-					"\n%.2f: Data center's energy is %.2f W*sec\n",
-					currentTime,
-					timeFrameDatacenterEnergy);
 		}
 
-		setPower(getPower() + timeFrameDatacenterEnergy);
+		if (timeDiff > 0 && logging) {
+			logEnergy(hosts, currentTime, timeDiff);
+		}
 
 		checkCloudletCompletion();
 
@@ -246,6 +231,50 @@ public class PowerDatacenter extends Datacenter {
 		return minTime;
 	}
 
+	/**
+	 * Logs the energy consumed by each host over a time frame, as recorded in the energy meter.
+	 *
+	 * @param hosts the hosts
+	 * @param currentTime the end time of the time frame
+	 * @param timeDiff the length of the time frame
+	 */
+	private void logEnergy(List<PowerHost> hosts, double currentTime, double timeDiff) {
+		double timeFrameDatacenterEnergy = 0.0;
+
+		Log.formatLine(
+				"\nEnergy consumption for the last time frame from %.2f to %.2f:",
+				getLastProcessTime(),
+				currentTime);
+
+		for (int i = 0; i < hosts.size(); i++) {
+			PowerHost host = hosts.get(i);
+			double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
+			double utilizationOfCpu = host.getUtilizationOfCpu();
+			double timeFrameHostEnergy = energyMeter.record(i, host, previousUtilizationOfCpu, utilizationOfCpu,
+					getLastProcessTime()) * timeDiff;
+			timeFrameDatacenterEnergy += timeFrameHostEnergy;
+
+			Log.println();
+			Log.formatLine(
+					"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+					currentTime,
+					host.getId(),
+					getLastProcessTime(),
+					previousUtilizationOfCpu * 100,
+					utilizationOfCpu * 100);
+			Log.formatLine(
+					"%.2f: [Host #%d] energy is %.2f W*sec",
+					currentTime,
+					host.getId(),
+					timeFrameHostEnergy);
+		}
+
+		Log.formatLine(
+				"\n%.2f: Data center's energy is %.2f W*sec\n",
+				currentTime,
+				timeFrameDatacenterEnergy);
+	}
+
 	@Override
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
 		updateCloudetProcessingWithoutSchedulingFutureEvents();
@@ -263,12 +292,13 @@ public class PowerDatacenter extends Datacenter {
 	}
 
 	/**
-	 * Gets the power.
+	 * Gets the power, that is the energy consumed by the hosts up to the last processing of
+	 * their cloudlets, in W*sec.
 	 * 
 	 * @return the power
 	 */
 	public double getPower() {
-		return power;
+		return power + energyMeter.getEnergy(getLastProcessTime());
 	}
 
 	/**
@@ -278,6 +308,7 @@ public class PowerDatacenter extends Datacenter {
 	 */
 	protected void setPower(double power) {
 		this.power = power;
+		energyMeter.reset(getLastProcessTime());
 	}
 
 	/**
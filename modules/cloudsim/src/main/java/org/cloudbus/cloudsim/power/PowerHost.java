@@ -14,10 +14,13 @@ import java.util.List;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.core.PowerGuestEntity;
 import org.cloudbus.cloudsim.core.PowerHostEntity;
 import org.cloudbus.cloudsim.power.models.PowerModel;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
+import org.cloudbus.cloudsim.util.HistoryStat;
 
 /**
  * PowerHost class enables simulation of power-aware hosts.
@@ -43,6 +46,9 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	/** The power model used by the host. */
 	private PowerModel powerModel;
 
+	/** The aggregated CPU utilization history of the VMs, or null if it must be recomputed. */
+	private double[] utilizationHistory;
+
 	/**
 	 * Instantiates a new PowerHost.
 	 * 
@@ -114,21 +120,129 @@ public class PowerHost extends HostDynamicWorkload implements PowerHostEntity {
 	/**
 	 * Gets the host CPU utilization percentage history.
 	 *
-	 * @return the host CPU utilization percentage history
+	 * @return a copy of the host CPU utilization percentage history
 	 */
+	@Override
 	public double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerHostEntity.HISTORY_LENGTH];
+		return getCachedUtilizationHistory().clone();
+	}
+
+	/**
+	 * Gets the host CPU utilization percentage history, without copying it, for the policies
+	 * reading it without modifying it.
+	 * <p>
+	 * The history is aggregated from the histories of the VMs when first read after a VM has been
+	 * placed, removed or has recorded a utilization sample, and then kept until the next change.
+	 * As every VM sample drops it, this is a read cache for the policies evaluating the host
+	 * several times between two samples, not an incremental aggregation. The returned array is
+	 * shared by all the readers and must not be modified.
+	 *
+	 * @return the host CPU utilization percentage history
+	 */
+	double[] getCachedUtilizationHistory() {
+		if (utilizationHistory == null) {
+			utilizationHistory = aggregateUtilizationHistory();
+		}
+		return utilizationHistory;
+	}
+
+	/**
+	 * Gets the host CPU utilization percentage history as it would be if a given VM was placed on
+	 * the host, without placing it.
+	 *
+	 * @param vm the VM
+	 * @return the projected host CPU utilization percentage history
+	 */
+	public double[] getUtilizationHistoryWith(GuestEntity vm) {
+		return withUtilizationHistory(getCachedUtilizationHistory(), (PowerVm) vm);
+	}
+
+	@Override
+	public void utilizationHistoryUpdated(PowerGuestEntity guest) {
+		utilizationHistory = null;
+	}
+
+	@Override
+	public double updateCloudletsProcessing(double currentTime) {
+		double smallerTime = super.updateCloudletsProcessing(currentTime);
+		if (!getGuestsMigratingIn().isEmpty()) {
+			// the VMs migrating in notify the samples they record to their source host only
+			utilizationHistory = null;
+		}
+		return smallerTime;
+	}
+
+	@Override
+	public boolean guestCreate(GuestEntity guest) {
+		if (!super.guestCreate(guest)) {
+			return false;
+		}
+		if (utilizationHistory != null) {
+			// the VM is the last of the list: adding it keeps the sums computed in the same order
+			utilizationHistory = withUtilizationHistory(utilizationHistory, (PowerVm) guest);
+		}
+		return true;
+	}
+
+	@Override
+	public void guestDestroy(GuestEntity guest) {
+		super.guestDestroy(guest);
+		utilizationHistory = null;
+	}
+
+	@Override
+	public void guestDestroyAll() {
+		super.guestDestroyAll();
+		utilizationHistory = null;
+	}
+
+	@Override
+	public void addMigratingInGuest(GuestEntity guest) {
+		super.addMigratingInGuest(guest);
+		utilizationHistory = null;
+	}
+
+	@Override
+	public void removeMigratingInGuest(GuestEntity guest) {
+		super.removeMigratingInGuest(guest);
+		utilizationHistory = null;
+	}
+
+	@Override
+	public void reallocateMigratingInGuests() {
+		super.reallocateMigratingInGuests();
+		utilizationHistory = null;
+	}
+
+	/**
+	 * Sums the utilization history of the VMs of the host.
+	 */
+	private double[] aggregateUtilizationHistory() {
+		double[] aggregated = new double[PowerHostEntity.HISTORY_LENGTH];
 		double hostMips = getTotalMips();
 		int maxlen = 0;
 		for (PowerVm vm : this.<PowerVm>getGuestList()) {
-			double guestMips = vm.getMips();
-			int i = 0;
-			for (double u : vm.getUtilizationHistory()) {
-				utilizationHistory[i++] += u * guestMips / hostMips;
-			}
-			if (i > maxlen)
-				maxlen = i;
+			maxlen = Math.max(maxlen, addUtilizationHistory(aggregated, vm, hostMips));
+		}
+		return Arrays.copyOf(aggregated, maxlen);
+	}
+
+	/**
+	 * Adds the utilization history of a VM to a copy of a host utilization history.
+	 */
+	private double[] withUtilizationHistory(double[] hostUtilizationHistory, PowerVm vm) {
+		double[] result = Arrays.copyOf(hostUtilizationHistory,
+				Math.max(hostUtilizationHistory.length, vm.getUtilizationHistory().size()));
+		addUtilizationHistory(result, vm, getTotalMips());
+		return result;
+	}
+
+	private static int addUtilizationHistory(double[] utilizationHistory, PowerVm vm, double hostMips) {
+		double guestMips = vm.getMips();
+		HistoryStat history = vm.getUtilizationHistory();
+		for (int i = 0; i < history.size(); i++) {
+			utilizationHistory[i] += history.get(i) * guestMips / hostMips;
 		}
-		return Arrays.copyOf(utilizationHistory, maxlen);
+		return history.size();
 	}
 }
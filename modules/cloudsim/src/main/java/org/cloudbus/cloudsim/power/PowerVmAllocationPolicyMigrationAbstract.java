@@ -15,6 +15,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import org.cloudbus.cloudsim.*;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -49,7 +50,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	/** A list of maps between a VM and the host where it is place. */
 	private final List<GuestMapping> savedAllocation = new ArrayList<>();
 
-	private void growIfNeeded(List<List<Double>> l, int idx) {
+	private static void growIfNeeded(List<List<Double>> l, int idx) {
 		for (int i = l.size(); i <= idx; i++)
 			l.add(null);
 	}
@@ -95,6 +96,25 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
          */
 	private final List<Double> executionTimeHistoryTotal = new ArrayList<>();
 
+	/** Whether the host search only checks the over-utilization of the hosts that could be selected.
+	 * @see #setHostSearchPruning(boolean)
+	 */
+	private boolean hostSearchPruning = false;
+
+	/** Whether the hosts are checked for over-utilization in parallel.
+	 * @see #setParallelHostEvaluation(boolean)
+	 */
+	private boolean parallelHostEvaluation = false;
+
+	/** The candidate hosts of the VM being placed, reused by every host search. */
+	private final HostCandidateQueue hostCandidates = new HostCandidateQueue();
+
+	/** The under-utilized hosts of the consolidation in progress, by position in the host list,
+	 * or null outside of {@link #getMigrationMapFromUnderUtilizedHosts(List)}.
+	 * @see #getUnderUtilizedHost(Set)
+	 */
+	private HostCandidateQueue underUtilizedHosts;
+
 	/**
 	 * Instantiates a new PowerVmAllocationPolicyMigrationAbstract.
 	 * 
@@ -150,6 +170,12 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 	/**
 	 * Gets the migration map from under utilized hosts.
+	 * <p>
+	 * The under-utilized hosts are found one after the other by {@link #getUnderUtilizedHost(Set)}.
+	 * The placements tried in the meantime do not change the CPU utilization of the hosts, which
+	 * is only updated when the cloudlets are processed, and the hosts receiving VMs are excluded
+	 * from the search. The candidate hosts are therefore ordered once, in a priority queue, which
+	 * the default {@link #getUnderUtilizedHost(Set)} polls instead of scanning all the hosts.
 	 * 
 	 * @param overUtilizedHosts the over utilized hosts
 	 * @return the migration map from under utilized hosts
@@ -163,57 +189,82 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		Set<PowerHost> excludedHostsForFindingUnderUtilizedHost = new HashSet<>();
 		excludedHostsForFindingUnderUtilizedHost.addAll(overUtilizedHosts);
 		excludedHostsForFindingUnderUtilizedHost.addAll(switchedOffHosts);
-		excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(migrationMap));
 
 		// over-utilized + under-utilized hosts
 		Set<PowerHost> excludedHostsForFindingNewVmPlacement = new HashSet<>();
 		excludedHostsForFindingNewVmPlacement.addAll(overUtilizedHosts);
 		excludedHostsForFindingNewVmPlacement.addAll(switchedOffHosts);
 
-		int numberOfHosts = getHostList().size();
-
-		while (true) {
-			if (numberOfHosts == excludedHostsForFindingUnderUtilizedHost.size()) {
-				break;
+		List<PowerHost> hosts = getHostList();
+		underUtilizedHosts = new HostCandidateQueue();
+		for (int i = 0; i < hosts.size(); i++) {
+			PowerHost host = hosts.get(i);
+			double utilization = host.getUtilizationOfCpu();
+			if (utilization > 0 && utilization < 1 && !excludedHostsForFindingUnderUtilizedHost.contains(host)) {
+				underUtilizedHosts.add(i, utilization);
 			}
+		}
 
-			PowerHost underUtilizedHost = getUnderUtilizedHost(excludedHostsForFindingUnderUtilizedHost);
-			if (underUtilizedHost == null) {
-				break;
-			}
+		try {
+			while (hosts.size() != excludedHostsForFindingUnderUtilizedHost.size()) {
+				PowerHost underUtilizedHost = getUnderUtilizedHost(excludedHostsForFindingUnderUtilizedHost);
+				if (underUtilizedHost == null) {
+					break;
+				}
 
-			Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
+				Log.printlnConcat("Under-utilized host: host #", underUtilizedHost.getId(), "\n");
 
-			excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
-			excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
+				excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
+				excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
 
-			List<? extends GuestEntity> vmsToMigrateFromUnderUtilizedHost = getVmsToMigrateFromUnderUtilizedHost(underUtilizedHost);
-			if (vmsToMigrateFromUnderUtilizedHost.isEmpty()) {
-				continue;
-			}
+				List<? extends GuestEntity> vmsToMigrateFromUnderUtilizedHost = getVmsToMigrateFromUnderUtilizedHost(underUtilizedHost);
+				if (vmsToMigrateFromUnderUtilizedHost.isEmpty()) {
+					continue;
+				}
 
-			Log.print("Reallocation of VMs from the under-utilized host: ");
-			if (!Log.isDisabled()) {
-				for (GuestEntity vm : vmsToMigrateFromUnderUtilizedHost) {
-					Log.print(vm.getId() + " ");
+				Log.print("Reallocation of VMs from the under-utilized host: ");
+				if (!Log.isDisabled()) {
+					for (GuestEntity vm : vmsToMigrateFromUnderUtilizedHost) {
+						Log.print(vm.getId() + " ");
+					}
 				}
-			}
-			Log.println();
+				Log.println();
 
-			List<GuestMapping> newVmPlacement = getNewVmPlacementFromUnderUtilizedHost(
-					vmsToMigrateFromUnderUtilizedHost,
-					excludedHostsForFindingNewVmPlacement);
+				List<GuestMapping> newVmPlacement = getNewVmPlacementFromUnderUtilizedHost(
+						vmsToMigrateFromUnderUtilizedHost,
+						excludedHostsForFindingNewVmPlacement);
 
-			excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(newVmPlacement));
+				for (GuestMapping map : newVmPlacement) {
+					excludedHostsForFindingUnderUtilizedHost.add((PowerHost) map.host());
+				}
 
-			migrationMap.addAll(newVmPlacement);
-			Log.println();
+				migrationMap.addAll(newVmPlacement);
+				Log.println();
+			}
+		} finally {
+			underUtilizedHosts = null;
 		}
 
-        excludedHostsForFindingUnderUtilizedHost.clear();
-        excludedHostsForFindingNewVmPlacement.clear();
-        return migrationMap;
-    }
+		return migrationMap;
+	}
+
+	/**
+	 * Removes from the queue of under-utilized hosts the least utilized one that is not excluded
+	 * and has VMs that can be migrated, which is the host a scan of all the hosts finds.
+	 * 
+	 * @param excludedHosts the excluded hosts
+	 * @return the least utilized host, or null if there is none
+	 */
+	private PowerHost pollUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+		List<PowerHost> hosts = getHostList();
+		while (!underUtilizedHosts.isEmpty()) {
+			PowerHost host = hosts.get(underUtilizedHosts.poll());
+			if (!excludedHosts.contains(host) && !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
+				return host;
+			}
+		}
+		return null;
+	}
 
 	/**
 	 * Prints the over utilized hosts.
@@ -241,6 +292,10 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return the host found to host the VM
 	 */
 	public PowerHost findHostForGuest(GuestEntity vm, Set<? extends HostEntity> excludedHosts) {
+		if (isHostSearchPruning()) {
+			return findHostForGuestPruned(vm, excludedHosts);
+		}
+
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
 
@@ -269,6 +324,123 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 		return allocatedHost;
 	}
 
+	/**
+	 * Finds the same host as {@link #findHostForGuest(GuestEntity, Set)}, but only checks the
+	 * over-utilization of the hosts that could be selected.
+	 * <p>
+	 * The power increase of every suitable host is computed first, which is cheap, and the hosts
+	 * are then visited from the lowest increase (and, for equal increases, in host list order):
+	 * the first one that is not over-utilized after the allocation is the one the linear search
+	 * finds, and the trial allocations of all the hosts after it are skipped. The hosts whose
+	 * utilization after the allocation is outside [0, 1], which the power model may reject, are
+	 * checked as the linear search does.
+	 * 
+	 * @param vm the VM
+	 * @param excludedHosts the excluded hosts
+	 * @return the host found to host the VM
+	 */
+	private PowerHost findHostForGuestPruned(GuestEntity vm, Set<? extends HostEntity> excludedHosts) {
+		List<PowerHost> hosts = getHostList();
+		hostCandidates.clear();
+
+		// the best host among the ones checked as the linear search does
+		double minPower = Double.MAX_VALUE;
+		int allocatedPosition = -1;
+
+		for (int position = 0; position < hosts.size(); position++) {
+			PowerHost host = hosts.get(position);
+			if (excludedHosts.contains(host) || !host.isSuitableForGuest(vm)) {
+				continue;
+			}
+
+			double utilization = getMaxUtilizationAfterAllocation(host, vm);
+			boolean checked = utilization < 0 || utilization > 1;
+			if (checked && getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
+				continue;
+			}
+
+			try {
+				double powerAfterAllocation = getPowerAfterAllocation(host, vm);
+				if (powerAfterAllocation != -1) {
+					double powerDiff = powerAfterAllocation - host.getPower();
+					if (!checked) {
+						if (powerDiff < Double.MAX_VALUE) {
+							hostCandidates.add(position, powerDiff);
+						}
+					} else if (powerDiff < minPower) {
+						minPower = powerDiff;
+						allocatedPosition = position;
+					}
+				}
+			} catch (Exception e) {
+			}
+		}
+
+		while (!hostCandidates.isEmpty()) {
+			double powerDiff = hostCandidates.peekKey();
+			if (powerDiff > minPower || (powerDiff == minPower && hostCandidates.peekPosition() > allocatedPosition)) {
+				break;
+			}
+			PowerHost host = hosts.get(hostCandidates.poll());
+			if (getUtilizationOfCpuMips(host) == 0 || !isHostOverUtilizedAfterAllocation(host, vm)) {
+				return host;
+			}
+		}
+		return allocatedPosition != -1 ? hosts.get(allocatedPosition) : null;
+	}
+
+	/**
+	 * Sets whether {@link #findHostForGuest(GuestEntity, Set)} orders the suitable hosts by power
+	 * increase and stops at the first one not over-utilized after the allocation, instead of
+	 * checking the over-utilization of every suitable host with a trial allocation. The selected
+	 * host is the same.
+	 * 
+	 * @param hostSearchPruning true to prune the host search
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setHostSearchPruning(boolean hostSearchPruning) {
+		this.hostSearchPruning = hostSearchPruning;
+	}
+
+	/**
+	 * Checks whether the host search is pruned.
+	 * 
+	 * @return true if the host search is pruned
+	 * @see #setHostSearchPruning(boolean)
+	 */
+	public boolean isHostSearchPruning() {
+		return hostSearchPruning;
+	}
+
+	/**
+	 * Sets whether {@link #optimizeAllocation(List)} checks the hosts for over-utilization, and
+	 * selects the VMs to migrate from the over-utilized ones, in parallel on the common
+	 * {@link java.util.concurrent.ForkJoinPool}. Each host is only accessed by the task checking
+	 * it, and the results are merged in the order of the host list, so that the over-utilized
+	 * hosts, the VMs to migrate and the history entries are the same as in a sequential run.
+	 * <p>
+	 * The {@link #isHostOverUtilized(PowerHost)} implementation and the VM selection policy must
+	 * then be safe to call concurrently for different hosts, as the ones of CloudSim are.
+	 * The time spent in both steps is still recorded in {@link #getExecutionTimeHistoryHostSelection()}
+	 * and {@link #getExecutionTimeHistoryVmSelection()}.
+	 * 
+	 * @param parallelHostEvaluation true to check the hosts in parallel
+	 * @since CloudSim Toolkit 7.0
+	 */
+	public void setParallelHostEvaluation(boolean parallelHostEvaluation) {
+		this.parallelHostEvaluation = parallelHostEvaluation;
+	}
+
+	/**
+	 * Checks whether the hosts are checked for over-utilization in parallel.
+	 * 
+	 * @return true if the hosts are checked in parallel
+	 * @see #setParallelHostEvaluation(boolean)
+	 */
+	public boolean isParallelHostEvaluation() {
+		return parallelHostEvaluation;
+	}
+
 	/**
 	 * Checks if a host will be over utilized after placing of a candidate VM.
 	 * 
@@ -277,6 +449,26 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 * @return true, if the host will be over utilized after VM placement; false otherwise
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
+		if (!host.canCreateGuest(vm)) {
+			return true;
+		}
+		return isHostOverUtilizedWith(host, vm);
+	}
+
+	/**
+	 * Checks if a host would be over utilized with a candidate VM that fits in it.
+	 * This implementation creates the VM on the host, checks the host and destroys the VM, so it
+	 * applies to any {@link #isHostOverUtilized(PowerHost)}. Policies able to project the host
+	 * state with the VM override it to leave the host untouched, and subclasses changing how
+	 * over-utilization is detected have to override it accordingly.
+	 * 
+	 * @param host the host to verify
+	 * @param vm the candidate vm
+	 * @return true, if the host would be over utilized after VM placement; false otherwise
+	 * @see HostEntity#projectUtilizationWith(GuestEntity)
+	 * @see PowerHost#getUtilizationHistoryWith(GuestEntity)
+	 */
+	protected boolean isHostOverUtilizedWith(PowerHost host, GuestEntity vm) {
 		boolean isHostOverUtilizedAfterAllocation = true;
 		if (host.guestCreate(vm)) {
 			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
@@ -370,17 +562,39 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	protected List<GuestEntity>
 	  getVmsToMigrateFromHosts(List<PowerHost> overUtilizedHosts) {
 		List<GuestEntity> vmsToMigrate = new LinkedList<>();
+		if (isParallelHostEvaluation()) {
+			List<List<GuestEntity>> vmsToMigrateByHost = overUtilizedHosts.parallelStream()
+					.map(this::getVmsToMigrateFromHost)
+					.toList();
+			for (List<GuestEntity> vms : vmsToMigrateByHost) {
+				vmsToMigrate.addAll(vms);
+			}
+			return vmsToMigrate;
+		}
 		for (PowerHost host : overUtilizedHosts) {
-			while (true) {
-				GuestEntity vm = getVmSelectionPolicy().select(host.getMigrableVms(), host, new HashSet<>());
-				if (vm == null) {
-					break;
-				}
-				vmsToMigrate.add(vm);
-				host.guestDestroy(vm);
-				if (!isHostOverUtilized(host)) {
-					break;
-				}
+			vmsToMigrate.addAll(getVmsToMigrateFromHost(host));
+		}
+		return vmsToMigrate;
+	}
+
+	/**
+	 * Removes VMs from an over-utilized host, as chosen by the VM selection policy, until the host
+	 * is no longer over-utilized.
+	 * 
+	 * @param host the over utilized host
+	 * @return the VMs to migrate from the host
+	 */
+	private List<GuestEntity> getVmsToMigrateFromHost(PowerHost host) {
+		List<GuestEntity> vmsToMigrate = new ArrayList<>();
+		while (true) {
+			GuestEntity vm = getVmSelectionPolicy().select(host.getMigrableVms(), host, new HashSet<>());
+			if (vm == null) {
+				break;
+			}
+			vmsToMigrate.add(vm);
+			host.guestDestroy(vm);
+			if (!isHostOverUtilized(host)) {
+				break;
 			}
 		}
 		return vmsToMigrate;
@@ -409,6 +623,18 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected List<PowerHost> getOverUtilizedHosts() {
 		List<PowerHost> overUtilizedHosts = new LinkedList<>();
+		if (isParallelHostEvaluation()) {
+			List<PowerHost> hosts = getHostList();
+			boolean[] overUtilized = new boolean[hosts.size()];
+			IntStream.range(0, hosts.size()).parallel()
+					.forEach(i -> overUtilized[i] = isHostOverUtilized(hosts.get(i)));
+			for (int i = 0; i < overUtilized.length; i++) {
+				if (overUtilized[i]) {
+					overUtilizedHosts.add(hosts.get(i));
+				}
+			}
+			return overUtilizedHosts;
+		}
 		for (PowerHost host : this.<PowerHost> getHostList()) {
 			if (isHostOverUtilized(host)) {
 				overUtilizedHosts.add(host);
@@ -434,11 +660,17 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 
 	/**
 	 * Gets the most under utilized host.
+	 * <p>
+	 * During {@link #getMigrationMapFromUnderUtilizedHosts(List)}, the host is polled from the
+	 * under-utilized hosts ordered once at its start; otherwise, all the hosts are scanned.
 	 * 
 	 * @param excludedHosts the excluded hosts
 	 * @return the most under utilized host
 	 */
 	protected PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+		if (underUtilizedHosts != null) {
+			return pollUnderUtilizedHost(excludedHosts);
+		}
 		double minUtilization = 1;
 		PowerHost underUtilizedHost = null;
 		for (PowerHost host : this.<PowerHost> getHostList()) {
@@ -489,22 +721,29 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends VmAllocat
 	 */
 	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
-		growIfNeeded(timeHistory, hostId);
-		if (timeHistory.get(hostId) == null) {
-			timeHistory.set(hostId, new ArrayList<Double>());
+		List<Double> times = getHostHistory(timeHistory, hostId);
+		if (times.isEmpty() || times.get(times.size() - 1) < CloudSim.clock()) {
+			times.add(CloudSim.clock());
+			getHostHistory(utilizationHistory, hostId).add(host.getUtilizationOfCpu());
+			getHostHistory(metricHistory, hostId).add(metric);
 		}
-		growIfNeeded(utilizationHistory, hostId);
-		if (utilizationHistory.get(hostId) == null) {
-			utilizationHistory.set(hostId, new ArrayList<Double>());
-		}
-		growIfNeeded(metricHistory, hostId);
-		if (metricHistory.get(hostId) == null) {
-			metricHistory.set(hostId, new ArrayList<Double>());
-		}
-		if (timeHistory.get(hostId).isEmpty() || timeHistory.get(hostId).get(timeHistory.get(hostId).size() - 1) < CloudSim.clock()) {
-			timeHistory.get(hostId).add(CloudSim.clock());
-			utilizationHistory.get(hostId).add(host.getUtilizationOfCpu());
-			metricHistory.get(hostId).add(metric);
+	}
+
+	/**
+	 * Gets the history of a host, creating it if needed. The histories of different hosts can be
+	 * updated concurrently, as in {@link #setParallelHostEvaluation(boolean) parallel evaluation}.
+	 *
+	 * @param histories the histories of the hosts, by host id
+	 * @param hostId the id of the host
+	 * @return the history of the host
+	 */
+	private static List<Double> getHostHistory(List<List<Double>> histories, int hostId) {
+		synchronized (histories) {
+			growIfNeeded(histories, hostId);
+			if (histories.get(hostId) == null) {
+				histories.set(hostId, new ArrayList<>());
+			}
+			return histories.get(hostId);
 		}
 	}
 
@@ -116,6 +116,26 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 		return utilization > upperThreshold;
 	}
 
+	/**
+	 * Checks if a host would be over utilized with a candidate VM, from the utilization history
+	 * and the CPU usage the VM would add to the host, without placing it.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate vm
+	 * @return true, if the host would be over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilizedWith(PowerHost host, GuestEntity vm) {
+		double upperThreshold = 0;
+		try {
+			upperThreshold = 1 - getSafetyParameter() * getUtilizationIqr(host.getUtilizationHistoryWith(vm));
+		} catch (IllegalArgumentException e) {
+			return getFallbackVmAllocationPolicy().isHostOverUtilizedWith(host, vm);
+		}
+		addHistoryEntry(host, upperThreshold);
+		return host.projectUtilizationWith(vm) > upperThreshold;
+	}
+
 	/**
 	 * Gets the host CPU utilization percentage IQR.
 	 * 
@@ -123,9 +143,12 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * @return the host CPU utilization percentage IQR
 	 */
 	protected double getHostUtilizationIqr(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
+		return getUtilizationIqr(host.getUtilizationHistory());
+	}
+
+	private static double getUtilizationIqr(double[] data) throws IllegalArgumentException {
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.iqr(data);
+			return MathUtil.iqr(data); // sorts its argument, a copy owned by the caller
 		}
 		throw new IllegalArgumentException();
 	}
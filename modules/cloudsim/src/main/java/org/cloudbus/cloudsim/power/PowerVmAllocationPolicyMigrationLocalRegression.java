@@ -34,6 +34,10 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllocationPolicyMigrationAbstract {
 
+	/** The number of latest utilization values used by the regression; we use 10 to make the
+	 * regression responsive enough to latest values. */
+	private static final int REGRESSION_LENGTH = 10;
+
 	/** The scheduling interval that defines the periodicity of VM migrations. */
 	private double schedulingInterval;
 
@@ -108,30 +112,75 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	 */
 	@Override
 	protected boolean isHostOverUtilized(PowerHost host) {
-        double[] utilizationHistory = host.getUtilizationHistory();
-		int length = 10; // we use 10 to make the regression responsive enough to latest values
-		if (utilizationHistory.length < length) {
+		double[] estimates = getUtilizationEstimates(host.getCachedUtilizationHistory());
+		if (estimates == null) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		double[] utilizationHistoryReversed = new double[length];
-		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
-		}
-		double[] estimates = null;
-		try {
-			estimates = getParameterEstimates(utilizationHistoryReversed);
-		} catch (IllegalArgumentException e) {
-			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
+		double predictedUtilization = getPredictedUtilization(estimates, getMaximumVmMigrationTime(host));
+
+		addHistoryEntry(host, predictedUtilization);
+
+		return predictedUtilization >= 1;
+	}
+
+	/**
+	 * Checks if a host would be over utilized with a candidate VM, from the utilization history
+	 * the host would have with the VM, without placing it.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate vm
+	 * @return true, if the host would be over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilizedWith(PowerHost host, GuestEntity vm) {
+		double[] estimates = getUtilizationEstimates(host.getUtilizationHistoryWith(vm));
+		if (estimates == null) {
+			return getFallbackVmAllocationPolicy().isHostOverUtilizedWith(host, vm);
 		}
-		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime((PowerHost) host) / getSchedulingInterval());
-		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
-		predictedUtilization *= getSafetyParameter();
+		double vmMigrationTime = vm.getRam() / ((double) host.getBw() / (2 * 8000));
+		double predictedUtilization = getPredictedUtilization(estimates,
+				Math.max(getMaximumVmMigrationTime(host), vmMigrationTime));
 
 		addHistoryEntry(host, predictedUtilization);
 
 		return predictedUtilization >= 1;
 	}
 
+	/**
+	 * Gets the regression estimates of the latest values of a host utilization history.
+	 * 
+	 * @param utilizationHistory the utilization history
+	 * @return the estimates, or null if they cannot be computed
+	 */
+	private double[] getUtilizationEstimates(double[] utilizationHistory) {
+		if (utilizationHistory.length < REGRESSION_LENGTH) {
+			return null;
+		}
+		double[] utilizationHistoryReversed = new double[REGRESSION_LENGTH];
+		for (int i = 0; i < REGRESSION_LENGTH; i++) {
+			utilizationHistoryReversed[i] = utilizationHistory[REGRESSION_LENGTH - i - 1];
+		}
+		try {
+			return getParameterEstimates(utilizationHistoryReversed);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the utilization predicted by the regression estimates once the VMs of a host could be
+	 * migrated.
+	 * 
+	 * @param estimates the regression estimates
+	 * @param maximumVmMigrationTime the maximum migration time of the VMs
+	 * @return the predicted utilization
+	 */
+	private double getPredictedUtilization(double[] estimates, double maximumVmMigrationTime) {
+		double migrationIntervals = Math.ceil(maximumVmMigrationTime / getSchedulingInterval());
+		double predictedUtilization = estimates[0] + estimates[1] * (REGRESSION_LENGTH + migrationIntervals);
+		return predictedUtilization * getSafetyParameter();
+	}
+
 	/**
 	 * Gets utilization estimates.
 	 * 
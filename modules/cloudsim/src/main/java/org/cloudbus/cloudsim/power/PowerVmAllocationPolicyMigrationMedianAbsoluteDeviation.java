@@ -126,6 +126,26 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 		return utilization > upperThreshold;
 	}
 
+	/**
+	 * Checks if a host would be over utilized with a candidate VM, from the utilization history
+	 * and the CPU usage the VM would add to the host, without placing it.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate vm
+	 * @return true, if the host would be over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilizedWith(PowerHost host, GuestEntity vm) {
+		double upperThreshold = 0;
+		try {
+			upperThreshold = 1 - getSafetyParameter() * getUtilizationMad(host.getUtilizationHistoryWith(vm));
+		} catch (IllegalArgumentException e) {
+			return getFallbackVmAllocationPolicy().isHostOverUtilizedWith(host, vm);
+		}
+		addHistoryEntry(host, upperThreshold);
+		return host.projectUtilizationWith(vm) > upperThreshold;
+	}
+
 	/**
 	 * Gets the host utilization MAD.
 	 * 
@@ -133,7 +153,10 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 * @return the host utilization MAD
 	 */
 	protected double getHostUtilizationMad(PowerHost host) throws IllegalArgumentException {
-		double[] data = host.getUtilizationHistory();
+		return getUtilizationMad(host.getCachedUtilizationHistory());
+	}
+
+	private static double getUtilizationMad(double[] data) throws IllegalArgumentException {
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
 			return MathUtil.mad(data);
 		}
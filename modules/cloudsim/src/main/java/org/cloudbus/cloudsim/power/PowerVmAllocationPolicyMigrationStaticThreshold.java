@@ -71,6 +71,20 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 		return utilization > getUtilizationThreshold();
 	}
 
+	/**
+	 * Checks if a host would be over utilized with a candidate VM, from the CPU usage the VM would
+	 * add to the host, without placing it.
+	 * 
+	 * @param host the host
+	 * @param vm the candidate vm
+	 * @return true, if the host would be over utilized; false otherwise
+	 */
+	@Override
+	protected boolean isHostOverUtilizedWith(PowerHost host, GuestEntity vm) {
+		addHistoryEntry(host, getUtilizationThreshold());
+		return host.projectUtilizationWith(vm) > getUtilizationThreshold();
+	}
+
 	/**
 	 * Sets the utilization threshold.
 	 * 
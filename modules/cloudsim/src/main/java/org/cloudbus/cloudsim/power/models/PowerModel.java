@@ -39,4 +39,20 @@ public interface PowerModel {
 	 */
 	double getPower(double utilization) throws IllegalArgumentException;
 
+	/**
+	 * Gets the power consumption for a set of utilization percentages, such as those of all the
+	 * hosts sharing this model. Models backed by tables override it to evaluate the whole set
+	 * without going through {@link #getPower(double)} for each value.
+	 * 
+	 * @param utilizations the utilization percentages (between [0 and 1])
+	 * @param powers the array receiving the power consumption for each utilization percentage,
+	 * at least as long as utilizations
+	 * @throws IllegalArgumentException when a utilization percentage is not between [0 and 1]
+	 */
+	default void getPower(double[] utilizations, double[] powers) throws IllegalArgumentException {
+		for (int i = 0; i < utilizations.length; i++) {
+			powers[i] = getPower(utilizations[i]);
+		}
+	}
+
 }
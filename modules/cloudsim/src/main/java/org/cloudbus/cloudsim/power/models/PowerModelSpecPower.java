@@ -26,20 +26,80 @@ package org.cloudbus.cloudsim.power.models;
  * @since CloudSim Toolkit 3.0
  */
 public abstract class PowerModelSpecPower implements PowerModel {
+
+	/**
+	 * The power consumption at each of the 11 utilization points and the slopes between them,
+	 * read once from {@link #getPowerData(int)}. They are shared by all the hosts using this
+	 * model instance.
+	 */
+	private static final class PowerTable {
+
+		/** The power consumption at the utilization points 0, 0.1, ..., 1. */
+		final double[] power = new double[11];
+
+		/** The power increase per 1% of utilization above each utilization point. */
+		final double[] slopes = new double[10];
+
+		PowerTable(PowerModelSpecPower model) {
+			for (int i = 0; i < power.length; i++) {
+				power[i] = model.getPowerData(i);
+			}
+			for (int i = 0; i < slopes.length; i++) {
+				slopes[i] = (power[i + 1] - power[i]) / 10;
+			}
+		}
+	}
+
+	/**
+	 * The power table, built on first use since the data of the subclasses is not initialized yet
+	 * when this constructor runs. Its fields being final, it is safely published without locking.
+	 */
+	private PowerTable table;
+
 	@Override
 	public double getPower(double utilization) throws IllegalArgumentException {
 		if (utilization < 0 || utilization > 1) {
 			throw new IllegalArgumentException("Utilization value must be between 0 and 1");
 		}
-		if (utilization % 0.1 == 0) {
-			return getPowerData((int) (utilization * 10));
+		return getPower(getTable(), utilization);
+	}
+
+	/**
+	 * Gets the power consumption for a set of utilization percentages, reading the power table
+	 * once for all of them.
+	 */
+	@Override
+	public void getPower(double[] utilizations, double[] powers) throws IllegalArgumentException {
+		PowerTable table = getTable();
+		for (int i = 0; i < utilizations.length; i++) {
+			double utilization = utilizations[i];
+			if (utilization < 0 || utilization > 1) {
+				throw new IllegalArgumentException("Utilization value must be between 0 and 1");
+			}
+			powers[i] = getPower(table, utilization);
+		}
+	}
+
+	/**
+	 * Interpolates linearly between the two utilization points surrounding a utilization
+	 * percentage, or gives the power of the utilization point it falls on.
+	 */
+	private static double getPower(PowerTable table, double utilization) {
+		double scaled = utilization * 10;
+		int index = (int) scaled;
+		if (index == scaled) {
+			return table.power[index];
+		}
+		return table.power[index] + table.slopes[index] * (utilization - (double) index / 10) * 100;
+	}
+
+	private PowerTable getTable() {
+		PowerTable table = this.table;
+		if (table == null) {
+			table = new PowerTable(this);
+			this.table = table;
 		}
-		int utilization1 = (int) Math.floor(utilization * 10);
-		int utilization2 = (int) Math.ceil(utilization * 10);
-		double power1 = getPowerData(utilization1);
-		double power2 = getPowerData(utilization2);
-		double delta = (power2 - power1) / 10;
-        return power1 + delta * (utilization - (double) utilization1 / 10) * 100;
+		return table;
 	}
 
 	/**
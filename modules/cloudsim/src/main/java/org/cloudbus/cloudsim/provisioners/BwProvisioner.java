@@ -97,7 +97,7 @@ public abstract class BwProvisioner {
 
 	/**
 	 * Checks if it is possible to change the current allocated BW for the VM
-	 * to a new amount, depending on the available BW.
+	 * to a new amount, depending on the available BW. The allocation is left unchanged.
 	 *
 	 * @param guest the vm to check if there is enough available BW on the host to
 	 *              change the VM allocated BW
@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,6 +19,9 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * allocate bandwidth (bw) to VMs: 
  * if there is available bw on the host, it allocates; otherwise, it fails. 
  * Each host has to have its own instance of a RamProvisioner.
+ * <p>
+ * The allocations are kept in an array indexed by the {@link GuestSlots slot} of each VM instead
+ * of a map keyed by its uid.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -25,9 +29,11 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class BwProvisionerSimple extends BwProvisioner {
 
-	/** The BW map, where each key is a VM id and each value
-         * is the amount of BW allocated to that VM. */
-	private Map<String, Long> bwTable;
+	/** The slots of the VMs having BW allocated. */
+	private final GuestSlots slots = new GuestSlots();
+
+	/** The amount of BW allocated to each VM, by slot. */
+	private long[] bwTable = new long[8];
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -36,7 +42,6 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<>());
 	}
 
 	@Override
@@ -45,7 +50,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() + old_bw >= bw) {
 			setAvailableBw(getAvailableBw() + old_bw - bw);
-			bwTable.put(guest.getUid(), bw);
+			setAllocatedBw(slots.assign(guest), bw);
 			guest.setCurrentAllocatedBw(bw);
 			return true;
 		}
@@ -55,54 +60,60 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 	@Override
 	public long getAllocatedBwForGuest(GuestEntity guest) {
-		Long bw = bwTable.get(guest.getUid());
-		if (bw != null)
-			return bw;
-		else
-			return 0;
+		int slot = slots.get(guest);
+		return slot < 0 ? 0 : bwTable[slot];
 	}
 
 	@Override
 	public void deallocateBwForGuest(GuestEntity guest) {
-		Long allocatedBw = bwTable.remove(guest.getUid());
-		if (allocatedBw != null)
-			setAvailableBw(getAvailableBw() + allocatedBw);
+		int slot = slots.release(guest);
+		if (slot >= 0) {
+			setAvailableBw(getAvailableBw() + bwTable[slot]);
+		}
 		guest.setCurrentAllocatedBw(0);
 	}
 
 	@Override
 	public void deallocateBwForAllGuests() {
 		super.deallocateBwForAllGuests();
-		getBwTable().clear();
+		slots.clear();
 	}
 
 	@Override
 	public boolean isSuitableForGuest(GuestEntity guest, long bw) {
-		long allocatedBw = getAllocatedBwForGuest(guest);
-		boolean result = allocateBwForGuest(guest, bw);
-		deallocateBwForGuest(guest);
-		if (allocatedBw > 0) {
-			allocateBwForGuest(guest, allocatedBw);
+		// same check as allocateBwForGuest, which replaces the BW already allocated to the guest
+		return getAvailableBw() + getAllocatedBwForGuest(guest) >= bw;
+	}
+
+	private void setAllocatedBw(int slot, long bw) {
+		if (slot == bwTable.length) {
+			bwTable = Arrays.copyOf(bwTable, slot * 2);
 		}
-		return result;
+		bwTable[slot] = bw;
 	}
 
 	/**
 	 * Gets the map between VMs and allocated bw.
+	 * The map is a copy of the allocations, which are kept by slot.
 	 * 
 	 * @return the bw map
 	 */
+	@Deprecated
 	protected Map<String, Long> getBwTable() {
-		return bwTable;
+		Map<String, Long> bwMap = new HashMap<>();
+		slots.forEach((uid, slot) -> bwMap.put(uid, bwTable[slot]));
+		return bwMap;
 	}
 
 	/**
 	 * Sets the map between VMs and allocated bw.
+	 * The allocations are replaced by the ones of the map, without changing the available bw.
 	 * 
 	 * @param bwTable the bw map
 	 */
+	@Deprecated
 	protected void setBwTable(Map<String, Long> bwTable) {
-		this.bwTable = bwTable;
+		slots.clear();
+		bwTable.forEach((uid, bw) -> setAllocatedBw(slots.assign(uid), bw));
 	}
-
 }
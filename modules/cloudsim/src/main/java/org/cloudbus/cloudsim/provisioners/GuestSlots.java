@@ -0,0 +1,244 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.provisioners;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+
+/**
+ * Assigns dense int slots to the guests having resources allocated by a provisioner, so that
+ * the allocations can be kept in primitive arrays indexed by slot instead of maps keyed by
+ * {@link GuestEntity#getUid()}.
+ * <p>
+ * The guests are identified by their user and guest ids, as their uid, and found in an
+ * open-addressing table of primitive keys, so looking up a slot neither builds nor hashes a
+ * string and does not allocate. The slots of released guests are reused, so the slots stay
+ * below the largest number of guests holding resources at the same time.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class GuestSlots {
+
+	/** Marks the free entries of {@link #slots}. */
+	private static final int FREE = -1;
+
+	/** The keys of the guests, by table entry. */
+	private long[] keys = new long[16];
+
+	/** The slots of the guests, by table entry, or {@link #FREE}. */
+	private int[] slots = newSlots(16);
+
+	/** The released slots, to be reused before new ones. */
+	private int[] releasedSlots = new int[8];
+
+	private int releasedCount;
+
+	/** The number of slots assigned so far, released or not. */
+	private int slotCount;
+
+	/** The number of guests having a slot. */
+	private int size;
+
+	/**
+	 * Gets the slot of a guest.
+	 *
+	 * @param guest the guest
+	 * @return the slot of the guest, or -1 if it has none
+	 */
+	public int get(GuestEntity guest) {
+		return slots[entryOf(keyOf(guest.getUserId(), guest.getId()))];
+	}
+
+	/**
+	 * Gets the slot of a guest from its uid.
+	 *
+	 * @param uid the uid of the guest, as built by {@link GuestEntity#getUid(int, int)}
+	 * @return the slot of the guest, or -1 if it has none
+	 */
+	public int get(String uid) {
+		return slots[entryOf(keyOf(uid))];
+	}
+
+	/**
+	 * Gets the slot of a guest, assigning it one if it has none.
+	 *
+	 * @param guest the guest
+	 * @return the slot of the guest
+	 */
+	public int assign(GuestEntity guest) {
+		return assign(keyOf(guest.getUserId(), guest.getId()));
+	}
+
+	/**
+	 * Gets the slot of a guest from its uid, assigning it one if it has none.
+	 *
+	 * @param uid the uid of the guest, as built by {@link GuestEntity#getUid(int, int)}
+	 * @return the slot of the guest
+	 */
+	public int assign(String uid) {
+		return assign(keyOf(uid));
+	}
+
+	/**
+	 * Releases the slot of a guest, which may then be assigned to another guest.
+	 *
+	 * @param guest the guest
+	 * @return the released slot, or -1 if the guest had none
+	 */
+	public int release(GuestEntity guest) {
+		int entry = entryOf(keyOf(guest.getUserId(), guest.getId()));
+		int slot = slots[entry];
+		if (slot == FREE) {
+			return FREE;
+		}
+		removeEntry(entry);
+		if (releasedCount == releasedSlots.length) {
+			releasedSlots = Arrays.copyOf(releasedSlots, releasedCount * 2);
+		}
+		releasedSlots[releasedCount++] = slot;
+		size--;
+		return slot;
+	}
+
+	/**
+	 * Releases the slots of all the guests.
+	 */
+	public void clear() {
+		Arrays.fill(slots, FREE);
+		releasedCount = 0;
+		slotCount = 0;
+		size = 0;
+	}
+
+	/**
+	 * Performs an action for each guest having a slot.
+	 *
+	 * @param action called with the uid of each guest, as built by {@link GuestEntity#getUid(int, int)},
+	 *        and its slot
+	 */
+	public void forEach(ObjIntConsumer<String> action) {
+		for (int entry = 0; entry < slots.length; entry++) {
+			if (slots[entry] != FREE) {
+				action.accept(GuestEntity.getUid((int) (keys[entry] >> 32), (int) keys[entry]), slots[entry]);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of guests having a slot.
+	 *
+	 * @return the number of guests
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of slots assigned so far, which bounds the slots of the guests. The arrays
+	 * indexed by slot must have at least this length.
+	 *
+	 * @return the number of slots
+	 */
+	public int getSlotCount() {
+		return slotCount;
+	}
+
+	private int assign(long key) {
+		int entry = entryOf(key);
+		if (slots[entry] != FREE) {
+			return slots[entry];
+		}
+		int slot = releasedCount > 0 ? releasedSlots[--releasedCount] : slotCount++;
+		keys[entry] = key;
+		slots[entry] = slot;
+		size++;
+		if (size * 2 > slots.length) {
+			rehash(slots.length * 2);
+		}
+		return slot;
+	}
+
+	/**
+	 * Finds the entry of a key, or the free entry where it would be, by linear probing.
+	 */
+	private int entryOf(long key) {
+		int mask = slots.length - 1;
+		int entry = mix(key) & mask;
+		while (slots[entry] != FREE && keys[entry] != key) {
+			entry = (entry + 1) & mask;
+		}
+		return entry;
+	}
+
+	/**
+	 * Frees an entry, moving back the following entries of its probe sequence so that they
+	 * can still be found without tombstones.
+	 */
+	private void removeEntry(int entry) {
+		int mask = slots.length - 1;
+		int free = entry;
+		int next = (free + 1) & mask;
+		while (slots[next] != FREE) {
+			int home = mix(keys[next]) & mask;
+			// the entry can move to the free one if its home is not between them, cyclically
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				keys[free] = keys[next];
+				slots[free] = slots[next];
+				free = next;
+			}
+			next = (next + 1) & mask;
+		}
+		slots[free] = FREE;
+	}
+
+	private void rehash(int length) {
+		long[] oldKeys = keys;
+		int[] oldSlots = slots;
+		keys = new long[length];
+		slots = newSlots(length);
+		for (int entry = 0; entry < oldSlots.length; entry++) {
+			if (oldSlots[entry] != FREE) {
+				int newEntry = entryOf(oldKeys[entry]);
+				keys[newEntry] = oldKeys[entry];
+				slots[newEntry] = oldSlots[entry];
+			}
+		}
+	}
+
+	private static long keyOf(int userId, int guestId) {
+		return ((long) userId << 32) | (guestId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gets the key of a guest from its uid, "userId-guestId", without creating strings.
+	 */
+	private static long keyOf(String uid) {
+		// the user id may be negative, so the separator is searched after its first character
+		int separator = uid.indexOf('-', 1);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Malformed guest uid " + uid);
+		}
+		return keyOf(Integer.parseInt(uid, 0, separator, 10),
+				Integer.parseInt(uid, separator + 1, uid.length(), 10));
+	}
+
+	/** Spreads the keys over the table. */
+	private static int mix(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private static int[] newSlots(int length) {
+		int[] slots = new int[length];
+		Arrays.fill(slots, FREE);
+		return slots;
+	}
+}
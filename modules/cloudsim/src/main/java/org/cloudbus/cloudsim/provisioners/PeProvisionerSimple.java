@@ -9,6 +9,7 @@
 package org.cloudbus.cloudsim.provisioners;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,15 +21,24 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * allocate virtual PEs to VMs: 
  * if there is available mips on the physical PE, it allocates to a virtual PE; otherwise, it fails. 
  * Each host's PE has to have its own instance of a PeProvisioner.
+ * <p>
+ * The MIPS allocated to the virtual PEs of each VM are kept in a primitive array indexed by the
+ * {@link GuestSlots slot} of the VM, and the arrays of released slots are reused by the next VMs.
+ * Only {@link #getAllocatedMipsForGuest(GuestEntity)} builds a list, as required by its signature.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
 public class PeProvisionerSimple extends PeProvisioner {
 
-	/** The PE map, where each key is a VM id and each value
-         * is the list of in terms of their allocated amount of MIPS to that VM. */
-	private Map<String, List<Double>> peTable;
+	/** The slots of the VMs having virtual PEs allocated. */
+	private final GuestSlots slots = new GuestSlots();
+
+	/** The MIPS allocated to the virtual PEs of each VM, by slot. */
+	private double[][] peTable = new double[8][];
+
+	/** The number of virtual PEs allocated to each VM, by slot. */
+	private int[] peCounts = new int[8];
 
 	/**
 	 * Instantiates a new pe provisioner simple.
@@ -40,12 +50,15 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
 	}
 
 	@Override
 	public boolean allocateMipsForGuest(GuestEntity guest, double mips) {
-		return allocateMipsForGuest(guest.getUid(), mips);
+		if (getAvailableMips() < mips) {
+			return false;
+		}
+		addMips(slots.assign(guest), mips);
+		return true;
 	}
 
 	@Override
@@ -53,12 +66,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 		if (getAvailableMips() < mips) {
 			return false;
 		}
-
-        List<Double> allocatedMips = getPeTable().computeIfAbsent(vmUid, k -> new ArrayList<>());
-
-        allocatedMips.add(mips);
-		setAvailableMips(getAvailableMips() - mips);
-
+		addMips(slots.assign(vmUid), mips);
 		return true;
 	}
 
@@ -66,7 +74,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	public boolean allocateMipsForGuest(GuestEntity guest, List<Double> mips) {
 		deallocateMipsForGuest(guest);
 		for (double _mips : mips) {
-			if (!allocateMipsForGuest(guest.getUid(), _mips)) {
+			if (!allocateMipsForGuest(guest, _mips)) {
 				return false;
 			}
 		}
@@ -77,68 +85,115 @@ public class PeProvisionerSimple extends PeProvisioner {
 	@Override
 	public void deallocateMipsForAllGuests() {
 		super.deallocateMipsForAllGuests();
-		getPeTable().clear();
+		Arrays.fill(peCounts, 0);
+		slots.clear();
 	}
 
 	@Override
 	public double getAllocatedMipsForGuestByVirtualPeId(GuestEntity guest, int peId) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
-		if (allocatedMips != null && peId < allocatedMips.size()) {
-			return allocatedMips.get(peId);
+		int slot = slots.get(guest);
+		if (slot >= 0 && peId < peCounts[slot]) {
+			return peTable[slot][peId];
 		}
 		return 0;
 	}
 
 	@Override
 	public List<Double> getAllocatedMipsForGuest(GuestEntity guest) {
-		if (getPeTable().containsKey(guest.getUid())) {
-			return getPeTable().get(guest.getUid());
+		int slot = slots.get(guest);
+		if (slot < 0) {
+			return null;
 		}
-		return null;
+		List<Double> allocatedMips = new ArrayList<>(peCounts[slot]);
+		for (int i = 0; i < peCounts[slot]; i++) {
+			allocatedMips.add(peTable[slot][i]);
+		}
+		return allocatedMips;
 	}
 
 	@Override
 	public double getTotalAllocatedMipsForGuest(GuestEntity guest) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
-
-		if (allocatedMips != null) {
-			double totalAllocatedMips = 0.0;
-			for (double mips : allocatedMips) {
-				totalAllocatedMips += mips;
-			}
-			return totalAllocatedMips;
+		int slot = slots.get(guest);
+		if (slot < 0) {
+			return 0;
 		}
-		return 0;
+		double totalAllocatedMips = 0.0;
+		for (int i = 0; i < peCounts[slot]; i++) {
+			totalAllocatedMips += peTable[slot][i];
+		}
+		return totalAllocatedMips;
 	}
 
 	@Override
 	public void deallocateMipsForGuest(GuestEntity guest) {
-		List<Double> allocatedMips = getAllocatedMipsForGuest(guest);
-
-		if (allocatedMips != null) {
-			for (double mips : allocatedMips) {
-				setAvailableMips(getAvailableMips() + mips);
+		int slot = slots.release(guest);
+		if (slot >= 0) {
+			for (int i = 0; i < peCounts[slot]; i++) {
+				setAvailableMips(getAvailableMips() + peTable[slot][i]);
 			}
-			getPeTable().remove(guest.getUid());
+			peCounts[slot] = 0;
 		}
 	}
 
 	/**
 	 * Gets the pe map.
+	 * The map is a copy of the allocations, which are kept by slot.
 	 * 
 	 * @return the pe map
 	 */
+	@Deprecated
 	protected Map<String, List<Double>> getPeTable() {
-		return peTable;
+		Map<String, List<Double>> peMap = new HashMap<>();
+		slots.forEach((uid, slot) -> {
+			List<Double> allocatedMips = new ArrayList<>(peCounts[slot]);
+			for (int i = 0; i < peCounts[slot]; i++) {
+				allocatedMips.add(peTable[slot][i]);
+			}
+			peMap.put(uid, allocatedMips);
+		});
+		return peMap;
 	}
 
 	/**
 	 * Sets the pe map.
+	 * The allocations are replaced by the ones of the map, without changing the available mips.
 	 * 
 	 * @param peTable the peTable to set
 	 */
-	@SuppressWarnings("unchecked")
+	@Deprecated
 	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+		Arrays.fill(peCounts, 0);
+		slots.clear();
+		peTable.forEach((uid, mipsList) -> {
+			int slot = slots.assign(uid);
+			for (double mips : mipsList) {
+				storeMips(slot, mips);
+			}
+		});
+	}
+
+	/**
+	 * Adds a virtual PE to the VM of a slot.
+	 */
+	private void addMips(int slot, double mips) {
+		storeMips(slot, mips);
+		setAvailableMips(getAvailableMips() - mips);
+	}
+
+	/**
+	 * Records the MIPS of a new virtual PE of the VM of a slot.
+	 */
+	private void storeMips(int slot, double mips) {
+		if (slot == peCounts.length) {
+			peTable = Arrays.copyOf(peTable, slot * 2);
+			peCounts = Arrays.copyOf(peCounts, slot * 2);
+		}
+		double[] allocatedMips = peTable[slot];
+		if (allocatedMips == null) {
+			allocatedMips = peTable[slot] = new double[2];
+		} else if (peCounts[slot] == allocatedMips.length) {
+			allocatedMips = peTable[slot] = Arrays.copyOf(allocatedMips, allocatedMips.length * 2);
+		}
+		allocatedMips[peCounts[slot]++] = mips;
 	}
 }
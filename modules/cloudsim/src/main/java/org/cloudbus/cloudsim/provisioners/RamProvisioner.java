@@ -95,7 +95,7 @@ public abstract class RamProvisioner {
 
 	/**
 	 * Checks if it is possible to change the current allocated RAM for the VM
-	 * to a new amount, depending on the available RAM.
+	 * to a new amount, depending on the available RAM. The allocation is left unchanged.
 	 *
 	 * @param guest the vm to check if there is enough available RAM on the host to
 	 *              change the VM allocated RAM
@@ -8,8 +8,8 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.core.GuestEntity;
@@ -18,6 +18,10 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  * RamProvisionerSimple is an extension of {@link RamProvisioner} which uses a best-effort policy to
  * allocate memory to VMs: if there is available ram on the host, it allocates; otherwise, it fails. 
  * Each host has to have its own instance of a RamProvisioner.
+ * <p>
+ * The allocations are kept in an array indexed by the {@link GuestSlots slot} of each VM instead
+ * of a map keyed by its uid, so that the allocations and releases of VMs neither box their
+ * amounts nor allocate map entries.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -25,9 +29,11 @@ import org.cloudbus.cloudsim.core.GuestEntity;
  */
 public class RamProvisionerSimple extends RamProvisioner {
 
-	/** The RAM map, where each key is a VM id and each value
-         * is the amount of RAM allocated to that VM. */
-	private Map<String, Integer> ramTable;
+	/** The slots of the VMs having RAM allocated. */
+	private final GuestSlots slots = new GuestSlots();
+
+	/** The amount of RAM allocated to each VM, by slot. */
+	private int[] ramTable = new int[8];
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -36,7 +42,6 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<>());
 	}
 
 	@Override
@@ -53,30 +58,27 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(guest.getUid(), ram);
-			guest.setCurrentAllocatedRam(getAllocatedRamForGuest(guest));
+			setAllocatedRam(slots.assign(guest), ram);
+			guest.setCurrentAllocatedRam(ram);
 			return true;
 		}
 
-		guest.setCurrentAllocatedRam(getAllocatedRamForGuest(guest));
+		guest.setCurrentAllocatedRam(0);
 
 		return false;
 	}
 
 	@Override
 	public int getAllocatedRamForGuest(GuestEntity guest) {
-		if (getRamTable().containsKey(guest.getUid())) {
-			return getRamTable().get(guest.getUid());
-		}
-		return 0;
+		int slot = slots.get(guest);
+		return slot < 0 ? 0 : ramTable[slot];
 	}
 
 	@Override
 	public void deallocateRamForGuest(GuestEntity guest) {
-		int allocatedRam = getAllocatedRamForGuest(guest);
-		if (allocatedRam > 0) {
-			int amountFreed = getRamTable().remove(guest.getUid());
-			setAvailableRam(getAvailableRam() + amountFreed);
+		int slot = slots.release(guest);
+		if (slot >= 0) {
+			setAvailableRam(getAvailableRam() + ramTable[slot]);
 			guest.setCurrentAllocatedRam(0);
 		}
 	}
@@ -84,36 +86,44 @@ public class RamProvisionerSimple extends RamProvisioner {
 	@Override
 	public void deallocateRamForAllGuests() {
 		super.deallocateRamForAllGuests();
-		getRamTable().clear();
+		slots.clear();
 	}
 
 	@Override
 	public boolean isSuitableForGuest(GuestEntity guest, int ram) {
-		int allocatedRam = getAllocatedRamForGuest(guest);
-		boolean result = allocateRamForGuest(guest, ram);
-		deallocateRamForGuest(guest);
-		if (allocatedRam > 0) {
-			allocateRamForGuest(guest, allocatedRam);
+		// same check as allocateRamForGuest, which first releases the RAM already allocated to the guest
+		return getAvailableRam() + getAllocatedRamForGuest(guest) >= Math.min(ram, guest.getRam());
+	}
+
+	private void setAllocatedRam(int slot, int ram) {
+		if (slot == ramTable.length) {
+			ramTable = Arrays.copyOf(ramTable, slot * 2);
 		}
-		return result;
+		ramTable[slot] = ram;
 	}
 
 	/**
 	 * Gets the map between VMs and allocated ram.
+	 * The map is a copy of the allocations, which are kept by slot.
 	 * 
 	 * @return the ram map
 	 */
+	@Deprecated
 	protected Map<String, Integer> getRamTable() {
-		return ramTable;
+		Map<String, Integer> ramMap = new HashMap<>();
+		slots.forEach((uid, slot) -> ramMap.put(uid, ramTable[slot]));
+		return ramMap;
 	}
 
 	/**
 	 * Sets the map between VMs and allocated ram.
+	 * The allocations are replaced by the ones of the map, without changing the available ram.
 	 * 
 	 * @param ramTable the ram map
 	 */
+	@Deprecated
 	protected void setRamTable(Map<String, Integer> ramTable) {
-		this.ramTable = ramTable;
+		slots.clear();
+		ramTable.forEach((uid, ram) -> setAllocatedRam(slots.assign(uid), ram));
 	}
-
 }
@@ -8,14 +8,15 @@
 
 package org.cloudbus.cloudsim.selectionPolicies;
 
-import java.util.ArrayDeque;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
 import org.cloudbus.cloudsim.core.PowerGuestEntity;
-import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.HistoryStat;
 
 /**
  * A VM selection policy that selects for migration the VM with the Maximum Correlation Coefficient (MCC) among 
@@ -37,6 +38,10 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<PowerGuestEntity> {
 
+	/** The smallest pivot of the Cholesky decomposition of the covariance matrix, relative to the
+	 * mean variance of the VMs. */
+	private static final double PIVOT_THRESHOLD = 1e-10;
+
 	/** The fallback VM selection policy to be used when
          * the  Maximum Correlation policy doesn't have data to be computed. */
 	private SelectionPolicy<PowerGuestEntity> fallbackPolicy;
@@ -84,19 +89,15 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 	 */
 	protected double[][] getUtilizationMatrix(final List<PowerGuestEntity> vmList) {
 		int n = vmList.size();
-                /*//@TODO It gets the min size of the history among all VMs considering
-                that different VMs can have different history sizes.
-                However, the j loop is not using the m variable
-                but the size of the vm list. If a VM list has 
-                a size greater than m, it will thow an exception.
-                It as to be included a test case for that.*/
+		// the histories are aligned on their latest m samples
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			ArrayDeque<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
-			int j = 0;
-			for (double u : vmUtilization)
-				utilization[i][j++] = u;
+			HistoryStat vmUtilization = vmList.get(i).getUtilizationHistory();
+			int first = vmUtilization.size() - m;
+			for (int j = 0; j < m; j++) {
+				utilization[i][j] = vmUtilization.get(first + j);
+			}
 		}
 		return utilization;
 	}
@@ -119,30 +120,67 @@ public class PowerSelectionPolicyMaximumCorrelation implements SelectionPolicy<P
 	}
 
 	/**
-	 * Gets the correlation coefficients.
+	 * Gets the correlation coefficients, that is, for each VM, the coefficient of determination
+	 * (R<sup>2</sup>) of the multiple linear regression of its utilization on the utilization of
+	 * the other VMs.
+	 * <p>
+	 * Rather than fitting one regression per VM, the coefficients are all read from the inverse
+	 * of the covariance matrix of the utilizations, as R<sup>2</sup><sub>i</sub> = 1 - 1 /
+	 * (S<sub>ii</sub> (S<sup>-1</sup>)<sub>ii</sub>). The matrix is built in one pass over the
+	 * samples and inverted once.
+	 * <p>
+	 * At least one more sample than VMs is required. With as many samples as VMs, the regression
+	 * of each VM on the n - 1 others and an intercept interpolates the samples exactly, so every
+	 * R<sup>2</sup> is 1 and does not discriminate between the VMs: this is rejected, and
+	 * {@link #select(List, Object, Set)} uses the fallback policy instead of selecting the first VM.
+	 * <p>
+	 * A VM is considered a linear combination of the others when a pivot of the Cholesky
+	 * decomposition falls below 10<sup>-10</sup> times the mean variance of the VMs. The threshold
+	 * follows the scale of the data, so VMs with a low but genuine variance are still regressed.
 	 * 
-	 * @param data the data
+	 * @param data the data, where each line i is the utilization history of a VM
 	 * @return the correlation coefficients
+	 * @throws IllegalArgumentException if there are less than two VMs, not more samples than VMs,
+	 * or if the utilization of a VM is a linear combination of the others
 	 */
-    public List<Double> getCorrelationCoefficients(final double[][] data) {
+	public List<Double> getCorrelationCoefficients(final double[][] data) {
 		int n = data.length;
 		int m = data[0].length;
-		List<Double> correlationCoefficients = new LinkedList<>();
+		if (n < 2 || m <= n) {
+			throw new IllegalArgumentException("Not enough samples to regress " + n + " VMs: " + m);
+		}
+
+		double[] means = new double[n];
+		for (int i = 0; i < n; i++) {
+			double sum = 0;
+			for (int t = 0; t < m; t++) {
+				sum += data[i][t];
+			}
+			means[i] = sum / m;
+		}
+		double[][] covariance = new double[n][n];
 		for (int i = 0; i < n; i++) {
-			double[][] x = new double[n - 1][m];
-			int k = 0;
-			for (int j = 0; j < n; j++) {
-				if (j != i) {
-					x[k++] = data[j];
+			for (int j = i; j < n; j++) {
+				double sum = 0;
+				for (int t = 0; t < m; t++) {
+					sum += (data[i][t] - means[i]) * (data[j][t] - means[j]);
 				}
+				covariance[i][j] = sum;
+				covariance[j][i] = sum;
 			}
+		}
 
-			// Transpose the matrix so that it fits the linear model
-			double[][] xT = new Array2DRowRealMatrix(x).transpose().getData();
-
-			// RSquare is the "coefficient of determination"
-			correlationCoefficients.add(MathUtil.createLinearRegression(xT,
-					data[i]).calculateRSquared());
+		double trace = 0;
+		for (int i = 0; i < n; i++) {
+			trace += covariance[i][i];
+		}
+		// not positive definite if a VM is constant or a linear combination of the others
+		RealMatrix inverse = new CholeskyDecomposition(new Array2DRowRealMatrix(covariance, false),
+				CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+				PIVOT_THRESHOLD * trace / n).getSolver().getInverse();
+		List<Double> correlationCoefficients = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			correlationCoefficients.add(1 - 1 / (covariance[i][i] * inverse.getEntry(i, i)));
 		}
 		return correlationCoefficients;
 	}
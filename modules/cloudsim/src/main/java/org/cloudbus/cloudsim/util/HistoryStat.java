@@ -1,88 +1,312 @@
 package org.cloudbus.cloudsim.util;
 
-import java.util.ArrayDeque;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
 
 /**
- * Variant of ArrayDeque that provides fast computation of the mean and median of a moving window of last offer()ed samples.
- * The median uses two heaps that are not used until the first invocation of the getMedian() method.
- * 
- * @TODO The implementation needs to be completed with all methods from the ArrayDeque interface.
+ * A moving window of the last offer()ed samples, giving fast computation of their mean, median
+ * and median absolute deviation.
+ * <p>
+ * The samples are kept as primitives in a ring buffer, in arrival order, and in a second array kept
+ * sorted as samples enter and leave the window. Order statistics are then read directly from the
+ * sorted array, and the MAD is found by binary search, in O(log n), without allocating. Adding a
+ * sample costs a binary search and the shift of part of the sorted array, which for the short
+ * windows used by the power-aware policies is cheaper than maintaining a tree.
+ * <p>
+ * The median and MAD give the same values as {@link MathUtil#median(double[])} and
+ * {@link MathUtil#mad(double[])} applied to the samples of the window.
+ * <p>
+ * The samples are visited as primitives, through {@link #get(int)}, {@link #forEach(DoubleConsumer)}
+ * or {@link #iterator()}; the class is not an {@code Iterable<Double>}, so that an enhanced for loop
+ * cannot box each sample.
  */
-public class HistoryStat extends ArrayDeque<Double> {
+public class HistoryStat {
     private final int max_size;
+
+    /** The samples, in arrival order starting at {@link #head}. */
+    private final double[] values;
+
+    /** The samples, in ascending order. */
+    private final double[] sorted;
+
+    /** The index of the oldest sample in {@link #values}. */
+    private int head = 0;
+
+    private int size = 0;
+
     private double sum = 0.0;
-    private PriorityQueue<Double> lower;
-    private PriorityQueue<Double> higher;
 
     public HistoryStat(int max_size) {
-        super(max_size);
         assert(max_size >= 2);
         this.max_size = max_size;
+        values = new double[max_size];
+        sorted = new double[max_size];
+    }
+
+    /**
+     * Adds a sample, removing the oldest one if the window is full.
+     *
+     * @param val the sample
+     * @return true
+     */
+    public boolean offer(double val) {
+        if (size == max_size) {
+            double oldest = poll();
+            sum -= oldest;
+        }
+        values[(head + size) % max_size] = val;
+        int position = insertionPoint(val);
+        System.arraycopy(sorted, position, sorted, position + 1, size - position);
+        sorted[position] = val;
+        size++;
+        sum += val;
+        return true;
     }
 
-    private void enableFastMedian() {
-        lower = new PriorityQueue<>((max_size + 1) / 2, Comparator.reverseOrder());
-        higher  = new PriorityQueue<>((max_size + 1) / 2, Comparator.naturalOrder());
-        for (double val : this)
-            addHeaps(val);
+    /**
+     * Removes the oldest sample from both arrays, leaving the sum unchanged.
+     */
+    private double poll() {
+        double oldest = values[head];
+        head = (head + 1) % max_size;
+        int position = indexOf(oldest);
+        System.arraycopy(sorted, position + 1, sorted, position, size - position - 1);
+        size--;
+        return oldest;
     }
 
-    private void addHeaps(double val) {
-        double low = Double.MAX_VALUE;
-        if (!lower.isEmpty())
-            low = lower.peek();
-        if (val <= low) {
-            lower.add(val);
-            if (lower.size() > higher.size() + 1)
-                higher.add(lower.poll());
-        } else {
-            higher.add(val);
-            if (higher.size() > lower.size() + 1)
-                lower.add(higher.poll());
+    /**
+     * Gets the position after the last sorted sample not greater than a value.
+     */
+    private int insertionPoint(double val) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(sorted[mid], val) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low;
     }
 
-    private void delHeaps(double val) {
-        if (!lower.isEmpty() && val <= lower.peek())
-            lower.remove(val);
-        else
-            higher.remove(val);
+    /**
+     * Gets the position of a sorted sample equal to a value, which must be in the window.
+     */
+    private int indexOf(double val) {
+        return insertionPoint(val) - 1;
     }
 
-    @Override
-    public boolean offer(Double val) {
-        if (size() == max_size) {
-            double oldest = poll();
-            sum -= oldest;
-            if (lower != null)
-                delHeaps(oldest);
+    /**
+     * Removes all the samples.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+        sum = 0.0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the maximum number of samples of the window.
+     *
+     * @return the maximum number of samples
+     */
+    public int getMaxSize() {
+        return max_size;
+    }
+
+    /**
+     * Gets a sample by arrival order.
+     *
+     * @param index the index of the sample, 0 being the oldest one
+     * @return the sample
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
         }
-        boolean rv = super.offer(val);
-        sum += val;
-        if (lower != null)
-            addHeaps(val);
-        return rv;
+        return values[(head + index) % max_size];
     }
 
-    public double getMedian() {
-        if (lower == null) {
-            enableFastMedian();
+    /**
+     * Gets the samples in arrival order, from the oldest one.
+     *
+     * @return a new array holding the samples
+     */
+    public double[] toArray() {
+        double[] result = new double[size];
+        int first = Math.min(size, max_size - head);
+        System.arraycopy(values, head, result, 0, first);
+        System.arraycopy(values, 0, result, first, size - first);
+        return result;
+    }
+
+    /**
+     * Performs an action for each sample, in arrival order, from the oldest one.
+     *
+     * @param action the action
+     */
+    public void forEach(DoubleConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[(head + i) % max_size]);
         }
-        if (lower.isEmpty() && higher.isEmpty())
-            return 0.0;
-        if (lower.isEmpty() || lower.size() < higher.size())
-            return higher.peek();
-        if (higher.isEmpty() || higher.size() < lower.size())
-            return lower.peek();
-        if (lower.size() == higher.size())
-            return (lower.peek() + higher.peek()) / 2.0;
-        assert(false);
-        return 0.0;
+    }
+
+    /**
+     * Iterates over the samples in arrival order, from the oldest one.
+     *
+     * @return an iterator over the samples
+     */
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                return values[(head + index++) % max_size];
+            }
+        };
     }
 
     public double getMean() {
-        return sum / size();
+        return sum / size;
+    }
+
+    public double getMedian() {
+        if (size == 0)
+            return 0.0;
+        return percentile(0, size, 50);
+    }
+
+    /**
+     * Gets the Median Absolute Deviation (MAD) of the samples, as {@link MathUtil#mad(double[])}.
+     *
+     * @return the MAD, or 0 if there are no samples
+     */
+    public double getMad() {
+        if (size == 0) {
+            return 0;
+        }
+        double median = percentile(0, size, 50);
+        // the deviations of the samples below the median grow to the left of the split,
+        // the others grow to its right: the median deviation is found by merging both sides
+        int split = insertionPoint(median);
+        while (split > 0 && Double.compare(sorted[split - 1], median) == 0) {
+            split--;
+        }
+        return percentileOfDeviations(median, split, 50);
+    }
+
+    /**
+     * Estimates a percentile of the sorted values of a range, as the legacy estimation of
+     * commons-math used by {@link MathUtil}.
+     */
+    private double percentile(int from, int length, double p) {
+        if (length == 0) {
+            return Double.NaN;
+        }
+        if (length == 1) {
+            return sorted[from];
+        }
+        double pos = p / 100 * (length + 1);
+        double fpos = Math.floor(pos);
+        int intPos = (int) fpos;
+        double dif = pos - fpos;
+        if (pos < 1) {
+            return sorted[from];
+        }
+        if (pos >= length) {
+            return sorted[from + length - 1];
+        }
+        double lower = sorted[from + intPos - 1];
+        double upper = sorted[from + intPos];
+        return lower + dif * (upper - lower);
+    }
+
+    /**
+     * Same estimation as {@link #percentile(int, int, double)} over the absolute deviations of
+     * the samples from the median.
+     */
+    private double percentileOfDeviations(double median, int split, double p) {
+        if (size == 1) {
+            return Math.abs(median - sorted[0]);
+        }
+        double pos = p / 100 * (size + 1);
+        double fpos = Math.floor(pos);
+        int intPos = (int) fpos;
+        double dif = pos - fpos;
+        if (pos < 1) {
+            return kthDeviation(median, split, 0);
+        }
+        if (pos >= size) {
+            return kthDeviation(median, split, size - 1);
+        }
+        double lower = kthDeviation(median, split, intPos - 1);
+        double upper = kthDeviation(median, split, intPos);
+        return lower + dif * (upper - lower);
+    }
+
+    /**
+     * Gets the k-th smallest absolute deviation from the median, by binary search on the number
+     * of deviations taken from the left of the split.
+     */
+    private double kthDeviation(double median, int split, int k) {
+        int left = split;
+        int right = size - split;
+        int low = Math.max(0, k + 1 - right);
+        int high = Math.min(k + 1, left);
+        while (low < high) {
+            int i = (low + high) >>> 1;
+            int j = k + 1 - i;
+            if (leftDeviation(median, split, i) < rightDeviation(median, split, j - 1)) {
+                low = i + 1;
+            } else {
+                high = i;
+            }
+        }
+        int j = k + 1 - low;
+        double deviation = Double.NEGATIVE_INFINITY;
+        if (low > 0) {
+            deviation = leftDeviation(median, split, low - 1);
+        }
+        if (j > 0) {
+            deviation = Math.max(deviation, rightDeviation(median, split, j - 1));
+        }
+        return deviation;
+    }
+
+    /** The i-th smallest deviation of the samples below the median. */
+    private double leftDeviation(double median, int split, int i) {
+        return Math.abs(median - sorted[split - 1 - i]);
+    }
+
+    /** The j-th smallest deviation of the samples not below the median. */
+    private double rightDeviation(double median, int split, int j) {
+        return Math.abs(median - sorted[split + j]);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
     }
 }
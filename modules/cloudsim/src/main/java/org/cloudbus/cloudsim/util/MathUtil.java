@@ -233,11 +233,24 @@ public class MathUtil {
 
 	/**
 	 * Gets the Local Regression (Loess) parameter estimates.
+	 * <p>
+	 * The estimates are those of the regression built by
+	 * {@link #createWeigthedLinearRegression(double[], double[], double[])} with the
+	 * {@link #getTricubeWeigts(int) tricube weights}, computed in a single pass over the samples
+	 * without building the regression.
 	 * 
 	 * @param y the y array
 	 * @return the Loess parameter estimates
 	 */
 	public static double[] getLoessParameterEstimates(final double[] y) {
+		if (y.length < 3) {
+			return getLoessParameterEstimatesByRegression(y);
+		}
+		// the tricube weights are all positive, so the samples are fitted unweighted
+		return getLinearParameterEstimates(y);
+	}
+
+	private static double[] getLoessParameterEstimatesByRegression(final double[] y) {
 		int n = y.length;
 		double[] x = new double[n];
 		for (int i = 0; i < n; i++) {
@@ -247,6 +260,44 @@ public class MathUtil {
 				.regress().getParameterEstimates();
 	}
 
+	/**
+	 * Gets the intercept and slope of the least-squares line through the points (i + 1, y[i]),
+	 * with the same arithmetic as {@link SimpleRegression}, so that the estimates are identical
+	 * to the ones of a regression fed with the same points.
+	 *
+	 * @param y the y array, with at least 3 values
+	 * @return the intercept and the slope
+	 */
+	private static double[] getLinearParameterEstimates(final double[] y) {
+		double sumX = 0;
+		double sumY = 0;
+		double sumXX = 0;
+		double sumXY = 0;
+		double xbar = 0;
+		double ybar = 0;
+		for (int i = 0; i < y.length; i++) {
+			double x = i + 1;
+			if (i == 0) {
+				xbar = x;
+				ybar = y[i];
+			} else {
+				double fact1 = 1.0 + i;
+				double fact2 = i / (1.0 + i);
+				double dx = x - xbar;
+				double dy = y[i] - ybar;
+				sumXX += dx * dx * fact2;
+				sumXY += dx * dy * fact2;
+				xbar += dx / fact1;
+				ybar += dy / fact1;
+			}
+			sumX += x;
+			sumY += y[i];
+		}
+		long n = y.length;
+		double slope = Math.abs(sumXX) < 10 * Double.MIN_VALUE ? Double.NaN : sumXY / sumXX;
+		return new double[] { (sumY - slope * sumX) / n, slope };
+	}
+
 	public static SimpleRegression createLinearRegression(final double[] x,
 			final double[] y) {
 		SimpleRegression regression = new SimpleRegression();
@@ -291,11 +342,23 @@ public class MathUtil {
 
 	/**
 	 * Gets the robust loess parameter estimates.
+	 * <p>
+	 * The samples are first fitted with the tricube weights, then re-fitted with the tricube
+	 * bisquare weights of the residuals. As for {@link #getLoessParameterEstimates(double[])},
+	 * the weights are all positive and the samples are fitted unweighted, so that the second fit
+	 * gives the estimates of the first one, which are returned without computing the residuals.
 	 * 
 	 * @param y the y array
 	 * @return the robust loess parameter estimates
 	 */
 	public static double[] getRobustLoessParameterEstimates(final double[] y) {
+		if (y.length < 3) {
+			return getRobustLoessParameterEstimatesByRegression(y);
+		}
+		return getLinearParameterEstimates(y);
+	}
+
+	private static double[] getRobustLoessParameterEstimatesByRegression(final double[] y) {
 		int n = y.length;
 		double[] x = new double[n];
 		for (int i = 0; i < n; i++) {
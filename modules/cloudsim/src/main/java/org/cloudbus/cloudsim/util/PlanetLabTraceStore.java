@@ -0,0 +1,258 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
+
+/**
+ * A read-only store of <a href="https://www.planet-lab.org">PlanetLab</a> utilization traces,
+ * memory-mapped from a single binary file written by {@link #convert(String, String, int, SampleFormat)}.
+ * <p>
+ * The file holds all the traces of a workload directory as columns of samples, so the traces are
+ * parsed once, when the directory is converted. Every {@link UtilizationModelPlanetLabMapped}
+ * created on a store reads its trace from the shared mapped buffer, instead of holding its own
+ * copy of the samples as {@link UtilizationModelPlanetLabInMemory} does.
+ * <p>
+ * The samples are stored as the percentages found in the trace files, either as shorts (the
+ * PlanetLab traces only contain integer percentages) or as floats, and converted to a utilization
+ * when read, giving the same values as {@link UtilizationModelPlanetLabInMemory}.
+ *
+ * @since CloudSim Toolkit 7.0
+ */
+public class PlanetLabTraceStore {
+	/** The type of the samples of a store. */
+	public enum SampleFormat {
+		/** Integer percentages, in 2 bytes. */
+		SHORT(2),
+		/** Percentages, in 4 bytes. */
+		FLOAT(4);
+
+		private final int width;
+
+		SampleFormat(int width) {
+			this.width = width;
+		}
+	}
+
+	/** The first bytes of a store file. */
+	private static final int MAGIC = 0x43535054;
+
+	/** The version of the file layout. */
+	private static final int VERSION = 1;
+
+	/** The samples, starting at {@link #dataOffset}. */
+	private final ByteBuffer buffer;
+
+	/** The type of the samples. */
+	private final SampleFormat format;
+
+	/** The number of samples of each trace. */
+	private final int samples;
+
+	/** The position of the first sample of the first trace. */
+	private final int dataOffset;
+
+	/** The names of the trace files, in trace order. */
+	private final List<String> names;
+
+	/** The index of each trace, by file name. */
+	private final Map<String, Integer> indexes = new HashMap<>();
+
+	private PlanetLabTraceStore(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException("Not a PlanetLab trace store");
+		}
+		format = SampleFormat.values()[buffer.getInt()];
+		int traces = buffer.getInt();
+		samples = buffer.getInt();
+
+		List<String> names = new ArrayList<>(traces);
+		for (int i = 0; i < traces; i++) {
+			byte[] name = new byte[buffer.getShort() & 0xFFFF];
+			buffer.get(name);
+			names.add(new String(name, StandardCharsets.UTF_8));
+			indexes.put(names.get(i), i);
+		}
+		this.names = Collections.unmodifiableList(names);
+		dataOffset = align(buffer.position());
+	}
+
+	/**
+	 * Opens a store file, mapping it in memory.
+	 *
+	 * @param path the path of the file
+	 * @return the store
+	 * @throws IOException if the file cannot be read or is not a store
+	 */
+	public static PlanetLabTraceStore open(String path) throws IOException {
+		try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("PlanetLab trace stores are limited to 2 GB");
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new PlanetLabTraceStore(buffer.order(ByteOrder.BIG_ENDIAN));
+		}
+	}
+
+	/**
+	 * Converts all the trace files of a workload directory into a store file. The traces keep
+	 * the order in which the files are listed, and, as in
+	 * {@link UtilizationModelPlanetLabInMemory}, the last sample of each trace repeats the one
+	 * before it.
+	 *
+	 * @param inputFolder the workload directory
+	 * @param outputPath the path of the store file
+	 * @param dataSamples the number of samples of each trace (289 for 24 hours of PlanetLab data)
+	 * @param format the type of the samples
+	 * @throws IOException if a trace cannot be read or the store cannot be written
+	 * @throws NumberFormatException if a sample does not fit the format
+	 */
+	public static void convert(String inputFolder, String outputPath, int dataSamples, SampleFormat format)
+			throws IOException {
+		File[] files = new File(inputFolder).listFiles();
+		if (files == null) {
+			throw new FileNotFoundException(inputFolder);
+		}
+
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(outputPath)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(format.ordinal());
+			output.writeInt(files.length);
+			output.writeInt(dataSamples);
+			for (File file : files) {
+				byte[] name = file.getName().getBytes(StandardCharsets.UTF_8);
+				output.writeShort(name.length);
+				output.write(name);
+			}
+			while (output.size() != align(output.size())) {
+				output.writeByte(0);
+			}
+
+			for (File file : files) {
+				try (BufferedReader input = new BufferedReader(new FileReader(file))) {
+					String last = null;
+					for (int i = 0; i < dataSamples - 1; i++) {
+						last = input.readLine();
+						writeSample(output, last, format);
+					}
+					writeSample(output, last, format);
+				}
+			}
+		}
+	}
+
+	private static void writeSample(DataOutputStream output, String sample, SampleFormat format) throws IOException {
+		if (format == SampleFormat.SHORT) {
+			int value = Integer.parseInt(sample.trim());
+			if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+				throw new NumberFormatException("Sample out of range: " + value);
+			}
+			output.writeShort(value);
+		} else {
+			output.writeFloat(Float.parseFloat(sample.trim()));
+		}
+	}
+
+	/**
+	 * Aligns a position on the width of the largest sample type.
+	 */
+	private static int align(int position) {
+		return (position + 3) & ~3;
+	}
+
+	/**
+	 * Gets the utilization of a trace at a given sample.
+	 *
+	 * @param trace the index of the trace
+	 * @param sample the index of the sample
+	 * @return the utilization, from [0 to 1]
+	 */
+	public double getUtilization(int trace, int sample) {
+		if (sample < 0 || sample >= samples) {
+			throw new IndexOutOfBoundsException("Sample " + sample + " out of " + samples);
+		}
+		int position = dataOffset + (trace * samples + sample) * format.width;
+		// absolute reads do not move the buffer position, so the store can be shared by threads
+		if (format == SampleFormat.SHORT) {
+			return buffer.getShort(position) / 100.0;
+		}
+		return buffer.getFloat(position) / 100.0;
+	}
+
+	/**
+	 * Gets the index of the trace read from a given file.
+	 *
+	 * @param name the name of the trace file
+	 * @return the index, or -1 if the store has no such trace
+	 */
+	public int getTraceIndex(String name) {
+		return indexes.getOrDefault(name, -1);
+	}
+
+	/**
+	 * Gets the names of the trace files, in trace order.
+	 *
+	 * @return the names
+	 */
+	public List<String> getTraceNames() {
+		return names;
+	}
+
+	/**
+	 * Gets the number of traces.
+	 *
+	 * @return the number of traces
+	 */
+	public int getNumberOfTraces() {
+		return names.size();
+	}
+
+	/**
+	 * Gets the number of samples of each trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int getNumberOfSamples() {
+		return samples;
+	}
+
+	/**
+	 * Gets the type of the samples.
+	 *
+	 * @return the format
+	 */
+	public SampleFormat getFormat() {
+		return format;
+	}
+}
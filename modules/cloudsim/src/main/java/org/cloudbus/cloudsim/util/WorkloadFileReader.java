@@ -8,19 +8,38 @@
 
 package org.cloudbus.cloudsim.util;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelFull;
 
@@ -35,7 +54,8 @@ import org.cloudbus.cloudsim.UtilizationModelFull;
  * <li>If you need to load multiple trace files, then you need to create multiple instances of this
  * class <tt>each with a unique entity name</tt>.
  * <li>If size of the trace file is huge or contains lots of traces, please increase the JVM heap
- * size accordingly by using <tt>java -Xmx</tt> option when running the simulation.
+ * size accordingly by using <tt>java -Xmx</tt> option when running the simulation, or read the
+ * jobs lazily with {@link #streamJobs()}, which a {@link DatacenterBroker} can submit on demand.
  * <li>The default job file size for sending to and receiving from a resource is
  * {@link gridsim.net.Link#DEFAULT_MTU}. However, you can specify the file size by using
  * {@link #setCloudletFileSize(int)}.
@@ -145,9 +165,23 @@ public class WorkloadFileReader implements WorkloadModel {
     private static final int IRRELEVANT = -1; 
 
     /**
-     * A temp array storing all the fields read from a line of the trace file.
+     * The minimum size of the chunks of an uncompressed trace file parsed in parallel.
      */
-    private String[] fieldArray = null; 
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Whether {@link #generateWorkload()} parses uncompressed trace files in parallel.
+     */
+    private boolean parallelParsing = false;
+
+    /**
+     * A job read from the trace file: a Cloudlet and the time it was submitted.
+     *
+     * @param cloudlet the Cloudlet
+     * @param submitTime the submit time of the job, in seconds since the start of the trace
+     * @since CloudSim Toolkit 7.0
+     */
+    public record Job(Cloudlet cloudlet, long submitTime) {}
 
     /**
      * Create a new WorkloadFileReader object.
@@ -186,34 +220,88 @@ public class WorkloadFileReader implements WorkloadModel {
      * 
      * @return the list of cloudlets read from the file; <code>null</code> in case of failure.
      * @see #file
+     * @see #setParallelParsing(boolean)
      */
     @Override
     public ArrayList<Cloudlet> generateWorkload() {
             if (jobs == null) {
                     jobs = new ArrayList<>();
 
-                    // create a temp array
-                    fieldArray = new String[MAX_FIELD];
-
                     try {
-                            /*//@TODO It would be implemented
-                            using specific classes to avoid using ifs.
-                            If a new format is included, the code has to be
-                            changed to include another if*/
-                            if (file.getName().endsWith(".gz")) {
-                                    readGZIPFile(file);
-                            } else if (file.getName().endsWith(".zip")) {
-                                    readZipFile(file);
+                            if (parallelParsing && !file.getName().endsWith(".gz") && !file.getName().endsWith(".zip")) {
+                                    for (final Fields fields : parseInParallel()) {
+                                            jobs.add(createJob(fields, jobs.size()).cloudlet());
+                                    }
                             } else {
-                                    readFile(file);
+                                    try (JobIterator it = new JobIterator()) {
+                                            while (it.hasNext()) {
+                                                    jobs.add(it.next().cloudlet());
+                                            }
+                                    }
                             }
-                    } catch (final IOException e) {
+                    } catch (final IOException | UncheckedIOException e) {
                     }
             }
 
             return jobs;
     }
 
+    /**
+     * Reads the jobs of the trace file lazily: a line is only parsed, and its Cloudlet created,
+     * when the stream reaches it, so traces of any size can be read in constant memory.
+     * The stream has to be closed to release the file.
+     *
+     * @return the jobs, in file order
+     * @throws IOException if the file cannot be opened
+     * @see DatacenterBroker#submitJobSource(Iterator)
+     * @since CloudSim Toolkit 7.0
+     */
+    public Stream<Job> streamJobs() throws IOException {
+            final JobIterator it = new JobIterator();
+            return StreamSupport.stream(
+                            Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                            try {
+                                    it.close();
+                            } catch (final IOException e) {
+                                    throw new UncheckedIOException(e);
+                            }
+                    });
+    }
+
+    /**
+     * Reads the Cloudlets of the trace file lazily, as {@link #streamJobs()} does.
+     *
+     * @return the Cloudlets, in file order
+     * @throws IOException if the file cannot be opened
+     * @since CloudSim Toolkit 7.0
+     */
+    public Stream<Cloudlet> stream() throws IOException {
+            return streamJobs().map(Job::cloudlet);
+    }
+
+    /**
+     * Sets whether {@link #generateWorkload()} parses uncompressed trace files in parallel,
+     * splitting them in chunks of lines. The Cloudlets are the same, in the same order, as when
+     * the file is parsed sequentially. Compressed files are always parsed sequentially.
+     *
+     * @param parallelParsing true to parse in parallel
+     * @since CloudSim Toolkit 7.0
+     */
+    public void setParallelParsing(final boolean parallelParsing) {
+            this.parallelParsing = parallelParsing;
+    }
+
+    /**
+     * Checks whether {@link #generateWorkload()} parses uncompressed trace files in parallel.
+     *
+     * @return true if parsing in parallel
+     * @since CloudSim Toolkit 7.0
+     */
+    public boolean isParallelParsing() {
+            return parallelParsing;
+    }
+
     /**
      * Sets the string that identifies the start of a comment line.
      * 
@@ -306,245 +394,412 @@ public class WorkloadFileReader implements WorkloadModel {
     // ------------------- PRIVATE METHODS -------------------
 
     /**
-     * Creates a Cloudlet with the given information and adds to the list of {@link #jobs}.
+     * The fields of a job read from a line of the trace file.
+     *
+     * @param id the job number, or {@link #IRRELEVANT} if it has to be generated
+     * @param submitTime the submit time
+     * @param runTime the number of seconds the job has to run
+     * @param numProc the number of PEs
+     * @param reqRunTime the user estimated run time
+     * @param userID the user id
+     * @param groupID the user's group id
+     */
+    private record Fields(int id, long submitTime, int runTime, int numProc, int reqRunTime, int userID, int groupID) {}
+
+    /**
+     * Creates a job with the given information.
      * 
-     * @param id a Cloudlet ID
-     * @param submitTime Cloudlet's submit time
-     * @param runTime The number of seconds the Cloudlet has to run. Considering that 
-     * and the {@link #rating}, the {@link Cloudlet#cloudletLength} is computed.
-     * @param numProc number of Cloudlet's PEs
-     * @param reqRunTime user estimated run time 
-     * (//@TODO the parameter is not being used and it is not clear what it is)
-     * @param userID user id
-     * @param groupID user's group id
-     * @pre id >= 0
-     * @pre submitTime >= 0
-     * @pre runTime >= 0
-     * @pre numProc > 0
-     * @post $none
+     * @param fields the fields of the job
+     * @param count the number of jobs created before this one, used to generate the
+     * Cloudlet ID if it is not read from the trace file
+     * @return the job, whose Cloudlet length is computed from the run time and the {@link #rating}
      * @see #rating
      */
-    private void createJob(
-                    final int id,
-                    final long submitTime,
-                    final int runTime,
-                    final int numProc,
-                    final int reqRunTime,
-                    final int userID,
-                    final int groupID) {
-            // create the cloudlet
-            final int len = runTime * rating;
-            UtilizationModel utilizationModel = new UtilizationModelFull();
-            final Cloudlet wgl = new Cloudlet(
-                            id,
-                            len,
-                            numProc,
-                            0,
-                            0,
-                            utilizationModel,
-                            utilizationModel,
-                            utilizationModel);
-            jobs.add(wgl);
+    private Job createJob(final Fields fields, final int count) {
+        final int id = fields.id() == IRRELEVANT ? count + 1 : fields.id();
+        final int len = fields.runTime() * rating;
+        UtilizationModel utilizationModel = new UtilizationModelFull();
+        final Cloudlet wgl = new Cloudlet(
+                id,
+                len,
+                fields.numProc(),
+                0,
+                0,
+                utilizationModel,
+                utilizationModel,
+                utilizationModel);
+        return new Job(wgl, fields.submitTime());
     }
 
     /**
-     * Extracts relevant information from a given array of fields,
-     * representing a line from the trace file, and create a cloudlet 
-     * using this information.
-     * 
-     * @param array the array of fields generated from a line of the trace file.
-     * @param line the line number
-     * @pre array != null
-     * @pre line > 0
-     * //@TODO The name of the method doesn't describe what it in fact does.
+     * Opens the trace file, or the concatenation of its entries if it is a Zip file.
+     *
+     * @return the stream
+     * @throws IOException if the file cannot be opened
      */
-    private void extractField(final String[] array, final int line) {
-            try {
-                    Integer obj = null;
-
-                    // get the job number
-                    int id = 0;
-                    if (JOB_NUM == IRRELEVANT) {
-                            id = jobs.size() + 1;
-                    } else {
-                            obj = Integer.valueOf(array[JOB_NUM].trim());
-                            id = obj;
+    private InputStream open() throws IOException {
+        /*//@TODO It would be implemented
+        using specific classes to avoid using ifs.
+        If a new format is included, the code has to be
+        changed to include another if*/
+        if (file.getName().endsWith(".gz")) {
+            return new GZIPInputStream(new FileInputStream(file));
+        } else if (file.getName().endsWith(".zip")) {
+            final ZipFile zipFile = new ZipFile(file);
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            return new SequenceInputStream(new Enumeration<>() {
+                @Override
+                public boolean hasMoreElements() {
+                    return entries.hasMoreElements();
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    try {
+                        // an entry not ending with a line break must not be merged with the next one
+                        return new SequenceInputStream(zipFile.getInputStream(entries.nextElement()),
+                                new ByteArrayInputStream(new byte[] { '\n' }));
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
                     }
+                }
+            }) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    zipFile.close();
+                }
+            };
+        }
+        return new FileInputStream(file);
+    }
 
-                    // get the submit time
-                    final long l = Long.parseLong(array[SUBMIT_TIME].trim());
-                    final long submitTime = (int) l;
+    /**
+     * Splits the trace file in chunks starting at a line, and parses them in parallel.
+     *
+     * @return the fields of the jobs, in file order
+     * @throws IOException if the file cannot be read
+     */
+    private List<Fields> parseInParallel() throws IOException {
+        final long size = file.length();
+        final long chunkSize = Math.max(MIN_CHUNK_SIZE, size / (4L * ForkJoinPool.getCommonPoolParallelism()) + 1);
+        final List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long position = chunkSize;
+            while (position < size) {
+                // start the chunk after the end of the line containing the position
+                raf.seek(position - 1);
+                int b;
+                while ((b = raf.read()) != -1 && b != '\n') {
+                }
+                position = raf.getFilePointer();
+                if (position < size) {
+                    starts.add(position);
+                }
+                position += chunkSize;
+            }
+        }
+        starts.add(size);
+
+        try {
+            return IntStream.range(0, starts.size() - 1)
+                    .parallel()
+                    .mapToObj(i -> parseChunk(starts.get(i), starts.get(i + 1)))
+                    .flatMap(List::stream)
+                    .toList();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-                    // get the user estimated run time
-                    obj = Integer.valueOf(array[REQ_RUN_TIME].trim());
-                    final int reqRunTime = obj;
+    /**
+     * Parses the lines of the trace file between two positions.
+     */
+    private List<Fields> parseChunk(final long start, final long end) {
+        final List<Fields> result = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final LineParser parser = new LineParser(Channels.newInputStream(channel.position(start)), end - start);
+            Fields fields;
+            while ((fields = parser.next()) != null) {
+                result.add(fields);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
 
-                    // if the required run time field is ignored, then use
-                    // the actual run time
-                    obj = Integer.valueOf(array[RUN_TIME].trim());
-                    int runTime = obj;
+    /**
+     * Reads the lines of a trace and extracts the fields of the jobs.
+     * <p>
+     * The lines are split into fields directly in the read buffer, instead of creating a string
+     * per line and per field as a regular expression split does.
+     */
+    private final class LineParser {
+        /** The trace. */
+        private final InputStream input;
 
-                    final int userID = Integer.parseInt(array[USER_ID].trim());
-                    final int groupID = Integer.parseInt(array[GROUP_ID].trim());
+        /** The number of bytes left to read from the trace. */
+        private long remaining;
 
-                    // according to the SWF manual, runtime of 0 is possible due
-                    // to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
-                    if (runTime <= 0) {
-                            runTime = 1; // change to 1 second
-                    }
+        /** The read buffer, holding the current line from {@link #lineStart}. */
+        private byte[] buffer = new byte[64 * 1024];
 
-                    // get the number of allocated processors
-                    obj = Integer.valueOf(array[REQ_NUM_PROC].trim());
-                    int numProc = obj;
+        /** The position of the current line in the buffer. */
+        private int lineStart = 0;
 
-                    // if the required num of allocated processors field is ignored
-                    // or zero, then use the actual field
-                    if (numProc == IRRELEVANT || numProc == 0) {
-                            obj = Integer.valueOf(array[NUM_PROC].trim());
-                            numProc = obj;
-                    }
+        /** The number of valid bytes in the buffer. */
+        private int limit = 0;
+
+        /** The positions of the fields of the current line in the buffer. */
+        private final int[] fieldStarts = new int[MAX_FIELD];
+
+        /** The end positions of the fields of the current line in the buffer. */
+        private final int[] fieldEnds = new int[MAX_FIELD];
+
+        /** The start of a comment line. */
+        private final byte[] comment = COMMENT.getBytes(StandardCharsets.UTF_8);
 
-                    // finally, check if the num of PEs required is valid or not
-                    if (numProc <= 0) {
-                            numProc = 1;
+        LineParser(final InputStream input, final long length) {
+            this.input = input;
+            this.remaining = length;
+        }
+
+        /**
+         * Gets the fields of the next job of the trace.
+         *
+         * @return the fields, or null at the end of the trace
+         * @throws IOException if the trace cannot be read
+         */
+        Fields next() throws IOException {
+            while (true) {
+                int end = findLineEnd();
+                if (end < 0) {
+                    return null;
+                }
+                final int start = lineStart;
+                lineStart = end < limit ? end + 1 : limit;
+                final Fields fields = parseLine(start, end);
+                if (fields != null) {
+                    return fields;
+                }
+            }
+        }
+
+        /**
+         * Finds the end of the current line, reading more of the trace if needed.
+         *
+         * @return the position of the line break (or of the end of the trace) ending the line, or -1
+         * if the trace has no more lines
+         */
+        private int findLineEnd() throws IOException {
+            int scanned = lineStart;
+            while (true) {
+                for (int i = scanned; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        return i;
                     }
-                    createJob(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
-            } catch (final Exception e) {
+                }
+                final int scannedInLine = limit - lineStart;
+                if (!fill()) {
+                    return lineStart < limit ? limit : -1;
+                }
+                scanned = lineStart + scannedInLine;
+            }
+        }
 
+        /**
+         * Reads more of the trace, keeping the current line at the start of the buffer.
+         *
+         * @return false at the end of the trace
+         */
+        private boolean fill() throws IOException {
+            if (remaining <= 0) {
+                return false;
             }
-    }
+            if (lineStart > 0) {
+                System.arraycopy(buffer, lineStart, buffer, 0, limit - lineStart);
+                limit -= lineStart;
+                lineStart = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            final int read = input.read(buffer, limit, (int) Math.min(buffer.length - limit, remaining));
+            if (read < 0) {
+                remaining = 0;
+                return false;
+            }
+            limit += read;
+            remaining -= read;
+            return true;
+        }
 
-    /**
-     * Breaks a line from the trace file into many fields into the
-     * {@link #fieldArray}.
-     * 
-     * @param line a line from the trace file
-     * @param lineNum the line number
-     * @pre line != null
-     * @pre lineNum > 0
-     * @post $none
-     */
-    private void parseValue(final String line, final int lineNum) {
+        /**
+         * Extracts the fields of a job from a line of the trace.
+         *
+         * @return the fields, or null if the line is a comment or is not a valid job
+         */
+        private Fields parseLine(final int start, final int end) {
             // skip a comment line
-            if (line.startsWith(COMMENT)) {
-                    return;
+            if (end - start >= comment.length
+                    && Arrays.equals(buffer, start, start + comment.length, comment, 0, comment.length)) {
+                return null;
             }
 
-            final String[] sp = line.split("\\s+"); // split the fields based on a
-            // space
-            int len = 0; // length of a string
-            int index = 0; // the index of an array
+            // split the fields based on white spaces
+            int index = 0;
+            int i = start;
+            while (i < end) {
+                while (i < end && isWhitespace(buffer[i])) {
+                    i++;
+                }
+                if (i == end) {
+                    break;
+                }
+                if (index == MAX_FIELD) {
+                    return null;
+                }
+                fieldStarts[index] = i;
+                while (i < end && !isWhitespace(buffer[i])) {
+                    i++;
+                }
+                fieldEnds[index] = i;
+                index++;
+            }
+            if (index != MAX_FIELD) {
+                return null;
+            }
 
-            // check for each field in the array
-            for (final String elem : sp) {
-                    len = elem.length(); // get the length of a string
+            try {
+                // get the job number
+                final int id = JOB_NUM == IRRELEVANT ? IRRELEVANT : parseInt(JOB_NUM);
+
+                // get the submit time
+                final long submitTime = parseLong(SUBMIT_TIME);
+
+                // get the user estimated run time
+                final int reqRunTime = parseInt(REQ_RUN_TIME);
+
+                // if the required run time field is ignored, then use
+                // the actual run time
+                int runTime = parseInt(RUN_TIME);
+
+                final int userID = parseInt(USER_ID);
+                final int groupID = parseInt(GROUP_ID);
+
+                // according to the SWF manual, runtime of 0 is possible due
+                // to rounding down. E.g. runtime is 0.4 seconds -> runtime = 0
+                if (runTime <= 0) {
+                    runTime = 1; // change to 1 second
+                }
+
+                // get the number of allocated processors
+                int numProc = parseInt(REQ_NUM_PROC);
+
+                // if the required num of allocated processors field is ignored
+                // or zero, then use the actual field
+                if (numProc == IRRELEVANT || numProc == 0) {
+                    numProc = parseInt(NUM_PROC);
+                }
+
+                // finally, check if the num of PEs required is valid or not
+                if (numProc <= 0) {
+                    numProc = 1;
+                }
+                return new Fields(id, submitTime, runTime, numProc, reqRunTime, userID, groupID);
+            } catch (final NumberFormatException e) {
+                return null;
+            }
+        }
 
-                    // if it is empty then ignore
-                    if (len == 0) {
-                            continue;
-                    }
-                    fieldArray[index] = elem;
-                    index++;
+        private int parseInt(final int field) {
+            final long value = parseLong(field);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Value out of range");
             }
+            return (int) value;
+        }
 
-            if (index == MAX_FIELD) {
-                    extractField(fieldArray, lineNum);
+        private long parseLong(final int field) {
+            int i = fieldStarts[field];
+            final int end = fieldEnds[field];
+            final boolean negative = buffer[i] == '-';
+            if (negative || buffer[i] == '+') {
+                i++;
+            }
+            if (i == end || end - i > 18) {
+                throw new NumberFormatException("Invalid number");
             }
+            long value = 0;
+            for (; i < end; i++) {
+                final int digit = buffer[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new NumberFormatException("Invalid number");
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
     }
 
     /**
-     * Reads traces from a text file, one line at a time.
-     * 
-     * @param fl a file name
-     * @return <code>true</code> if successful, <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     * @throws FileNotFoundException if the file was not found
+     * Checks whether a byte is a white space, as matched by {@code \s} in a regular expression.
      */
-    private boolean readFile(final File fl) throws IOException, FileNotFoundException {
-            boolean success = false;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(fl)))) {
-
-            // read one line at the time
-            int line = 1;
-            String readLine = null;
-            while (reader.ready() && (readLine = reader.readLine()) != null) {
-                parseValue(readLine, line);
-                line++;
-            }
-
-            reader.close();
-            success = true;
-        }
-
-            return success;
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
     }
 
     /**
-     * Reads traces from a gzip file, one line at a time.
-     * 
-     * @param fl a gzip file name
-     * @return <code>true</code> if successful; <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     * @throws FileNotFoundException if the file was not found
+     * Iterates over the jobs of the trace file, creating their Cloudlets as they are read.
      */
-    private boolean readGZIPFile(final File fl) throws IOException, FileNotFoundException {
-            boolean success = false;
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(fl))))) {
-
-            // read one line at the time
-            int line = 1;
-            String readLine = null;
-            while (reader.ready() && (readLine = reader.readLine()) != null) {
-                parseValue(readLine, line);
-                line++;
-            }
+    private final class JobIterator implements Iterator<Job>, Closeable {
+        /** The trace. */
+        private final InputStream input;
 
-            reader.close();
-            success = true;
-        }
+        /** The parser of the trace. */
+        private final LineParser parser;
 
-            return success;
-    }
+        /** The next job, or null if it has not been read yet. */
+        private Job next;
 
-    /**
-     * Reads traces from a Zip file, one line at a time.
-     * 
-     * @param fl a zip file name
-     * @return <code>true</code> if reading a file is successful; <code>false</code> otherwise.
-     * @throws IOException if the there was any error reading the file
-     */
-    private boolean readZipFile(final File fl) throws IOException {
-            boolean success = false;
-            ZipFile zipFile = null;
-            try {
-                    BufferedReader reader = null;
-
-                    // ZipFile offers an Enumeration of all the files in the file
-                    zipFile = new ZipFile(fl);
-                    final Enumeration<? extends ZipEntry> e = zipFile.entries();
-                    while (e.hasMoreElements()) {
-                            success = false; // reset the value again
-                            final ZipEntry zipEntry = e.nextElement();
-
-                            reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(zipEntry)));
-
-                            // read one line at the time
-                            int line = 1;                       
-                            String readLine = null;
-                            while (reader.ready() && (readLine = reader.readLine()) != null)  {
-                                    parseValue(readLine, line);
-                                    line++;
-                            }
+        /** The number of jobs read so far. */
+        private int count = 0;
 
-                            reader.close();
-                            success = true;
-                    }
-            } finally {
-                    if (zipFile != null) {
-                            zipFile.close();
+        JobIterator() throws IOException {
+            input = open();
+            parser = new LineParser(input, Long.MAX_VALUE);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    final Fields fields = parser.next();
+                    if (fields != null) {
+                        next = createJob(fields, count++);
                     }
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
             }
+            return next != null;
+        }
 
-            return success;
+        @Override
+        public Job next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Job job = next;
+            next = null;
+            return job;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the incremental mode of the cloudlet schedulers gives the same results as the
+ * classic one. The finish times may be slightly later, as the classic mode estimates them from
+ * the remaining length truncated to MI.
+ */
+public class CloudletSchedulerIncrementalTest {
+
+	private static final double MIPS = 1000;
+	private static final int PES_NUMBER = 4;
+
+	/** A finished cloudlet, with the time of the update that finished it. */
+	private record Finish(int id, double time) {}
+
+	/**
+	 * A cloudlet counting the calls to the methods used to find it in, or remove it from, a list,
+	 * to measure the work of a scheduler without timing it.
+	 */
+	private static class CountingCloudlet extends Cloudlet {
+		private static long calls;
+
+		CountingCloudlet(int id, long length) {
+			super(id, length, 1, 300, 300, new UtilizationModelFull(), new UtilizationModelFull(),
+					new UtilizationModelFull());
+			setResourceParameter(0, 0, 0);
+		}
+
+		@Override
+		public int getCloudletId() {
+			calls++;
+			return super.getCloudletId();
+		}
+
+		@Override
+		public long getRemainingCloudletLength() {
+			calls++;
+			return super.getRemainingCloudletLength();
+		}
+
+		@Override
+		public boolean isFinished() {
+			calls++;
+			return super.isFinished();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			calls++;
+			return super.equals(obj);
+		}
+
+		@Override
+		public int hashCode() {
+			return super.hashCode();
+		}
+	}
+
+	private static List<Double> mipsShare() {
+		List<Double> mipsShare = new ArrayList<>();
+		for (int i = 0; i < PES_NUMBER; i++) {
+			mipsShare.add(MIPS);
+		}
+		return mipsShare;
+	}
+
+	private static Cloudlet cloudlet(int id, Random random) {
+		UtilizationModel full = new UtilizationModelFull();
+		Cloudlet cl = new Cloudlet(id, 1000 + random.nextInt(50000), 1 + random.nextInt(2), 300, 300, full, full, full);
+		cl.setResourceParameter(0, 0, 0);
+		return cl;
+	}
+
+	/**
+	 * Runs a scheduler, submitting new cloudlets over time, and cancelling one of them.
+	 */
+	private static List<Finish> run(CloudletScheduler scheduler) {
+		Random random = new Random(3);
+		List<Finish> finished = new ArrayList<>();
+		double time = 0;
+		scheduler.updateCloudletsProcessing(time, mipsShare());
+		int nextId = 0;
+		for (int i = 0; i < 20; i++) {
+			scheduler.cloudletSubmit(cloudlet(nextId++, random));
+		}
+
+		for (int step = 0; step < 10_000; step++) {
+			double next = scheduler.updateCloudletsProcessing(time, mipsShare());
+			Cloudlet cl;
+			while ((cl = scheduler.getNextFinishedCloudlet()) != null) {
+				finished.add(new Finish(cl.getCloudletId(), time));
+			}
+			if (step % 5 == 0 && nextId < 100) {
+				scheduler.cloudletSubmit(cloudlet(nextId++, random));
+			}
+			if (step == 7) {
+				assertTrue(scheduler.cloudletPause(3) || scheduler.cloudletPause(25));
+			}
+			if (next == 0.0) {
+				break;
+			}
+			// also update between the finish times, as the datacenter does for other events
+			time = Math.min(next, time + 2.5);
+		}
+		return finished;
+	}
+
+	private static void checkSameResults(Function<Boolean, CloudletScheduler> scheduler) {
+		CloudletScheduler classic = scheduler.apply(false);
+		CloudletScheduler incremental = scheduler.apply(true);
+		assertFalse(classic.isIncremental());
+		assertTrue(incremental.isIncremental());
+
+		List<Finish> expected = run(classic);
+		List<Finish> actual = run(incremental);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).id(), actual.get(i).id());
+			assertEquals(expected.get(i).time(), actual.get(i).time(), 0.05);
+		}
+	}
+
+	@Test
+	public void testTimeShared() {
+		checkSameResults(CloudletSchedulerTimeShared::new);
+	}
+
+	@Test
+	public void testSpaceShared() {
+		checkSameResults(CloudletSchedulerSpaceShared::new);
+	}
+
+	@Test
+	public void testFinishedLengthWrittenOnPause() {
+		CloudletScheduler scheduler = new CloudletSchedulerTimeShared(true);
+		scheduler.updateCloudletsProcessing(0, mipsShare());
+		UtilizationModel full = new UtilizationModelFull();
+		Cloudlet cl = new Cloudlet(0, 10_000, 2, 300, 300, full, full, full);
+		cl.setResourceParameter(0, 0, 0);
+		scheduler.cloudletSubmit(cl);
+
+		// 20000 MI in total, at 1000 MIPS per PE
+		assertEquals(10.0, scheduler.updateCloudletsProcessing(0, mipsShare()), 1e-9);
+		scheduler.updateCloudletsProcessing(2, mipsShare());
+		assertTrue(scheduler.cloudletPause(0));
+		assertEquals(16_000, cl.getRemainingCloudletLength());
+	}
+
+	/**
+	 * Counts the cloudlet calls made by two updates, a pause, a resume, a cancel and a status
+	 * query, with a given number of running cloudlets.
+	 */
+	private static long countUpdateCalls(boolean incremental, int running) {
+		CloudletScheduler scheduler = new CloudletSchedulerTimeShared(incremental);
+		scheduler.updateCloudletsProcessing(0, mipsShare());
+		for (int id = 0; id < running; id++) {
+			scheduler.cloudletSubmit(new CountingCloudlet(id, 1_000_000_000L));
+		}
+		// finishes at the first update
+		scheduler.cloudletSubmit(new CountingCloudlet(running, 1));
+		scheduler.updateCloudletsProcessing(0, mipsShare());
+
+		CountingCloudlet.calls = 0;
+		scheduler.updateCloudletsProcessing(100, mipsShare());
+		assertEquals(running, scheduler.getNextFinishedCloudlet().getCloudletId());
+		assertTrue(scheduler.cloudletPause(running / 2));
+		scheduler.cloudletResume(running / 2);
+		assertEquals(running / 3, scheduler.cloudletCancel(running / 3).getCloudletId());
+		assertEquals(Cloudlet.CloudletStatus.INEXEC, scheduler.getCloudletStatus(running / 4));
+		scheduler.updateCloudletsProcessing(200, mipsShare());
+		assertEquals(running - 1, scheduler.runningCloudlets());
+		return CountingCloudlet.calls;
+	}
+
+	@Test
+	public void testUpdateCostIndependentOfRunningCloudlets() {
+		// the classic mode visits every running cloudlet, which the counting must show
+		assertTrue(countUpdateCalls(false, 10_000) > 50 * countUpdateCalls(false, 100));
+
+		long small = countUpdateCalls(true, 100);
+		long large = countUpdateCalls(true, 10_000);
+		assertTrue(large < 2 * small);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.util.WorkloadFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a broker submits the jobs of a job source at their submit time.
+ */
+public class DatacenterBrokerJobSourceTest {
+
+	@TempDir
+	Path folder;
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	@Test
+	public void testJobsSubmittedAtSubmitTime() throws Exception {
+		// jobs of 10 s each, submitted at 0, 0, 50 and 500 s
+		Path trace = folder.resolve("jobs.swf");
+		Files.write(trace, List.of(
+				"1 0 0 10 1 -1 -1 1 10 -1 1 1 1 -1 -1 -1 -1 -1",
+				"2 0 0 10 1 -1 -1 1 10 -1 1 1 1 -1 -1 -1 -1 -1",
+				"3 50 0 10 1 -1 -1 1 10 -1 1 1 1 -1 -1 -1 -1 -1",
+				"4 500 0 10 1 -1 -1 1 10 -1 1 1 1 -1 -1 -1 -1 -1"));
+
+		CloudSim.init(1, null, false);
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000),
+				Consts.MILLION, peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		broker.submitGuestList(List.of(new Vm(0, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen",
+				new CloudletSchedulerSpaceShared())));
+
+		try (Stream<WorkloadFileReader.Job> jobs = new WorkloadFileReader(trace.toString(), 1000).streamJobs()) {
+			broker.submitJobSource(jobs.map(job -> {
+				job.cloudlet().setUserId(broker.getId());
+				return job;
+			}).iterator());
+
+			CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+		}
+
+		List<Cloudlet> finished = broker.getCloudletReceivedList();
+		assertEquals(4, finished.size());
+		// the first two jobs are submitted once the VM is created, and run one after the other
+		assertEquals(1, finished.get(0).getCloudletId());
+		assertEquals(2, finished.get(1).getCloudletId());
+		assertEquals(finished.get(0).getExecFinishTime(), finished.get(1).getExecStartTime(), 0.01);
+		assertEquals(50, finished.get(2).getExecStartTime(), 0.2);
+		assertEquals(500, finished.get(3).getExecStartTime(), 0.2);
+		assertEquals(510, finished.get(3).getExecFinishTime(), 0.2);
+	}
+}
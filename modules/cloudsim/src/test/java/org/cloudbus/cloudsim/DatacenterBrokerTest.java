@@ -0,0 +1,99 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a broker binds the cloudlets submitted in several waves to their VMs.
+ */
+public class DatacenterBrokerTest {
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, null, false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	private static List<Cloudlet> createCloudlets(int firstId, int userId) {
+		List<Cloudlet> cloudlets = new ArrayList<>();
+		for (int id = firstId; id < firstId + 2; id++) {
+			Cloudlet cloudlet = new Cloudlet(id, 10000, 1, 300, 300,
+					new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+			cloudlet.setUserId(userId);
+			cloudlets.add(cloudlet);
+		}
+		return cloudlets;
+	}
+
+	@Test
+	public void testBindingOfSecondWave() throws Exception {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<>();
+		hostList.add(new Host(0, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000),
+				Consts.MILLION, peList, new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList), new LinkedList<>(), 0);
+
+		// the second wave, of the same size, is submitted once the first cloudlet returns
+		List<Cloudlet> secondWave = new ArrayList<>();
+		DatacenterBroker broker = new DatacenterBroker("Broker") {
+			@Override
+			protected void processCloudletReturn(SimEvent ev) {
+				if (getCloudletReceivedList().isEmpty()) {
+					secondWave.addAll(createCloudlets(2, getId()));
+					submitCloudletList(secondWave);
+					bindCloudletToVm(2, 1);
+					bindCloudletToVm(3, 0);
+					submitCloudlets();
+				}
+				super.processCloudletReturn(ev);
+			}
+		};
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			vms.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		broker.submitGuestList(vms);
+		broker.submitCloudletList(createCloudlets(0, broker.getId()));
+		broker.bindCloudletToVm(0, 0);
+		broker.bindCloudletToVm(1, 1);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(4, broker.getCloudletReceivedList().size());
+		for (Cloudlet cloudlet : broker.getCloudletReceivedList()) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+		}
+		assertEquals(1, secondWave.get(0).getGuestId());
+		assertEquals(0, secondWave.get(1).getGuestId());
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the event-driven processing mode of the datacenter gives the same results as
+ * updating all the hosts at every processing.
+ * <p>
+ * With time-shared cloudlet schedulers, the classic mode may finish cloudlets later: once a
+ * cloudlet finishes, the next finish time of its VM is estimated with the capacity it shared with
+ * the finished cloudlet, and is only corrected if another host triggers an update in between.
+ */
+public class DatacenterEventDrivenTest {
+
+	private static final int HOSTS = 8;
+	private static final int VMS = 12;
+	private static final int CLOUDLETS = 60;
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	private static Datacenter createDatacenter(List<? extends Host> hostList) throws Exception {
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+				"x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+		return new Datacenter("Datacenter", characteristics, new VmAllocationPolicySimple(hostList),
+				new LinkedList<>(), 0);
+	}
+
+	private static List<Host> createHosts() {
+		List<Host> hostList = new ArrayList<>();
+		for (int i = 0; i < HOSTS; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			hostList.add(new Host(i, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000),
+					Consts.MILLION, peList, new VmSchedulerTimeShared(peList)));
+		}
+		return hostList;
+	}
+
+	/**
+	 * Runs a simulation and gets the finished cloudlets, in the order they were received.
+	 */
+	private static List<Cloudlet> run(boolean eventDriven, boolean timeShared) throws Exception {
+		CloudSim.init(1, null, false);
+		Datacenter datacenter = createDatacenter(createHosts());
+		datacenter.setEventDrivenProcessing(eventDriven);
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < VMS; i++) {
+			CloudletScheduler scheduler = timeShared ? new CloudletSchedulerTimeShared() : new CloudletSchedulerSpaceShared();
+			vms.add(new Vm(i, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen", scheduler));
+		}
+		broker.submitGuestList(vms);
+
+		Random random = new Random(11);
+		UtilizationModel full = new UtilizationModelFull();
+		List<Cloudlet> cloudlets = new ArrayList<>();
+		for (int i = 0; i < CLOUDLETS; i++) {
+			Cloudlet cl = new Cloudlet(i, 1000 + random.nextInt(100_000), 1, 300, 300, full, full, full);
+			cl.setUserId(broker.getId());
+			cl.setGuestId(random.nextInt(VMS));
+			cloudlets.add(cl);
+		}
+		broker.submitCloudletList(cloudlets);
+
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		List<Cloudlet> finished = broker.getCloudletReceivedList();
+		assertEquals(CLOUDLETS, finished.size());
+		for (Cloudlet cl : finished) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cl.getStatus());
+		}
+		return finished;
+	}
+
+	private static double[] finishTimes(List<Cloudlet> cloudlets) {
+		double[] times = new double[CLOUDLETS];
+		for (Cloudlet cl : cloudlets) {
+			times[cl.getCloudletId()] = cl.getExecFinishTime();
+		}
+		return times;
+	}
+
+	@Test
+	public void testSameResultsAsClassic() throws Exception {
+		List<Cloudlet> classic = run(false, false);
+		List<Cloudlet> eventDriven = run(true, false);
+		for (int i = 0; i < CLOUDLETS; i++) {
+			assertEquals(classic.get(i).getCloudletId(), eventDriven.get(i).getCloudletId());
+			assertEquals(classic.get(i).getExecFinishTime(), eventDriven.get(i).getExecFinishTime(), 0.01);
+		}
+	}
+
+	@Test
+	public void testTimeSharedNeverLater() throws Exception {
+		double[] classic = finishTimes(run(false, true));
+		double[] eventDriven = finishTimes(run(true, true));
+		for (int i = 0; i < CLOUDLETS; i++) {
+			assertTrue(eventDriven[i] <= classic[i] + 0.01, "cloudlet #" + i);
+		}
+	}
+
+	@Test
+	public void testDynamicWorkloadHostsRejected() throws Exception {
+		CloudSim.init(1, null, false);
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		List<HostDynamicWorkload> hostList = new ArrayList<>();
+		hostList.add(new HostDynamicWorkload(0, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000),
+				Consts.MILLION, peList, new VmSchedulerTimeShared(peList)));
+		Datacenter datacenter = createDatacenter(hostList);
+
+		assertThrows(IllegalStateException.class, () -> datacenter.setEventDrivenProcessing(true));
+		assertFalse(datacenter.isEventDrivenProcessing());
+	}
+}
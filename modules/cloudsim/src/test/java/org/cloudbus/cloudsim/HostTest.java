@@ -80,6 +80,33 @@ public class HostTest {
 		assertTrue(host.guestCreate(vm3));
 	}
 
+	@Test
+	public void testCanCreateGuest() {
+		Vm vm0 = new Vm(0, 0, MIPS / 2, 1, RAM / 2, BW / 2, 0, "", new CloudletSchedulerDynamicWorkload(MIPS / 2, 1));
+		Vm vm1 = new Vm(1, 0, MIPS, 1, RAM, BW, 0, "", new CloudletSchedulerDynamicWorkload(MIPS, 1));
+		Vm vm2 = new Vm(2, 0, MIPS * 2, 1, RAM, BW, 0, "", new CloudletSchedulerDynamicWorkload(MIPS * 2, 1));
+		Vm vm3 = new Vm(3, 0, MIPS / 2, 2, RAM / 2, BW / 2, 0, "", new CloudletSchedulerDynamicWorkload(MIPS / 2, 2));
+
+		assertTrue(host.canCreateGuest(vm0));
+		assertTrue(host.guestCreate(vm0));
+
+		// the checks leave the host untouched
+		assertFalse(host.canCreateGuest(vm1));
+		assertFalse(host.canCreateGuest(vm2));
+		assertTrue(host.canCreateGuest(vm3));
+		assertEquals(1, host.getGuestList().size());
+		assertEquals(RAM / 2, host.getGuestRamProvisioner().getAvailableRam());
+		assertEquals(BW / 2, host.getGuestBwProvisioner().getAvailableBw());
+		assertEquals(MIPS * 3 / 2, host.getGuestScheduler().getAvailableMips(), 0);
+		assertEquals(RAM / 2, vm0.getCurrentAllocatedRam());
+		assertNull(vm3.getHost());
+
+		assertEquals((MIPS / 2 + MIPS) / (MIPS * 2), host.projectUtilizationWith(vm3), 0);
+		assertTrue(host.guestCreate(vm3));
+		assertFalse(host.canCreateGuest(new Vm(4, 0, MIPS / 2, 1, RAM / 2, BW / 2, 0, "",
+				new CloudletSchedulerDynamicWorkload(MIPS / 2, 1))));
+	}
+
 	@Test
 	public void testVmDestroy() {
 		Vm vm = new Vm(0, 0, MIPS, 1, RAM / 2, BW / 2, 0, "", new CloudletSchedulerDynamicWorkload(MIPS, 1));
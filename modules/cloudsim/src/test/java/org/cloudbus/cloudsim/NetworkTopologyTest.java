@@ -0,0 +1,144 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import org.cloudbus.cloudsim.network.FloydWarshall_Float;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the delays of a topology built link by link, incrementally, are the ones computed
+ * from scratch.
+ */
+public class NetworkTopologyTest {
+
+	private static final int ENTITIES = 60;
+
+	/** The links, as {source entity, destination entity, delay}. */
+	private final List<int[]> links = new ArrayList<>();
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		NetworkTopology.reset();
+
+		Random random = new Random(3);
+		for (int i = 0; i < 200; i++) {
+			int src = random.nextInt(ENTITIES);
+			int dest = random.nextInt(ENTITIES);
+			// some links are replaced by a longer one, or have no delay (no link)
+			links.add(new int[] { src, dest, random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(50) });
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		NetworkTopology.reset();
+		Log.enable();
+	}
+
+	private double[][] delays() {
+		double[][] delays = new double[ENTITIES][ENTITIES];
+		for (int i = 0; i < ENTITIES; i++) {
+			for (int j = 0; j < ENTITIES; j++) {
+				delays[i][j] = NetworkTopology.getDelay(i, j);
+			}
+		}
+		return delays;
+	}
+
+	@Test
+	public void testIncrementalSameAsBatch() {
+		NetworkTopology.Builder builder = NetworkTopology.builder();
+		for (int[] link : links) {
+			builder.addLink(link[0], link[1], 10, link[2]);
+		}
+		builder.build();
+		assertTrue(NetworkTopology.isNetworkEnabled());
+		double[][] batch = delays();
+
+		NetworkTopology.reset();
+		for (int[] link : links) {
+			NetworkTopology.addLink(link[0], link[1], 10, link[2]);
+		}
+		double[][] incremental = delays();
+
+		for (int i = 0; i < ENTITIES; i++) {
+			for (int j = 0; j < ENTITIES; j++) {
+				assertEquals(batch[i][j], incremental[i][j], batch[i][j] * 1e-6, i + " -> " + j);
+			}
+		}
+	}
+
+	@Test
+	public void testSameAsFloydWarshall() {
+		NetworkTopology.Builder builder = NetworkTopology.builder();
+		for (int[] link : links) {
+			builder.addLink(link[0], link[1], 10, link[2]);
+		}
+		builder.build();
+
+		// the BRITE nodes are created in the order the entities appear in the links
+		int[] briteIds = new int[ENTITIES];
+		Arrays.fill(briteIds, -1);
+		int nodes = 0;
+		for (int[] link : links) {
+			for (int k = 0; k < 2; k++) {
+				if (briteIds[link[k]] == -1) {
+					briteIds[link[k]] = nodes++;
+				}
+			}
+		}
+		float[][] adjacency = new float[nodes][nodes];
+		for (int[] link : links) {
+			adjacency[briteIds[link[0]]][briteIds[link[1]]] = link[2];
+			adjacency[briteIds[link[1]]][briteIds[link[0]]] = link[2];
+		}
+		FloydWarshall_Float floyd = new FloydWarshall_Float();
+		floyd.initialize(nodes);
+		float[][] expected = floyd.allPairsShortestPaths(adjacency);
+
+		for (int i = 0; i < ENTITIES; i++) {
+			for (int j = 0; j < ENTITIES; j++) {
+				if (briteIds[i] >= 0 && briteIds[j] >= 0) {
+					assertEquals(expected[briteIds[i]][briteIds[j]], NetworkTopology.getDelay(i, j), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnmappedEntities() {
+		NetworkTopology.addLink(1, 2, 10, 5);
+		NetworkTopology.addLink(2, 3, 10, 7);
+		assertEquals(12, NetworkTopology.getDelay(1, 3), 0);
+		assertEquals(0, NetworkTopology.getDelay(1, 1), 0);
+		assertEquals(0, NetworkTopology.getDelay(1, 40), 0);
+		assertEquals(0, NetworkTopology.getDelay(-1, 2), 0);
+
+		NetworkTopology.unmapNode(3);
+		assertEquals(0, NetworkTopology.getDelay(1, 3), 0);
+		NetworkTopology.mapNode(4, 2);
+		assertEquals(12, NetworkTopology.getDelay(1, 4), 0);
+
+		// a longer link replacing a shorter one
+		NetworkTopology.addLink(1, 2, 10, 20);
+		assertEquals(27, NetworkTopology.getDelay(1, 4), 0);
+		assertEquals(20, NetworkTopology.getDelay(2, 1), 0);
+	}
+}
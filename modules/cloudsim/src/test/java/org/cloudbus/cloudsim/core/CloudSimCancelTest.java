@@ -0,0 +1,98 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the cancellation of events waiting in the future queue.
+ */
+public class CloudSimCancelTest {
+
+	private enum TestTags implements CloudSimTags {
+		A, B
+	}
+
+	/** An entity recording the time of the events it receives. */
+	private static class Recorder extends SimEntity {
+		final List<String> received = new ArrayList<>();
+		Runnable onStart = () -> {};
+
+		Recorder(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			onStart.run();
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			received.add(ev.getTag() + "@" + ev.eventTime());
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	@Test
+	public void testCancelAllByType() {
+		CloudSim.init(0, null, false);
+		Recorder recorder = new Recorder("Recorder");
+		recorder.onStart = () -> {
+			recorder.schedule(recorder.getId(), 1, TestTags.A);
+			recorder.schedule(recorder.getId(), 2, TestTags.B);
+			recorder.schedule(recorder.getId(), 3, TestTags.A);
+			assertTrue(CloudSim.cancelAll(recorder.getId(), new PredicateType(TestTags.A)));
+			assertFalse(CloudSim.cancelAll(recorder.getId(), new PredicateType(TestTags.A)));
+		};
+		CloudSim.startSimulation();
+
+		assertEquals(List.of("B@2.0"), recorder.received);
+	}
+
+	@Test
+	public void testCancelFirstMatching() {
+		CloudSim.init(0, null, false, new LadderEventQueue());
+		Recorder recorder = new Recorder("Recorder");
+		recorder.onStart = () -> {
+			recorder.schedule(recorder.getId(), 3, TestTags.A);
+			recorder.schedule(recorder.getId(), 1, TestTags.A);
+			recorder.schedule(recorder.getId(), 2, TestTags.B);
+			SimEvent cancelled = recorder.cancelEvent(new PredicateType(TestTags.A));
+			assertEquals(1.0, cancelled.eventTime());
+			// events are only indexed by their source entity
+			assertNull(CloudSim.cancel(recorder.getId() + 1, new PredicateType(TestTags.B)));
+			assertTrue(CloudSim.cancelAll(recorder.getId(), new PredicateFrom(recorder.getId())));
+			recorder.schedule(recorder.getId(), 4, TestTags.B);
+		};
+		CloudSim.startSimulation();
+
+		assertEquals(List.of("B@4.0"), recorder.received);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the parallel dispatch mode gives the same results as the sequential one.
+ */
+public class CloudSimParallelDispatchTest {
+
+	private enum TestTags implements CloudSimTags {
+		PING, TIMEOUT
+	}
+
+	/**
+	 * An entity that forwards pings to random peers at coarse-grained times (so many entities
+	 * process events at the same clock tick), and keeps rescheduling a timeout it cancels.
+	 */
+	private static class Peer extends SimEntity {
+		final List<String> trace = new ArrayList<>();
+		private final Random random;
+		private final int firstPeerId;
+		private final int peers;
+
+		Peer(String name, int seed, int firstPeerId, int peers) {
+			super(name);
+			this.random = new Random(seed);
+			this.firstPeerId = firstPeerId;
+			this.peers = peers;
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(getId(), random.nextInt(3), TestTags.PING, 0);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			trace.add(CloudSim.clock() + " " + ev.getTag() + " from " + ev.getSourceId() + " " + ev.getData());
+			if (ev.getTag() == TestTags.PING) {
+				int hops = (Integer) ev.getData();
+				if (hops < 30) {
+					int dst = firstPeerId + random.nextInt(peers);
+					schedule(dst, random.nextInt(2), TestTags.PING, hops + 1);
+					schedule(getId(), 0, TestTags.PING, 100);
+				}
+				CloudSim.cancelAll(getId(), new PredicateType(TestTags.TIMEOUT));
+				schedule(getId(), 10, TestTags.TIMEOUT, hops);
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	private static List<List<String>> run(boolean parallel) {
+		CloudSim.init(0, null, false);
+		CloudSim.setParallelDispatch(parallel);
+
+		int peers = 16;
+		int firstPeerId = CloudSim.getNumEntities();
+		List<Peer> entities = new ArrayList<>();
+		for (int i = 0; i < peers; i++) {
+			entities.add(new Peer("Peer" + i, i, firstPeerId, peers));
+		}
+		CloudSim.startSimulation();
+
+		List<List<String>> traces = new ArrayList<>();
+		for (Peer peer : entities) {
+			traces.add(peer.trace);
+		}
+		return traces;
+	}
+
+	@Test
+	public void testSameResultsAsSequential() {
+		List<List<String>> sequential = run(false);
+		List<List<String>> parallel = run(true);
+
+		assertFalse(sequential.get(0).isEmpty());
+		assertEquals(sequential, parallel);
+	}
+}
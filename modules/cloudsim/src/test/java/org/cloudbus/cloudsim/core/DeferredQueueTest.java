@@ -0,0 +1,97 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateNotType;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the predicate-based selection of the events of a {@link DeferredQueue}.
+ */
+public class DeferredQueueTest {
+
+	private enum TestTags implements CloudSimTags {
+		A, B, C
+	}
+
+	private static List<SimEvent> fill(DeferredQueue queue) {
+		List<SimEvent> events = new ArrayList<>();
+		TestTags[] tags = TestTags.values();
+		for (int i = 0; i < 30; i++) {
+			SimEvent e = new SimEvent(SimEvent.SEND, i / 2, i % 4, 0, tags[i % 3], null);
+			queue.addEvent(e);
+			events.add(e);
+		}
+		return events;
+	}
+
+	@Test
+	public void testSelectByType() {
+		DeferredQueue queue = new DeferredQueue();
+		List<SimEvent> events = fill(queue);
+
+		assertEquals(10, queue.count(new PredicateType(TestTags.B)));
+		assertEquals(20, queue.count(new PredicateType(new CloudSimTags[] { TestTags.A, TestTags.C })));
+		assertSame(events.get(1), queue.findFirst(new PredicateType(TestTags.B)));
+		assertSame(events.get(1), queue.removeFirst(new PredicateType(new CloudSimTags[] { TestTags.C, TestTags.B })));
+		assertSame(events.get(2), queue.removeFirst(new PredicateType(new CloudSimTags[] { TestTags.C, TestTags.B })));
+		assertEquals(28, queue.size());
+
+		// the events removed from the middle are skipped
+		assertSame(events.get(0), queue.poll());
+		assertSame(events.get(3), queue.poll());
+		assertEquals(26, queue.size());
+	}
+
+	@Test
+	public void testSelectByOtherPredicates() {
+		DeferredQueue queue = new DeferredQueue();
+		List<SimEvent> events = fill(queue);
+
+		assertSame(events.get(3), queue.removeFirst(new PredicateFrom(3)));
+		assertSame(events.get(7), queue.removeFirst(new PredicateFrom(3)));
+		assertSame(events.get(1), queue.findFirst(new PredicateNotType(TestTags.A)));
+		assertEquals(5, queue.count(new PredicateFrom(3)));
+		assertEquals(28, queue.size());
+
+		// the events of every tag stay consistent with the queue order
+		List<SimEvent> expected = new ArrayList<>(events);
+		expected.remove(7);
+		expected.remove(3);
+		for (SimEvent e : expected) {
+			assertSame(e, queue.findFirst(new PredicateType(e.getTag())));
+			assertSame(e, queue.poll());
+		}
+		assertNull(queue.poll());
+		assertEquals(0, queue.count(new PredicateType(TestTags.A)));
+	}
+
+	@Test
+	public void testRemovedEventAddedBack() {
+		DeferredQueue queue = new DeferredQueue();
+		List<SimEvent> events = fill(queue);
+
+		SimEvent e = queue.removeFirst(new PredicateType(TestTags.C));
+		assertSame(events.get(2), e);
+		queue.add(e);
+		assertEquals(30, queue.size());
+		for (SimEvent expected : events) {
+			assertSame(expected, queue.poll());
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the recycling of the processed events.
+ */
+public class EventPoolTest {
+
+	private enum TestTags implements CloudSimTags {
+		PING, TIMEOUT
+	}
+
+	/** An entity bouncing pings with another one, and keeping a timeout it cancels. */
+	private static class Pinger extends SimEntity {
+		final List<String> trace = new ArrayList<>();
+		int peerId;
+
+		Pinger(String name) {
+			super(name);
+		}
+
+		@Override
+		public void startEntity() {
+			schedule(peerId, 1, TestTags.PING, 0);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			trace.add(CloudSim.clock() + " " + ev.getTag() + " from " + ev.getSourceId() + " " + ev.getData());
+			if (ev.getTag() == TestTags.PING && (Integer) ev.getData() < 50) {
+				CloudSim.cancelAll(getId(), new PredicateType(TestTags.TIMEOUT));
+				schedule(peerId, 0.5, TestTags.PING, (Integer) ev.getData() + 1);
+				schedule(getId(), 2, TestTags.TIMEOUT, ev.getData());
+			}
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+	}
+
+	private static List<String> run(boolean pooling) {
+		CloudSim.init(0, null, false);
+		CloudSim.setEventPooling(pooling);
+		Pinger a = new Pinger("A");
+		Pinger b = new Pinger("B");
+		a.peerId = b.getId();
+		b.peerId = a.getId();
+		CloudSim.startSimulation();
+
+		List<String> trace = new ArrayList<>(a.trace);
+		trace.addAll(b.trace);
+		return trace;
+	}
+
+	@Test
+	public void testSameResultsWithPooling() {
+		List<String> expected = run(false);
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, run(true));
+	}
+
+	@Test
+	public void testReleasedEventIsReused() {
+		EventPool pool = new EventPool();
+		SimEvent first = pool.acquire(SimEvent.SEND, 1, 2, 3, TestTags.PING, "data");
+		pool.release(first);
+		assertNull(first.getData());
+
+		SimEvent second = pool.acquire(SimEvent.SEND, 4, 5, 6, TestTags.TIMEOUT, null);
+		assertSame(first, second);
+		assertEquals(4.0, second.eventTime());
+		assertEquals(5, second.getSourceId());
+		assertEquals(TestTags.TIMEOUT, second.getTag());
+		assertFalse(second.isCancelled());
+	}
+}
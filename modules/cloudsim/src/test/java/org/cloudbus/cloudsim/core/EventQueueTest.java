@@ -0,0 +1,139 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that every {@link EventQueue} implementation dequeues events in the same
+ * (time, serial) order as the heap-based one.
+ */
+public class EventQueueTest {
+
+	private static EventQueue[] queues() {
+		return new EventQueue[] { new HeapEventQueue(), new CalendarEventQueue(), new LadderEventQueue(),
+				new DeferredQueue() };
+	}
+
+	private static SimEvent event(double time) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, CloudActionTags.BLANK, null);
+	}
+
+	@Test
+	public void testEmpty() {
+		for (EventQueue queue : queues()) {
+			assertNull(queue.peek());
+			assertNull(queue.removeFirst());
+			assertEquals(0, queue.size());
+		}
+	}
+
+	@Test
+	public void testSameTimeKeepsSerialOrder() {
+		for (EventQueue queue : queues()) {
+			// takes serial 0, which addEventFirst would otherwise tie with
+			SimEvent zero = event(0.0);
+			queue.addEvent(zero);
+
+			List<SimEvent> events = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				SimEvent e = event(i % 2 == 0 ? 5.0 : 1.0);
+				events.add(e);
+				queue.addEvent(e);
+			}
+			SimEvent first = event(5.0);
+			queue.addEventFirst(first);
+
+			assertSame(zero, queue.removeFirst());
+			for (int i = 1; i < events.size(); i += 2) {
+				assertSame(events.get(i), queue.removeFirst());
+			}
+			assertSame(first, queue.removeFirst());
+			for (int i = 0; i < events.size(); i += 2) {
+				assertSame(events.get(i), queue.removeFirst());
+			}
+			assertNull(queue.removeFirst());
+		}
+	}
+
+	@Test
+	public void testHoldModelMatchesHeap() {
+		for (EventQueue queue : queues()) {
+			EventQueue reference = new HeapEventQueue();
+			Random random = new Random(42);
+			double clock = 0;
+			for (int i = 0; i < 20000; i++) {
+				// coarse times produce many ties, which must be resolved by serial
+				double time = clock + Math.floor(random.nextDouble() * 100) / 10;
+				SimEvent e = event(time);
+				queue.addEvent(e);
+				reference.addEvent(e);
+
+				if (random.nextInt(3) == 0) {
+					SimEvent expected = reference.removeFirst();
+					assertSame(expected, queue.peek());
+					assertSame(expected, queue.removeFirst());
+					clock = expected.eventTime();
+				}
+			}
+			while (!reference.isEmpty()) {
+				assertSame(reference.removeFirst(), queue.removeFirst());
+			}
+			assertEquals(0, queue.size());
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		for (EventQueue queue : queues()) {
+			EventQueue reference = new HeapEventQueue();
+			Random random = new Random(7);
+			for (int i = 0; i < 2000; i++) {
+				SimEvent e = event(random.nextInt(1000));
+				queue.addEvent(e);
+				reference.addEvent(e);
+			}
+			for (int i = 0; i < 100; i++) {
+				queue.removeFirst();
+				reference.removeFirst();
+			}
+
+			Iterator<SimEvent> iter = queue.iterator();
+			int seen = 0;
+			while (iter.hasNext()) {
+				SimEvent e = iter.next();
+				if (e.eventTime() % 3 == 0) {
+					iter.remove();
+				}
+				seen++;
+			}
+			assertEquals(1900, seen);
+			Iterator<SimEvent> refIter = reference.iterator();
+			while (refIter.hasNext()) {
+				if (refIter.next().eventTime() % 3 == 0) {
+					refIter.remove();
+				}
+			}
+
+			assertEquals(reference.size(), queue.size());
+			while (!reference.isEmpty()) {
+				assertSame(reference.removeFirst(), queue.removeFirst());
+			}
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that the index finds the same entities as the linear search while the list changes.
+ */
+public class IdIndexTest {
+
+	@Test
+	public void testSameAsLinearSearch() {
+		IdIndex<GuestEntity> index = new IdIndex<>(GuestEntity::getId);
+		List<Vm> vmList = new ArrayList<>();
+		assertNull(index.getById(vmList, 0));
+
+		for (int i = 0; i < 10; i++) {
+			vmList.add(new Vm(9 - i, 0, 0, 1, 0, 0, 0, "", null));
+		}
+		// a duplicate id, the first VM is found
+		vmList.add(new Vm(3, 1, 0, 1, 0, 0, 0, "", null));
+		for (int id = -1; id <= 10; id++) {
+			assertSame(VmList.getById(vmList, id), index.getById(vmList, id));
+		}
+
+		vmList.remove(VmList.getById(vmList, 3));
+		assertSame(vmList.get(vmList.size() - 1), index.getById(vmList, 3));
+
+		// same size, replaced entity
+		Vm replacement = new Vm(42, 0, 0, 1, 0, 0, 0, "", null);
+		vmList.set(0, replacement);
+		assertSame(replacement, index.getById(vmList, 42));
+		assertNull(index.getById(vmList, 9));
+
+		// same list refilled with as many other entities
+		List<Vm> refilled = new ArrayList<>();
+		for (int i = 0; i < vmList.size(); i++) {
+			refilled.add(new Vm(100 + i, 0, 0, 1, 0, 0, 0, "", null));
+		}
+		vmList.clear();
+		vmList.addAll(refilled);
+		assertSame(refilled.get(3), index.getById(vmList, 103));
+		assertNull(index.getById(vmList, 42));
+
+		// another list
+		List<Vm> otherList = new ArrayList<>(vmList.subList(0, 2));
+		assertSame(otherList.get(1), index.getById(otherList, otherList.get(1).getId()));
+		assertNull(index.getById(otherList, 0));
+	}
+}
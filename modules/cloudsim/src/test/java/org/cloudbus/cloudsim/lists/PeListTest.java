@@ -38,6 +38,17 @@ public class PeListTest {
 		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
 	}
 
+	@Test
+	public void testGetById() {
+		assertSame(peList.get(1), PeList.getById(peList, 1));
+		assertNull(PeList.getById(peList, 2));
+
+		// PEs not numbered by position
+		peList.add(0, new Pe(5, new PeProvisionerSimple(MIPS)));
+		assertSame(peList.get(0), PeList.getById(peList, 5));
+		assertSame(peList.get(2), PeList.getById(peList, 1));
+	}
+
 	@Test
 	public void testGetMips() {
 		assertEquals(MIPS, PeList.getMips(peList, 0), 0);
@@ -0,0 +1,185 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the rates given to the flows of the flow-level network model, and that a networked
+ * application completes with both network models.
+ */
+public class FlowNetworkTest {
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, null, false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	/**
+	 * Creates a datacenter of 4 hosts, two per edge switch, the edge switches being connected to
+	 * the same aggregate switch.
+	 */
+	private static NetworkDatacenter createDatacenter() throws Exception {
+		List<NetworkHost> hosts = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			hosts.add(new NetworkHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(100000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		NetworkDatacenter dc = new NetworkDatacenter("Datacenter",
+				new DatacenterCharacteristics("x86", "Linux", "Xen", hosts, 10.0, 3.0, 0.05, 0.001, 0.0),
+				new VmAllocationPolicySimple(hosts), new LinkedList<>(), 0);
+
+		Switch aggr = new Switch("Aggr0", 2, Switch.SwitchLevel.AGGR_LEVEL, 0.002, 10000, 10000, dc);
+		dc.registerSwitch(aggr);
+		for (int i = 0; i < 2; i++) {
+			Switch edge = new Switch("Edge" + i, 2, Switch.SwitchLevel.EDGE_LEVEL, 0.001, 10000, 1000, dc);
+			dc.registerSwitch(edge);
+			dc.attachSwitchToSwitch(edge, aggr);
+			dc.attachSwitchToHost(edge, hosts.get(2 * i));
+			dc.attachSwitchToHost(edge, hosts.get(2 * i + 1));
+		}
+		return dc;
+	}
+
+	private static NetworkCloudlet createCloudlet(int id, int guestId) {
+		NetworkCloudlet cloudlet = new NetworkCloudlet(id, 0, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		cloudlet.setGuestId(guestId);
+		return cloudlet;
+	}
+
+	/**
+	 * Places a guest on a host, as the datacenter does when the guest is created.
+	 */
+	private static void place(NetworkDatacenter dc, Vm vm, NetworkHost host) {
+		dc.VmtoHostlist.put(vm.getId(), host.getId());
+		dc.VmToSwitchid.put(vm.getId(), host.getSwitch().getId());
+	}
+
+	@Test
+	public void testMaxMinFairRates() throws Exception {
+		NetworkDatacenter dc = createDatacenter();
+		dc.setFlowLevelNetwork(true);
+		List<NetworkHost> hosts = dc.getHostList();
+		Vm[] vms = new Vm[4];
+		long[] bw = { 600, 10000, 10000, 10000 };
+		for (int i = 0; i < vms.length; i++) {
+			vms[i] = new Vm(i, 0, 1, 1, 512, bw[i], 10000, "Xen", new CloudletSchedulerTimeShared());
+			place(dc, vms[i], hosts.get(i));
+		}
+		NetworkCloudlet[] cloudlets = new NetworkCloudlet[4];
+		for (int i = 0; i < cloudlets.length; i++) {
+			cloudlets[i] = createCloudlet(i, i);
+		}
+		// both guests of the first edge switch send to the other one, and the first one
+		// also sends to the second one
+		cloudlets[0].addSendStage(1000, cloudlets[2]);
+		cloudlets[1].addSendStage(1000, cloudlets[3]);
+		cloudlets[0].addSendStage(1000, cloudlets[1]);
+
+		NetworkPacket toOtherEdge = new NetworkPacket(0, new HostPacket(cloudlets[0], 0));
+		NetworkPacket fromSecondGuest = new NetworkPacket(1, new HostPacket(cloudlets[1], 0));
+		NetworkPacket toSameEdge = new NetworkPacket(0, new HostPacket(cloudlets[0], 1));
+		FlowNetwork network = dc.getFlowNetwork();
+		network.addFlow(toOtherEdge, vms[0], hosts.get(0));
+		network.addFlow(fromSecondGuest, vms[1], hosts.get(1));
+		network.addFlow(toSameEdge, vms[0], hosts.get(0));
+		network.updateRates();
+
+		// the sending side of the first guest is the bottleneck of its flows, and the second guest
+		// gets the rest of the uplink of the edge switch
+		assertEquals(300, network.getRate(toOtherEdge), 1e-9);
+		assertEquals(300, network.getRate(toSameEdge), 1e-9);
+		assertEquals(700, network.getRate(fromSecondGuest), 1e-9);
+		assertEquals(3, network.getActiveFlows());
+	}
+
+	/**
+	 * Runs a guest sending data to a guest on another edge switch, which then executes.
+	 */
+	private static List<Cloudlet> runTandem(boolean flowLevelNetwork, long data) throws Exception {
+		CloudSim.init(1, null, false);
+		NetworkDatacenter dc = createDatacenter();
+		dc.setFlowLevelNetwork(flowLevelNetwork);
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			vms.add(new Vm(i, broker.getId(), 1, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		NetworkCloudlet sender = createCloudlet(0, 0);
+		NetworkCloudlet receiver = createCloudlet(1, 2);
+		sender.setUserId(broker.getId());
+		receiver.setUserId(broker.getId());
+		sender.addExecutionStage(1000);
+		sender.addSendStage(data, receiver);
+		receiver.addRecvStage(sender);
+		receiver.addExecutionStage(1000);
+		List<NetworkCloudlet> cloudlets = new ArrayList<>();
+		cloudlets.add(sender);
+		cloudlets.add(receiver);
+
+		broker.submitGuestList(vms);
+		broker.submitCloudletList(cloudlets);
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(data, dc.totalDataTransfer, 0);
+		if (flowLevelNetwork) {
+			assertEquals(1, dc.getFlowNetwork().getCompletedFlows());
+			assertEquals(0, dc.getFlowNetwork().getActiveFlows());
+		}
+		return broker.getCloudletReceivedList();
+	}
+
+	@Test
+	public void testTandemApplication() throws Exception {
+		for (boolean flowLevelNetwork : new boolean[] { false, true }) {
+			List<Cloudlet> cloudlets = runTandem(flowLevelNetwork, 1000);
+			assertEquals(2, cloudlets.size());
+			for (Cloudlet cloudlet : cloudlets) {
+				assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+			}
+			NetworkCloudlet receiver = (NetworkCloudlet) cloudlets.get(1);
+			assertTrue(receiver.getStages().get(0).getTime() > 0);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.core.CloudActionTags;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the routing tables of a network datacenter follow the guests when they migrate,
+ * and are cleaned when the cloudlets return and the guests are destroyed.
+ */
+public class NetworkDatacenterTest {
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, null, false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	private static List<NetworkHost> createHosts() {
+		List<NetworkHost> hosts = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+			hosts.add(new NetworkHost(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(100000), 1000000,
+					peList, new VmSchedulerTimeShared(peList)));
+		}
+		return hosts;
+	}
+
+	/** Connects the hosts by pairs to two edge switches, under an aggregate switch. */
+	private static void createNetwork(NetworkDatacenter dc, List<NetworkHost> hosts) {
+		Switch aggr = new Switch("Aggr0", 2, Switch.SwitchLevel.AGGR_LEVEL, 0.002, 10000, 10000, dc);
+		dc.registerSwitch(aggr);
+		for (int i = 0; i < 2; i++) {
+			Switch edge = new Switch("Edge" + i, 2, Switch.SwitchLevel.EDGE_LEVEL, 0.001, 10000, 1000, dc);
+			dc.registerSwitch(edge);
+			dc.attachSwitchToSwitch(edge, aggr);
+			dc.attachSwitchToHost(edge, hosts.get(2 * i));
+			dc.attachSwitchToHost(edge, hosts.get(2 * i + 1));
+		}
+	}
+
+	/** Creates a cloudlet on guest 0 sending a packet to a cloudlet on guest 2. */
+	private static List<NetworkCloudlet> createCloudlets(DatacenterBroker broker) {
+		NetworkCloudlet sender = new NetworkCloudlet(0, 0, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		NetworkCloudlet receiver = new NetworkCloudlet(1, 0, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		sender.setUserId(broker.getId());
+		sender.setGuestId(0);
+		receiver.setUserId(broker.getId());
+		receiver.setGuestId(2);
+		sender.addExecutionStage(1000);
+		sender.addSendStage(1000, receiver);
+		receiver.addRecvStage(sender);
+		receiver.addExecutionStage(1000);
+		List<NetworkCloudlet> cloudlets = new ArrayList<>();
+		cloudlets.add(sender);
+		cloudlets.add(receiver);
+		return cloudlets;
+	}
+
+	private static List<Vm> createVms(DatacenterBroker broker) {
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			vms.add(new Vm(i, broker.getId(), 1, 1, 512, 1000, 10000, "Xen", new CloudletSchedulerTimeShared()));
+		}
+		return vms;
+	}
+
+	/** Checks that the cloudlets have returned and left the routing tables with their guests. */
+	private static void assertRoutesCleaned(NetworkDatacenter dc, List<NetworkHost> hosts, List<Vm> vms,
+			DatacenterBroker broker) {
+		List<Cloudlet> received = broker.getCloudletReceivedList();
+		assertEquals(2, received.size());
+		for (Cloudlet cloudlet : received) {
+			assertEquals(Cloudlet.CloudletStatus.SUCCESS, cloudlet.getStatus());
+		}
+		for (NetworkHost host : hosts) {
+			assertTrue(host.getNics().isEmpty());
+		}
+		for (Vm vm : vms) {
+			assertNull(dc.getGuest(vm.getId()));
+			assertEquals(-1, dc.getGuestVirtualizationOverhead(vm.getId()));
+		}
+		assertTrue(dc.VmtoHostlist.isEmpty());
+		assertTrue(dc.VmToSwitchid.isEmpty());
+	}
+
+	@Test
+	public void testRoutesAfterMigration() throws Exception {
+		List<NetworkHost> hosts = createHosts();
+		// the routes are checked right after the migration, as the guests are destroyed at the end
+		List<Object> routes = new ArrayList<>();
+		NetworkDatacenter dc = new NetworkDatacenter("Datacenter",
+				new DatacenterCharacteristics("x86", "Linux", "Xen", hosts, 10.0, 3.0, 0.05, 0.001, 0.0),
+				new VmAllocationPolicySimple(hosts), new LinkedList<>(), 0) {
+			@Override
+			protected void processVmMigrate(SimEvent ev, boolean ack) {
+				super.processVmMigrate(ev, ack);
+				routes.add(getGuest(0));
+				routes.add(VmtoHostlist.get(0));
+				routes.add(VmToSwitchid.get(0));
+				routes.add(getGuestVirtualizationOverhead(0));
+				routes.add(hosts.get(0).getNics().get(0));
+				routes.add(hosts.get(2).getNics().get(0));
+			}
+		};
+		createNetwork(dc, hosts);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vms = createVms(broker);
+		List<NetworkCloudlet> cloudlets = createCloudlets(broker);
+		NetworkCloudlet sender = cloudlets.get(0);
+
+		broker.submitGuestList(vms);
+		broker.submitCloudletList(cloudlets);
+		// the sender migrates next to the receiver while it executes
+		CloudSim.send(dc.getId(), dc.getId(), 10, CloudActionTags.VM_MIGRATE, new GuestMapping(vms.get(0), hosts.get(2)));
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(6, routes.size());
+		assertSame(vms.get(0), routes.get(0));
+		assertEquals(2, routes.get(1));
+		assertEquals(hosts.get(2).getSwitch().getId(), routes.get(2));
+		assertEquals(0, routes.get(3));
+		assertEquals(-1, dc.getGuestVirtualizationOverhead(9));
+		assertNull(routes.get(4));
+		assertSame(sender.getNic(), routes.get(5));
+
+		// the packet has been delivered locally
+		assertEquals(0, dc.totalDataTransfer, 0);
+		assertRoutesCleaned(dc, hosts, vms, broker);
+	}
+
+	@Test
+	public void testRoutesAfterCloudletMove() throws Exception {
+		List<NetworkHost> hosts = createHosts();
+		// the nics are checked right after the move
+		List<Object> nics = new ArrayList<>();
+		NetworkDatacenter dc = new NetworkDatacenter("Datacenter",
+				new DatacenterCharacteristics("x86", "Linux", "Xen", hosts, 10.0, 3.0, 0.05, 0.001, 0.0),
+				new VmAllocationPolicySimple(hosts), new LinkedList<>(), 0) {
+			@Override
+			protected void processCloudletMove(int[] receivedData, CloudActionTags tag) {
+				super.processCloudletMove(receivedData, tag);
+				nics.add(hosts.get(0).getNics().get(0));
+				nics.add(hosts.get(1).getNics().get(0));
+			}
+		};
+		createNetwork(dc, hosts);
+
+		DatacenterBroker broker = new DatacenterBroker("Broker");
+		List<Vm> vms = createVms(broker);
+		List<NetworkCloudlet> cloudlets = createCloudlets(broker);
+		NetworkCloudlet sender = cloudlets.get(0);
+
+		// a finished cloudlet is sent back to its owner without being placed
+		List<Object> returned = new ArrayList<>();
+		SimEntity owner = new SimEntity("Owner") {
+			@Override
+			public void startEntity() {
+			}
+
+			@Override
+			public void processEvent(SimEvent ev) {
+				returned.add(ev.getData());
+			}
+
+			@Override
+			public void shutdownEntity() {
+			}
+		};
+		NetworkCloudlet finished = new NetworkCloudlet(2, 0, 1, 300, 300,
+				new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+		finished.setUserId(owner.getId());
+		finished.setGuestId(3);
+		finished.setResourceParameter(dc.getId(), 0);
+
+		broker.submitGuestList(vms);
+		broker.submitCloudletList(cloudlets);
+		// the sender moves to the guest on the next host while it executes
+		CloudSim.send(dc.getId(), dc.getId(), 0.5, CloudActionTags.CLOUDLET_MOVE,
+				new int[] {sender.getCloudletId(), broker.getId(), 0, 1, dc.getId()});
+		CloudSim.send(owner.getId(), dc.getId(), 0.5, CloudActionTags.CLOUDLET_SUBMIT, finished);
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		assertEquals(2, nics.size());
+		assertNull(nics.get(0));
+		assertSame(sender.getNic(), nics.get(1));
+		assertEquals(1, sender.getGuestId());
+		assertEquals(1, returned.size());
+		assertSame(finished, returned.get(0));
+
+		// the packet has crossed the edge switch
+		assertTrue(dc.totalDataTransfer > 0);
+		assertRoutesCleaned(dc, hosts, vms, broker);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.network.datacenter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the packet queues behave as lists while their ring buffer wraps and grows, and that
+ * the port queues find the queue of each port.
+ */
+public class PacketQueueTest {
+
+	@Test
+	public void testSameAsList() {
+		Random random = new Random(7);
+		PacketQueue<Integer> queue = new PacketQueue<>();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			int operation = random.nextInt(10);
+			if (operation < 5) {
+				queue.add(i);
+				expected.add(i);
+			} else if (operation < 8) {
+				assertEquals(expected.isEmpty() ? null : expected.remove(0), queue.poll());
+			} else if (operation < 9 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), queue.remove(index));
+			} else if (random.nextInt(20) == 0) {
+				queue.clear();
+				expected.clear();
+			}
+			assertEquals(expected, queue);
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		PacketQueue<Integer> queue = new PacketQueue<>();
+		for (int i = 0; i < 20; i++) {
+			queue.poll();
+			queue.add(i);
+			queue.add(i);
+		}
+		Iterator<Integer> it = queue.iterator();
+		while (it.hasNext()) {
+			if (it.next() % 2 == 0) {
+				it.remove();
+			}
+		}
+		assertEquals(List.of(9, 11, 11, 13, 13, 15, 15, 17, 17, 19, 19), queue);
+		assertEquals(9, queue.peek());
+		assertThrows(IndexOutOfBoundsException.class, () -> queue.get(11));
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertNull(queue.peek());
+	}
+
+	@Test
+	public void testPortQueues() {
+		PortQueues ports = new PortQueues();
+		for (int port = 100; port > 0; port -= 3) {
+			ports.getOrCreate(port).add(new NetworkPacket(port, null));
+		}
+		assertEquals(34, ports.size());
+		assertNull(ports.get(99));
+		for (int i = 0; i < ports.size(); i++) {
+			int port = ports.getPort(i);
+			assertEquals(100 - 3 * i, port);
+			assertSame(ports.getQueue(i), ports.get(port));
+			assertSame(ports.getQueue(i), ports.getOrCreate(port));
+			assertEquals(port, ports.getQueue(i).peek().senderHostId);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerIbmX3550XeonX5675;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the energy meter gives the energy summed over every interval, as computed by the
+ * hosts.
+ */
+public class EnergyMeterTest {
+
+	@Test
+	public void testSameAsSumOfIntervals() {
+		Random random = new Random(3);
+		List<PowerHost> hosts = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			List<Pe> peList = new ArrayList<>();
+			peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+			hosts.add(new PowerHost(i, null, null, 0, peList, null, new PowerModelSpecPowerIbmX3550XeonX5675()));
+		}
+		double[] utilizations = new double[hosts.size()];
+
+		EnergyMeter meter = new EnergyMeter();
+		double expected = 0;
+		double time = 0;
+		for (int interval = 0; interval < 1000; interval++) {
+			double timeDiff = 1 + random.nextInt(300);
+			for (int i = 0; i < hosts.size(); i++) {
+				double previousUtilization = utilizations[i];
+				if (random.nextInt(10) == 0) {
+					// most hosts keep the same utilization from an interval to the next
+					utilizations[i] = random.nextInt(4) == 0 ? 0 : random.nextDouble();
+				}
+				PowerHost host = hosts.get(i);
+				double rate = meter.record(i, host, previousUtilization, utilizations[i], time);
+				double energy = host.getEnergyLinearInterpolation(previousUtilization, utilizations[i], timeDiff);
+				assertEquals(energy, rate * timeDiff, 0);
+				expected += energy;
+			}
+			time += timeDiff;
+			assertEquals(expected, meter.getEnergy(time), expected * 1e-12);
+		}
+
+		meter.reset(time);
+		assertEquals(0, meter.getEnergy(time), 0);
+	}
+
+}
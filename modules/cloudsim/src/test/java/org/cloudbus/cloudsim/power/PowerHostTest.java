@@ -10,15 +10,23 @@ package org.cloudbus.cloudsim.power;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
 import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
 import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
@@ -59,4 +67,64 @@ public class PowerHostTest {
 		assertEquals(expectedEnergy, host.getEnergyLinearInterpolation(0.2, 0.9, TIME), 0);
 	}
 
+	@Test
+	public void testUtilizationHistory() {
+		List<Pe> peList = new ArrayList<>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		PowerHost host = new PowerHost(0, new RamProvisionerSimple(4096), new BwProvisionerSimple(10000), 10000,
+				peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(MAX_POWER, STATIC_POWER_PERCENT));
+		List<PowerVm> vms = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			PowerVm vm = new PowerVm(i, 0, 100 * (i + 1), 1, 512, 1000, 1000, 1, "Xen",
+					new CloudletSchedulerDynamicWorkload(100 * (i + 1), 1), 300);
+			for (int j = 0; j < 10 * i; j++) {
+				vm.addUtilizationHistoryValue(0.1 * ((i + j) % 10));
+			}
+			vms.add(vm);
+		}
+
+		assertEquals(0, host.getUtilizationHistory().length);
+		host.guestCreate(vms.get(1));
+		host.guestCreate(vms.get(3));
+		assertArrayEquals(aggregate(host), host.getUtilizationHistory(), 0);
+		assertSame(host.getCachedUtilizationHistory(), host.getCachedUtilizationHistory());
+		assertNotSame(host.getCachedUtilizationHistory(), host.getUtilizationHistory());
+		host.getUtilizationHistory()[0] = -1;
+		assertArrayEquals(aggregate(host), host.getCachedUtilizationHistory(), 0);
+
+		host.guestCreate(vms.get(2));
+		assertArrayEquals(aggregate(host), host.getUtilizationHistory(), 0);
+		double[] projected = host.getUtilizationHistoryWith(vms.get(0));
+		host.guestCreate(vms.get(0));
+		assertArrayEquals(aggregate(host), projected, 0);
+		assertArrayEquals(aggregate(host), host.getUtilizationHistory(), 0);
+
+		for (int j = 0; j < PowerVm.HISTORY_LENGTH; j++) {
+			for (PowerVm vm : host.<PowerVm>getGuestList()) {
+				vm.addUtilizationHistoryValue(0.05 * (j % 20));
+			}
+			assertArrayEquals(aggregate(host), host.getUtilizationHistory(), 0);
+		}
+
+		host.guestDestroy(vms.get(3));
+		assertArrayEquals(aggregate(host), host.getUtilizationHistory(), 0);
+		host.guestDestroyAll();
+		assertEquals(0, host.getUtilizationHistory().length);
+	}
+
+	/**
+	 * Sums the utilization history of the VMs of a host, as the history of the host is defined.
+	 */
+	private static double[] aggregate(PowerHost host) {
+		double[] history = new double[PowerHost.HISTORY_LENGTH];
+		int length = 0;
+		for (PowerVm vm : host.<PowerVm>getGuestList()) {
+			for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
+				history[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / host.getTotalMips();
+			}
+			length = Math.max(length, vm.getUtilizationHistory().size());
+		}
+		return Arrays.copyOf(history, length);
+	}
 }
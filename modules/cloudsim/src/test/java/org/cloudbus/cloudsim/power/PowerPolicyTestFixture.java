@@ -0,0 +1,122 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmScheduler;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The common setup of the tests of the power VM allocation policies, which compare a policy
+ * against a reference on hosts and VMs built from a seeded random generator.
+ */
+abstract class PowerPolicyTestFixture {
+
+	@BeforeEach
+	public void setUp() {
+		Log.disable();
+		CloudSim.init(1, null, false);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Log.enable();
+	}
+
+	/**
+	 * Creates a host with a time-shared VM scheduler.
+	 *
+	 * @param id the id of the host
+	 * @param pes the number of PEs
+	 * @param mips the MIPS of each PE
+	 * @param ram the RAM of the host
+	 * @param powerModel the power model of the host
+	 * @return the host
+	 */
+	static PowerHost createHost(int id, int pes, double mips, int ram, PowerModel powerModel) {
+		return createHost(id, pes, mips, ram, powerModel, false);
+	}
+
+	/**
+	 * Creates a host with a time-shared VM scheduler, which may allow over-subscription.
+	 *
+	 * @param id the id of the host
+	 * @param pes the number of PEs
+	 * @param mips the MIPS of each PE
+	 * @param ram the RAM of the host
+	 * @param powerModel the power model of the host
+	 * @param overSubscription true to use {@link VmSchedulerTimeSharedOverSubscription}
+	 * @return the host
+	 */
+	static PowerHost createHost(int id, int pes, double mips, int ram, PowerModel powerModel,
+			boolean overSubscription) {
+		List<Pe> peList = new ArrayList<>();
+		for (int j = 0; j < pes; j++) {
+			peList.add(new Pe(j, new PeProvisionerSimple(mips)));
+		}
+		VmScheduler vmScheduler = overSubscription
+				? new VmSchedulerTimeSharedOverSubscription(peList)
+				: new VmSchedulerTimeShared(peList);
+		return new PowerHost(id, new RamProvisionerSimple(ram), new BwProvisionerSimple(100000), 1000000,
+				peList, vmScheduler, powerModel);
+	}
+
+	/**
+	 * Creates a single-PE VM running a dynamic workload.
+	 *
+	 * @param id the id of the VM
+	 * @param mips the MIPS of the VM
+	 * @param ram the RAM of the VM
+	 * @return the VM
+	 */
+	static PowerVm createVm(int id, double mips, int ram) {
+		return new PowerVm(id, 0, mips, 1, ram, 1000, 1000, 1, "Xen",
+				new CloudletSchedulerDynamicWorkload(mips, 1), 300);
+	}
+
+	/**
+	 * Gives a VM a utilization history of random length and values.
+	 *
+	 * @param vm the VM
+	 * @param random the random generator
+	 */
+	static void addUtilizationHistory(PowerVm vm, Random random) {
+		int history = random.nextInt(PowerVm.HISTORY_LENGTH);
+		for (int i = 0; i < history; i++) {
+			vm.addUtilizationHistoryValue(0.05 + 0.95 * random.nextDouble());
+		}
+	}
+
+	/**
+	 * Creates the fallback policy of the adaptive policies, used while the hosts have too short
+	 * a history.
+	 *
+	 * @param hosts the hosts
+	 * @return the fallback policy
+	 */
+	static PowerVmAllocationPolicyMigrationStaticThreshold createFallback(List<PowerHost> hosts) {
+		return new PowerVmAllocationPolicyMigrationStaticThreshold(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 0.7);
+	}
+}
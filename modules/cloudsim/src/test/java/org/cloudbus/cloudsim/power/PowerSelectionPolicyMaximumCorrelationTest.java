@@ -2,13 +2,19 @@ package org.cloudbus.cloudsim.power;
 
 
 import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 
 import org.cloudbus.cloudsim.selectionPolicies.PowerSelectionPolicyMaximumCorrelation;
 import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyRandomSelection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.cloudbus.cloudsim.util.MathUtil;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class PowerSelectionPolicyMaximumCorrelationTest {
 
@@ -35,4 +41,63 @@ public class PowerSelectionPolicyMaximumCorrelationTest {
 		}
 	}
 
+	@Test
+	public void testSameAsRegressions() {
+		Random random = new Random(7);
+		for (int n = 2; n <= 8; n++) {
+			double[][] data = new double[n][30];
+			for (int i = 0; i < n; i++) {
+				for (int t = 0; t < 30; t++) {
+					data[i][t] = i == 0 ? random.nextDouble() : 0.5 * data[i - 1][t] + 0.5 * random.nextDouble();
+				}
+			}
+			List<Double> result = vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(data);
+			for (int i = 0; i < n; i++) {
+				assertEquals(getRSquared(data, i), result.get(i), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testLowVariance() {
+		double[][] data = new double[DATA.length][];
+		for (int i = 0; i < DATA.length; i++) {
+			data[i] = new double[DATA[i].length];
+			for (int t = 0; t < DATA[i].length; t++) {
+				data[i][t] = 1e-6 * DATA[i][t];
+			}
+		}
+		List<Double> result = vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(data);
+		for (int i = 0; i < result.size(); i++) {
+			assertEquals(CORRELATION[i], result.get(i), 0.00001);
+		}
+	}
+
+	@Test
+	public void testNotEnoughSamples() {
+		// as many samples as VMs: every VM would be fitted exactly
+		assertThrows(IllegalArgumentException.class,
+				() -> vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(new double[][] { { 1, 2, 4 }, { 2, 1, 3 }, { 3, 3, 1 } }));
+		assertThrows(IllegalArgumentException.class,
+				() -> vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(new double[][] { { 1, 2 }, { 2, 1 }, { 3, 3 } }));
+		assertThrows(IllegalArgumentException.class,
+				() -> vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(new double[][] { { 1, 2, 3, 4 } }));
+		assertThrows(IllegalArgumentException.class,
+				() -> vmSelectionPolicyMaximumCorrelation.getCorrelationCoefficients(new double[][] { { 1, 2, 3, 4 }, { 2, 4, 6, 8 } }));
+	}
+
+	/**
+	 * The R squared of the regression of the line i of the data on the other lines.
+	 */
+	private static double getRSquared(double[][] data, int i) {
+		double[][] x = new double[data.length - 1][];
+		int k = 0;
+		for (int j = 0; j < data.length; j++) {
+			if (j != i) {
+				x[k++] = data[j];
+			}
+		}
+		return MathUtil.createLinearRegression(new Array2DRowRealMatrix(x).transpose().getData(), data[i])
+				.calculateRSquared();
+	}
 }
@@ -0,0 +1,149 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.VmAllocationPolicy.GuestMapping;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the consolidation of the under-utilized hosts gives the same migrations as when the
+ * least utilized host is searched again after each host.
+ */
+public class PowerVmAllocationPolicyConsolidationTest extends PowerPolicyTestFixture {
+
+	/** A policy searching the under-utilized hosts by scanning all the hosts each time. */
+	private static class ScanningPolicy extends PowerVmAllocationPolicyMigrationStaticThreshold {
+		int searches = 0;
+
+		ScanningPolicy(List<PowerHost> hostList) {
+			super(hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.9);
+		}
+
+		@Override
+		protected PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+			searches++;
+			double minUtilization = 1;
+			PowerHost underUtilizedHost = null;
+			for (PowerHost host : this.<PowerHost> getHostList()) {
+				if (excludedHosts.contains(host)) {
+					continue;
+				}
+				double utilization = host.getUtilizationOfCpu();
+				if (utilization > 0 && utilization < minUtilization
+						&& !areAllVmsMigratingOutOrAnyVmMigratingIn(host)) {
+					minUtilization = utilization;
+					underUtilizedHost = host;
+				}
+			}
+			return underUtilizedHost;
+		}
+	}
+
+	/**
+	 * Creates the hosts of a datacenter, with a random load. The same seed gives the same hosts.
+	 */
+	private static List<PowerHost> createHosts(String name, long seed) throws Exception {
+		Random random = new Random(seed);
+		List<PowerHost> hosts = new ArrayList<>();
+		int vmId = 0;
+		for (int i = 0; i < 200; i++) {
+			PowerHost host = createHost(i, 4, 1000, 8192, new PowerModelLinear(200, 0.7));
+			int vms = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(4);
+			for (int j = 0; j < vms; j++) {
+				// a few sizes only, so that some hosts have the same utilization
+				double mips = 250 * (1 + random.nextInt(3));
+				host.guestCreate(createVm(vmId++, mips, 512));
+			}
+			host.updateCloudletsProcessing(0);
+			hosts.add(host);
+		}
+		new Datacenter(name, new DatacenterCharacteristics("x86", "Linux", "Xen", hosts, 10.0, 3.0, 0.05, 0.001, 0.0),
+				new VmAllocationPolicySimple(hosts), new LinkedList<>(), 0);
+		return hosts;
+	}
+
+	private static List<String> describe(List<GuestMapping> migrationMap) {
+		List<String> migrations = new ArrayList<>();
+		for (GuestMapping map : migrationMap) {
+			migrations.add(map.vm().getId() + "->" + map.host().getId());
+		}
+		return migrations;
+	}
+
+	private static void assertSameAsScanning(boolean hostSearchPruning) throws Exception {
+		List<PowerHost> scanningHosts = createHosts("Scanning", 21);
+		ScanningPolicy scanning = new ScanningPolicy(scanningHosts);
+		List<PowerHost> hosts = createHosts("Datacenter", 21);
+		PowerVmAllocationPolicyMigrationStaticThreshold policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hosts, new SelectionPolicyMinimumMigrationTime<>(), 0.9);
+		scanning.setHostSearchPruning(hostSearchPruning);
+		policy.setHostSearchPruning(hostSearchPruning);
+
+		List<PowerHost> overUtilizedHosts = new ArrayList<>();
+		overUtilizedHosts.add(hosts.get(7));
+		List<PowerHost> scanningOverUtilizedHosts = new ArrayList<>();
+		scanningOverUtilizedHosts.add(scanningHosts.get(7));
+
+		List<String> expected = describe(scanning.getMigrationMapFromUnderUtilizedHosts(scanningOverUtilizedHosts));
+		assertTrue(expected.size() > 10, expected.toString());
+		assertEquals(expected, describe(policy.getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts)));
+		assertTrue(scanning.searches > 0);
+	}
+
+	@Test
+	public void testSameAsScanning() throws Exception {
+		assertSameAsScanning(false);
+	}
+
+	@Test
+	public void testSameAsScanningWithHostSearchPruning() throws Exception {
+		assertSameAsScanning(true);
+	}
+
+	@Test
+	public void testOverriddenUnderUtilizedHostSearch() throws Exception {
+		List<PowerHost> hosts = createHosts("Datacenter", 21);
+		PowerVmAllocationPolicyMigrationStaticThreshold policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hosts, new SelectionPolicyMinimumMigrationTime<>(), 0.9) {
+			@Override
+			protected PowerHost getUnderUtilizedHost(Set<? extends Host> excludedHosts) {
+				return null;
+			}
+		};
+		assertTrue(policy.getMigrationMapFromUnderUtilizedHosts(new ArrayList<>()).isEmpty());
+	}
+
+	@Test
+	public void testOverriddenMigratingVmsCheck() throws Exception {
+		List<PowerHost> hosts = createHosts("Datacenter", 21);
+		PowerVmAllocationPolicyMigrationStaticThreshold policy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hosts, new SelectionPolicyMinimumMigrationTime<>(), 0.9) {
+			@Override
+			protected boolean areAllVmsMigratingOutOrAnyVmMigratingIn(PowerHost host) {
+				return true;
+			}
+		};
+		assertTrue(policy.getMigrationMapFromUnderUtilizedHosts(new ArrayList<>()).isEmpty());
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.power.models.PowerModelSqrt;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the pruned host search finds the same host as the linear one, with fewer trial
+ * allocations.
+ */
+public class PowerVmAllocationPolicyHostSearchTest extends PowerPolicyTestFixture {
+
+	/** A policy counting its trial allocations. */
+	private static class CountingPolicy extends PowerVmAllocationPolicyMigrationStaticThreshold {
+		int trials = 0;
+
+		CountingPolicy(List<PowerHost> hostList) {
+			super(hostList, new SelectionPolicyMinimumMigrationTime<>(), 0.8);
+		}
+
+		@Override
+		protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, GuestEntity vm) {
+			trials++;
+			return super.isHostOverUtilizedAfterAllocation(host, vm);
+		}
+	}
+
+	private final Random random = new Random(5);
+
+	private int nextVmId = 0;
+
+	private PowerVm createVm() {
+		double mips = 250 * (1 + random.nextInt(10));
+		return createVm(nextVmId++, mips, 128 * (1 + random.nextInt(8)));
+	}
+
+	private List<PowerHost> createHosts() {
+		List<PowerHost> hosts = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			int pes = 1 + random.nextInt(4);
+			double mips = 1000 + 500 * random.nextInt(5);
+			double maxPower = 100 + 20 * random.nextInt(10);
+			PowerModel powerModel = random.nextBoolean()
+					? new PowerModelLinear(maxPower, 0.7)
+					: new PowerModelSqrt(maxPower, 0.5);
+			hosts.add(createHost(i, pes, mips, 4096, powerModel));
+		}
+
+		// some hosts are left empty, the others get a random load
+		for (PowerHost host : hosts) {
+			int vms = random.nextInt(4) == 0 ? 0 : random.nextInt(6);
+			for (int j = 0; j < vms; j++) {
+				PowerVm vm = createVm();
+				if (host.isSuitableForGuest(vm)) {
+					host.guestCreate(vm);
+				}
+			}
+		}
+		return hosts;
+	}
+
+	@Test
+	public void testSameHostAsLinearSearch() {
+		List<PowerHost> hosts = createHosts();
+		CountingPolicy linear = new CountingPolicy(hosts);
+		CountingPolicy pruned = new CountingPolicy(hosts);
+		pruned.setHostSearchPruning(true);
+
+		Set<PowerHost> excludedHosts = new HashSet<>();
+		excludedHosts.add(hosts.get(3));
+		excludedHosts.add(hosts.get(17));
+		int placed = 0;
+		for (int i = 0; i < 80; i++) {
+			PowerVm vm = createVm();
+			PowerHost expected = linear.findHostForGuest(vm, excludedHosts);
+			assertSame(expected, pruned.findHostForGuest(vm, excludedHosts), "VM #" + vm.getId());
+			if (expected != null) {
+				expected.guestCreate(vm);
+				placed++;
+			}
+		}
+
+		assertTrue(placed > 20);
+		assertTrue(pruned.trials < linear.trials / 3, pruned.trials + " trials, linear " + linear.trials);
+	}
+
+	@Test
+	public void testNoSuitableHost() {
+		List<PowerHost> hosts = createHosts();
+		CountingPolicy pruned = new CountingPolicy(hosts);
+		pruned.setHostSearchPruning(true);
+
+		PowerVm huge = createVm(nextVmId++, 100000, 128);
+		assertSame(null, pruned.findHostForGuest(huge, new HashSet<>()));
+		assertNotNull(pruned.findHostForGuest(createVm(), new HashSet<>()));
+	}
+}
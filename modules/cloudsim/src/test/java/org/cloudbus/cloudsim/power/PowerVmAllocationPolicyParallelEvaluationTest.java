@@ -0,0 +1,103 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.core.GuestEntity;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that checking the hosts and selecting the VMs to migrate in parallel gives the same
+ * results as doing it sequentially.
+ */
+public class PowerVmAllocationPolicyParallelEvaluationTest extends PowerPolicyTestFixture {
+
+	/**
+	 * Creates hosts loaded with VMs having a utilization history. The same seed gives the same
+	 * hosts.
+	 */
+	private static List<PowerHost> createHosts(long seed) {
+		Random random = new Random(seed);
+		List<PowerHost> hosts = new ArrayList<>();
+		int vmId = 0;
+		for (int i = 0; i < 300; i++) {
+			PowerHost host = createHost(i, 2, 2000, 8192, new PowerModelLinear(200, 0.7));
+			int vms = random.nextInt(6);
+			for (int j = 0; j < vms; j++) {
+				double mips = 250 * (1 + random.nextInt(4));
+				PowerVm vm = createVm(vmId++, mips, 128 * (1 + random.nextInt(8)));
+				addUtilizationHistory(vm, random);
+				host.guestCreate(vm);
+			}
+			hosts.add(host);
+		}
+		return hosts;
+	}
+
+	private static void assertSameAsSequential(Function<List<PowerHost>, PowerVmAllocationPolicyMigrationAbstract> factory) {
+		List<PowerHost> sequentialHosts = createHosts(13);
+		PowerVmAllocationPolicyMigrationAbstract sequential = factory.apply(sequentialHosts);
+		List<PowerHost> parallelHosts = createHosts(13);
+		PowerVmAllocationPolicyMigrationAbstract parallel = factory.apply(parallelHosts);
+		parallel.setParallelHostEvaluation(true);
+
+		List<PowerHost> expectedHosts = sequential.getOverUtilizedHosts();
+		List<PowerHost> hosts = parallel.getOverUtilizedHosts();
+		assertFalse(expectedHosts.isEmpty());
+		assertEquals(hostIds(expectedHosts), hostIds(hosts));
+
+		List<GuestEntity> expectedVms = sequential.getVmsToMigrateFromHosts(expectedHosts);
+		List<GuestEntity> vms = parallel.getVmsToMigrateFromHosts(hosts);
+		assertFalse(expectedVms.isEmpty());
+		assertEquals(ids(expectedVms), ids(vms));
+
+		for (int i = 0; i < sequentialHosts.size(); i++) {
+			assertEquals(ids(sequentialHosts.get(i).getGuestList()), ids(parallelHosts.get(i).getGuestList()));
+			assertEquals(sequential.getMetricHistory(i), parallel.getMetricHistory(i));
+			assertEquals(sequential.getTimeHistory(i), parallel.getTimeHistory(i));
+		}
+	}
+
+	private static List<Integer> ids(List<? extends GuestEntity> vms) {
+		List<Integer> ids = new ArrayList<>();
+		for (GuestEntity vm : vms) {
+			ids.add(vm.getId());
+		}
+		return ids;
+	}
+
+	private static List<Integer> hostIds(List<PowerHost> hosts) {
+		List<Integer> ids = new ArrayList<>();
+		for (PowerHost host : hosts) {
+			ids.add(host.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	public void testMedianAbsoluteDeviation() {
+		assertSameAsSequential(hosts -> new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 2.5, createFallback(hosts)));
+	}
+
+	@Test
+	public void testLocalRegression() {
+		assertSameAsSequential(hosts -> new PowerVmAllocationPolicyMigrationLocalRegression(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 1.2, 300, createFallback(hosts)));
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.selectionPolicies.SelectionPolicyMinimumMigrationTime;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the policies evaluating a host with a candidate VM without placing it give the same
+ * answer as when the VM is created and destroyed, and leave the host untouched.
+ */
+public class PowerVmAllocationPolicyProjectionTest extends PowerPolicyTestFixture {
+
+	private final Random random = new Random(11);
+
+	private int nextVmId = 0;
+
+	private PowerVm createVm() {
+		double mips = 250 * (1 + random.nextInt(8));
+		PowerVm vm = createVm(nextVmId++, mips, 128 * (1 + random.nextInt(8)));
+		addUtilizationHistory(vm, random);
+		return vm;
+	}
+
+	private List<PowerHost> createHosts() {
+		List<PowerHost> hosts = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			hosts.add(createHost(i, 1 + random.nextInt(4), 2000, 4096, new PowerModelLinear(200, 0.7), i % 2 != 0));
+		}
+
+		for (PowerHost host : hosts) {
+			int vms = random.nextInt(5);
+			for (int j = 0; j < vms; j++) {
+				host.guestCreate(createVm());
+			}
+		}
+		return hosts;
+	}
+
+	private void assertSameAsTrialAllocation(PowerVmAllocationPolicyMigrationAbstract policy, List<PowerHost> hosts) {
+		int overUtilized = 0;
+		int checks = 0;
+		for (PowerHost host : hosts) {
+			for (int i = 0; i < 10; i++) {
+				PowerVm vm = createVm();
+
+				boolean expected = true;
+				if (host.guestCreate(vm)) {
+					expected = policy.isHostOverUtilized(host);
+					host.guestDestroy(vm);
+				}
+
+				int guests = host.getGuestList().size();
+				int availableRam = host.getGuestRamProvisioner().getAvailableRam();
+				long availableBw = host.getGuestBwProvisioner().getAvailableBw();
+				double availableMips = host.getGuestScheduler().getAvailableMips();
+				long storage = host.getStorage();
+
+				assertEquals(expected, policy.isHostOverUtilizedAfterAllocation(host, vm),
+						"host #" + host.getId() + ", VM #" + vm.getId());
+
+				assertEquals(guests, host.getGuestList().size());
+				assertEquals(availableRam, host.getGuestRamProvisioner().getAvailableRam());
+				assertEquals(availableBw, host.getGuestBwProvisioner().getAvailableBw());
+				assertEquals(availableMips, host.getGuestScheduler().getAvailableMips(), 0);
+				assertEquals(storage, host.getStorage());
+				assertNull(vm.getHost());
+
+				overUtilized += expected ? 1 : 0;
+				checks++;
+			}
+		}
+
+		// both answers have been checked
+		assertTrue(overUtilized > 0 && overUtilized < checks, overUtilized + " over-utilized out of " + checks);
+	}
+
+	@Test
+	public void testStaticThreshold() {
+		List<PowerHost> hosts = createHosts();
+		assertSameAsTrialAllocation(new PowerVmAllocationPolicyMigrationStaticThreshold(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 0.8), hosts);
+	}
+
+	@Test
+	public void testInterQuartileRange() {
+		List<PowerHost> hosts = createHosts();
+		assertSameAsTrialAllocation(new PowerVmAllocationPolicyMigrationInterQuartileRange(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 1.5, createFallback(hosts)), hosts);
+	}
+
+	@Test
+	public void testMedianAbsoluteDeviation() {
+		List<PowerHost> hosts = createHosts();
+		assertSameAsTrialAllocation(new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 2.5, createFallback(hosts)), hosts);
+	}
+
+	@Test
+	public void testLocalRegression() {
+		List<PowerHost> hosts = createHosts();
+		assertSameAsTrialAllocation(new PowerVmAllocationPolicyMigrationLocalRegression(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 1.2, 300, createFallback(hosts)), hosts);
+	}
+
+	@Test
+	public void testLocalRegressionRobust() {
+		List<PowerHost> hosts = createHosts();
+		assertSameAsTrialAllocation(new PowerVmAllocationPolicyMigrationLocalRegressionRobust(hosts,
+				new SelectionPolicyMinimumMigrationTime<>(), 1.2, 300, createFallback(hosts)), hosts);
+	}
+}
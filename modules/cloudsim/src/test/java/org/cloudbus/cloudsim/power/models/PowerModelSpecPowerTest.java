@@ -0,0 +1,94 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that the power tables of the SPECpower models give the same values as interpolating
+ * between the power data on each call.
+ */
+public class PowerModelSpecPowerTest {
+
+	private static final PowerModelSpecPower[] MODELS = {
+			new PowerModelSpecPowerHpProLiantMl110G3PentiumD930(),
+			new PowerModelSpecPowerHpProLiantMl110G4Xeon3040(),
+			new PowerModelSpecPowerHpProLiantMl110G5Xeon3075(),
+			new PowerModelSpecPowerIbmX3250XeonX3470(),
+			new PowerModelSpecPowerIbmX3250XeonX3480(),
+			new PowerModelSpecPowerIbmX3550XeonX5670(),
+			new PowerModelSpecPowerIbmX3550XeonX5675() };
+
+	/**
+	 * Interpolates as the power models did before having a power table.
+	 */
+	private static double interpolate(PowerModelSpecPower model, double utilization) {
+		if (utilization % 0.1 == 0) {
+			return model.getPowerData((int) (utilization * 10));
+		}
+		int utilization1 = (int) Math.floor(utilization * 10);
+		int utilization2 = (int) Math.ceil(utilization * 10);
+		double power1 = model.getPowerData(utilization1);
+		double power2 = model.getPowerData(utilization2);
+		double delta = (power2 - power1) / 10;
+		return power1 + delta * (utilization - (double) utilization1 / 10) * 100;
+	}
+
+	private static double[] utilizations() {
+		Random random = new Random(5);
+		double[] utilizations = new double[10000];
+		for (int i = 0; i < 101; i++) {
+			utilizations[i] = i / 100.0;
+		}
+		utilizations[101] = Math.nextDown(1.0);
+		utilizations[102] = Double.MIN_VALUE;
+		for (int i = 103; i < utilizations.length; i++) {
+			utilizations[i] = random.nextDouble();
+		}
+		return utilizations;
+	}
+
+	@Test
+	public void testGetPower() {
+		for (PowerModelSpecPower model : MODELS) {
+			for (double utilization : utilizations()) {
+				assertEquals(interpolate(model, utilization), model.getPower(utilization), 0,
+						model.getClass().getSimpleName() + " at " + utilization);
+			}
+		}
+	}
+
+	@Test
+	public void testGetPowerBatch() {
+		double[] utilizations = utilizations();
+		for (PowerModelSpecPower model : MODELS) {
+			double[] expected = new double[utilizations.length];
+			for (int i = 0; i < utilizations.length; i++) {
+				expected[i] = model.getPower(utilizations[i]);
+			}
+			double[] powers = new double[utilizations.length];
+			model.getPower(utilizations, powers);
+			assertArrayEquals(expected, powers, 0);
+		}
+	}
+
+	@Test
+	public void testGetPowerBatchArgumentOutOfRange() {
+		double[] powers = new double[3];
+		assertThrows(IllegalArgumentException.class, () -> MODELS[0].getPower(new double[] { 0.5, 1.5, 0 }, powers));
+		assertThrows(IllegalArgumentException.class, () -> MODELS[0].getPower(new double[] { -0.5 }, powers));
+	}
+
+}
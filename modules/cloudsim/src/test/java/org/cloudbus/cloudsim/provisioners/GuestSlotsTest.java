@@ -0,0 +1,222 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2024, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.provisioners;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Vm;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the guest slots stay dense while guests come and go, and that the provisioners
+ * keeping their allocations by slot allocate as maps keyed by uid under random churn.
+ */
+public class GuestSlotsTest {
+
+	private static final int RAM = 4096;
+
+	private static final long BW = 10000;
+
+	private static final double MIPS = 1000;
+
+	@Test
+	public void testProvisionersUnderChurn() {
+		Random random = new Random(3);
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			// the same ids for several users
+			vms.add(new Vm(i % 20, i / 20, MIPS, 2, 100 + 10 * i, 100 + i, 0, "", null));
+		}
+		RamProvisionerSimple ramProvisioner = new RamProvisionerSimple(RAM);
+		BwProvisionerSimple bwProvisioner = new BwProvisionerSimple(BW);
+		PeProvisionerSimple peProvisioner = new PeProvisionerSimple(MIPS);
+
+		// the expected allocations, by uid
+		Map<String, Integer> ramTable = new HashMap<>();
+		Map<String, Long> bwTable = new HashMap<>();
+		Map<String, List<Double>> peTable = new HashMap<>();
+		int availableRam = RAM;
+		long availableBw = BW;
+		double availableMips = MIPS;
+
+		for (int i = 0; i < 20000; i++) {
+			Vm vm = vms.get(random.nextInt(vms.size()));
+			String uid = vm.getUid();
+			int operation = random.nextInt(10);
+			if (operation < 3) {
+				int ram = Math.min(random.nextInt(400), vm.getRam());
+				int freeRam = availableRam + ramTable.getOrDefault(uid, 0);
+				assertEquals(freeRam >= ram, ramProvisioner.isSuitableForGuest(vm, ram));
+				assertEquals(freeRam >= ram, ramProvisioner.allocateRamForGuest(vm, ram));
+				availableRam += ramTable.getOrDefault(uid, 0);
+				ramTable.remove(uid);
+				if (availableRam >= ram) {
+					availableRam -= ram;
+					ramTable.put(uid, ram);
+				}
+
+				long bw = random.nextInt(500);
+				long freeBw = availableBw + bwTable.getOrDefault(uid, 0L);
+				assertEquals(freeBw >= bw, bwProvisioner.allocateBwForGuest(vm, bw));
+				if (freeBw >= bw) {
+					availableBw = freeBw - bw;
+					bwTable.put(uid, bw);
+				}
+			} else if (operation < 6) {
+				List<Double> mips = operation < 5
+						? List.of((double) random.nextInt(100))
+						: List.of((double) random.nextInt(100), (double) random.nextInt(100));
+				boolean allocated;
+				if (operation == 5) {
+					allocated = peProvisioner.allocateMipsForGuest(vm, mips);
+					for (double released : peTable.getOrDefault(uid, List.of())) {
+						availableMips += released;
+					}
+					peTable.remove(uid);
+				} else if (random.nextBoolean()) {
+					allocated = peProvisioner.allocateMipsForGuest(vm, mips.get(0));
+				} else {
+					allocated = peProvisioner.allocateMipsForGuest(uid, mips.get(0));
+				}
+				boolean expected = true;
+				for (double m : mips) {
+					if (availableMips < m) {
+						expected = false;
+						break;
+					}
+					peTable.computeIfAbsent(uid, k -> new ArrayList<>()).add(m);
+					availableMips -= m;
+				}
+				assertEquals(expected, allocated);
+			} else if (operation < 9) {
+				ramProvisioner.deallocateRamForGuest(vm);
+				bwProvisioner.deallocateBwForGuest(vm);
+				peProvisioner.deallocateMipsForGuest(vm);
+				availableRam += ramTable.getOrDefault(uid, 0);
+				ramTable.remove(uid);
+				availableBw += bwTable.getOrDefault(uid, 0L);
+				bwTable.remove(uid);
+				for (double released : peTable.getOrDefault(uid, List.of())) {
+					availableMips += released;
+				}
+				peTable.remove(uid);
+			} else if (random.nextInt(50) == 0) {
+				ramProvisioner.deallocateRamForAllGuests();
+				bwProvisioner.deallocateBwForAllGuests();
+				peProvisioner.deallocateMipsForAllGuests();
+				ramTable.clear();
+				bwTable.clear();
+				peTable.clear();
+				availableRam = RAM;
+				availableBw = BW;
+				availableMips = MIPS;
+			}
+
+			assertEquals(availableRam, ramProvisioner.getAvailableRam());
+			assertEquals(availableBw, bwProvisioner.getAvailableBw());
+			assertEquals(availableMips, peProvisioner.getAvailableMips(), 0);
+			assertEquals(ramTable, ramProvisioner.getRamTable());
+			assertEquals(bwTable, bwProvisioner.getBwTable());
+			assertEquals(peTable, peProvisioner.getPeTable());
+			for (Vm guest : vms) {
+				String guestUid = guest.getUid();
+				List<Double> mips = peTable.get(guestUid);
+				assertEquals((long) ramTable.getOrDefault(guestUid, 0), ramProvisioner.getAllocatedRamForGuest(guest));
+				assertEquals((long) bwTable.getOrDefault(guestUid, 0L), bwProvisioner.getAllocatedBwForGuest(guest));
+				assertEquals(mips, peProvisioner.getAllocatedMipsForGuest(guest));
+				double totalMips = 0;
+				for (double m : mips == null ? List.<Double>of() : mips) {
+					totalMips += m;
+				}
+				assertEquals(totalMips, peProvisioner.getTotalAllocatedMipsForGuest(guest), 0);
+				assertEquals(mips != null && mips.size() > 1 ? mips.get(1) : 0,
+						peProvisioner.getAllocatedMipsForGuestByVirtualPeId(guest, 1), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testGuestSlots() {
+		GuestSlots slots = new GuestSlots();
+		List<Vm> vms = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			vms.add(new Vm(i, i % 3 - 1, MIPS, 1, 0, 0, 0, "", null));
+		}
+		for (Vm vm : vms) {
+			assertEquals(-1, slots.get(vm));
+			slots.assign(vm);
+		}
+		assertEquals(100, slots.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i, slots.get(vms.get(i)));
+			assertEquals(i, slots.get(vms.get(i).getUid()));
+		}
+
+		// the released slots are reused, the others kept
+		for (int i = 0; i < 100; i += 2) {
+			assertEquals(i, slots.release(vms.get(i)));
+		}
+		assertEquals(-1, slots.release(vms.get(0)));
+		for (int i = 1; i < 100; i += 2) {
+			assertEquals(i, slots.get(vms.get(i)));
+		}
+		for (int i = 0; i < 100; i += 2) {
+			assertTrue(slots.assign(vms.get(i)) < 100);
+		}
+		assertEquals(100, slots.getSlotCount());
+
+		slots.clear();
+		assertEquals(0, slots.size());
+		assertEquals(-1, slots.get(vms.get(1)));
+		assertNull(new PeProvisionerSimple(MIPS).getAllocatedMipsForGuest(vms.get(1)));
+	}
+
+	@Test
+	public void testSetTables() {
+		// a negative user id, as the uid of the guests of an unknown user
+		Vm vm = new Vm(7, -1, MIPS, 2, 512, 100, 0, "", null);
+		Vm other = new Vm(8, 0, MIPS, 1, 512, 100, 0, "", null);
+
+		RamProvisionerSimple ramProvisioner = new RamProvisionerSimple(RAM);
+		ramProvisioner.allocateRamForGuest(other, 256);
+		Map<String, Integer> ramTable = new HashMap<>();
+		ramTable.put(vm.getUid(), 128);
+		ramProvisioner.setRamTable(ramTable);
+		assertEquals(ramTable, ramProvisioner.getRamTable());
+		assertEquals(128, ramProvisioner.getAllocatedRamForGuest(vm));
+		assertEquals(0, ramProvisioner.getAllocatedRamForGuest(other));
+		// the available RAM is left as it was
+		assertEquals(RAM - 256, ramProvisioner.getAvailableRam());
+
+		BwProvisionerSimple bwProvisioner = new BwProvisionerSimple(BW);
+		Map<String, Long> bwTable = new HashMap<>();
+		bwTable.put(vm.getUid(), 50L);
+		bwProvisioner.setBwTable(bwTable);
+		assertEquals(bwTable, bwProvisioner.getBwTable());
+		assertEquals(50, bwProvisioner.getAllocatedBwForGuest(vm));
+
+		PeProvisionerSimple peProvisioner = new PeProvisionerSimple(MIPS);
+		peProvisioner.allocateMipsForGuest(other, 300);
+		Map<String, List<Double>> peTable = new HashMap<>();
+		peTable.put(vm.getUid(), List.of(100.0, 200.0));
+		peProvisioner.setPeTable(peTable);
+		assertEquals(peTable, peProvisioner.getPeTable());
+		assertEquals(300, peProvisioner.getTotalAllocatedMipsForGuest(vm), 0);
+		assertNull(peProvisioner.getAllocatedMipsForGuest(other));
+		assertEquals(MIPS - 300, peProvisioner.getAvailableMips(), 0);
+	}
+}
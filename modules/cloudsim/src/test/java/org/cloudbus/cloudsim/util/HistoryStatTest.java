@@ -10,6 +10,7 @@ import java.util.Random;
 
 import static org.cloudbus.cloudsim.core.PowerGuestEntity.HISTORY_LENGTH;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HistoryStatTest {
     HistoryStat stat;
@@ -30,6 +31,7 @@ public class HistoryStatTest {
     @Test
     public void testSimple() {
         assertEquals(0.0, stat.getMedian(), 0);
+        assertEquals(0.0, stat.getMad(), 0);
         stat.offer(10.0);
         assertEquals(10.0, stat.getMedian(), 0);
         stat.offer(20.0);
@@ -51,6 +53,44 @@ public class HistoryStatTest {
         }
     }
 
+    @Test
+    public void testOrderStatistics() {
+        Random gen = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            // few distinct values, so that ties and deviations equal to zero are checked too
+            double val = i % 3 == 0 ? gen.nextInt(5) / 4.0 : gen.nextDouble();
+            stat.offer(val);
+            addUtilizationHistoryValue(history, val);
+            double[] data = MathUtil.listToArray(history);
+
+            assertEquals(MathUtil.median(data), stat.getMedian(), 0);
+            assertEquals(MathUtil.mad(data), stat.getMad(), 0);
+        }
+    }
+
+    @Test
+    public void testArrivalOrder() {
+        for (int i = 0; i < HISTORY_LENGTH + 5; i++) {
+            stat.offer(i);
+        }
+
+        assertEquals(HISTORY_LENGTH, stat.size());
+        assertEquals(5.0, stat.get(0), 0);
+        assertEquals(HISTORY_LENGTH + 4.0, stat.get(HISTORY_LENGTH - 1), 0);
+
+        double[] values = stat.toArray();
+        int[] i = {0};
+        stat.forEach(val -> {
+            assertEquals(values[i[0]], val, 0);
+            assertEquals(stat.get(i[0]++), val, 0);
+        });
+        assertEquals(HISTORY_LENGTH, i[0]);
+
+        stat.clear();
+        assertTrue(stat.isEmpty());
+        assertEquals(0.0, stat.getMedian(), 0);
+    }
+
     @Test
     public void testCompared() {
         Random gen = new Random();
@@ -1,10 +1,12 @@
 package org.cloudbus.cloudsim.util;
 
 
+import org.apache.commons.math3.stat.regression.SimpleRegression;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -70,4 +72,54 @@ public class MathUtilTest {
 		assertEquals(SUM1 / 10, MathUtil.sum(data2), 0);
 	}
 
+	@Test
+	public void testLoessParameterEstimates() {
+		Random random = new Random(3);
+		for (int n = 3; n <= 30; n++) {
+			for (int t = 0; t < 50; t++) {
+				double[] y = new double[n];
+				for (int i = 0; i < n; i++) {
+					y[i] = t % 5 == 0 ? 0.5 : random.nextDouble() * (t % 2 == 0 ? 1 : 1000);
+				}
+				assertArrayEquals(getLoessParameterEstimatesByRegression(y), MathUtil.getLoessParameterEstimates(y), 0);
+				assertArrayEquals(getRobustLoessParameterEstimatesByRegression(y),
+						MathUtil.getRobustLoessParameterEstimates(y), 0);
+			}
+		}
+	}
+
+	/**
+	 * The Loess estimates, from the weighted regression.
+	 */
+	private static double[] getLoessParameterEstimatesByRegression(double[] y) {
+		return MathUtil.createWeigthedLinearRegression(getX(y.length), y, MathUtil.getTricubeWeigts(y.length))
+				.regress().getParameterEstimates();
+	}
+
+	/**
+	 * The robust Loess estimates, from the regression re-weighted by the residuals.
+	 */
+	private static double[] getRobustLoessParameterEstimatesByRegression(double[] y) {
+		double[] x = getX(y.length);
+		SimpleRegression tricubeRegression = MathUtil.createWeigthedLinearRegression(x, y,
+				MathUtil.getTricubeWeigts(y.length));
+		double[] residuals = new double[y.length];
+		for (int i = 0; i < y.length; i++) {
+			residuals[i] = y[i] - tricubeRegression.predict(x[i]);
+		}
+		double[] estimates = MathUtil.createWeigthedLinearRegression(x, y, MathUtil.getTricubeBisquareWeigts(residuals))
+				.regress().getParameterEstimates();
+		if (Double.isNaN(estimates[0]) || Double.isNaN(estimates[1])) {
+			return tricubeRegression.regress().getParameterEstimates();
+		}
+		return estimates;
+	}
+
+	private static double[] getX(int n) {
+		double[] x = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = i + 1;
+		}
+		return x;
+	}
 }
@@ -0,0 +1,100 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationModelPlanetLabMapped;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PlanetLabTraceStoreTest {
+
+	private static final double SCHEDULING_INTERVAL = 300;
+
+	private static final String FILE = "146-179_surfsnel_dsl_internl_net_colostate_557.dat";
+
+	@TempDir
+	Path folder;
+
+	private Path workload;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		workload = Files.createDirectory(folder.resolve("workload"));
+		Path trace = Path.of(getClass().getClassLoader().getResource(FILE).toURI());
+		Files.copy(trace, workload.resolve(FILE));
+		// a second trace, holding the samples of the first one in reverse order
+		List<String> lines = new ArrayList<>(Files.readAllLines(trace).subList(0, 288));
+		Collections.reverse(lines);
+		Files.write(workload.resolve("reversed.dat"), lines);
+	}
+
+	private PlanetLabTraceStore convert(PlanetLabTraceStore.SampleFormat format) throws IOException {
+		String path = folder.resolve("workload.trace").toString();
+		PlanetLabTraceStore.convert(workload.toString(), path, 289, format);
+		return PlanetLabTraceStore.open(path);
+	}
+
+	private void assertSameUtilization(PlanetLabTraceStore store) throws IOException {
+		for (String name : store.getTraceNames()) {
+			UtilizationModelPlanetLabInMemory expected = new UtilizationModelPlanetLabInMemory(
+					new File(workload.toFile(), name).getPath(), SCHEDULING_INTERVAL);
+			UtilizationModelPlanetLabMapped model = new UtilizationModelPlanetLabMapped(store, name, SCHEDULING_INTERVAL);
+			for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += SCHEDULING_INTERVAL / 4) {
+				assertEquals(expected.getUtilization(time), model.getUtilization(time), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testShortFormat() throws IOException {
+		PlanetLabTraceStore store = convert(PlanetLabTraceStore.SampleFormat.SHORT);
+		assertEquals(PlanetLabTraceStore.SampleFormat.SHORT, store.getFormat());
+		assertEquals(2, store.getNumberOfTraces());
+		assertEquals(289, store.getNumberOfSamples());
+		assertSameUtilization(store);
+	}
+
+	@Test
+	public void testFloatFormat() throws IOException {
+		PlanetLabTraceStore store = convert(PlanetLabTraceStore.SampleFormat.FLOAT);
+		assertEquals(PlanetLabTraceStore.SampleFormat.FLOAT, store.getFormat());
+		assertSameUtilization(store);
+	}
+
+	@Test
+	public void testTraceLookup() throws IOException {
+		PlanetLabTraceStore store = convert(PlanetLabTraceStore.SampleFormat.SHORT);
+		int trace = store.getTraceIndex(FILE);
+		assertEquals(0.24, store.getUtilization(trace, 0), 0);
+		assertEquals(0.51, store.getUtilization(trace, 287), 0);
+		assertEquals(0.51, store.getUtilization(trace, 288), 0);
+		assertEquals(-1, store.getTraceIndex("missing.dat"));
+		assertThrows(IllegalArgumentException.class,
+				() -> new UtilizationModelPlanetLabMapped(store, "missing.dat", SCHEDULING_INTERVAL));
+		assertThrows(IndexOutOfBoundsException.class, () -> store.getUtilization(trace, 289));
+	}
+
+	@Test
+	public void testNotAStore() {
+		assertThrows(IOException.class, () -> PlanetLabTraceStore.open(workload.resolve(FILE).toString()));
+	}
+}
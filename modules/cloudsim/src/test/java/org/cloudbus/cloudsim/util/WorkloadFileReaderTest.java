@@ -2,10 +2,17 @@ package org.cloudbus.cloudsim.util;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -43,4 +50,79 @@ public class WorkloadFileReaderTest {
 	    assertTrue(cloudlet.getCloudletLength() > 0);
 	}
     }
+
+    private static final String LCG = "src" + File.separator + "test" + File.separator + "LCG.swf.gz";
+
+    private static void assertSameCloudlets(List<Cloudlet> expected, List<Cloudlet> actual) {
+	assertEquals(expected.size(), actual.size());
+	for (int i = 0; i < expected.size(); i++) {
+	    assertEquals(expected.get(i).getCloudletId(), actual.get(i).getCloudletId());
+	    assertEquals(expected.get(i).getCloudletLength(), actual.get(i).getCloudletLength());
+	    assertEquals(expected.get(i).getNumberOfPes(), actual.get(i).getNumberOfPes());
+	}
+    }
+
+    @Test
+    public void stream() throws IOException {
+	List<Cloudlet> expected = new WorkloadFileReader(LCG, 1).generateWorkload();
+	try (Stream<Cloudlet> cloudlets = new WorkloadFileReader(LCG, 1).stream()) {
+	    assertSameCloudlets(expected, cloudlets.toList());
+	}
+
+	try (Stream<WorkloadFileReader.Job> jobs = new WorkloadFileReader(LCG, 1).streamJobs()) {
+	    long previous = -1;
+	    for (WorkloadFileReader.Job job : (Iterable<WorkloadFileReader.Job>) jobs::iterator) {
+		assertTrue(job.submitTime() >= previous);
+		previous = job.submitTime();
+	    }
+	}
+    }
+
+    @Test
+    public void parallelParsing(@TempDir Path folder) throws IOException {
+	Path trace = folder.resolve("LCG.swf");
+	try (InputStream input = new GZIPInputStream(Files.newInputStream(Path.of(LCG)))) {
+	    Files.copy(input, trace);
+	}
+
+	WorkloadFileReader reader = new WorkloadFileReader(trace.toString(), 1);
+	reader.setParallelParsing(true);
+	List<Cloudlet> parallel = reader.generateWorkload();
+	assertEquals(188041, parallel.size());
+	assertSameCloudlets(new WorkloadFileReader(trace.toString(), 1).generateWorkload(), parallel);
+    }
+
+    @Test
+    public void generatedIds(@TempDir Path folder) throws IOException {
+	Path trace = folder.resolve("small.swf");
+	Files.write(trace, List.of(
+		"; a comment",
+		"  7   0  1  10  2  -1  -1  -1  -1  -1  1  3  4  -1  -1  -1  -1  -1",
+		"8\t5\t1\t0\t1\t-1\t-1\t4\t20\t-1\t1\t3\t4\t-1\t-1\t-1\t-1\t-1",
+		"9 6 1 x 1 -1 -1 1 -1 -1 1 3 4 -1 -1 -1 -1 -1",
+		"10 6 1 5 1 -1 -1 1 -1 -1 1 3 4 -1 -1 -1 -1",
+		"11 9 1 5 1 -1 -1 1 -1 -1 1 3 4 -1 -1 -1 -1 -1 -1",
+		"12 9 1 5 1 -1 -1 1 -1 -1 1 3 4 -1 -1 -1 -1 -1"));
+
+	WorkloadFileReader reader = new WorkloadFileReader(trace.toString(), 100);
+	List<Cloudlet> cloudlets = reader.generateWorkload();
+	assertEquals(3, cloudlets.size());
+	assertEquals(7, cloudlets.get(0).getCloudletId());
+	assertEquals(1000, cloudlets.get(0).getCloudletLength());
+	assertEquals(2, cloudlets.get(0).getNumberOfPes());
+	// a run time of 0 is changed to 1 second, and the required processors are used if given
+	assertEquals(100, cloudlets.get(1).getCloudletLength());
+	assertEquals(4, cloudlets.get(1).getNumberOfPes());
+	assertEquals(12, cloudlets.get(2).getCloudletId());
+
+	reader = new WorkloadFileReader(trace.toString(), 100);
+	reader.setField(18, -1, 2, 4, 5);
+	try (Stream<WorkloadFileReader.Job> jobs = reader.streamJobs()) {
+	    List<WorkloadFileReader.Job> list = jobs.toList();
+	    assertEquals(3, list.size());
+	    assertEquals(1, list.get(0).cloudlet().getCloudletId());
+	    assertEquals(3, list.get(2).cloudlet().getCloudletId());
+	    assertEquals(9, list.get(2).submitTime());
+	}
+    }
 }